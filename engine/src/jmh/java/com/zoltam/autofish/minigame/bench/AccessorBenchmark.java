@@ -0,0 +1,61 @@
+package com.zoltam.autofish.minigame.bench;
+
+import com.zoltam.autofish.util.Accessor;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One getter read through a candidate name list: the old per-call getMethod/setAccessible/invoke
+ * loop against {@link Accessor} (a static constant) and {@link Accessor#invokeAny} (cached by names).
+ * "Hit" resolves on the last name, "miss" has none of them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AccessorBenchmark {
+    public static class FakeOverlayPacket {
+        private final String message;
+        public FakeOverlayPacket(String message) { this.message = message; }
+        public String text() { return message; }
+    }
+
+    public static class FakeOtherPacket {}
+
+    private static final String[] NAMES = {"content", "getContent", "text"};
+    private static final Accessor TEXT = Accessor.of(NAMES);
+
+    private final Object hit = new FakeOverlayPacket("Caught!");
+    private final Object miss = new FakeOtherPacket();
+
+    @Benchmark
+    public Object reflectiveHit() { return reflectiveInvokeAny(hit, NAMES); }
+
+    @Benchmark
+    public Object reflectiveMiss() { return reflectiveInvokeAny(miss, NAMES); }
+
+    @Benchmark
+    public Object accessorHit() { return TEXT.get(hit); }
+
+    @Benchmark
+    public Object accessorMiss() { return TEXT.get(miss); }
+
+    @Benchmark
+    public Object invokeAnyHit() { return Accessor.invokeAny(hit, "content", "getContent", "text"); }
+
+    @Benchmark
+    public Object invokeAnyMiss() { return Accessor.invokeAny(miss, "content", "getContent", "text"); }
+
+    /** The helper the modules used to carry. */
+    private static Object reflectiveInvokeAny(Object target, String... names) {
+        for (String n : names) {
+            try {
+                Method m = target.getClass().getMethod(n);
+                m.setAccessible(true);
+                return m.invoke(target);
+            } catch (Throwable ignored) {}
+        }
+        return null;
+    }
+}
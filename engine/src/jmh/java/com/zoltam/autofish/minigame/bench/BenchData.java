@@ -0,0 +1,85 @@
+package com.zoltam.autofish.minigame.bench;
+
+import com.zoltam.autofish.minigame.Track;
+import com.zoltam.autofish.minigame.TrainingSample;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeded synthetic inputs shaped like real sessions: a ~60 s minigame at 20 tps,
+ * four to six ItemDisplays, a bobber that flies, settles and bobs.
+ */
+final class BenchData {
+    static final long SEED = 42L;
+    /** Ticks in a typical minigame session. */
+    static final int SESSION_TICKS = 1200;
+
+    private BenchData() {}
+
+    /** Fish moves on a sinusoid plus noise, box follows with lag. Returns {fish[], box[]}. */
+    static double[][] positions(int n, long seed) {
+        Random rng = new Random(seed);
+        double[] fish = new double[n], box = new double[n];
+        double b = 0.0;
+        for (int i = 0; i < n; i++) {
+            double f = 0.12 * Math.sin(i * 0.07) + 0.01 * rng.nextGaussian();
+            b += 0.3 * (f - b) + 0.004 * rng.nextGaussian();
+            fish[i] = f; box[i] = b;
+        }
+        return new double[][]{fish, box};
+    }
+
+    /**
+     * Tracks as seen {@code observed} ticks after the displays spawned: two still backgrounds high up,
+     * a still box and a moving fish at the bottom, plus {@code extra} decorative displays.
+     */
+    static List<Track> tracks(int observed, int extra, long seed) {
+        Random rng = new Random(seed);
+        List<Track> out = new ArrayList<>();
+        out.add(new Track(100, 65.2, 0.60, 0));
+        out.add(new Track(101, 65.0, 0.40, 0));
+        out.add(new Track(102, 64.0, 0.00, 0)); // box
+        out.add(new Track(103, 64.1, 0.05, 0)); // fish
+        for (int e = 0; e < extra; e++) out.add(new Track(200 + e, 65.5 + e * 0.1, 0.8 + e * 0.05, 0));
+        for (int t = 1; t <= observed; t++) {
+            for (Track tr : out) {
+                double local = tr.lastLocalY;
+                if (tr.id == 103) local = 0.05 + 0.15 * Math.sin(t * 0.4);
+                else local += 0.001 * rng.nextGaussian();
+                tr.update(tr.lastWorldY, local, t);
+            }
+        }
+        return out;
+    }
+
+    /** Bobber Y: thrown up, falls, lands on the surface at 62.9 and bobs, with a bite tug every ~200 samples. */
+    static double[] bobber(int n, long seed) {
+        Random rng = new Random(seed);
+        double[] y = new double[n];
+        double vy = 0.35, pos = 64.0;
+        for (int i = 0; i < n; i++) {
+            if (pos > 62.9) { pos += vy; vy -= 0.04; }
+            else { pos = 62.9 + 0.01 * Math.sin(i * 0.5) + 0.002 * rng.nextGaussian(); }
+            if (i % 200 == 199) pos -= 0.3;
+            y[i] = pos;
+        }
+        return y;
+    }
+
+    /** Manual-play rows: sneak held mostly when the fish is above the box and rising. */
+    static List<TrainingSample> samples(int n, long seed) {
+        Random rng = new Random(seed);
+        double[][] p = positions(n + 1, seed);
+        List<TrainingSample> out = new ArrayList<>(n);
+        for (int i = 1; i <= n; i++) {
+            double diff = p[0][i] - p[1][i];
+            double fv = p[0][i] - p[0][i - 1];
+            double bv = p[1][i] - p[1][i - 1];
+            int shift = (diff + 0.5 * fv + 0.02 * rng.nextGaussian()) > 0 ? 1 : 0;
+            out.add(new TrainingSample(diff, fv, bv, shift));
+        }
+        return out;
+    }
+}
@@ -0,0 +1,36 @@
+package com.zoltam.autofish.minigame.bench;
+
+import com.zoltam.autofish.minigame.BiteDetector;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/** detectBite / bobberLooksSettled: run every FSM step while waiting for a bite. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BiteBenchmark {
+    private double[] ys;
+    private BiteDetector bite;
+    private int i;
+
+    @Setup
+    public void setup() {
+        ys = BenchData.bobber(BenchData.SESSION_TICKS, BenchData.SEED);
+        bite = new BiteDetector();
+        for (int k = 0; k < BiteDetector.HISTORY; k++) bite.push(ys[k]);
+    }
+
+    @Benchmark
+    public void pushAndDetect(Blackhole bh) {
+        bite.push(ys[i++ % ys.length]);
+        bh.consume(bite.detect(() -> false));
+    }
+
+    @Benchmark
+    public void pushAndLooksSettled(Blackhole bh) {
+        bite.push(ys[i++ % ys.length]);
+        bh.consume(bite.looksSettled());
+    }
+}
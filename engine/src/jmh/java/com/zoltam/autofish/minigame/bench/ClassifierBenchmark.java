@@ -0,0 +1,38 @@
+package com.zoltam.autofish.minigame.bench;
+
+import com.zoltam.autofish.minigame.MinigameClassifier;
+import com.zoltam.autofish.minigame.Track;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** fastClassify: runs every tick from session start until BOX and FISH are assigned. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ClassifierBenchmark {
+    /** Decorative displays on top of the four minigame ones. */
+    @Param({"0", "4"})
+    int extra;
+
+    private List<Track> tracks;
+    private List<Track> early;
+
+    @Setup
+    public void setup() {
+        tracks = BenchData.tracks(MinigameClassifier.CLASSIFY_MIN + 2, extra, BenchData.SEED);
+        early = BenchData.tracks(MinigameClassifier.CLASSIFY_MIN - 2, extra, BenchData.SEED);
+    }
+
+    @Benchmark
+    public MinigameClassifier.Result classify() {
+        return MinigameClassifier.classify(tracks, MinigameClassifier.CLASSIFY_MIN + 2);
+    }
+
+    /** Not enough evidence yet: the common case during the first ticks. */
+    @Benchmark
+    public MinigameClassifier.Result classifyTooEarly() {
+        return MinigameClassifier.classify(early, MinigameClassifier.CLASSIFY_MIN - 2);
+    }
+}
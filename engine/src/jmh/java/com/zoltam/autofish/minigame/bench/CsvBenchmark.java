@@ -0,0 +1,47 @@
+package com.zoltam.autofish.minigame.bench;
+
+import com.zoltam.autofish.minigame.TrainingDataCsv;
+import com.zoltam.autofish.minigame.TrainingSample;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Training data save/load (auto_fish_training_data.csv). */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CsvBenchmark {
+    @Param({"1200", "12000"})
+    int rows;
+
+    private List<TrainingSample> data;
+    private Path saveFile, loadFile;
+
+    @Setup
+    public void setup() throws IOException {
+        data = BenchData.samples(rows, BenchData.SEED);
+        saveFile = Files.createTempFile("autofish-bench-save", ".csv");
+        loadFile = Files.createTempFile("autofish-bench-load", ".csv");
+        TrainingDataCsv.save(loadFile, data);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(saveFile);
+        Files.deleteIfExists(loadFile);
+    }
+
+    @Benchmark
+    public void save() throws IOException {
+        TrainingDataCsv.save(saveFile, data);
+    }
+
+    @Benchmark
+    public List<TrainingSample> load() throws IOException {
+        return TrainingDataCsv.load(loadFile);
+    }
+}
@@ -0,0 +1,78 @@
+package com.zoltam.autofish.minigame.bench;
+
+import com.zoltam.autofish.util.LineBuilder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One MinigameObserver TSV row, String.format vs {@link LineBuilder}.
+ * Run with the gc profiler to compare bytes allocated per row.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LineFormatBenchmark {
+    private static final int ROWS = 1024;
+
+    private final double[] boxY = new double[ROWS], fishY = new double[ROWS];
+    private final double[] boxL = new double[ROWS], fishL = new double[ROWS];
+    private final LineBuilder line = new LineBuilder();
+    private int i;
+
+    @Setup
+    public void setup() {
+        SplittableRandom rng = new SplittableRandom(BenchData.SEED);
+        for (int k = 0; k < ROWS; k++) {
+            boxY[k] = 64.0 + rng.nextDouble();
+            fishY[k] = 64.0 + rng.nextDouble();
+            boxL[k] = rng.nextDouble(-0.5, 0.5);
+            fishL[k] = rng.nextDouble(-0.5, 0.5);
+        }
+    }
+
+    @Benchmark
+    public String stringFormat() {
+        int k = next();
+        return String.format(Locale.ROOT, "%d\t%d\t%s\t%s\t%s\t%s\t%s\t%s\t%s\t%s\t%s\t%s\t%s\t%s\t%s\t%s",
+            1_700_000_000_000L + k, k, "track", "tick", "",
+            true, Integer.toString(1042), Integer.toString(1043),
+            String.format(Locale.ROOT, "%.5f", boxY[k]),
+            String.format(Locale.ROOT, "%.5f", fishY[k]),
+            String.format(Locale.ROOT, "%.5f", boxL[k]),
+            String.format(Locale.ROOT, "%.5f", fishL[k]),
+            String.format(Locale.ROOT, "%.5f", fishL[k] - boxL[k]),
+            String.format(Locale.ROOT, "%.5f", fishY[k] - boxY[k]),
+            false, "");
+    }
+
+    @Benchmark
+    public String lineBuilder() {
+        return build().toString();
+    }
+
+    /** Formatting alone, without the final String copy. */
+    @Benchmark
+    public int lineBuilderNoCopy() {
+        return build().length();
+    }
+
+    private LineBuilder build() {
+        int k = next();
+        return line.reset()
+            .append(1_700_000_000_000L + k).tab().append(k).tab().append("track").tab().append("tick").tab().tab()
+            .append(true).tab().append(1042).tab().append(1043).tab()
+            .append(boxY[k], 5).tab().append(fishY[k], 5).tab()
+            .append(boxL[k], 5).tab().append(fishL[k], 5).tab()
+            .append(fishL[k] - boxL[k], 5).tab().append(fishY[k] - boxY[k], 5).tab()
+            .append(false).tab();
+    }
+
+    private int next() {
+        int k = i;
+        i = (i + 1) & (ROWS - 1);
+        return k;
+    }
+}
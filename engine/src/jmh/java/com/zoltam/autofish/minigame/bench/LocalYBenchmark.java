@@ -0,0 +1,89 @@
+package com.zoltam.autofish.minigame.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * getLocalYFromDataTracker: reflective walk over a display's tracked data, called for every
+ * ItemDisplay in range every tick. The fakes mirror the shapes the reflection meets in game.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LocalYBenchmark {
+    // -------- Fakes shaped like DataTracker / Entry / Vector3f --------
+    public static class FakeVector {
+        public float x, y, z;
+        public FakeVector(float x, float y, float z) { this.x = x; this.y = y; this.z = z; }
+        public float x() { return x; }
+        public float y() { return y; }
+        public float z() { return z; }
+    }
+
+    public static class FakeEntry {
+        private final Object value;
+        public FakeEntry(Object value) { this.value = value; }
+        public Object getValue() { return value; }
+    }
+
+    public static class FakeTracker {
+        private final List<FakeEntry> entries;
+        public FakeTracker(List<FakeEntry> entries) { this.entries = entries; }
+        public List<FakeEntry> getAllEntries() { return entries; }
+    }
+
+    /** A tracker without any of the probed accessors (all names miss). */
+    public static class OpaqueTracker {}
+
+    public static class OpaqueDisplay {}
+
+    private FakeTracker tracker;
+    private final OpaqueTracker opaque = new OpaqueTracker();
+    private final OpaqueDisplay display = new OpaqueDisplay();
+
+    @Setup
+    public void setup() {
+        // Entity base entries, then display entries; translation sits at index 11 like DisplayEntity.TRANSLATION.
+        List<FakeEntry> entries = new ArrayList<>();
+        entries.add(new FakeEntry((byte) 0));
+        entries.add(new FakeEntry(300));
+        entries.add(new FakeEntry(Optional.empty()));
+        entries.add(new FakeEntry(false));
+        entries.add(new FakeEntry(false));
+        entries.add(new FakeEntry(false));
+        entries.add(new FakeEntry("STANDING"));
+        entries.add(new FakeEntry(0));
+        entries.add(new FakeEntry(0));
+        entries.add(new FakeEntry(3));
+        entries.add(new FakeEntry(3));
+        entries.add(new FakeEntry(new FakeVector(0.0f, 0.137f, 0.0f)));
+        entries.add(new FakeEntry(new FakeVector(1.0f, 1.0f, 1.0f)));
+        for (int k = 0; k < 10; k++) entries.add(new FakeEntry(k % 2 == 0 ? 0.0f : -1));
+        tracker = new FakeTracker(entries);
+    }
+
+    @Benchmark
+    public Double readHit() {
+        return LocalYReader.read(tracker, display);
+    }
+
+    /** Worst case: every probed accessor name misses and the reader returns null. */
+    @Benchmark
+    public Double readMiss() {
+        return LocalYReader.read(opaque, display);
+    }
+
+    @Benchmark
+    public Object invokeAnyHit() {
+        return LocalYReader.invokeAny(tracker, "getAllEntries", "getEntries", "entries");
+    }
+
+    @Benchmark
+    public Object invokeAnyMiss() {
+        return LocalYReader.invokeAny(opaque, "getAllEntries", "getEntries", "entries");
+    }
+}
@@ -0,0 +1,78 @@
+package com.zoltam.autofish.minigame.bench;
+
+import com.zoltam.autofish.util.Accessor;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * Reads the translation Y of an ItemDisplay's transformation purely by reflection, the way the
+ * modules did before the DisplayEntity accessor mixin. Kept only as {@link LocalYBenchmark}'s baseline.
+ */
+final class LocalYReader {
+    private static final Accessor ENTRIES     = Accessor.of("getAllEntries", "getEntries", "entries");
+    private static final Accessor VALUE       = Accessor.of("getValue", "value");
+    private static final Accessor TRANSFORM   = Accessor.of("getTransformation", "transformation");
+    private static final Accessor TRANSLATION = Accessor.of("getTranslation", "translation", "getPosition", "position");
+    private static final Accessor Y           = Accessor.of("y", "getY", "component1");
+
+    private LocalYReader() {}
+
+    /**
+     * Looks through the data tracker entries first, then the display's own transformation getter.
+     * Returns null when neither yields a Y.
+     */
+    public static Double read(Object dataTracker, Object display) {
+        try {
+            if (dataTracker != null) {
+                Object entries = ENTRIES.get(dataTracker);
+                if (entries instanceof Iterable<?>) {
+                    for (Object entry : (Iterable<?>) entries) {
+                        Object value = VALUE.get(entry);
+                        Double y = extractLocalYFromTransform(value);
+                        if (y != null) return y;
+                    }
+                }
+            }
+        } catch (Throwable ignored) {}
+        try {
+            if (display != null) {
+                Object transform = TRANSFORM.get(display);
+                Double y = extractLocalYFromTransform(transform);
+                if (y != null) return y;
+            }
+        } catch (Throwable ignored) {}
+        return null;
+    }
+
+    public static Double extractLocalYFromTransform(Object transform) {
+        if (transform == null) return null;
+        Double yDirect = readYComponent(transform);
+        if (yDirect != null) return yDirect;
+        Object vec = TRANSLATION.get(transform);
+        return readYComponent(vec);
+    }
+
+    private static Double readYComponent(Object o) {
+        if (o == null) return null;
+        try {
+            Object r = Y.get(o);
+            if (r instanceof Number) return ((Number) r).doubleValue();
+        } catch (Throwable ignored) {}
+        try {
+            Field f = o.getClass().getField("y");
+            Object v = f.get(o);
+            if (v instanceof Number) return ((Number) v).doubleValue();
+        } catch (Throwable ignored) {}
+        try {
+            Method m = o.getClass().getMethod("get", int.class);
+            Object v = m.invoke(o, 1);
+            if (v instanceof Number) return ((Number) v).doubleValue();
+        } catch (Throwable ignored) {}
+        return null;
+    }
+
+    public static Object invokeAny(Object target, String... names) {
+        return Accessor.invokeAny(target, names);
+    }
+}
@@ -0,0 +1,42 @@
+package com.zoltam.autofish.minigame.bench;
+
+import com.zoltam.autofish.minigame.DecisionTreeModel;
+import com.zoltam.autofish.minigame.LogisticRegressionModel;
+import com.zoltam.autofish.minigame.TrainedModel;
+import com.zoltam.autofish.minigame.TrainingSample;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Per-tick model inference. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ModelBenchmark {
+    private final TrainedModel logistic = LogisticRegressionModel.DEFAULT;
+    private final TrainedModel tree = new DecisionTreeModel(0.01, 0.002, 0.7);
+    private double[] diff, fishVel, boxVel;
+    private int i;
+
+    @Setup
+    public void setup() {
+        List<TrainingSample> s = BenchData.samples(BenchData.SESSION_TICKS, BenchData.SEED);
+        diff = new double[s.size()]; fishVel = new double[s.size()]; boxVel = new double[s.size()];
+        for (int k = 0; k < s.size(); k++) {
+            diff[k] = s.get(k).diff(); fishVel[k] = s.get(k).fishVel(); boxVel[k] = s.get(k).boxVel();
+        }
+    }
+
+    @Benchmark
+    public boolean logisticPredict() {
+        int k = i++ % diff.length;
+        return logistic.predict(diff[k], fishVel[k], boxVel[k]);
+    }
+
+    @Benchmark
+    public boolean decisionTreePredict() {
+        int k = i++ % diff.length;
+        return tree.predict(diff[k], fishVel[k], boxVel[k]);
+    }
+}
@@ -0,0 +1,38 @@
+package com.zoltam.autofish.minigame.bench;
+
+import com.zoltam.autofish.minigame.ModelTrainer;
+import com.zoltam.autofish.minigame.TrainedModel;
+import com.zoltam.autofish.minigame.TrainingSample;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Training after a manual session; the decision tree search is cubic in the row count. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+public class TrainerBenchmark {
+    /** Rows: one short session, one full session. */
+    @Param({"200", "1200"})
+    int rows;
+
+    private List<TrainingSample> data;
+
+    @Setup
+    public void setup() {
+        data = BenchData.samples(rows, BenchData.SEED);
+    }
+
+    @Benchmark
+    public TrainedModel logisticRegression() {
+        return ModelTrainer.trainLogisticRegression(data);
+    }
+
+    @Benchmark
+    public TrainedModel decisionTree() {
+        return ModelTrainer.trainDecisionTree(data);
+    }
+}
@@ -0,0 +1,36 @@
+package com.zoltam.autofish.minigame.bench;
+
+import com.zoltam.autofish.minigame.VelocityEstimator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/** Per-tick velocity estimate (formerly calculateVelocity over two LinkedLists). */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class VelocityBenchmark {
+    @Param({"5", "10"})
+    int historySize;
+
+    private double[] fish, box;
+    private VelocityEstimator velocity;
+    private int i;
+
+    @Setup
+    public void setup() {
+        double[][] p = BenchData.positions(BenchData.SESSION_TICKS, BenchData.SEED);
+        fish = p[0]; box = p[1];
+        velocity = new VelocityEstimator(historySize);
+        for (int k = 0; k < historySize; k++) velocity.push(fish[k], box[k]);
+    }
+
+    @Benchmark
+    public void pushAndEstimate(Blackhole bh) {
+        int k = i++ % fish.length;
+        velocity.push(fish[k], box[k]);
+        bh.consume(velocity.fishVelocity());
+        bh.consume(velocity.boxVelocity());
+    }
+}
@@ -0,0 +1,120 @@
+package com.zoltam.autofish.minigame;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * {@link BiteDetector} thresholds learned from labelled bites, saved per server.
+ *
+ * Samples are detector scores:
+ * - bites: the score at the reel of a bite confirmed by the minigame starting;
+ * - misses: the score that fired a reel with no minigame after it, and the highest score seen while
+ *   waiting when the server announced the bite (splash, velocity packet) before the detector did.
+ *
+ * {@link #calibrate} puts the threshold halfway between the low end of the bites and the high end of the
+ * misses, or just above the misses when they overlap (packets still catch the bites it then misses).
+ * The drift is not learned. Samples live in fixed rings, oldest dropped first.
+ */
+public final class BiteCalibration {
+    /** CUSUM parameters: per-step drop ignored as bobbing, and the accumulated drop that counts as a bite. */
+    public record Thresholds(double drift, double threshold) {
+        /** About the old fixed rules: a 0.14 drop in one step, or 0.2 over three. */
+        public static final Thresholds DEFAULT = new Thresholds(0.03, 0.11);
+    }
+
+    public static final int CAPACITY = 64;
+    public static final int MIN_SAMPLES = 6;
+    public static final double MIN_THRESHOLD = 0.04, MAX_THRESHOLD = 1.5;
+
+    private final double[] bites = new double[CAPACITY], misses = new double[CAPACITY];
+    private int biteCount, biteHead, missCount, missHead;
+    private final double[] scratch = new double[CAPACITY];
+    private Thresholds thresholds = Thresholds.DEFAULT;
+
+    public Thresholds thresholds() { return thresholds; }
+    public int bites() { return biteCount; }
+    public int misses() { return missCount; }
+
+    public void addBite(double score) {
+        bites[biteHead] = score;
+        biteHead = (biteHead + 1) % CAPACITY;
+        if (biteCount < CAPACITY) biteCount++;
+    }
+
+    public void addMiss(double score) {
+        misses[missHead] = score;
+        missHead = (missHead + 1) % CAPACITY;
+        if (missCount < CAPACITY) missCount++;
+    }
+
+    /** Recomputes the threshold once both kinds have {@link #MIN_SAMPLES}; true when it changed. */
+    public boolean calibrate() {
+        if (biteCount < MIN_SAMPLES || missCount < MIN_SAMPLES) return false;
+        double biteLow = quantile(bites, biteCount, 0.10);
+        double missHigh = quantile(misses, missCount, 0.90);
+        double h = biteLow > missHigh ? (biteLow + missHigh) / 2 : missHigh * 1.1;
+        h = Math.max(MIN_THRESHOLD, Math.min(MAX_THRESHOLD, h));
+        if (h == thresholds.threshold()) return false;
+        thresholds = new Thresholds(thresholds.drift(), h);
+        return true;
+    }
+
+    private double quantile(double[] ring, int count, double q) {
+        System.arraycopy(ring, 0, scratch, 0, count);
+        Arrays.sort(scratch, 0, count);
+        return scratch[(int) Math.floor(q * (count - 1))];
+    }
+
+    // -------- Persistence --------
+    public String toJson() {
+        return String.format(Locale.ROOT, """
+            {
+              "drift": %.6f,
+              "threshold": %.6f,
+              "biteCount": %d,
+              "bites": %s,
+              "missCount": %d,
+              "misses": %s
+            }
+            """, thresholds.drift(), thresholds.threshold(),
+            biteCount, ordered(bites, biteCount, biteHead), missCount, ordered(misses, missCount, missHead));
+    }
+
+    /** Oldest first, so reloading keeps the ring order. */
+    private static String ordered(double[] ring, int count, int head) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(String.format(Locale.ROOT, "%.6f", ring[(head - count + i + CAPACITY) % CAPACITY]));
+        }
+        return sb.append(']').toString();
+    }
+
+    /** Missing or unparsable keys fall back to {@link Thresholds#DEFAULT} and no samples. */
+    public static BiteCalibration fromJson(String content) {
+        Map<String, String> json = ModelJson.parseSimpleJsonSafe(content);
+        Thresholds d = Thresholds.DEFAULT;
+        BiteCalibration c = new BiteCalibration();
+        c.thresholds = new Thresholds(
+            ModelJson.parseDoubleSafe(json.get("drift"), d.drift()),
+            ModelJson.parseDoubleSafe(json.get("threshold"), d.threshold()));
+        int nb = Math.max(0, Math.min(CAPACITY, ModelJson.parseIntSafe(json.get("biteCount"), 0)));
+        int nm = Math.max(0, Math.min(CAPACITY, ModelJson.parseIntSafe(json.get("missCount"), 0)));
+        for (double v : ModelJson.parseDoubleArray(json.get("bites"), nb)) c.addBite(v);
+        for (double v : ModelJson.parseDoubleArray(json.get("misses"), nm)) c.addMiss(v);
+        return c;
+    }
+
+    public static BiteCalibration load(Path file) throws IOException {
+        return fromJson(Files.readString(file));
+    }
+
+    public void save(Path file) throws IOException {
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        Files.writeString(file, toJson());
+    }
+}
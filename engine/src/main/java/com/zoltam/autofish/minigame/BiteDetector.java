@@ -0,0 +1,89 @@
+package com.zoltam.autofish.minigame;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Bite detection over bobber Y samples (one per FSM step), as a one-sided CUSUM on the drop per step:
+ * {@code score = max(0, score + drop - drift)}, a bite once it reaches the threshold. Bobbing drifts the
+ * score back to zero; a tug, or a steady sink over a few steps, pushes it up. Thresholds come from
+ * {@link BiteCalibration}. The last few samples are also kept for {@link #looksSettled}.
+ */
+public class BiteDetector {
+    public static final int   HISTORY = 6;
+    /** Bobber velocity packet Y (blocks/tick) below which the server has yanked it under: a bite. */
+    public static final double BITE_PACKET_VY_THR = -0.2;
+
+    private final double[] ys = new double[HISTORY];
+    private int size = 0, head = 0;
+
+    private double drift = BiteCalibration.Thresholds.DEFAULT.drift();
+    private double threshold = BiteCalibration.Thresholds.DEFAULT.threshold();
+    private double score, peak;
+    private boolean armed;
+
+    public void setThresholds(BiteCalibration.Thresholds t) {
+        drift = t.drift();
+        threshold = t.threshold();
+    }
+
+    public void push(double y) {
+        if (size > 0) {
+            score = Math.max(0.0, score + (back(0) - y) - drift);
+            if (score > peak) peak = score;
+        }
+        ys[head] = y;
+        head = (head + 1) % HISTORY;
+        if (size < HISTORY) size++;
+    }
+
+    public void clear() { size = 0; head = 0; score = peak = 0.0; armed = false; }
+
+    public int size() { return size; }
+
+    /** Current CUSUM score; 0 until armed. */
+    public double score() { return armed ? score : 0.0; }
+
+    /** Highest score since the detector armed, i.e. since the bobber settled. */
+    public double peak() { return armed ? peak : 0.0; }
+
+    public boolean armed() { return armed; }
+
+    /** i-th most recent sample, 0 = newest. */
+    private double back(int i) { return ys[(head - 1 - i + HISTORY) % HISTORY]; }
+
+    /**
+     * Only ignores the bobber when it is clearly still in flight: detection runs when
+     * {@code inWater} says so or the samples look settled. {@code inWater} is only asked when needed.
+     * The first ready call arms the detector and zeroes the score, so the fall after the cast never counts.
+     */
+    public boolean detect(BooleanSupplier inWater) {
+        if (size < 2) return false;
+
+        boolean ready = inWater.getAsBoolean() || looksSettled();
+        if (!ready) { armed = false; return false; }
+        if (!armed) {
+            armed = true;
+            score = peak = 0.0;
+            return false;
+        }
+        return score >= threshold;
+    }
+
+    /** Heuristic: last few samples show small vertical change => on water, not in flight. */
+    public boolean looksSettled() {
+        if (size < 4) return false;
+        double y1 = back(0), y2 = back(1), y3 = back(2), y4 = back(3);
+
+        // small absolute velocities over last 3 steps
+        double v1 = Math.abs(y1 - y2);
+        double v2 = Math.abs(y2 - y3);
+        double v3 = Math.abs(y3 - y4);
+
+        // and low short-window range (not plummeting)
+        double min = Math.min(Math.min(y1, y2), Math.min(y3, y4));
+        double max = Math.max(Math.max(y1, y2), Math.max(y3, y4));
+        double range = max - min;
+
+        return v1 < 0.06 && v2 < 0.06 && v3 < 0.06 && range < 0.12;
+    }
+}
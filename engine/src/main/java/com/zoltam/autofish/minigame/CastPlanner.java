@@ -0,0 +1,82 @@
+package com.zoltam.autofish.minigame;
+
+/**
+ * Picks where to aim a cast, from a {@link WaterGrid} of the water around the player.
+ *
+ * - {@link #landing} flies a bobber the way vanilla launches one (mean throw speed, gravity 0.03, drag
+ *   0.92 per tick) until it enters water; hitting anything solid or leaving the grid is a miss.
+ * - {@link #plan} tries yaw and pitch offsets around the current aim and scores each landing: sky above
+ *   it counts most (vanilla slows bites under cover), then vanilla's open-water test, then how much of the
+ *   open-water box is right, less a small cost per degree turned so the aim only moves when it helps.
+ */
+public final class CastPlanner {
+    /** Whether the sky is visible above a cell; only asked about landing cells. */
+    @FunctionalInterface
+    public interface SkyCheck {
+        boolean visible(int x, int y, int z);
+    }
+
+    public record Plan(float yaw, float pitch, int x, int y, int z, boolean openWater, double score) {}
+
+    public static final int MAX_TICKS = 100;
+    public static final float YAW_STEP = 7.5f, PITCH_STEP = 5f;
+    public static final float MIN_PITCH = -30f, MAX_PITCH = 60f;
+    private static final double SKY_WEIGHT = 1.0, OPEN_WEIGHT = 0.5, FRACTION_WEIGHT = 0.25;
+    private static final double TURN_COST_PER_DEG = 0.002;
+
+    private CastPlanner() {}
+
+    /**
+     * Best aim within {@code rangeDeg} of the current yaw (pitch is searched over its whole useful range),
+     * or null when no aim lands in water. The current aim wins ties.
+     */
+    public static Plan plan(WaterGrid grid, double x, double eyeY, double z, float yaw, float pitch, float rangeDeg, SkyCheck sky) {
+        Plan best = score(grid, x, eyeY, z, yaw, pitch, 0, sky);
+        int yawSteps = (int) Math.floor(Math.max(0f, rangeDeg) / YAW_STEP);
+        for (int yi = -yawSteps; yi <= yawSteps; yi++) {
+            float y = yaw + yi * YAW_STEP;
+            for (float p = MIN_PITCH; p <= MAX_PITCH; p += PITCH_STEP) {
+                double turn = Math.abs(yi * YAW_STEP) + Math.abs(p - pitch);
+                Plan c = score(grid, x, eyeY, z, y, p, turn, sky);
+                if (c != null && (best == null || c.score() > best.score())) best = c;
+            }
+        }
+        return best;
+    }
+
+    private static Plan score(WaterGrid grid, double x, double eyeY, double z, float yaw, float pitch, double turnDeg, SkyCheck sky) {
+        int[] cell = landing(grid, x, eyeY, z, yaw, pitch);
+        if (cell == null) return null;
+        boolean open = grid.isOpenWater(cell[0], cell[1], cell[2]);
+        double s = (sky != null && sky.visible(cell[0], cell[1], cell[2]) ? SKY_WEIGHT : 0)
+            + (open ? OPEN_WEIGHT : 0)
+            + FRACTION_WEIGHT * grid.openFraction(cell[0], cell[1], cell[2])
+            - TURN_COST_PER_DEG * turnDeg;
+        return new Plan(yaw, pitch, cell[0], cell[1], cell[2], open, s);
+    }
+
+    /** Water cell a bobber cast from the player at (x, eyeY, z) with this aim first enters, or null. */
+    public static int[] landing(WaterGrid grid, double x, double eyeY, double z, float yaw, float pitch) {
+        double yawRad = -Math.toRadians(yaw) - Math.PI;
+        double pitchRad = -Math.toRadians(pitch);
+        double h = Math.cos(yawRad), i = Math.sin(yawRad);
+        double j = -Math.cos(pitchRad), k = Math.sin(pitchRad);
+        double px = x - i * 0.3, py = eyeY, pz = z - h * 0.3;
+        double vx = -i, vy = Math.max(-5.0, Math.min(5.0, -(k / j))), vz = -h;
+        double speed = 0.6 / Math.sqrt(vx * vx + vy * vy + vz * vz) + 0.5;
+        vx *= speed; vy *= speed; vz *= speed;
+
+        for (int t = 0; t < MAX_TICKS; t++) {
+            vy -= 0.03;
+            // Half steps, so a fast bobber cannot skip a one-block wall or a thin layer of water
+            for (int half = 0; half < 2; half++) {
+                px += vx / 2; py += vy / 2; pz += vz / 2;
+                int bx = (int) Math.floor(px), by = (int) Math.floor(py), bz = (int) Math.floor(pz);
+                if (grid.isWater(bx, by, bz)) return new int[]{bx, by, bz};
+                if (!grid.isAir(bx, by, bz)) return null;
+            }
+            vx *= 0.92; vy *= 0.92; vz *= 0.92;
+        }
+        return null;
+    }
+}
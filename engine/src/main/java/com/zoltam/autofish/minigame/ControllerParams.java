@@ -0,0 +1,68 @@
+package com.zoltam.autofish.minigame;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Tunable controller constants. {@link #DEFAULT} holds the hand-picked values and reproduces the original
+ * controller: no lookahead, no smoothing. A parameter sweep writes its winner to controller_params.json,
+ * which AutoFishMinigame loads on activation; that file is the only way lookahead and smoothing get turned on.
+ *
+ * @param errHi            PD presses when |error| rises above this
+ * @param errLo            PD releases when |error| falls below this
+ * @param minPress         minimum ticks to hold a press before releasing
+ * @param minRelease       minimum ticks released before pressing again
+ * @param jitterMs         random pause after each toggle (ms)
+ * @param predictionWeight how far ahead (in ticks of relative velocity) PD looks when computing error
+ * @param smoothingFactor  EMA weight of the newest error sample (1 = no smoothing)
+ * @param historySize      samples used for the velocity estimate
+ */
+public record ControllerParams(
+    double errHi, double errLo, int minPress, int minRelease, int jitterMs,
+    double predictionWeight, double smoothingFactor, int historySize
+) {
+    public static final ControllerParams DEFAULT = new ControllerParams(0.15, 0.05, 4, 3, 30, 0.0, 1.0, 5);
+
+    public String toJson() {
+        return String.format(Locale.ROOT, """
+            {
+              "errHi": %.6f,
+              "errLo": %.6f,
+              "minPress": %d,
+              "minRelease": %d,
+              "jitterMs": %d,
+              "predictionWeight": %.6f,
+              "smoothingFactor": %.6f,
+              "historySize": %d
+            }
+            """, errHi, errLo, minPress, minRelease, jitterMs, predictionWeight, smoothingFactor, historySize);
+    }
+
+    /** Missing or unparsable keys fall back to {@link #DEFAULT}. */
+    public static ControllerParams fromJson(String content) {
+        Map<String, String> json = ModelJson.parseSimpleJsonSafe(content);
+        ControllerParams d = DEFAULT;
+        return new ControllerParams(
+            ModelJson.parseDoubleSafe(json.get("errHi"), d.errHi),
+            ModelJson.parseDoubleSafe(json.get("errLo"), d.errLo),
+            ModelJson.parseIntSafe(json.get("minPress"), d.minPress),
+            ModelJson.parseIntSafe(json.get("minRelease"), d.minRelease),
+            ModelJson.parseIntSafe(json.get("jitterMs"), d.jitterMs),
+            ModelJson.parseDoubleSafe(json.get("predictionWeight"), d.predictionWeight),
+            ModelJson.parseDoubleSafe(json.get("smoothingFactor"), d.smoothingFactor),
+            Math.max(2, ModelJson.parseIntSafe(json.get("historySize"), d.historySize))
+        );
+    }
+
+    public static ControllerParams load(Path file) throws IOException {
+        return fromJson(Files.readString(file));
+    }
+
+    public void save(Path file) throws IOException {
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        Files.writeString(file, toJson());
+    }
+}
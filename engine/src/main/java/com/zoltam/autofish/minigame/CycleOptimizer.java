@@ -0,0 +1,125 @@
+package com.zoltam.autofish.minigame;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Picks how tight to run the fishing loop's delays, to maximise catches per hour.
+ *
+ * - Each {@link Arm} scales the humanised delays (cast, reel, cooldown, failed-cast retry) and the
+ *   no-bite recast timeout; the module clamps the scaled delays to the user's floors.
+ * - A cycle runs from one cast to the next; its wall time and whether it caught a fish are recorded
+ *   against the arm it ran with.
+ * - {@link #select} is Thompson sampling on the catch rate per hour, with a Gamma(1 + caught, time)
+ *   posterior; arms whose mean success rate has fallen below the floor are left out once they have
+ *   {@link #MIN_CYCLES_FOR_FLOOR} cycles. The untouched {@link #BASELINE} is always eligible.
+ * - Stats are kept in a small CSV (one per server) like ab_stats.csv.
+ */
+public class CycleOptimizer {
+    public record Arm(double delayScale, double timeoutScale) {
+        public String key() { return String.format(Locale.ROOT, "%.2f/%.2f", delayScale, timeoutScale); }
+    }
+
+    public static final Arm BASELINE = new Arm(1.0, 1.0);
+    public static final int MIN_CYCLES_FOR_FLOOR = 8;
+    /** Prior time per arm: an untried arm looks like one catch in this long, so it gets tried early. */
+    public static final double PRIOR_MS = 60_000.0;
+    private static final double[] DELAY_SCALES = {1.0, 0.8, 0.6, 0.4};
+    private static final double[] TIMEOUT_SCALES = {1.0, 0.75, 0.5};
+
+    public static class Stats {
+        public final Arm arm;
+        int cycles, caught;
+        long totalMs;
+
+        Stats(Arm arm) { this.arm = arm; }
+
+        public int cycles() { return cycles; }
+        public int caught() { return caught; }
+        public long totalMs() { return totalMs; }
+        public double successRate() { return (1.0 + caught) / (2.0 + cycles); }
+        public double catchesPerHour() { return totalMs == 0 ? 0.0 : caught * 3_600_000.0 / totalMs; }
+    }
+
+    private final List<Stats> arms = new ArrayList<>();
+
+    public CycleOptimizer() {
+        for (double d : DELAY_SCALES) {
+            for (double t : TIMEOUT_SCALES) arms.add(new Stats(new Arm(d, t)));
+        }
+    }
+
+    public List<Stats> arms() { return List.copyOf(arms); }
+
+    public Arm select(Random rng, double minSuccess) {
+        Stats best = null;
+        double bestDraw = -1.0;
+        for (Stats s : arms) {
+            if (!eligible(s, minSuccess)) continue;
+            double draw = ModelRegistry.sampleGamma(rng, 1.0 + s.caught) / (PRIOR_MS + s.totalMs);
+            if (draw > bestDraw) { bestDraw = draw; best = s; }
+        }
+        return best != null ? best.arm : BASELINE;
+    }
+
+    /** Eligible arm with the best posterior mean catch rate so far. */
+    public Arm best(double minSuccess) {
+        Stats best = null;
+        double bestMean = -1.0;
+        for (Stats s : arms) {
+            if (!eligible(s, minSuccess)) continue;
+            double mean = (1.0 + s.caught) / (PRIOR_MS + s.totalMs);
+            if (mean > bestMean) { bestMean = mean; best = s; }
+        }
+        return best != null ? best.arm : BASELINE;
+    }
+
+    public void record(Arm arm, long cycleMs, boolean caught) {
+        Stats s = find(arm);
+        if (s == null || cycleMs <= 0) return;
+        s.cycles++;
+        if (caught) s.caught++;
+        s.totalMs += cycleMs;
+    }
+
+    private boolean eligible(Stats s, double minSuccess) {
+        return s.arm.equals(BASELINE) || s.cycles < MIN_CYCLES_FOR_FLOOR || s.successRate() >= minSuccess;
+    }
+
+    private Stats find(Arm arm) {
+        for (Stats s : arms) if (s.arm.equals(arm)) return s;
+        return null;
+    }
+
+    // -------- Persistence --------
+    public void save(Path file) throws IOException {
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        StringBuilder csv = new StringBuilder();
+        csv.append("delay_scale,timeout_scale,cycles,caught,total_ms\n");
+        for (Stats s : arms) {
+            csv.append(String.format(Locale.ROOT, "%.2f,%.2f,%d,%d,%d%n",
+                s.arm.delayScale(), s.arm.timeoutScale(), s.cycles, s.caught, s.totalMs));
+        }
+        Files.writeString(file, csv.toString());
+    }
+
+    /** Rows for arms no longer in the grid are ignored. */
+    public void load(Path file) throws IOException {
+        if (!Files.exists(file)) return;
+        List<String> lines = Files.readAllLines(file);
+        for (int i = 1; i < lines.size(); i++) {
+            String[] parts = lines.get(i).trim().split(",");
+            if (parts.length != 5) continue;
+            Stats s = find(new Arm(ModelJson.parseDoubleSafe(parts[0], -1), ModelJson.parseDoubleSafe(parts[1], -1)));
+            if (s == null) continue;
+            s.cycles  = ModelJson.parseIntSafe(parts[2], 0);
+            s.caught  = ModelJson.parseIntSafe(parts[3], 0);
+            try { s.totalMs = Long.parseLong(parts[4].trim()); } catch (NumberFormatException e) { s.totalMs = 0; }
+        }
+    }
+}
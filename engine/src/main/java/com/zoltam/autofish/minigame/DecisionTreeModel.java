@@ -0,0 +1,16 @@
+package com.zoltam.autofish.minigame;
+
+public class DecisionTreeModel extends TrainedModel {
+    final double diffThreshold;
+    final double fishVelThreshold;
+    private final double accuracy;
+
+    public DecisionTreeModel(double diffThreshold, double fishVelThreshold, double accuracy) {
+        this.diffThreshold = diffThreshold; this.fishVelThreshold = fishVelThreshold; this.accuracy = accuracy;
+    }
+    @Override public boolean predict(double diff, double fishVel, double boxVel) {
+        return diff > diffThreshold && fishVel > fishVelThreshold;
+    }
+    @Override public String getModelType() { return "DecisionTree"; }
+    @Override public double getAccuracy() { return accuracy; }
+}
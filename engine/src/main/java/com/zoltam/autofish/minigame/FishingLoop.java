@@ -0,0 +1,263 @@
+package com.zoltam.autofish.minigame;
+
+import java.util.Arrays;
+
+/**
+ * The cast → bite → reel → minigame → cooldown loop, without any game access.
+ *
+ * The module calls {@link #step} with the wall clock and tick counter once {@link #nextActionAtMs()}
+ * is due (calling it earlier is a no-op) and answers the {@link World} queries; the loop decides when
+ * to cast or reel and returns that as an {@link Action} for the module to perform.
+ */
+public class FishingLoop {
+    public enum Phase { IDLE, CASTING, WAIT_BITE, REELING, MINIGAME, COOLDOWN }
+
+    /**
+     * What the module should do with the rod after a step. CAST and RECAST are immediate;
+     * REEL is due {@link #lastReelDelayMs()} after the step, like a bite accepted by {@link #onSplash}.
+     */
+    public enum Action { NONE, CAST, REEL, RECAST }
+
+    /**
+     * Game-side hooks. Queries are asked lazily, only when the current phase needs them. Hooks are
+     * called on whatever thread drives the loop, and they touch the player and inventory: call
+     * {@link #step}, {@link #endCycle} and {@link #onSplash} on the game's client thread only.
+     */
+    public interface World {
+        /** Samples the bobber into the bite detector; called every step outside the minigame. */
+        void trackBobber();
+        boolean hasBobberOut();
+        /** Rod in hand, or selected from the hotbar. */
+        boolean ensureRodEquipped();
+        /**
+         * A cast is coming after a wait (cooldown, retry): do what does not need the wait to be over,
+         * such as selecting and checking the rod and resetting bobber tracking. Must not use the rod.
+         * Client thread only: it may click inventory slots.
+         */
+        void prepareCast();
+        /** Something between cycles (e.g. emptying the inventory) still runs: hold the cast. */
+        boolean busy();
+        boolean detectBite();
+        int castDelayMs();
+        int reelDelayMs();
+    }
+
+    public static final int FAIL_RETRY_DELAY_MS = 500;
+    public static final int BITE_MIN_TICKS_AFTER_CAST = 10;
+
+    // Give bobber time to spawn after cast to avoid instant re-cast loops
+    public static final int CAST_SPAWN_GRACE_TICKS = 12; // ~0.6s
+    public static final int CAST_RESOLVE_DEADLINE_EXTRA_TICKS = 28; // total ~2s before we declare cast failed
+
+    // Arm bite detection only after this many ticks post-cast
+    public static final int BITE_ARM_TICKS = 40;
+    public static final int NO_BITE_TIMEOUT_TICKS = 60 * 20; // 60 seconds at 20 tps
+    // After a delayed reel fires, before checking that the bobber is gone
+    public static final int REEL_GRACE_MS = 120;
+    public static final int BUSY_RECHECK_MS = 250;
+
+    private Phase phase = Phase.IDLE;
+    private long nextActionAtMs = 0L;
+    private int lastCastTick = -10000;
+    private int castResolveDeadlineTick = -10000;
+    private int lastReelTick = -10000;
+    private int biteArmedAtTick = -1;
+    private int lastReelDelayMs = 0;
+
+    // Tunable timing (CycleOptimizer), defaulting to the constants above
+    private int failRetryDelayMs = FAIL_RETRY_DELAY_MS;
+    private int noBiteTimeoutTicks = NO_BITE_TIMEOUT_TICKS;
+
+    // Time per phase within the current cycle (cast to cast), and the last finished cycle
+    private static final int PHASES = Phase.values().length;
+    private final long[] phaseMs = new long[PHASES], lastPhaseMs = new long[PHASES];
+    private long phaseSinceMs = 0L, cycleStartMs = 0L, lastCycleMs = 0L;
+
+    public void reset() {
+        phase = Phase.IDLE;
+        phaseSinceMs = cycleStartMs = lastCycleMs = 0L;
+        Arrays.fill(phaseMs, 0L);
+        Arrays.fill(lastPhaseMs, 0L);
+        nextActionAtMs = 0L;
+        lastCastTick = -10000;
+        castResolveDeadlineTick = -10000;
+        lastReelTick = -10000;
+        biteArmedAtTick = -1;
+    }
+
+    public Phase phase() { return phase; }
+    public int lastCastTick() { return lastCastTick; }
+    public int lastReelTick() { return lastReelTick; }
+    public int biteArmedAtTick() { return biteArmedAtTick; }
+    public long nextActionAtMs() { return nextActionAtMs; }
+    /** Humanised delay drawn for the most recent bite reel. */
+    public int lastReelDelayMs() { return lastReelDelayMs; }
+
+    /** Wall time of the last finished cycle, cast to cast (0 before the second cast). */
+    public long lastCycleMs() { return lastCycleMs; }
+
+    /** Time the last finished cycle spent in {@code p}. */
+    public long lastPhaseMs(Phase p) { return lastPhaseMs[p.ordinal()]; }
+
+    /** Retry delay after a failed cast or a finished reel, and the no-bite recast timeout. */
+    public void setTiming(int failRetryDelayMs, int noBiteTimeoutTicks) {
+        this.failRetryDelayMs = Math.max(0, failRetryDelayMs);
+        this.noBiteTimeoutTicks = Math.max(1, noBiteTimeoutTicks);
+    }
+
+    public Action step(long now, int tick, boolean sessionActive, World world) {
+        if (now < nextActionAtMs) return Action.NONE;
+
+        if (phase != Phase.MINIGAME) world.trackBobber();
+
+        switch (phase) {
+            case IDLE -> {
+                return idle(now, tick, sessionActive, world);
+            }
+            case CASTING -> {
+                // Immediately move to wait-for-bite
+                enter(Phase.WAIT_BITE, now);
+            }
+            case WAIT_BITE -> {
+                if (sessionActive) { enter(Phase.MINIGAME, now); break; }
+
+                // Always give bobber time to spawn after the cast before deciding it failed
+                if (!world.hasBobberOut()) {
+                    if (tick <= castResolveDeadlineTick) {
+                        // keep waiting a bit more
+                        scheduleNext(now, 60);
+                        break;
+                    }
+                    // Past deadline: treat as failed cast and retry
+                    enter(Phase.IDLE, now);
+                    scheduleNext(now, failRetryDelayMs);
+                    world.prepareCast();
+                    break;
+                }
+
+                if (lastCastTick > 0 && (tick - lastCastTick) >= noBiteTimeoutTicks) {
+                    lastReelTick = tick;
+                    enter(Phase.REELING, now);
+                    scheduleNext(now, 120);
+                    return Action.RECAST;
+                }
+
+                boolean bite = tick >= biteArmedAtTick && world.detectBite();
+                if (bite && (tick - lastCastTick) >= BITE_MIN_TICKS_AFTER_CAST) {
+                    enter(Phase.REELING, now);
+                    lastReelDelayMs = world.reelDelayMs();
+                    lastReelTick = tick;
+                    scheduleNext(now, lastReelDelayMs + REEL_GRACE_MS);
+                    return Action.REEL;
+                }
+                scheduleNext(now, 60);
+            }
+            case REELING -> {
+                if (!sessionActive) {
+                    // If the bobber is gone we finished reeling, go back to idle and allow cooldown
+                    if (!world.hasBobberOut()) {
+                        enter(Phase.IDLE, now);
+                        scheduleNext(now, failRetryDelayMs);
+                        world.prepareCast();
+                    } else {
+                        // Still out -> keep waiting for bite
+                        enter(Phase.WAIT_BITE, now);
+                        scheduleNext(now, 60);
+                    }
+                } else {
+                    enter(Phase.MINIGAME, now);
+                }
+            }
+            case MINIGAME -> { /* minigame tick handled elsewhere */ }
+            case COOLDOWN -> {
+                // Prepared when the cooldown began: cast on this step rather than idling a step first
+                enter(Phase.IDLE, now);
+                return idle(now, tick, sessionActive, world);
+            }
+        }
+        return Action.NONE;
+    }
+
+    private Action idle(long now, int tick, boolean sessionActive, World world) {
+        if (sessionActive) { enter(Phase.MINIGAME, now); return Action.NONE; }
+
+        // If we already have a bobber out, just wait for bite
+        if (world.hasBobberOut()) {
+            enter(Phase.WAIT_BITE, now);
+            return Action.NONE;
+        }
+
+        if (world.busy()) {
+            scheduleNext(now, BUSY_RECHECK_MS);
+            return Action.NONE;
+        }
+
+        if (world.ensureRodEquipped()) {
+            closeCycle(now);
+            lastCastTick = tick;
+            biteArmedAtTick = tick + BITE_ARM_TICKS;   // << disarm bite detection until this tick
+            castResolveDeadlineTick = lastCastTick + CAST_SPAWN_GRACE_TICKS + CAST_RESOLVE_DEADLINE_EXTRA_TICKS;
+            scheduleNext(now, world.castDelayMs());
+            enter(Phase.WAIT_BITE, now);
+            return Action.CAST;
+        }
+        scheduleNext(now, 750);
+        return Action.NONE;
+    }
+
+    /**
+     * Bite seen outside {@link #step} (splash sound, bobber velocity packet). Returns true (and moves to
+     * REELING) when it counts as a bite, i.e. we are waiting for one and detection is armed; the module
+     * then reels {@link #lastReelDelayMs()} later.
+     */
+    public boolean onSplash(long now, int tick, World world) {
+        if (phase != Phase.WAIT_BITE
+            || tick < biteArmedAtTick
+            || (tick - lastCastTick) < BITE_MIN_TICKS_AFTER_CAST) return false;
+
+        lastReelDelayMs = world.reelDelayMs();
+        scheduleNext(now, lastReelDelayMs + REEL_GRACE_MS);
+        lastReelTick = tick;
+        enter(Phase.REELING, now);
+        return true;
+    }
+
+    /** Minigame displays appeared. */
+    public void enterMinigame(long now) {
+        enter(Phase.MINIGAME, now);
+    }
+
+    /**
+     * Minigame over (or lost): cool down before the next cast when looping, else go idle.
+     * The next cast is prepared now, so it goes out on the first step after the cooldown.
+     */
+    public void endCycle(long now, boolean autoLoop, int cooldownMs, World world) {
+        enter(autoLoop ? Phase.COOLDOWN : Phase.IDLE, now);
+        if (autoLoop) {
+            scheduleNext(now, cooldownMs);
+            world.prepareCast();
+        }
+    }
+
+    // -------- Phase timing --------
+    private void enter(Phase next, long now) {
+        if (phaseSinceMs > 0) phaseMs[phase.ordinal()] += now - phaseSinceMs;
+        phase = next;
+        phaseSinceMs = now;
+    }
+
+    /** A cast starts the next cycle: the time since the previous cast becomes {@link #lastCycleMs()}. */
+    private void closeCycle(long now) {
+        enter(phase, now);
+        if (cycleStartMs > 0) {
+            lastCycleMs = now - cycleStartMs;
+            System.arraycopy(phaseMs, 0, lastPhaseMs, 0, phaseMs.length);
+        }
+        Arrays.fill(phaseMs, 0L);
+        cycleStartMs = now;
+    }
+
+    private void scheduleNext(long now, int ms) {
+        nextActionAtMs = now + Math.max(0, ms);
+    }
+}
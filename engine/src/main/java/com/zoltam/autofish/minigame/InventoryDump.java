@@ -0,0 +1,42 @@
+package com.zoltam.autofish.minigame;
+
+import java.util.Arrays;
+
+/**
+ * What to empty out of a full inventory, from the kind of stack in every main-inventory slot (hotbar = slots 0-8).
+ *
+ * - Drop mode throws away {@link #JUNK} stacks anywhere in the inventory.
+ * - Deposit mode shift-clicks everything but rods out of the main inventory; the hotbar is left alone.
+ * - Rods are never dumped, whichever list they are on.
+ */
+public final class InventoryDump {
+    public static final byte EMPTY = 0, ROD = 1, JUNK = 2, CATCH = 3;
+    public static final int HOTBAR = 9;
+
+    private InventoryDump() {}
+
+    public static int freeSlots(byte[] kinds) {
+        int free = 0;
+        for (byte k : kinds) if (k == EMPTY) free++;
+        return free;
+    }
+
+    /** Whether to dump now: {@code dumpAt} free slots or fewer, and no back-off after a dump that did not help. */
+    public static boolean due(int freeSlots, int dumpAt, long nowMs, long backoffUntilMs) {
+        return freeSlots <= dumpAt && nowMs >= backoffUntilMs;
+    }
+
+    /** Slots to drop, in order. */
+    public static int[] dropSlots(byte[] kinds) {
+        int[] out = new int[kinds.length];
+        int n = 0;
+        for (int slot = 0; slot < kinds.length; slot++) if (kinds[slot] == JUNK) out[n++] = slot;
+        return Arrays.copyOf(out, n);
+    }
+
+    /** Whether {@code slot} goes into the container on a deposit. */
+    public static boolean deposit(byte[] kinds, int slot) {
+        if (slot < HOTBAR || slot >= kinds.length) return false;
+        return kinds[slot] == JUNK || kinds[slot] == CATCH;
+    }
+}
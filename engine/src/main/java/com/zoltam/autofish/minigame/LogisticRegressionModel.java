@@ -0,0 +1,24 @@
+package com.zoltam.autofish.minigame;
+
+public class LogisticRegressionModel extends TrainedModel {
+    /** Built-in default model shipped with the addon. */
+    public static final LogisticRegressionModel DEFAULT = new LogisticRegressionModel(
+        new double[]{2.941484, 10.936916, -20.971402},
+        -0.375856,
+        0.7041420118343196
+    );
+
+    final double[] weights;
+    final double bias;
+    private final double accuracy;
+
+    public LogisticRegressionModel(double[] weights, double bias, double accuracy) {
+        this.weights = weights; this.bias = bias; this.accuracy = accuracy;
+    }
+    @Override public boolean predict(double diff, double fishVel, double boxVel) {
+        double z = bias + weights[0]*diff + weights[1]*fishVel + weights[2]*boxVel;
+        return 1.0 / (1.0 + Math.exp(-z)) > 0.5;
+    }
+    @Override public String getModelType() { return "Logistic"; }
+    @Override public double getAccuracy() { return accuracy; }
+}
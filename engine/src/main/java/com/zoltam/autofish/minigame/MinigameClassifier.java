@@ -0,0 +1,58 @@
+package com.zoltam.autofish.minigame;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Picks the BOX (still) and FISH (moving) among the minigame's ItemDisplays.
+ * The two lowest displays are the candidates; movement range decides which is which.
+ */
+public final class MinigameClassifier {
+    public static final int CLASSIFY_MIN = 6;
+    public static final double FISH_MOVE_LOCAL_RANGE = 0.12;
+    public static final double FISH_MOVE_WORLD_RANGE = 0.18;
+
+    private MinigameClassifier() {}
+
+    public record Result(Track box, Track fish, int observed) {}
+
+    /** Returns the classification, or null if there is not enough evidence yet. */
+    public static Result classify(Collection<Track> tracks, int tick) {
+        List<Track> live = new ArrayList<>(tracks);
+        if (live.size() < 4) return null;
+
+        int earliest = tick;
+        for (Track t : live) earliest = Math.min(earliest, t.firstSeenTick);
+        int observed = tick - earliest;
+        if (observed < CLASSIFY_MIN) return null;
+
+        live.sort(Comparator.comparingDouble(t -> t.minWorldY));
+
+        List<Track> fishAndBoxCandidates = new ArrayList<>();
+        fishAndBoxCandidates.add(live.get(0));
+        fishAndBoxCandidates.add(live.get(1));
+
+        Track candFish = null;
+        Track candBox = null;
+
+        for (Track candidate : fishAndBoxCandidates) {
+            boolean hasMovement = candidate.hasLocal()
+                ? candidate.localRange() >= FISH_MOVE_LOCAL_RANGE
+                : candidate.worldRange() >= FISH_MOVE_WORLD_RANGE;
+
+            if (hasMovement && candFish == null) candFish = candidate;
+            else if (!hasMovement && candBox == null) candBox = candidate;
+        }
+
+        if (candFish == null || candBox == null) {
+            fishAndBoxCandidates.sort(Comparator.comparingDouble(Track::effectiveRange));
+            candBox = fishAndBoxCandidates.get(0);
+            candFish = fishAndBoxCandidates.get(1);
+        }
+
+        if (candBox.id == candFish.id) return null;
+        return new Result(candBox, candFish, observed);
+    }
+}
@@ -0,0 +1,128 @@
+package com.zoltam.autofish.minigame;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads and writes the small flat JSON format used for saved models
+ * (auto_fish_model.json and the files in the model registry).
+ */
+public final class ModelJson {
+    private ModelJson() {}
+
+    public static String toJson(TrainedModel model, int trainingSize) {
+        StringBuilder json = new StringBuilder();
+        json.append("{\n");
+        json.append("  \"type\": \"").append(model.getModelType()).append("\",\n");
+        json.append("  \"accuracy\": ").append(model.getAccuracy()).append(",\n");
+        json.append("  \"trainingSize\": ").append(trainingSize).append(",\n");
+
+        if (model instanceof LogisticRegressionModel lr) {
+            json.append("  \"weights\": [")
+                .append(String.format(Locale.ROOT, "%.6f, %.6f, %.6f", lr.weights[0], lr.weights[1], lr.weights[2]))
+                .append("],\n");
+            json.append("  \"bias\": ").append(String.format(Locale.ROOT, "%.6f", lr.bias)).append("\n");
+        } else if (model instanceof DecisionTreeModel dt) {
+            json.append("  \"diffThreshold\": ").append(String.format(Locale.ROOT, "%.6f", dt.diffThreshold)).append(",\n");
+            json.append("  \"fishVelThreshold\": ").append(String.format(Locale.ROOT, "%.6f", dt.fishVelThreshold)).append("\n");
+        }
+
+        json.append("}\n");
+        return json.toString();
+    }
+
+    /** Returns the model described by {@code content}, or null if the type is unknown. */
+    public static TrainedModel fromJson(String content) {
+        Map<String, String> json = parseSimpleJsonSafe(content);
+
+        String type = json.containsKey("type") ? stripQuotes(json.get("type")) : null;
+        double accuracy = parseDoubleSafe(json.get("accuracy"), 0.0);
+
+        if ("Logistic".equals(type)) {
+            double[] weights = parseDoubleArray(json.get("weights"), 3);
+            double bias      = parseDoubleSafe(json.get("bias"), 0.0);
+            return new LogisticRegressionModel(weights, bias, accuracy);
+        } else if ("DecisionTree".equals(type)) {
+            double diffThreshold    = parseDoubleSafe(json.get("diffThreshold"), 0.0);
+            double fishVelThreshold = parseDoubleSafe(json.get("fishVelThreshold"), 0.0);
+            return new DecisionTreeModel(diffThreshold, fishVelThreshold, accuracy);
+        }
+        return null;
+    }
+
+    // -------- Robust mini JSON helpers --------
+    public static Map<String, String> parseSimpleJsonSafe(String json) {
+        Map<String, String> out = new HashMap<>();
+        if (json == null) return out;
+
+        String s = json.trim();
+        if (s.startsWith("{")) s = s.substring(1);
+        if (s.endsWith("}")) s = s.substring(0, s.length() - 1);
+
+        List<String> pairs = splitTopLevel(s, ',');
+        for (String pair : pairs) {
+            List<String> kv = splitTopLevel(pair, ':');
+            if (kv.size() < 2) continue;
+            String key = stripQuotes(kv.get(0).trim());
+            String value = kv.get(1).trim();
+            for (int i = 2; i < kv.size(); i++) value += ":" + kv.get(i);
+            out.put(key, value.trim());
+        }
+        return out;
+    }
+
+    private static List<String> splitTopLevel(String s, char sep) {
+        List<String> parts = new ArrayList<>();
+        StringBuilder cur = new StringBuilder();
+        int depthBrace = 0, depthBracket = 0;
+        boolean inQuotes = false;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' && (i == 0 || s.charAt(i - 1) != '\\')) inQuotes = !inQuotes;
+            if (!inQuotes) {
+                if (c == '{') depthBrace++;
+                else if (c == '}') depthBrace--;
+                else if (c == '[') depthBracket++;
+                else if (c == ']') depthBracket--;
+                else if (c == sep && depthBrace == 0 && depthBracket == 0) {
+                    parts.add(cur.toString());
+                    cur.setLength(0);
+                    continue;
+                }
+            }
+            cur.append(c);
+        }
+        parts.add(cur.toString());
+        return parts;
+    }
+
+    public static String stripQuotes(String s) {
+        s = s.trim();
+        if (s.startsWith("\"") && s.endsWith("\"") && s.length() >= 2) return s.substring(1, s.length() - 1);
+        return s;
+    }
+
+    public static double parseDoubleSafe(String s, double def) {
+        if (s == null) return def;
+        try { return Double.parseDouble(stripQuotes(s)); } catch (Exception ignored) { return def; }
+    }
+
+    public static int parseIntSafe(String s, int def) {
+        if (s == null) return def;
+        try { return Integer.parseInt(stripQuotes(s)); } catch (Exception ignored) { return def; }
+    }
+
+    public static double[] parseDoubleArray(String s, int expected) {
+        if (s == null) return new double[expected];
+        String t = s.trim();
+        if (t.startsWith("[")) t = t.substring(1);
+        if (t.endsWith("]")) t = t.substring(0, t.length() - 1);
+        String[] parts = t.split("\\s*,\\s*");
+        double[] arr = new double[expected];
+        for (int i = 0; i < Math.min(expected, parts.length); i++) arr[i] = parseDoubleSafe(parts[i], 0.0);
+        return arr;
+    }
+}
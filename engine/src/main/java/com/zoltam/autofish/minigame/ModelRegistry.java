@@ -0,0 +1,177 @@
+package com.zoltam.autofish.minigame;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Named set of models used for live A/B evaluation.
+ *
+ * - Models live as one JSON file each (same format as auto_fish_model.json) in the registry directory.
+ * - The built-in default model is always present and never written to disk.
+ * - Per-model outcomes (caught / failed, summed tracking error) are kept in ab_stats.csv.
+ * - {@link #select(Random)} picks the model for the next session by Thompson sampling on catch rate,
+ *   so play converges on the best model while still probing the others now and then.
+ */
+public class ModelRegistry {
+    public static final String DEFAULT_NAME = "default";
+    private static final String STATS_FILE = "ab_stats.csv";
+
+    public static class Entry {
+        public final String name;
+        public final TrainedModel model;
+        public final boolean builtIn;
+        int sessions, caught, failed;
+        double errorSum;
+
+        Entry(String name, TrainedModel model, boolean builtIn) {
+            this.name = name; this.model = model; this.builtIn = builtIn;
+        }
+
+        public int sessions() { return sessions; }
+        public int caught() { return caught; }
+        public int failed() { return failed; }
+        public double catchRate() { return sessions == 0 ? 0.0 : (double) caught / sessions; }
+        public double avgError() { return sessions == 0 ? 0.0 : errorSum / sessions; }
+    }
+
+    private final Path dir;
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+    public ModelRegistry(Path dir, TrainedModel defaultModel) {
+        this.dir = dir;
+        entries.put(DEFAULT_NAME, new Entry(DEFAULT_NAME, defaultModel, true));
+    }
+
+    public Path getDir() { return dir; }
+
+    /** Loads every *.json model in the registry directory plus the saved A/B stats. */
+    public void load() throws IOException {
+        if (!Files.isDirectory(dir)) return;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.json")) {
+            for (Path f : files) {
+                String file = f.getFileName().toString();
+                String name = file.substring(0, file.length() - ".json".length());
+                if (entries.containsKey(name)) continue;
+                TrainedModel m = ModelJson.fromJson(Files.readString(f));
+                if (m != null) entries.put(name, new Entry(name, m, false));
+            }
+        }
+        loadStats();
+    }
+
+    /** Adds a model and writes it to the registry directory. */
+    public Entry register(String name, TrainedModel model, int trainingSize) throws IOException {
+        Files.createDirectories(dir);
+        Files.writeString(dir.resolve(name + ".json"), ModelJson.toJson(model, trainingSize));
+        Entry e = new Entry(name, model, false);
+        Entry old = entries.put(name, e);
+        if (old != null) {
+            e.sessions = old.sessions; e.caught = old.caught; e.failed = old.failed; e.errorSum = old.errorSum;
+        }
+        return e;
+    }
+
+    public Entry get(String name) { return entries.get(name); }
+
+    public Collection<Entry> entries() { return Collections.unmodifiableCollection(entries.values()); }
+
+    public int size() { return entries.size(); }
+
+    /** Thompson sampling: draw a catch rate from each model's Beta(1 + caught, 1 + failed) posterior, take the max. */
+    public Entry select(Random rng) {
+        Entry best = null;
+        double bestDraw = -1.0;
+        for (Entry e : entries.values()) {
+            double draw = sampleBeta(rng, 1.0 + e.caught, 1.0 + e.failed);
+            if (draw > bestDraw) { bestDraw = draw; best = e; }
+        }
+        return best;
+    }
+
+    /** Model with the best posterior mean catch rate so far. */
+    public Entry best() {
+        Entry best = null;
+        double bestMean = -1.0;
+        for (Entry e : entries.values()) {
+            double mean = (1.0 + e.caught) / (2.0 + e.sessions);
+            if (mean > bestMean) { bestMean = mean; best = e; }
+        }
+        return best;
+    }
+
+    public void record(String name, boolean caught, double avgError) {
+        Entry e = entries.get(name);
+        if (e == null) return;
+        e.sessions++;
+        if (caught) e.caught++; else e.failed++;
+        e.errorSum += avgError;
+    }
+
+    public void saveStats() throws IOException {
+        writeStats(statsCsv());
+    }
+
+    /** The ab_stats.csv contents as they stand; take it on the thread that records outcomes. */
+    public String statsCsv() {
+        StringBuilder csv = new StringBuilder();
+        csv.append("name,sessions,caught,failed,error_sum\n");
+        for (Entry e : entries.values()) {
+            csv.append(e.name).append(',').append(e.sessions).append(',').append(e.caught).append(',')
+                .append(e.failed).append(',').append(String.format(Locale.ROOT, "%.6f", e.errorSum)).append('\n');
+        }
+        return csv.toString();
+    }
+
+    /** Writes a {@link #statsCsv} snapshot; safe from any thread. */
+    public void writeStats(String csv) throws IOException {
+        Files.createDirectories(dir);
+        Files.writeString(dir.resolve(STATS_FILE), csv);
+    }
+
+    private void loadStats() throws IOException {
+        Path f = dir.resolve(STATS_FILE);
+        if (!Files.exists(f)) return;
+        List<String> lines = new ArrayList<>(Files.readAllLines(f));
+        for (int i = 1; i < lines.size(); i++) {
+            String[] parts = lines.get(i).trim().split(",");
+            if (parts.length != 5) continue;
+            Entry e = entries.get(parts[0]);
+            if (e == null) continue;
+            e.sessions = ModelJson.parseIntSafe(parts[1], 0);
+            e.caught   = ModelJson.parseIntSafe(parts[2], 0);
+            e.failed   = ModelJson.parseIntSafe(parts[3], 0);
+            e.errorSum = ModelJson.parseDoubleSafe(parts[4], 0.0);
+        }
+    }
+
+    // -------- Beta sampling (Marsaglia–Tsang gamma, shape >= 1) --------
+    private static double sampleBeta(Random rng, double a, double b) {
+        double x = sampleGamma(rng, a);
+        double y = sampleGamma(rng, b);
+        return x / (x + y);
+    }
+
+    static double sampleGamma(Random rng, double shape) {
+        double d = shape - 1.0 / 3.0;
+        double c = 1.0 / Math.sqrt(9.0 * d);
+        while (true) {
+            double x = rng.nextGaussian();
+            double v = 1.0 + c * x;
+            if (v <= 0) continue;
+            v = v * v * v;
+            double u = rng.nextDouble();
+            if (u < 1.0 - 0.0331 * x * x * x * x) return d * v;
+            if (Math.log(u) < 0.5 * x * x + d * (1.0 - v + Math.log(v))) return d * v;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.zoltam.autofish.minigame;
+
+import java.util.Arrays;
+import java.util.List;
+
+/** Fits the sneak models from recorded manual play. */
+public final class ModelTrainer {
+    public static final int MIN_SAMPLES = 10;
+    /** Logistic regression is kept when it beats this training accuracy, otherwise the decision tree is used. */
+    public static final double LOGISTIC_MIN_ACCURACY = 0.6;
+
+    private ModelTrainer() {}
+
+    public static TrainedModel train(List<TrainingSample> data) {
+        TrainedModel logisticModel = trainLogisticRegression(data);
+        if (logisticModel != null && logisticModel.getAccuracy() > LOGISTIC_MIN_ACCURACY) return logisticModel;
+        return trainDecisionTree(data);
+    }
+
+    public static TrainedModel trainLogisticRegression(List<TrainingSample> data) {
+        double[] weights = {0.0, 0.0, 0.0}; // diff, fishVel, boxVel
+        double bias = 0.0;
+        double learningRate = 0.01;
+        int epochs = 100;
+
+        double[] diffValues = data.stream().mapToDouble(TrainingSample::diff).toArray();
+        double[] fishVelValues = data.stream().mapToDouble(TrainingSample::fishVel).toArray();
+        double[] boxVelValues  = data.stream().mapToDouble(TrainingSample::boxVel).toArray();
+
+        double diffMean = Arrays.stream(diffValues).average().orElse(0.0);
+        double fishVelMean = Arrays.stream(fishVelValues).average().orElse(0.0);
+        double boxVelMean  = Arrays.stream(boxVelValues).average().orElse(0.0);
+
+        double diffStd = Math.sqrt(Arrays.stream(diffValues).map(x -> (x - diffMean) * (x - diffMean)).average().orElse(1.0));
+        double fishVelStd = Math.sqrt(Arrays.stream(fishVelValues).map(x -> (x - fishVelMean) * (x - fishVelMean)).average().orElse(1.0));
+        double boxVelStd  = Math.sqrt(Arrays.stream(boxVelValues).map(x -> (x - boxVelMean) * (x - boxVelMean)).average().orElse(1.0));
+
+        if (diffStd < 1e-6) diffStd = 1.0;
+        if (fishVelStd < 1e-6) fishVelStd = 1.0;
+        if (boxVelStd  < 1e-6) boxVelStd  = 1.0;
+
+        for (int epoch = 0; epoch < epochs; epoch++) {
+            for (TrainingSample point : data) {
+                double normDiff    = (point.diff()    - diffMean)    / diffStd;
+                double normFishVel = (point.fishVel() - fishVelMean) / fishVelStd;
+                double normBoxVel  = (point.boxVel()  - boxVelMean)  / boxVelStd;
+
+                double z = bias + weights[0]*normDiff + weights[1]*normFishVel + weights[2]*normBoxVel;
+                double prediction = 1.0 / (1.0 + Math.exp(-z));
+                double error = prediction - point.shiftState();
+
+                bias       -= learningRate * error;
+                weights[0] -= learningRate * error * normDiff;
+                weights[1] -= learningRate * error * normFishVel;
+                weights[2] -= learningRate * error * normBoxVel;
+            }
+        }
+
+        int correct = 0;
+        for (TrainingSample point : data) {
+            double normDiff    = (point.diff()    - diffMean)    / diffStd;
+            double normFishVel = (point.fishVel() - fishVelMean) / fishVelStd;
+            double normBoxVel  = (point.boxVel()  - boxVelMean)  / boxVelStd;
+
+            double z = bias + weights[0]*normDiff + weights[1]*normFishVel + weights[2]*normBoxVel;
+            boolean prediction = (1.0 / (1.0 + Math.exp(-z))) > 0.5;
+            if ((prediction ? 1 : 0) == point.shiftState()) correct++;
+        }
+
+        double accuracy = (double) correct / data.size();
+
+        double[] finalWeights = {
+            weights[0] / diffStd,
+            weights[1] / fishVelStd,
+            weights[2] / boxVelStd
+        };
+        double finalBias = bias - weights[0] * diffMean / diffStd - weights[1] * fishVelMean / fishVelStd - weights[2] * boxVelMean / boxVelStd;
+
+        return new LogisticRegressionModel(finalWeights, finalBias, accuracy);
+    }
+
+    public static TrainedModel trainDecisionTree(List<TrainingSample> data) {
+        double bestDiffThreshold = 0.0;
+        double bestFishVelThreshold = 0.0;
+        double bestAccuracy = 0.0;
+
+        double[] diffCandidates = data.stream().mapToDouble(TrainingSample::diff).distinct().sorted().toArray();
+        double[] fishVelCandidates = data.stream().mapToDouble(TrainingSample::fishVel).distinct().sorted().toArray();
+
+        for (double diffThresh : diffCandidates) {
+            for (double fishVelThresh : fishVelCandidates) {
+                int correct = 0;
+                for (TrainingSample point : data) {
+                    boolean prediction = point.diff() > diffThresh && point.fishVel() > fishVelThresh;
+                    if ((prediction ? 1 : 0) == point.shiftState()) correct++;
+                }
+                double accuracy = (double) correct / data.size();
+                if (accuracy > bestAccuracy) {
+                    bestAccuracy = accuracy;
+                    bestDiffThreshold = diffThresh;
+                    bestFishVelThreshold = fishVelThresh;
+                }
+            }
+        }
+        return new DecisionTreeModel(bestDiffThreshold, bestFishVelThreshold, bestAccuracy);
+    }
+}
@@ -0,0 +1,36 @@
+package com.zoltam.autofish.minigame;
+
+/**
+ * Hysteresis controller used when no model is available: press above errHi, release below errLo.
+ * The error is looked ahead by the relative velocity and EMA-smoothed, so one instance serves one session.
+ * The smoothing is per game tick: a caller stepping more often than once a tick says how much of a tick
+ * each step covers with {@link #setStepTicks}.
+ */
+public class PdController implements SneakController {
+    private final ControllerParams p;
+    private double smoothedError = 0.0;
+    private boolean primed = false;
+    private double stepTicks = 1.0;
+
+    public PdController(ControllerParams params) {
+        this.p = params;
+    }
+
+    /** Game ticks the following calls each stand for (1 at tick rate). */
+    public void setStepTicks(double ticks) {
+        stepTicks = Math.max(0.0, ticks);
+    }
+
+    @Override
+    public boolean shouldSneak(double diff, double fishVel, double boxVel,
+                               boolean sneakDown, int ticksSincePress, int ticksSinceRelease) {
+        double predicted = diff + p.predictionWeight() * (fishVel - boxVel);
+        double alpha = stepTicks == 1.0 ? p.smoothingFactor() : 1.0 - Math.pow(1.0 - p.smoothingFactor(), stepTicks);
+        smoothedError = primed ? smoothedError + alpha * (predicted - smoothedError) : predicted;
+        primed = true;
+
+        double error = Math.abs(smoothedError);
+        if (!sneakDown) return error > p.errHi() && ticksSinceRelease >= p.minRelease();
+        return !(error < p.errLo() && ticksSincePress >= p.minPress());
+    }
+}
@@ -0,0 +1,104 @@
+package com.zoltam.autofish.minigame;
+
+/**
+ * Which rod to fish with, from the uses left on every main-inventory slot (hotbar = slots 0-8).
+ *
+ * - A slot holds {@link #EMPTY}, {@link #NOT_ROD}, {@link #UNBREAKABLE} or the uses left before its rod breaks.
+ * - A rod is usable while it has more than {@code minUses} uses left.
+ * - {@link #equip} keeps the held rod, else selects the freshest usable hotbar rod, else moves the freshest
+ *   usable stored rod into the hotbar, else settles for any rod at all: a worn rod still beats stalling.
+ * - {@link #low} sums the usable rods and their uses; one unbreakable rod means the pool never runs out.
+ */
+public final class RodPool {
+    public static final int UNBREAKABLE = Integer.MAX_VALUE;
+    public static final int NOT_ROD = -1, EMPTY = -2;
+    public static final int HOTBAR = 9;
+
+    public enum Action { KEEP, SELECT, MOVE_IN, NONE }
+
+    /** What to click: select {@code hotbarSlot}, first moving the rod in from {@code from} for MOVE_IN. */
+    public record Step(Action action, int from, int hotbarSlot) {
+        static final Step KEEP = new Step(Action.KEEP, -1, -1);
+        static final Step NONE = new Step(Action.NONE, -1, -1);
+    }
+
+    private final int[] usesLeft;
+    private final int offHand, selected, minUses;
+
+    /** {@code usesLeft} is read, not copied; {@code selected} is the selected hotbar slot. */
+    public RodPool(int[] usesLeft, int offHand, int selected, int minUses) {
+        this.usesLeft = usesLeft;
+        this.offHand = offHand;
+        this.selected = selected;
+        this.minUses = minUses;
+    }
+
+    public static boolean isRod(int uses) { return uses >= 0; }
+
+    public boolean usable(int uses) { return uses > minUses; }
+
+    public int held() { return usesLeft[selected]; }
+
+    /**
+     * Next step to a rod in hand. With {@code canMoveStored} false (a screen is open, so no slot clicks
+     * on the player inventory) stored rods are skipped.
+     */
+    public Step equip(boolean canMoveStored) {
+        int held = held();
+        if (usable(held) || (!isRod(held) && usable(offHand))) return Step.KEEP;
+
+        int hotbar = freshest(0, HOTBAR);
+        if (hotbar >= 0) return new Step(Action.SELECT, hotbar, hotbar);
+
+        int stored = canMoveStored ? freshest(HOTBAR, usesLeft.length) : -1;
+        if (stored >= 0) return new Step(Action.MOVE_IN, stored, hotbarTarget());
+
+        if (isRod(held) || isRod(offHand)) return Step.KEEP;
+        for (int slot = 0; slot < HOTBAR; slot++) {
+            if (isRod(usesLeft[slot])) return new Step(Action.SELECT, slot, slot);
+        }
+        return Step.NONE;
+    }
+
+    /** Slot in [from, to) holding the usable rod with the most uses left, or -1. The first one wins ties. */
+    public int freshest(int from, int to) {
+        int best = -1, bestUses = -1;
+        for (int slot = from; slot < Math.min(to, usesLeft.length); slot++) {
+            int uses = usesLeft[slot];
+            if (usable(uses) && uses > bestUses) { best = slot; bestUses = uses; }
+        }
+        return best;
+    }
+
+    /** Hotbar slot for a rod from the inventory: the selected one if it holds a worn rod or nothing, else a free one. */
+    public int hotbarTarget() {
+        if (usesLeft[selected] == EMPTY || isRod(usesLeft[selected])) return selected;
+        for (int slot = 0; slot < HOTBAR; slot++) {
+            if (usesLeft[slot] == EMPTY) return slot;
+        }
+        return selected;
+    }
+
+    /** Usable rods in the inventory and the off hand. */
+    public int usableRods() {
+        int rods = usable(offHand) ? 1 : 0;
+        for (int uses : usesLeft) if (usable(uses)) rods++;
+        return rods;
+    }
+
+    /** Uses left on all usable rods, saturating at UNBREAKABLE. */
+    public int totalUses() {
+        long total = usable(offHand) ? offHand : 0;
+        for (int uses : usesLeft) {
+            if (!usable(uses)) continue;
+            if (uses == UNBREAKABLE) return UNBREAKABLE;
+            total += uses;
+        }
+        return (int) Math.min(UNBREAKABLE, total);
+    }
+
+    /** Whether the usable rods are down to {@code warnAt} (0 = never warn) with no unbreakable one among them. */
+    public boolean low(int warnAt) {
+        return warnAt > 0 && usableRods() <= warnAt && totalUses() != UNBREAKABLE;
+    }
+}
@@ -0,0 +1,10 @@
+package com.zoltam.autofish.minigame;
+
+/**
+ * Decides whether sneak should be held this tick.
+ * {@code diff} is fish minus box position; velocities are per tick.
+ */
+public interface SneakController {
+    boolean shouldSneak(double diff, double fishVel, double boxVel,
+                        boolean sneakDown, int ticksSincePress, int ticksSinceRelease);
+}
@@ -0,0 +1,58 @@
+package com.zoltam.autofish.minigame;
+
+/**
+ * {@link VelocityEstimator} for irregularly spaced samples (one per render frame): a least-squares
+ * slope against {@code System.nanoTime()} stamps over the last {@code windowTicks} ticks of time,
+ * reported in units per tick so the controllers and models keep their tick-rate scale.
+ */
+public class TimedVelocityEstimator {
+    public static final long TICK_NANOS = 50_000_000L;
+    private static final int CAPACITY = 512; // ~2 s at 240 fps
+
+    private final long[] t = new long[CAPACITY];
+    private final double[] fish = new double[CAPACITY];
+    private final double[] box = new double[CAPACITY];
+    private final long windowNanos;
+    private int size = 0, head = 0;
+
+    public TimedVelocityEstimator() { this(ControllerParams.DEFAULT.historySize()); }
+
+    public TimedVelocityEstimator(int windowTicks) {
+        windowNanos = Math.max(1, windowTicks) * TICK_NANOS;
+    }
+
+    public void push(long nanos, double fishPos, double boxPos) {
+        t[head] = nanos;
+        fish[head] = fishPos;
+        box[head] = boxPos;
+        head = (head + 1) % CAPACITY;
+        if (size < CAPACITY) size++;
+    }
+
+    public double fishVelocity() { return slope(fish); }
+    public double boxVelocity()  { return slope(box); }
+
+    public int size() { return size; }
+
+    public void clear() { size = 0; head = 0; }
+
+    private double slope(double[] ring) {
+        if (size < 2) return 0.0;
+        int newest = (head - 1 + CAPACITY) % CAPACITY;
+        long t0 = t[newest];
+        double sumX = 0, sumY = 0, sumXY = 0, sumX2 = 0;
+        int n = 0;
+        for (int i = 0; i < size; i++) {
+            int k = (newest - i + CAPACITY) % CAPACITY;
+            long age = t0 - t[k];
+            if (age > windowNanos && n >= 2) break;
+            double x = -(double) age / TICK_NANOS; // ticks, relative to the newest sample
+            double y = ring[k];
+            sumX += x; sumY += y; sumXY += x * y; sumX2 += x * x;
+            n++;
+        }
+        double denominator = n * sumX2 - sumX * sumX;
+        if (Math.abs(denominator) < 1e-10) return 0.0;
+        return (n * sumXY - sumX * sumY) / denominator;
+    }
+}
@@ -0,0 +1,65 @@
+package com.zoltam.autofish.minigame;
+
+/** Per-ItemDisplay Y statistics collected while a minigame is on screen. */
+public class Track {
+    public final int id; public final int firstSeenTick;
+    public int lastSeenTick;
+    public double lastWorldY, minWorldY, maxWorldY;
+    public Double lastLocalY = null;
+    public double minLocalY = Double.POSITIVE_INFINITY, maxLocalY = Double.NEGATIVE_INFINITY;
+    /** Last pushed local Y update (tick, nanoTime) and the interpolation it was sent with; -1 / 0 when only polled. */
+    public int lastLocalPushTick = -1;
+    public long lastLocalPushNanos;
+    public int interpolationTicks = 0;
+    /** Where the client's interpolation towards lastLocalY started. */
+    public double localFromY;
+
+    public Track(int id, double worldY, Double localY, int t) {
+        this.id = id; this.firstSeenTick = t; this.lastSeenTick = t;
+        this.lastWorldY = worldY;
+        this.minWorldY = worldY; this.maxWorldY = worldY;
+        updateLocal(localY);
+    }
+    public void update(double worldY, Double localY, int t) {
+        lastSeenTick = t;
+        lastWorldY = worldY;
+        if (worldY < minWorldY) minWorldY = worldY;
+        if (worldY > maxWorldY) maxWorldY = worldY;
+        updateLocal(localY);
+    }
+    public void updateLocal(Double y) {
+        if (y == null) return;
+        lastLocalY = y;
+        if (y < minLocalY) minLocalY = y;
+        if (y > maxLocalY) maxLocalY = y;
+    }
+    /** Local Y pushed as it arrived (tracker update), between the per-tick world Y updates. */
+    public void pushLocal(double y, int interpolationTicks, int t, long nanos) {
+        localFromY = lastLocalY == null ? y : interpolatedLocalY(nanos);
+        updateLocal(y);
+        this.interpolationTicks = interpolationTicks;
+        lastLocalPushTick = t;
+        lastLocalPushNanos = nanos;
+    }
+
+    /**
+     * Local Y as the client renders it at {@code nanos}: linear from {@link #localFromY} to
+     * {@link #lastLocalY} over the pushed interpolation duration. NaN without a local Y.
+     */
+    public double interpolatedLocalY(long nanos) {
+        if (lastLocalY == null) return Double.NaN;
+        if (lastLocalPushTick < 0 || interpolationTicks <= 0) return lastLocalY;
+        double f = (double) (nanos - lastLocalPushNanos) / (interpolationTicks * TimedVelocityEstimator.TICK_NANOS);
+        if (f >= 1.0) return lastLocalY;
+        if (f <= 0.0) return localFromY;
+        return localFromY + (lastLocalY - localFromY) * f;
+    }
+    public double localRange()  { return (lastLocalY == null) ? 0.0 : (maxLocalY - minLocalY); }
+    public double worldRange()  { return maxWorldY - minWorldY; }
+    public double effectiveRange() {
+        double lr = localRange();
+        if (lastLocalY != null && lr > 1e-5) return lr;
+        return worldRange();
+    }
+    public boolean hasLocal() { return lastLocalY != null; }
+}
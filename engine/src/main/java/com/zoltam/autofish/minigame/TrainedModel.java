@@ -0,0 +1,17 @@
+package com.zoltam.autofish.minigame;
+
+/**
+ * A learned press/release policy for the minigame box.
+ * Inputs are the fish-box error and both estimated velocities (units per tick).
+ */
+public abstract class TrainedModel implements SneakController {
+    public abstract boolean predict(double diff, double fishVel, double boxVel);
+
+    @Override
+    public final boolean shouldSneak(double diff, double fishVel, double boxVel,
+                                     boolean sneakDown, int ticksSincePress, int ticksSinceRelease) {
+        return predict(diff, fishVel, boxVel);
+    }
+    public abstract String getModelType();
+    public abstract double getAccuracy();
+}
@@ -0,0 +1,40 @@
+package com.zoltam.autofish.minigame;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/** auto_fish_training_data.csv: header line, then diff,fish_vel,box_vel,shift_state rows. */
+public final class TrainingDataCsv {
+    public static final String HEADER = "diff,fish_vel,box_vel,shift_state";
+
+    private TrainingDataCsv() {}
+
+    /** Reads every well-formed row; malformed numbers fall back to 0. */
+    public static List<TrainingSample> load(Path file) throws IOException {
+        List<String> lines = Files.readAllLines(file);
+        List<TrainingSample> out = new ArrayList<>(Math.max(0, lines.size() - 1));
+        for (int i = 1; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty()) continue;
+
+            String[] parts = line.split(",");
+            if (parts.length != 4) continue;
+            out.add(new TrainingSample(
+                ModelJson.parseDoubleSafe(parts[0], 0.0),
+                ModelJson.parseDoubleSafe(parts[1], 0.0),
+                ModelJson.parseDoubleSafe(parts[2], 0.0),
+                ModelJson.parseIntSafe(parts[3], 0)));
+        }
+        return out;
+    }
+
+    public static void save(Path file, List<TrainingSample> samples) throws IOException {
+        StringBuilder csv = new StringBuilder();
+        csv.append(HEADER).append("\n");
+        for (TrainingSample s : samples) csv.append(s.toCsvRow()).append("\n");
+        Files.writeString(file, csv.toString());
+    }
+}
@@ -0,0 +1,10 @@
+package com.zoltam.autofish.minigame;
+
+import java.util.Locale;
+
+/** One training row: controller inputs plus whether sneak was held (1) or not (0). */
+public record TrainingSample(double diff, double fishVel, double boxVel, int shiftState) {
+    public String toCsvRow() {
+        return String.format(Locale.ROOT, "%.6f,%.6f,%.6f,%d", diff, fishVel, boxVel, shiftState);
+    }
+}
@@ -0,0 +1,47 @@
+package com.zoltam.autofish.minigame;
+
+/**
+ * Keeps the last few fish/box positions and estimates their velocity (units per sample)
+ * with a least-squares slope over the window.
+ */
+public class VelocityEstimator {
+    private final double[] fish;
+    private final double[] box;
+    private int size = 0, head = 0;
+
+    public VelocityEstimator() { this(ControllerParams.DEFAULT.historySize()); }
+
+    public VelocityEstimator(int historySize) {
+        fish = new double[Math.max(1, historySize)];
+        box  = new double[Math.max(1, historySize)];
+    }
+
+    public void push(double fishPos, double boxPos) {
+        fish[head] = fishPos;
+        box[head] = boxPos;
+        head = (head + 1) % fish.length;
+        if (size < fish.length) size++;
+    }
+
+    public double fishVelocity() { return slope(fish); }
+    public double boxVelocity()  { return slope(box); }
+
+    public int size() { return size; }
+
+    public void clear() { size = 0; head = 0; }
+
+    private double slope(double[] ring) {
+        int n = size;
+        if (n < 2) return 0.0;
+        int start = (head - n + ring.length) % ring.length;
+        double sumX = 0, sumY = 0, sumXY = 0, sumX2 = 0;
+        for (int i = 0; i < n; i++) {
+            double x = i;
+            double y = ring[(start + i) % ring.length];
+            sumX += x; sumY += y; sumXY += x * y; sumX2 += x * x;
+        }
+        double denominator = n * sumX2 - sumX * sumX;
+        if (Math.abs(denominator) < 1e-10) return 0.0;
+        return (n * sumXY - sumX * sumY) / denominator;
+    }
+}
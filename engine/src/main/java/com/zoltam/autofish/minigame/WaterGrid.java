@@ -0,0 +1,108 @@
+package com.zoltam.autofish.minigame;
+
+/**
+ * Box of block cells around a point, two bits each: still water a bobber can float in, and open air
+ * above water (air or lily pad). Anything else counts as solid, as does everything outside the box.
+ *
+ * The module fills it with one scan and keeps it current from block updates via {@link #set};
+ * {@link CastPlanner} flies bobbers through it.
+ */
+public final class WaterGrid {
+    private final int minX, minY, minZ, sizeX, sizeY, sizeZ;
+    private final long[] water, air;
+
+    /** Cells from {@code origin - radius} to {@code origin + radius} horizontally, {@code down} below to {@code up} above. */
+    public WaterGrid(int originX, int originY, int originZ, int radius, int down, int up) {
+        this.minX = originX - radius;
+        this.minY = originY - down;
+        this.minZ = originZ - radius;
+        this.sizeX = 2 * radius + 1;
+        this.sizeY = down + up + 1;
+        this.sizeZ = 2 * radius + 1;
+        int words = (sizeX * sizeY * sizeZ + 63) >>> 6;
+        this.water = new long[words];
+        this.air = new long[words];
+    }
+
+    public int minX() { return minX; }
+    public int minY() { return minY; }
+    public int minZ() { return minZ; }
+    public int maxX() { return minX + sizeX - 1; }
+    public int maxY() { return minY + sizeY - 1; }
+    public int maxZ() { return minZ + sizeZ - 1; }
+
+    public boolean contains(int x, int y, int z) {
+        return x >= minX && y >= minY && z >= minZ && x < minX + sizeX && y < minY + sizeY && z < minZ + sizeZ;
+    }
+
+    /** Cells outside the box are ignored. */
+    public void set(int x, int y, int z, boolean isWater, boolean isAir) {
+        if (!contains(x, y, z)) return;
+        int i = index(x, y, z);
+        long bit = 1L << i;
+        if (isWater) water[i >>> 6] |= bit; else water[i >>> 6] &= ~bit;
+        if (isAir) air[i >>> 6] |= bit; else air[i >>> 6] &= ~bit;
+    }
+
+    public boolean isWater(int x, int y, int z) {
+        if (!contains(x, y, z)) return false;
+        int i = index(x, y, z);
+        return (water[i >>> 6] & (1L << i)) != 0;
+    }
+
+    public boolean isAir(int x, int y, int z) {
+        if (!contains(x, y, z)) return false;
+        int i = index(x, y, z);
+        return (air[i >>> 6] & (1L << i)) != 0;
+    }
+
+    /**
+     * Vanilla's open-water test for a bobber in cell (x, y, z): the 5x5 layers from one below to two
+     * above are each all water or all air, with water never above air.
+     */
+    public boolean isOpenWater(int x, int y, int z) {
+        boolean seenAir = false;
+        for (int dy = -1; dy <= 2; dy++) {
+            int layer = layer(x, y + dy, z);
+            if (layer == MIXED) return false;
+            if (layer == AIR) {
+                if (dy == -1) return false;
+                seenAir = true;
+            } else if (seenAir) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Share of the 5x5x4 open-water box around (x, y, z) that has the right kind of cell for its layer. */
+    public double openFraction(int x, int y, int z) {
+        int good = 0;
+        for (int dy = -1; dy <= 2; dy++) {
+            boolean wantWater = dy <= 0;
+            for (int dx = -2; dx <= 2; dx++) {
+                for (int dz = -2; dz <= 2; dz++) {
+                    if (wantWater ? isWater(x + dx, y + dy, z + dz) : isAir(x + dx, y + dy, z + dz)) good++;
+                }
+            }
+        }
+        return good / 100.0;
+    }
+
+    private static final int MIXED = 0, AIR = 1, WATER = 2;
+
+    private int layer(int x, int y, int z) {
+        boolean allWater = true, allAir = true;
+        for (int dx = -2; dx <= 2; dx++) {
+            for (int dz = -2; dz <= 2; dz++) {
+                allWater &= isWater(x + dx, y, z + dz);
+                allAir &= isAir(x + dx, y, z + dz);
+            }
+        }
+        return allWater ? WATER : allAir ? AIR : MIXED;
+    }
+
+    private int index(int x, int y, int z) {
+        return ((y - minY) * sizeZ + (z - minZ)) * sizeX + (x - minX);
+    }
+}
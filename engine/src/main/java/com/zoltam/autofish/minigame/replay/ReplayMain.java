@@ -0,0 +1,99 @@
+package com.zoltam.autofish.minigame.replay;
+
+import com.zoltam.autofish.minigame.ControllerParams;
+import com.zoltam.autofish.minigame.LogisticRegressionModel;
+import com.zoltam.autofish.minigame.ModelJson;
+import com.zoltam.autofish.minigame.PdController;
+import com.zoltam.autofish.minigame.SneakController;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Headless entry point: replays recorded traces with one or more controllers and prints a report.
+ *
+ * <pre>
+ * ReplayMain [--controller pd,default,path/to/model.json] [--threads N] [--repeat N] &lt;file-or-dir&gt;...
+ * </pre>
+ * Directories are searched for *.tsv files; binary traces (*.aftr) are read when passed by name
+ * (a directory usually holds the TSV twin of each trace). {@code --repeat} replays every session N times,
+ * which is handy when measuring throughput on a small set of recordings.
+ */
+public final class ReplayMain {
+    private ReplayMain() {}
+
+    public static void main(String[] args) throws Exception {
+        String controllers = "pd,default";
+        int threads = Runtime.getRuntime().availableProcessors();
+        int repeat = 1;
+        List<Path> inputs = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--controller" -> controllers = args[++i];
+                case "--threads" -> threads = Math.max(1, Integer.parseInt(args[++i]));
+                case "--repeat" -> repeat = Math.max(1, Integer.parseInt(args[++i]));
+                default -> inputs.add(Path.of(args[i]));
+            }
+        }
+        if (inputs.isEmpty()) {
+            System.err.println("usage: ReplayMain [--controller pd,default,model.json] [--threads N] [--repeat N] <file-or-dir>...");
+            System.exit(2);
+        }
+
+        List<Path> files = new ArrayList<>();
+        for (Path p : inputs) {
+            if (Files.isDirectory(p)) {
+                try (Stream<Path> s = Files.walk(p)) {
+                    s.filter(f -> f.toString().endsWith(".tsv") || f.toString().endsWith(".tsv.gz")).sorted().forEach(files::add);
+                }
+            } else if (Files.exists(p)) files.add(p);
+            else System.err.println("skipping missing input: " + p);
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            long p0 = System.nanoTime();
+            List<TraceSession> sessions = pool.submit(() -> files.parallelStream()
+                .flatMap(f -> {
+                    try { return TraceReader.readAll(f).stream(); }
+                    catch (IOException e) { throw new UncheckedIOException(e); }
+                })
+                .toList()).get();
+            System.out.printf("parsed %d sessions from %d files in %.1f ms%n", sessions.size(), files.size(), (System.nanoTime() - p0) / 1e6);
+
+            List<TraceSession> work = new ArrayList<>(sessions.size() * repeat);
+            for (int r = 0; r < repeat; r++) work.addAll(sessions);
+
+            for (String name : controllers.split(",")) {
+                Supplier<SneakController> controller = resolveController(name.trim());
+                long w0 = System.nanoTime();
+                List<SessionResult> results = pool.submit(() -> work.parallelStream()
+                    .map(s -> TraceReplayer.replay(s, controller))
+                    .toList()).get();
+                System.out.print(ReplayReport.format(name.trim(), results, System.nanoTime() - w0, threads));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    static Supplier<SneakController> resolveController(String name) throws IOException {
+        return switch (name) {
+            case "pd" -> () -> new PdController(ControllerParams.DEFAULT);
+            case "default" -> () -> LogisticRegressionModel.DEFAULT;
+            default -> {
+                SneakController m = ModelJson.fromJson(Files.readString(Path.of(name)));
+                if (m == null) throw new IllegalArgumentException("Unknown model type in " + name);
+                yield () -> m;
+            }
+        };
+    }
+}
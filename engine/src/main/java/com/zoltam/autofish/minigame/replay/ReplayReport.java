@@ -0,0 +1,56 @@
+package com.zoltam.autofish.minigame.replay;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/** Aggregate decision and timing statistics over a batch of replayed sessions. */
+public final class ReplayReport {
+    private ReplayReport() {}
+
+    public static String format(String controller, List<SessionResult> results, long wallNanos, int threads) {
+        int sessions = results.size(), classified = 0, caught = 0, failed = 0;
+        long samples = 0, ticks = 0, decisions = 0, presses = 0, toggles = 0, comparable = 0, agreements = 0;
+        long latencySum = 0;
+        double absErr = 0.0;
+        long[] nanos = new long[sessions];
+
+        for (int i = 0; i < sessions; i++) {
+            SessionResult r = results.get(i);
+            samples += r.samples(); ticks += r.ticks();
+            decisions += r.decisions(); presses += r.presses(); toggles += r.toggles();
+            comparable += r.comparable(); agreements += r.agreements();
+            absErr += r.absErrorSum();
+            if (r.classified()) { classified++; latencySum += r.classifyLatency(); }
+            if (Boolean.TRUE.equals(r.caught())) caught++;
+            else if (Boolean.FALSE.equals(r.caught())) failed++;
+            nanos[i] = r.nanos();
+        }
+        Arrays.sort(nanos);
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "== controller: %s ==%n", controller));
+        sb.append(String.format(Locale.ROOT, "sessions=%d samples=%d classified=%d (mean latency %.1f ticks) outcome caught=%d failed=%d%n",
+            sessions, samples, classified, classified == 0 ? 0.0 : (double) latencySum / classified, caught, failed));
+        sb.append(String.format(Locale.ROOT, "decisions=%d presses=%d toggles/s=%.2f mean|err|=%.4f agreement=%s%n",
+            decisions, presses, ticks == 0 ? 0.0 : toggles / (ticks / 20.0),
+            decisions == 0 ? 0.0 : absErr / decisions,
+            comparable == 0 ? "n/a" : String.format(Locale.ROOT, "%.1f pct of %d", 100.0 * agreements / comparable, comparable)));
+        sb.append(String.format(Locale.ROOT, "wall=%.1f ms threads=%d throughput=%.0f sessions/s | per session p50=%.1f us p99=%.1f us | %.0f ns/decision%n",
+            wallNanos / 1e6, threads, wallNanos == 0 ? 0.0 : sessions / (wallNanos / 1e9),
+            percentile(nanos, 0.50) / 1e3, percentile(nanos, 0.99) / 1e3,
+            decisions == 0 ? 0.0 : (double) sum(nanos) / decisions));
+        return sb.toString();
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        return sorted[Math.min(sorted.length - 1, (int) (p * sorted.length))];
+    }
+
+    private static long sum(long[] a) {
+        long s = 0;
+        for (long v : a) s += v;
+        return s;
+    }
+}
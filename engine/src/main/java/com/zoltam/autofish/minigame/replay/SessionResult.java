@@ -0,0 +1,17 @@
+package com.zoltam.autofish.minigame.replay;
+
+/**
+ * What the controller decided over one replayed session.
+ *
+ * @param classifyLatency ticks from session start to BOX/FISH classification, -1 if never classified
+ * @param comparable      decisions made on samples that carry a recorded sneak state
+ * @param agreements      of those, how many matched the recorded sneak state
+ */
+public record SessionResult(
+    String file, TraceSession.Source source, int samples, int ticks,
+    int classifyLatency, int decisions, int presses, int toggles,
+    int comparable, int agreements, double absErrorSum,
+    Boolean caught, long nanos
+) {
+    public boolean classified() { return classifyLatency >= 0; }
+}
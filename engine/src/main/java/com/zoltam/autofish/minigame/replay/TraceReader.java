@@ -0,0 +1,175 @@
+package com.zoltam.autofish.minigame.replay;
+
+import com.zoltam.autofish.minigame.trace.BinaryTraceReader;
+import com.zoltam.autofish.minigame.trace.TraceRecord;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Streams minigame sessions out of the TSV files written by MinigameObserver
+ * (meteor_observer_log.tsv, 16 columns) and MinigameDiagnostics (meteor_minigame_diag.tsv, 5 columns),
+ * including their rotated *.tsv.gz segments, and out of MinigameObserver binary traces (*.aftr and rotated
+ * *.aftr.gz segments, detected by magic).
+ *
+ * - A session starts at a "detect / session_start" row and ends when the module reset it.
+ * - The first caught/failed overlay or packet text after the start becomes the session outcome.
+ * - Sessions are handed to the sink one at a time; the file is never held in memory.
+ */
+public final class TraceReader {
+    private TraceReader() {}
+
+    public static List<TraceSession> readAll(Path file) throws IOException {
+        List<TraceSession> out = new ArrayList<>();
+        read(file, out::add);
+        return out;
+    }
+
+    public static void read(Path file, Consumer<TraceSession> sink) throws IOException {
+        if (BinaryTraceReader.isBinaryTrace(file)) { readBinary(file, sink); return; }
+
+        Assembler asm = new Assembler(file.getFileName().toString(), sink);
+        try (BufferedReader in = open(file)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#") || line.startsWith("ts\t")) continue;
+                String[] f = line.split("\t", -1);
+                if (f.length < 5) continue;
+
+                TraceSession.Source src = f.length >= 16 ? TraceSession.Source.OBSERVER : TraceSession.Source.DIAGNOSTICS;
+                int t = parseInt(f[1], Integer.MIN_VALUE);
+                if (t == Integer.MIN_VALUE) continue;
+
+                TraceSession s = asm.row(src, t, f[2], f[3], f[4]);
+                if (s == null) continue;
+                if (src == TraceSession.Source.OBSERVER) addObserverRow(s, t, f);
+                else addDiagnosticsRow(s, t, f[4]);
+            }
+        }
+        asm.finish();
+    }
+
+    /** Plain or gzipped (rotated segment) text. */
+    private static BufferedReader open(Path file) throws IOException {
+        if (!file.getFileName().toString().endsWith(".gz")) return Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        return new BufferedReader(new InputStreamReader(new GZIPInputStream(Files.newInputStream(file), 64 * 1024), StandardCharsets.UTF_8));
+    }
+
+    /** Same session rules as the TSV path, fed from a MinigameObserver binary trace. */
+    private static void readBinary(Path file, Consumer<TraceSession> sink) throws IOException {
+        Assembler asm = new Assembler(file.getFileName().toString(), sink);
+        try (BinaryTraceReader in = BinaryTraceReader.open(file)) {
+            TraceRecord r = new TraceRecord();
+            while (in.next(r)) {
+                if (r.kind != TraceRecord.Kind.ROW) continue;
+                TraceSession s = asm.row(TraceSession.Source.OBSERVER, r.tick, r.phase, r.event, r.details == null ? "" : r.details);
+                if (s == null || r.boxId == TraceRecord.NO_ID || r.fishId == TraceRecord.NO_ID || !r.hasSnapshot) continue;
+                s.recordedBoxId = r.boxId;
+                s.recordedFishId = r.fishId;
+                int sneak = r.sneakDown ? 1 : 0;
+                s.add(r.tick, r.boxId,  r.boxWorldY,  r.boxLocalY,  sneak);
+                s.add(r.tick, r.fishId, r.fishWorldY, r.fishLocalY, sneak);
+            }
+        }
+        asm.finish();
+    }
+
+    /** Session boundaries and outcomes; shared by the TSV and binary paths. */
+    private static final class Assembler {
+        private final String name;
+        private final Consumer<TraceSession> sink;
+        private TraceSession cur = null;     // open session
+        private TraceSession pending = null; // closed, still waiting for a late outcome overlay
+
+        Assembler(String name, Consumer<TraceSession> sink) { this.name = name; this.sink = sink; }
+
+        /** Handles boundaries and outcomes; returns the open session when the row is a tracking sample for it. */
+        TraceSession row(TraceSession.Source src, int t, String phase, String event, String details) {
+            if (phase.equals("detect") && event.equals("session_start")) {
+                if (pending != null) { sink.accept(pending); pending = null; }
+                if (cur != null) sink.accept(cur);
+                cur = new TraceSession(name, src, t);
+                return null;
+            }
+
+            if (phase.startsWith("overlay") || phase.equals("packet")) {
+                TraceSession target = cur != null ? cur : pending;
+                if (target != null && target.caught == null) {
+                    String low = details.toLowerCase(Locale.ROOT);
+                    if (low.contains("caught")) target.caught = Boolean.TRUE;
+                    else if (low.contains("failed")) target.caught = Boolean.FALSE;
+                }
+                return null;
+            }
+
+            if (cur == null) return null;
+
+            if (event.equals("entities_gone") || event.equals("all_gone") || event.equals("session_cap")) {
+                if (pending != null) sink.accept(pending);
+                pending = cur;
+                cur = null;
+                return null;
+            }
+            if (src == TraceSession.Source.OBSERVER && phase.equals("track") && event.equals("tick")) return cur;
+            if (src == TraceSession.Source.DIAGNOSTICS && phase.equals("sample") && event.equals("entity")) return cur;
+            return null;
+        }
+
+        void finish() {
+            if (pending != null) sink.accept(pending);
+            if (cur != null) sink.accept(cur);
+        }
+    }
+
+    // ts tick phase event details session boxId fishId boxWorldY fishWorldY boxLocalY fishLocalY errLocal errWorld sneakDown overlay
+    private static void addObserverRow(TraceSession s, int t, String[] f) {
+        int box = parseInt(f[6], Integer.MIN_VALUE), fish = parseInt(f[7], Integer.MIN_VALUE);
+        if (box == Integer.MIN_VALUE || fish == Integer.MIN_VALUE) return;
+        s.recordedBoxId = box;
+        s.recordedFishId = fish;
+        int sneak = f[14].equals("true") ? 1 : f[14].equals("false") ? 0 : -1;
+        s.add(t, box,  parseDouble(f[8]),  parseDouble(f[10]), sneak);
+        s.add(t, fish, parseDouble(f[9]),  parseDouble(f[11]), sneak);
+    }
+
+    // ent=%d world=(x,y,z) d=(...) spd=... chosenY=... y=%.5f dy=... var=... fishLikely=... boxLikely=...
+    private static void addDiagnosticsRow(TraceSession s, int t, String d) {
+        int id = parseInt(field(d, "ent=", ' '), Integer.MIN_VALUE);
+        if (id == Integer.MIN_VALUE) return;
+        int w = d.indexOf("world=(");
+        if (w < 0) return;
+        int c1 = d.indexOf(',', w);
+        int c2 = c1 < 0 ? -1 : d.indexOf(',', c1 + 1);
+        if (c2 < 0) return;
+        double wy = parseDouble(d.substring(c1 + 1, c2));
+        double ly = parseDouble(field(d, " y=", ' '));
+        s.add(t, id, wy, ly, -1);
+    }
+
+    private static String field(String s, String key, char end) {
+        int i = s.indexOf(key);
+        if (i < 0) return "";
+        i += key.length();
+        int j = s.indexOf(end, i);
+        return j < 0 ? s.substring(i) : s.substring(i, j);
+    }
+
+    private static int parseInt(String s, int def) {
+        if (s == null || s.isEmpty()) return def;
+        try { return Integer.parseInt(s); } catch (NumberFormatException ignored) { return def; }
+    }
+
+    private static double parseDouble(String s) {
+        if (s == null || s.isEmpty()) return Double.NaN;
+        try { return Double.parseDouble(s); } catch (NumberFormatException ignored) { return Double.NaN; }
+    }
+}
@@ -0,0 +1,95 @@
+package com.zoltam.autofish.minigame.replay;
+
+import com.zoltam.autofish.minigame.ControllerParams;
+import com.zoltam.autofish.minigame.MinigameClassifier;
+import com.zoltam.autofish.minigame.SneakController;
+import com.zoltam.autofish.minigame.Track;
+import com.zoltam.autofish.minigame.VelocityEstimator;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Feeds a recorded session through the same classification, velocity estimation and
+ * control steps AutoFishMinigame runs each tick, with the sneak state simulated locally.
+ */
+public final class TraceReplayer {
+    private TraceReplayer() {}
+
+    public static SessionResult replay(TraceSession s, Supplier<SneakController> controllers) {
+        return replay(s, controllers, ControllerParams.DEFAULT);
+    }
+
+    /** {@code controllers} is asked for a fresh controller per session (PD keeps per-session state). */
+    public static SessionResult replay(TraceSession s, Supplier<SneakController> controllers, ControllerParams params) {
+        long t0 = System.nanoTime();
+
+        SneakController controller = controllers.get();
+        Map<Integer, Track> tracks = new HashMap<>();
+        VelocityEstimator velocity = new VelocityEstimator(params.historySize());
+
+        boolean observer = s.source == TraceSession.Source.OBSERVER;
+        Integer boxId = observer ? s.recordedBoxId : null;
+        Integer fishId = observer ? s.recordedFishId : null;
+        int classifyLatency = boxId != null ? 0 : -1;
+
+        boolean sneakDown = false;
+        int lastPressTick = -1000, lastReleaseTick = -1000;
+        int decisions = 0, presses = 0, toggles = 0, comparable = 0, agreements = 0;
+        double absErrorSum = 0.0;
+
+        int i = 0;
+        while (i < s.size) {
+            final int tick = s.tick[i];
+            int recordedSneak = -1;
+            for (; i < s.size && s.tick[i] == tick; i++) {
+                int id = s.entity[i];
+                double wy = s.worldY[i];
+                Double ly = Double.isNaN(s.localY[i]) ? null : s.localY[i];
+                Track tr = tracks.get(id);
+                if (tr == null) tracks.put(id, new Track(id, wy, ly, tick));
+                else tr.update(wy, ly, tick);
+                if (s.sneak[i] >= 0) recordedSneak = s.sneak[i];
+            }
+            tracks.values().removeIf(tr -> tr.lastSeenTick != tick);
+
+            if (boxId == null) {
+                MinigameClassifier.Result r = MinigameClassifier.classify(tracks.values(), tick);
+                if (r == null) continue;
+                boxId = r.box().id;
+                fishId = r.fish().id;
+                classifyLatency = tick - s.startTick;
+            }
+
+            Track box = tracks.get(boxId), fish = tracks.get(fishId);
+            if (box == null || fish == null) continue;
+
+            boolean usedLocal = box.lastLocalY != null && fish.lastLocalY != null;
+            double fishPos = usedLocal ? fish.lastLocalY : fish.lastWorldY;
+            double boxPos  = usedLocal ? box.lastLocalY  : box.lastWorldY;
+            velocity.push(fishPos, boxPos);
+            double diff = fishPos - boxPos;
+
+            boolean press = controller.shouldSneak(diff, velocity.fishVelocity(), velocity.boxVelocity(),
+                sneakDown, tick - lastPressTick, tick - lastReleaseTick);
+            decisions++;
+            absErrorSum += Math.abs(diff);
+
+            if (press != sneakDown) {
+                toggles++;
+                if (press) { presses++; lastPressTick = tick; }
+                else lastReleaseTick = tick;
+                sneakDown = press;
+            }
+            if (recordedSneak >= 0) {
+                comparable++;
+                if ((recordedSneak == 1) == press) agreements++;
+            }
+        }
+
+        int ticks = s.size == 0 ? 0 : s.tick[s.size - 1] - s.tick[0];
+        return new SessionResult(s.file, s.source, s.size, ticks, classifyLatency, decisions, presses, toggles,
+            comparable, agreements, absErrorSum, s.caught, System.nanoTime() - t0);
+    }
+}
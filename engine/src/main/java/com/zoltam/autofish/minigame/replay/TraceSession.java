@@ -0,0 +1,50 @@
+package com.zoltam.autofish.minigame.replay;
+
+import java.util.Arrays;
+
+/**
+ * One recorded minigame session as flat per-sample columns.
+ * A sample is one ItemDisplay at one tick; local Y is NaN when it was not known.
+ */
+public class TraceSession {
+    public enum Source { OBSERVER, DIAGNOSTICS }
+
+    public final String file;
+    public final Source source;
+    public final int startTick;
+
+    int size = 0;
+    int[] tick = new int[64];
+    int[] entity = new int[64];
+    double[] worldY = new double[64];
+    double[] localY = new double[64];
+    /** Recorded sneak state per sample: 1 pressed, 0 released, -1 unknown. */
+    byte[] sneak = new byte[64];
+
+    /** Box / fish ids labelled at record time (observer traces only). */
+    Integer recordedBoxId, recordedFishId;
+    /** True = caught, false = failed, null = no outcome overlay seen. */
+    Boolean caught;
+
+    TraceSession(String file, Source source, int startTick) {
+        this.file = file; this.source = source; this.startTick = startTick;
+    }
+
+    void add(int t, int id, double wy, double ly, int sneakState) {
+        if (size == tick.length) {
+            int n = size * 2;
+            tick = Arrays.copyOf(tick, n);
+            entity = Arrays.copyOf(entity, n);
+            worldY = Arrays.copyOf(worldY, n);
+            localY = Arrays.copyOf(localY, n);
+            sneak = Arrays.copyOf(sneak, n);
+        }
+        tick[size] = t; entity[size] = id; worldY[size] = wy; localY[size] = ly; sneak[size] = (byte) sneakState;
+        size++;
+    }
+
+    public int samples() { return size; }
+    public Boolean caught() { return caught; }
+    public Integer recordedBoxId() { return recordedBoxId; }
+    public Integer recordedFishId() { return recordedFishId; }
+}
@@ -0,0 +1,63 @@
+package com.zoltam.autofish.minigame.sim;
+
+import java.util.SplittableRandom;
+
+/** How the simulated fish moves along the track (positions in [0, 1]). */
+public enum FishMotion {
+    /** Smooth oscillation with a random amplitude, period and phase per session. */
+    SINUSOID,
+    /** Damped random walk. */
+    RANDOM_WALK,
+    /** Mostly idle, with sudden dashes to a new spot. */
+    BURST;
+
+    /** Per-session motion state. */
+    static final class State {
+        double y = 0.5, v = 0.0;
+        double amplitude, period, phase;
+        double target = 0.5;
+        int burstTicks = 0;
+    }
+
+    State init(SplittableRandom rng) {
+        State s = new State();
+        s.amplitude = 0.2 + rng.nextDouble() * 0.2;
+        s.period = 40 + rng.nextDouble() * 60;
+        s.phase = rng.nextDouble() * Math.PI * 2;
+        s.y = this == SINUSOID ? 0.5 + s.amplitude * Math.sin(s.phase) : 0.3 + rng.nextDouble() * 0.4;
+        return s;
+    }
+
+    double step(State s, int tick, SplittableRandom rng) {
+        switch (this) {
+            case SINUSOID -> s.y = 0.5 + s.amplitude * Math.sin(2 * Math.PI * tick / s.period + s.phase);
+            case RANDOM_WALK -> {
+                s.v = 0.85 * s.v + gaussian(rng) * 0.012;
+                s.y += s.v;
+                if (s.y < 0.05 || s.y > 0.95) { s.v = -s.v; s.y = clamp(s.y, 0.05, 0.95); }
+            }
+            case BURST -> {
+                if (s.burstTicks == 0 && rng.nextDouble() < 0.04) {
+                    s.target = 0.05 + rng.nextDouble() * 0.9;
+                    s.burstTicks = 4 + rng.nextInt(6);
+                }
+                if (s.burstTicks > 0) {
+                    s.y += (s.target - s.y) / s.burstTicks;
+                    s.burstTicks--;
+                } else {
+                    s.y += gaussian(rng) * 0.003;
+                }
+                s.y = clamp(s.y, 0.05, 0.95);
+            }
+        }
+        return s.y;
+    }
+
+    static double clamp(double v, double lo, double hi) { return v < lo ? lo : Math.min(v, hi); }
+
+    /** Box–Muller; SplittableRandom has no nextGaussian. */
+    static double gaussian(SplittableRandom rng) {
+        double u1 = rng.nextDouble(), u2 = rng.nextDouble();
+        return Math.sqrt(-2.0 * Math.log(Math.max(u1, 1e-12))) * Math.cos(2 * Math.PI * u2);
+    }
+}
@@ -0,0 +1,79 @@
+package com.zoltam.autofish.minigame.sim;
+
+import com.zoltam.autofish.minigame.ControllerParams;
+import com.zoltam.autofish.minigame.SneakController;
+import com.zoltam.autofish.minigame.VelocityEstimator;
+
+import java.util.SplittableRandom;
+
+/**
+ * Closed-loop fishing minigame: the fish moves by a {@link FishMotion}, the box accelerates up
+ * while sneak is held and falls otherwise, and catch progress fills while the fish is inside the box.
+ *
+ * The controller sees the same inputs the live module computes each tick (fish - box error and
+ * velocities from a {@link VelocityEstimator}) and the same press/release tick bookkeeping.
+ */
+public final class MinigameSimulator {
+    private MinigameSimulator() {}
+
+    /**
+     * Runs one session. The fish path and observation noise come from separate splits of {@code rng},
+     * so every controller given the same seed faces exactly the same fish.
+     */
+    public static SimResult run(SneakController controller, SimConfig cfg, SplittableRandom rng) {
+        return run(controller, cfg, rng, ControllerParams.DEFAULT);
+    }
+
+    /** {@code params} supplies the velocity history size and the post-toggle jitter pause. */
+    public static SimResult run(SneakController controller, SimConfig cfg, SplittableRandom rng, ControllerParams params) {
+        SplittableRandom fishRng = rng.split();
+        SplittableRandom noiseRng = rng.split();
+
+        FishMotion.State fish = cfg.motion().init(fishRng);
+        VelocityEstimator velocity = new VelocityEstimator(params.historySize());
+        int pausedUntilTick = -1;
+
+        double boxY = 0.1, boxV = 0.0;
+        double progress = cfg.startProgress();
+        boolean sneakDown = false;
+        int lastPressTick = -1000, lastReleaseTick = -1000;
+        int toggles = 0;
+        double absErrorSum = 0.0;
+
+        for (int tick = 0; tick < cfg.maxTicks(); tick++) {
+            double fishY = cfg.motion().step(fish, tick, fishRng);
+
+            double seenFish = fishY + FishMotion.gaussian(noiseRng) * cfg.observationNoise();
+            double seenBox  = boxY  + FishMotion.gaussian(noiseRng) * cfg.observationNoise();
+            velocity.push(seenFish, seenBox);
+            double diff = seenFish - seenBox;
+            absErrorSum += Math.abs(fishY - boxY);
+
+            // Like the module, no decisions while the post-toggle jitter pause (ms) is running
+            if (tick >= pausedUntilTick) {
+                boolean press = controller.shouldSneak(diff, velocity.fishVelocity(), velocity.boxVelocity(),
+                    sneakDown, tick - lastPressTick, tick - lastReleaseTick);
+                if (press != sneakDown) {
+                    toggles++;
+                    if (press) lastPressTick = tick; else lastReleaseTick = tick;
+                    sneakDown = press;
+                    pausedUntilTick = tick + 1 + noiseRng.nextInt(Math.max(1, params.jitterMs())) / 50;
+                }
+            }
+
+            // Box physics
+            boxV += sneakDown ? cfg.pressAccel() : -cfg.gravity();
+            boxV = FishMotion.clamp(boxV, -cfg.maxSpeed(), cfg.maxSpeed());
+            boxY += boxV;
+            if (boxY < 0.0) { boxY = 0.0; boxV = 0.0; }
+            if (boxY > 1.0) { boxY = 1.0; boxV = 0.0; }
+
+            // Progress
+            if (Math.abs(fishY - boxY) <= cfg.boxHalfHeight()) progress += cfg.catchGain();
+            else progress -= cfg.failLoss();
+            if (progress >= 1.0) return new SimResult(true, tick + 1, toggles, absErrorSum);
+            if (progress <= 0.0) return new SimResult(false, tick + 1, toggles, absErrorSum);
+        }
+        return new SimResult(false, cfg.maxTicks(), toggles, absErrorSum);
+    }
+}
@@ -0,0 +1,26 @@
+package com.zoltam.autofish.minigame.sim;
+
+/**
+ * Physics and scoring constants for one simulated minigame.
+ * Positions are in track units [0, 1]; speeds and rates are per tick (20 tps).
+ *
+ * @param boxHalfHeight   fish counts as "inside" when |fish - box| is below this
+ * @param pressAccel      upward acceleration while sneak is held
+ * @param gravity         downward acceleration while released
+ * @param maxSpeed        box speed cap
+ * @param catchGain       progress gained per tick with the fish inside
+ * @param failLoss        progress lost per tick with the fish outside
+ * @param startProgress   progress at session start; 1 = caught, 0 = failed
+ * @param maxTicks        session times out (failed) after this many ticks
+ * @param observationNoise gaussian noise on the positions the controller sees
+ */
+public record SimConfig(
+    FishMotion motion,
+    double boxHalfHeight, double pressAccel, double gravity, double maxSpeed,
+    double catchGain, double failLoss, double startProgress,
+    int maxTicks, double observationNoise
+) {
+    public static SimConfig defaults(FishMotion motion) {
+        return new SimConfig(motion, 0.12, 0.012, 0.010, 0.06, 0.012, 0.010, 0.3, 1200, 0.004);
+    }
+}
@@ -0,0 +1,4 @@
+package com.zoltam.autofish.minigame.sim;
+
+/** Outcome of one simulated session. */
+public record SimResult(boolean caught, int ticks, int toggles, double absErrorSum) {}
@@ -0,0 +1,57 @@
+package com.zoltam.autofish.minigame.sim;
+
+import com.zoltam.autofish.minigame.ControllerParams;
+import com.zoltam.autofish.minigame.SneakController;
+
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/** Runs many simulated sessions in parallel and sums their outcomes. */
+public final class SimulationBatch {
+    private SimulationBatch() {}
+
+    public static final class Summary {
+        public int sessions, caught;
+        public long caughtTicks, totalTicks, toggles;
+        public double absErrorSum;
+
+        void add(SimResult r) {
+            sessions++;
+            totalTicks += r.ticks();
+            toggles += r.toggles();
+            absErrorSum += r.absErrorSum();
+            if (r.caught()) { caught++; caughtTicks += r.ticks(); }
+        }
+
+        void merge(Summary o) {
+            sessions += o.sessions; caught += o.caught;
+            caughtTicks += o.caughtTicks; totalTicks += o.totalTicks; toggles += o.toggles;
+            absErrorSum += o.absErrorSum;
+        }
+
+        public double catchRate() { return sessions == 0 ? 0.0 : (double) caught / sessions; }
+        public double meanTimeToCatchSeconds() { return caught == 0 ? Double.NaN : caughtTicks / 20.0 / caught; }
+        public double togglesPerSecond() { return totalTicks == 0 ? 0.0 : toggles / (totalTicks / 20.0); }
+        public double meanAbsError() { return totalTicks == 0 ? 0.0 : absErrorSum / totalTicks; }
+    }
+
+    /** Per-session seeds drawn up front, so results do not depend on thread scheduling. */
+    public static long[] seeds(long seed, int sessions) {
+        SplittableRandom root = new SplittableRandom(seed);
+        long[] out = new long[sessions];
+        for (int i = 0; i < sessions; i++) out[i] = root.nextLong();
+        return out;
+    }
+
+    public static Summary run(Supplier<SneakController> controllers, SimConfig cfg, long[] seeds) {
+        return run(controllers, cfg, seeds, ControllerParams.DEFAULT);
+    }
+
+    /** Runs one session per seed, each with a fresh controller, on the calling thread's ForkJoinPool. */
+    public static Summary run(Supplier<SneakController> controllers, SimConfig cfg, long[] seeds, ControllerParams params) {
+        return IntStream.range(0, seeds.length).parallel()
+            .mapToObj(i -> MinigameSimulator.run(controllers.get(), cfg, new SplittableRandom(seeds[i]), params))
+            .collect(Summary::new, Summary::add, Summary::merge);
+    }
+}
@@ -0,0 +1,93 @@
+package com.zoltam.autofish.minigame.sim;
+
+import com.zoltam.autofish.minigame.ControllerParams;
+import com.zoltam.autofish.minigame.LogisticRegressionModel;
+import com.zoltam.autofish.minigame.ModelJson;
+import com.zoltam.autofish.minigame.PdController;
+import com.zoltam.autofish.minigame.SneakController;
+import com.zoltam.autofish.minigame.TrainedModel;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Benchmarks controllers against the simulated minigame and prints catch rate, time-to-catch
+ * and sneak toggles per second for every controller × fish motion.
+ *
+ * <pre>
+ * SimulatorMain [--sessions N] [--seed S] [--threads N] [--motion sinusoid,random_walk,burst] [model.json | models-dir]...
+ * </pre>
+ * PD and the built-in default model are always included; extra arguments add trained models.
+ */
+public final class SimulatorMain {
+    private SimulatorMain() {}
+
+    public static void main(String[] args) throws Exception {
+        int sessions = 5000;
+        long seed = 1L;
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<FishMotion> motions = new ArrayList<>(List.of(FishMotion.values()));
+        List<Path> modelInputs = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--sessions" -> sessions = Math.max(1, Integer.parseInt(args[++i]));
+                case "--seed" -> seed = Long.parseLong(args[++i]);
+                case "--threads" -> threads = Math.max(1, Integer.parseInt(args[++i]));
+                case "--motion" -> {
+                    motions.clear();
+                    for (String m : args[++i].split(",")) motions.add(FishMotion.valueOf(m.trim().toUpperCase(Locale.ROOT)));
+                }
+                default -> modelInputs.add(Path.of(args[i]));
+            }
+        }
+
+        Map<String, Supplier<SneakController>> controllers = new LinkedHashMap<>();
+        controllers.put("pd", () -> new PdController(ControllerParams.DEFAULT));
+        controllers.put("default", () -> LogisticRegressionModel.DEFAULT);
+        for (Path p : modelInputs) loadModels(p, controllers);
+
+        long[] seeds = SimulationBatch.seeds(seed, sessions);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            System.out.printf(Locale.ROOT, "%d sessions per cell, seed=%d, threads=%d%n", sessions, seed, threads);
+            System.out.printf(Locale.ROOT, "%-28s %-12s %9s %10s %10s %9s %9s%n",
+                "controller", "motion", "catch%", "ttc(s)", "toggles/s", "mean|err|", "ms");
+            for (Map.Entry<String, Supplier<SneakController>> c : controllers.entrySet()) {
+                for (FishMotion motion : motions) {
+                    SimConfig cfg = SimConfig.defaults(motion);
+                    long t0 = System.nanoTime();
+                    SimulationBatch.Summary s = pool.submit(() -> SimulationBatch.run(c.getValue(), cfg, seeds)).get();
+                    System.out.printf(Locale.ROOT, "%-28s %-12s %9.1f %10.2f %10.2f %9.4f %9.1f%n",
+                        c.getKey(), motion.name().toLowerCase(Locale.ROOT), s.catchRate() * 100,
+                        s.meanTimeToCatchSeconds(), s.togglesPerSecond(), s.meanAbsError(),
+                        (System.nanoTime() - t0) / 1e6);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static void loadModels(Path p, Map<String, Supplier<SneakController>> out) throws Exception {
+        List<Path> files = new ArrayList<>();
+        if (Files.isDirectory(p)) {
+            try (Stream<Path> s = Files.list(p)) { s.filter(f -> f.toString().endsWith(".json")).sorted().forEach(files::add); }
+        } else files.add(p);
+
+        for (Path f : files) {
+            TrainedModel m = ModelJson.fromJson(Files.readString(f));
+            if (m == null) { System.err.println("skipping " + f + ": unknown model type"); continue; }
+            String name = f.getFileName().toString();
+            out.put(name.substring(0, name.length() - ".json".length()), () -> m);
+        }
+    }
+}
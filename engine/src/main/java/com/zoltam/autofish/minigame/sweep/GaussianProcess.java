@@ -0,0 +1,107 @@
+package com.zoltam.autofish.minigame.sweep;
+
+import java.util.List;
+
+/**
+ * Minimal GP regression (RBF kernel, fixed length scale) over points in the unit cube,
+ * with expected improvement for the Bayesian sweep. Targets are standardised internally.
+ */
+final class GaussianProcess {
+    private static final double LENGTH_SCALE = 0.35;
+    private static final double NOISE = 1e-3;
+
+    private final double[][] x;
+    private final double[] alpha;
+    private final double[][] chol;
+    private final double mean, std;
+
+    GaussianProcess(List<double[]> xs, List<Double> ys) {
+        int n = xs.size();
+        x = xs.toArray(new double[0][]);
+
+        double m = 0;
+        for (double y : ys) m += y;
+        m /= n;
+        double v = 0;
+        for (double y : ys) v += (y - m) * (y - m);
+        mean = m;
+        std = Math.max(1e-9, Math.sqrt(v / Math.max(1, n - 1)));
+
+        double[][] k = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j <= i; j++) k[i][j] = k[j][i] = kernel(x[i], x[j]);
+            k[i][i] += NOISE;
+        }
+        chol = cholesky(k);
+
+        double[] yStd = new double[n];
+        for (int i = 0; i < n; i++) yStd[i] = (ys.get(i) - mean) / std;
+        alpha = backSolve(chol, forwardSolve(chol, yStd));
+    }
+
+    /** Expected improvement over {@code best} (in original units) at point {@code u}. */
+    double expectedImprovement(double[] u, double best) {
+        int n = x.length;
+        double[] ks = new double[n];
+        double mu = 0;
+        for (int i = 0; i < n; i++) { ks[i] = kernel(u, x[i]); mu += ks[i] * alpha[i]; }
+        double[] w = forwardSolve(chol, ks);
+        double var = 1.0;
+        for (double wi : w) var -= wi * wi;
+        double sigma = Math.sqrt(Math.max(var, 1e-12));
+
+        double z = (mu - (best - mean) / std) / sigma;
+        return sigma * (z * cdf(z) + pdf(z));
+    }
+
+    private static double kernel(double[] a, double[] b) {
+        double d2 = 0;
+        for (int i = 0; i < a.length; i++) { double d = a[i] - b[i]; d2 += d * d; }
+        return Math.exp(-d2 / (2 * LENGTH_SCALE * LENGTH_SCALE));
+    }
+
+    private static double[][] cholesky(double[][] a) {
+        int n = a.length;
+        double[][] l = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j <= i; j++) {
+                double s = a[i][j];
+                for (int k = 0; k < j; k++) s -= l[i][k] * l[j][k];
+                l[i][j] = (i == j) ? Math.sqrt(Math.max(s, 1e-12)) : s / l[j][j];
+            }
+        }
+        return l;
+    }
+
+    private static double[] forwardSolve(double[][] l, double[] b) {
+        int n = b.length;
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            double s = b[i];
+            for (int k = 0; k < i; k++) s -= l[i][k] * y[k];
+            y[i] = s / l[i][i];
+        }
+        return y;
+    }
+
+    private static double[] backSolve(double[][] l, double[] y) {
+        int n = y.length;
+        double[] out = new double[n];
+        for (int i = n - 1; i >= 0; i--) {
+            double s = y[i];
+            for (int k = i + 1; k < n; k++) s -= l[k][i] * out[k];
+            out[i] = s / l[i][i];
+        }
+        return out;
+    }
+
+    private static double pdf(double z) { return Math.exp(-0.5 * z * z) / Math.sqrt(2 * Math.PI); }
+
+    /** Abramowitz–Stegun 7.1.26 approximation of the standard normal CDF. */
+    private static double cdf(double z) {
+        double t = 1.0 / (1.0 + 0.3275911 * Math.abs(z) / Math.sqrt(2));
+        double erf = 1 - (((((1.061405429 * t - 1.453152027) * t) + 1.421413741) * t - 0.284496736) * t + 0.254829592) * t
+            * Math.exp(-z * z / 2);
+        return z >= 0 ? 0.5 * (1 + erf) : 0.5 * (1 - erf);
+    }
+}
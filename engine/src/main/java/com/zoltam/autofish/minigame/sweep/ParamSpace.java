@@ -0,0 +1,45 @@
+package com.zoltam.autofish.minigame.sweep;
+
+import com.zoltam.autofish.minigame.ControllerParams;
+
+/**
+ * Maps points of the unit cube [0,1]^8 to controller parameters and back, so every search
+ * strategy can work on plain double vectors. errLo is encoded as a fraction of errHi to keep lo < hi.
+ */
+public final class ParamSpace {
+    public static final int DIMS = 8;
+    public static final String[] NAMES = {
+        "errHi", "errLoFrac", "minPress", "minRelease", "jitterMs", "predictionWeight", "smoothingFactor", "historySize"
+    };
+
+    private ParamSpace() {}
+
+    public static ControllerParams decode(double[] u) {
+        double errHi = 0.05 + c(u[0]) * 0.30;
+        return new ControllerParams(
+            errHi,
+            errHi * (0.05 + c(u[1]) * 0.9),
+            1 + (int) Math.round(c(u[2]) * 7),
+            1 + (int) Math.round(c(u[3]) * 7),
+            (int) Math.round(c(u[4]) * 80),
+            c(u[5]) * 1.5,
+            0.05 + c(u[6]) * 0.95,
+            2 + (int) Math.round(c(u[7]) * 8)
+        );
+    }
+
+    public static double[] encode(ControllerParams p) {
+        return new double[]{
+            c((p.errHi() - 0.05) / 0.30),
+            c((p.errLo() / p.errHi() - 0.05) / 0.9),
+            c((p.minPress() - 1) / 7.0),
+            c((p.minRelease() - 1) / 7.0),
+            c(p.jitterMs() / 80.0),
+            c(p.predictionWeight() / 1.5),
+            c((p.smoothingFactor() - 0.05) / 0.95),
+            c((p.historySize() - 2) / 8.0)
+        };
+    }
+
+    private static double c(double v) { return v < 0 ? 0 : Math.min(v, 1); }
+}
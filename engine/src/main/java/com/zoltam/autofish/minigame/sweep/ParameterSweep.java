@@ -0,0 +1,126 @@
+package com.zoltam.autofish.minigame.sweep;
+
+import com.zoltam.autofish.minigame.ControllerParams;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Searches the controller parameter space by grid, random or Bayesian (GP + expected improvement) search.
+ * Candidates are scored in parallel on the given pool; the hand-picked defaults are always scored as a baseline.
+ */
+public class ParameterSweep {
+    public enum Strategy { GRID, RANDOM, BAYESIAN }
+
+    public record Candidate(ControllerParams params, double score) {}
+
+    private final Scorer scorer;
+    private final ForkJoinPool pool;
+
+    public ParameterSweep(Scorer scorer, ForkJoinPool pool) {
+        this.scorer = scorer;
+        this.pool = pool;
+    }
+
+    /** Returns every scored candidate, best first. {@code budget} is ignored by GRID. */
+    public List<Candidate> run(Strategy strategy, int budget, int gridLevels, long seed) throws InterruptedException, ExecutionException {
+        List<Candidate> all = new ArrayList<>(evaluate(List.of(ParamSpace.encode(ControllerParams.DEFAULT))));
+        SplittableRandom rng = new SplittableRandom(seed);
+
+        switch (strategy) {
+            case GRID -> all.addAll(evaluate(grid(Math.max(2, gridLevels))));
+            case RANDOM -> {
+                List<double[]> pts = new ArrayList<>();
+                for (int i = 0; i < budget; i++) pts.add(randomPoint(rng));
+                all.addAll(evaluate(pts));
+            }
+            case BAYESIAN -> bayesian(all, budget, rng);
+        }
+
+        all.sort(Comparator.comparingDouble(Candidate::score).reversed());
+        return all;
+    }
+
+    private void bayesian(List<Candidate> all, int budget, SplittableRandom rng) throws InterruptedException, ExecutionException {
+        int initial = Math.min(budget, 2 * ParamSpace.DIMS);
+        List<double[]> seedPts = new ArrayList<>();
+        for (int i = 0; i < initial; i++) seedPts.add(randomPoint(rng));
+        all.addAll(evaluate(seedPts));
+
+        int batch = Math.max(1, pool.getParallelism());
+        int spent = initial;
+        while (spent < budget) {
+            List<double[]> xs = new ArrayList<>();
+            List<Double> ys = new ArrayList<>();
+            double best = Double.NEGATIVE_INFINITY;
+            for (Candidate c : all) {
+                xs.add(ParamSpace.encode(c.params()));
+                ys.add(c.score());
+                best = Math.max(best, c.score());
+            }
+            GaussianProcess gp = new GaussianProcess(xs, ys);
+
+            // Pool of proposals: uniform samples plus local perturbations of the current leaders
+            List<Candidate> sorted = new ArrayList<>(all);
+            sorted.sort(Comparator.comparingDouble(Candidate::score).reversed());
+            List<double[]> proposals = new ArrayList<>();
+            for (int i = 0; i < 3000; i++) proposals.add(randomPoint(rng));
+            for (int i = 0; i < Math.min(5, sorted.size()); i++) {
+                double[] base = ParamSpace.encode(sorted.get(i).params());
+                for (int k = 0; k < 200; k++) proposals.add(perturb(base, 0.08, rng));
+            }
+
+            final double bestScore = best;
+            double[] ei = pool.submit(() -> proposals.parallelStream().mapToDouble(p -> gp.expectedImprovement(p, bestScore)).toArray()).get();
+
+            int take = Math.min(batch, budget - spent);
+            List<double[]> next = new ArrayList<>();
+            for (int t = 0; t < take; t++) {
+                int arg = -1;
+                for (int i = 0; i < ei.length; i++) if (arg < 0 || ei[i] > ei[arg]) arg = i;
+                next.add(proposals.get(arg));
+                ei[arg] = Double.NEGATIVE_INFINITY;
+            }
+            all.addAll(evaluate(next));
+            spent += take;
+        }
+    }
+
+    private List<Candidate> evaluate(List<double[]> points) throws InterruptedException, ExecutionException {
+        return pool.submit(() -> points.parallelStream()
+            .map(ParamSpace::decode)
+            .map(p -> new Candidate(p, scorer.score(p)))
+            .toList()).get();
+    }
+
+    private static List<double[]> grid(int levels) {
+        int total = (int) Math.pow(levels, ParamSpace.DIMS);
+        List<double[]> out = new ArrayList<>(total);
+        for (int n = 0; n < total; n++) {
+            double[] u = new double[ParamSpace.DIMS];
+            int r = n;
+            for (int d = 0; d < ParamSpace.DIMS; d++) { u[d] = (r % levels) / (double) (levels - 1); r /= levels; }
+            out.add(u);
+        }
+        return out;
+    }
+
+    private static double[] randomPoint(SplittableRandom rng) {
+        double[] u = new double[ParamSpace.DIMS];
+        for (int d = 0; d < u.length; d++) u[d] = rng.nextDouble();
+        return u;
+    }
+
+    private static double[] perturb(double[] base, double sigma, SplittableRandom rng) {
+        double[] u = new double[base.length];
+        for (int d = 0; d < u.length; d++) {
+            double g = Math.sqrt(-2.0 * Math.log(Math.max(rng.nextDouble(), 1e-12))) * Math.cos(2 * Math.PI * rng.nextDouble());
+            u[d] = Math.max(0, Math.min(1, base[d] + g * sigma));
+        }
+        return u;
+    }
+}
@@ -0,0 +1,37 @@
+package com.zoltam.autofish.minigame.sweep;
+
+import com.zoltam.autofish.minigame.ControllerParams;
+import com.zoltam.autofish.minigame.SneakController;
+import com.zoltam.autofish.minigame.replay.SessionResult;
+import com.zoltam.autofish.minigame.replay.TraceReplayer;
+import com.zoltam.autofish.minigame.replay.TraceSession;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Agreement between the controller's decisions and the sneak state recorded in observer traces.
+ * Useful with traces of good manual play: the best candidate imitates it most closely.
+ */
+public class ReplayScorer implements Scorer {
+    private final Function<ControllerParams, Supplier<SneakController>> controllers;
+    private final List<TraceSession> sessions;
+
+    public ReplayScorer(Function<ControllerParams, Supplier<SneakController>> controllers, List<TraceSession> sessions) {
+        this.controllers = controllers;
+        this.sessions = sessions;
+    }
+
+    @Override
+    public double score(ControllerParams params) {
+        Supplier<SneakController> c = controllers.apply(params);
+        List<SessionResult> results = sessions.parallelStream().map(s -> TraceReplayer.replay(s, c, params)).toList();
+        long comparable = 0, agreements = 0;
+        for (SessionResult r : results) {
+            comparable += r.comparable();
+            agreements += r.agreements();
+        }
+        return comparable == 0 ? 0.0 : (double) agreements / comparable;
+    }
+}
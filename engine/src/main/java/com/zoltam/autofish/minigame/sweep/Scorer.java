@@ -0,0 +1,8 @@
+package com.zoltam.autofish.minigame.sweep;
+
+import com.zoltam.autofish.minigame.ControllerParams;
+
+/** Scores one candidate parameter set; higher is better. Must be safe to call from several threads. */
+public interface Scorer {
+    double score(ControllerParams params);
+}
@@ -0,0 +1,36 @@
+package com.zoltam.autofish.minigame.sweep;
+
+import com.zoltam.autofish.minigame.ControllerParams;
+import com.zoltam.autofish.minigame.SneakController;
+import com.zoltam.autofish.minigame.sim.FishMotion;
+import com.zoltam.autofish.minigame.sim.SimConfig;
+import com.zoltam.autofish.minigame.sim.SimulationBatch;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Mean catch rate over all fish motions in the simulator, minus a small penalty per sneak toggle/s
+ * so equally good candidates prefer the calmer one. Every candidate sees the same seeds.
+ */
+public class SimScorer implements Scorer {
+    private static final double TOGGLE_PENALTY = 0.002;
+
+    private final Function<ControllerParams, Supplier<SneakController>> controllers;
+    private final long[] seeds;
+
+    public SimScorer(Function<ControllerParams, Supplier<SneakController>> controllers, int sessions, long seed) {
+        this.controllers = controllers;
+        this.seeds = SimulationBatch.seeds(seed, sessions);
+    }
+
+    @Override
+    public double score(ControllerParams params) {
+        double total = 0.0;
+        for (FishMotion motion : FishMotion.values()) {
+            SimulationBatch.Summary s = SimulationBatch.run(controllers.apply(params), SimConfig.defaults(motion), seeds, params);
+            total += s.catchRate() - TOGGLE_PENALTY * s.togglesPerSecond();
+        }
+        return total / FishMotion.values().length;
+    }
+}
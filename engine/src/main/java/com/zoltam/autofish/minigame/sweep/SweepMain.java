@@ -0,0 +1,117 @@
+package com.zoltam.autofish.minigame.sweep;
+
+import com.zoltam.autofish.minigame.ControllerParams;
+import com.zoltam.autofish.minigame.LogisticRegressionModel;
+import com.zoltam.autofish.minigame.ModelJson;
+import com.zoltam.autofish.minigame.PdController;
+import com.zoltam.autofish.minigame.SneakController;
+import com.zoltam.autofish.minigame.TrainedModel;
+import com.zoltam.autofish.minigame.replay.TraceReader;
+import com.zoltam.autofish.minigame.replay.TraceSession;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Sweeps the controller constants and writes the winner to controller_params.json.
+ *
+ * <pre>
+ * SweepMain [--strategy grid|random|bayesian] [--budget N] [--grid-levels L]
+ *           [--scorer sim|replay] [--sessions N] [--seed S] [--threads N]
+ *           [--controller pd|default|model.json] [--out file] [trace-file-or-dir]...
+ * </pre>
+ * The sim scorer runs the simulated minigame; the replay scorer needs observer traces with manual play.
+ * With a model controller only jitterMs and historySize affect the outcome.
+ */
+public final class SweepMain {
+    private SweepMain() {}
+
+    public static void main(String[] args) throws Exception {
+        ParameterSweep.Strategy strategy = ParameterSweep.Strategy.BAYESIAN;
+        int budget = 120, gridLevels = 3, sessions = 1000, threads = Runtime.getRuntime().availableProcessors();
+        long seed = 1L;
+        String scorerName = "sim", controller = "pd";
+        Path out = Path.of("controller_params.json");
+        List<Path> traces = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--strategy" -> strategy = ParameterSweep.Strategy.valueOf(args[++i].toUpperCase(Locale.ROOT));
+                case "--budget" -> budget = Math.max(1, Integer.parseInt(args[++i]));
+                case "--grid-levels" -> gridLevels = Math.max(2, Integer.parseInt(args[++i]));
+                case "--scorer" -> scorerName = args[++i];
+                case "--sessions" -> sessions = Math.max(1, Integer.parseInt(args[++i]));
+                case "--seed" -> seed = Long.parseLong(args[++i]);
+                case "--threads" -> threads = Math.max(1, Integer.parseInt(args[++i]));
+                case "--controller" -> controller = args[++i];
+                case "--out" -> out = Path.of(args[++i]);
+                default -> traces.add(Path.of(args[i]));
+            }
+        }
+
+        Function<ControllerParams, Supplier<SneakController>> controllers = controllerFactory(controller);
+        Scorer scorer = switch (scorerName) {
+            case "sim" -> new SimScorer(controllers, sessions, seed);
+            case "replay" -> new ReplayScorer(controllers, loadTraces(traces));
+            default -> throw new IllegalArgumentException("Unknown scorer: " + scorerName);
+        };
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            long t0 = System.nanoTime();
+            List<ParameterSweep.Candidate> ranked = new ParameterSweep(scorer, pool).run(strategy, budget, gridLevels, seed);
+            System.out.printf(Locale.ROOT, "%s sweep (%s scorer, %s): %d candidates in %.1f s on %d threads%n",
+                strategy.name().toLowerCase(Locale.ROOT), scorerName, controller, ranked.size(), (System.nanoTime() - t0) / 1e9, threads);
+
+            for (int i = 0; i < Math.min(5, ranked.size()); i++) {
+                ParameterSweep.Candidate c = ranked.get(i);
+                System.out.printf(Locale.ROOT, "#%d score=%.4f %s%n", i + 1, c.score(), c.params());
+            }
+            for (ParameterSweep.Candidate c : ranked) {
+                if (c.params().equals(ControllerParams.DEFAULT)) {
+                    System.out.printf(Locale.ROOT, "defaults score=%.4f%n", c.score());
+                    break;
+                }
+            }
+
+            ranked.get(0).params().save(out);
+            System.out.println("Wrote " + out.toAbsolutePath());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static Function<ControllerParams, Supplier<SneakController>> controllerFactory(String name) throws Exception {
+        return switch (name) {
+            case "pd" -> p -> () -> new PdController(p);
+            case "default" -> p -> () -> LogisticRegressionModel.DEFAULT;
+            default -> {
+                TrainedModel m = ModelJson.fromJson(Files.readString(Path.of(name)));
+                if (m == null) throw new IllegalArgumentException("Unknown model type in " + name);
+                yield p -> () -> m;
+            }
+        };
+    }
+
+    private static List<TraceSession> loadTraces(List<Path> inputs) throws Exception {
+        List<TraceSession> out = new ArrayList<>();
+        for (Path p : inputs) {
+            List<Path> files = new ArrayList<>();
+            if (Files.isDirectory(p)) {
+                try (Stream<Path> s = Files.walk(p)) { s.filter(f -> f.toString().endsWith(".tsv") || f.toString().endsWith(".tsv.gz")).sorted().forEach(files::add); }
+            } else files.add(p);
+            for (Path f : files) {
+                for (TraceSession s : TraceReader.readAll(f)) if (s.source == TraceSession.Source.OBSERVER) out.add(s);
+            }
+        }
+        if (out.isEmpty()) throw new IllegalArgumentException("Replay scorer needs observer traces (meteor_observer_log.tsv)");
+        return out;
+    }
+}
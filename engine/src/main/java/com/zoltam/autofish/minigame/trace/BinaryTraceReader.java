@@ -0,0 +1,172 @@
+package com.zoltam.autofish.minigame.trace;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Streams {@link TraceRecord}s out of a binary trace. A record cut short at the end of the
+ * file (recorder killed mid-write) ends the stream quietly.
+ *
+ * <pre>
+ * try (BinaryTraceReader in = BinaryTraceReader.open(path)) {
+ *     TraceRecord r = new TraceRecord();
+ *     while (in.next(r)) { ... }
+ * }
+ * </pre>
+ */
+public final class BinaryTraceReader implements AutoCloseable {
+    private final DataInputStream in;
+    private final long startMs;
+    private final String source;
+    private final List<String> strings = new ArrayList<>();
+    private long lastTs;
+    private int lastTick;
+    private byte[] scratch = new byte[256];
+
+    private BinaryTraceReader(InputStream raw) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(raw, 64 * 1024));
+        byte[] magic = new byte[TraceFormat.MAGIC.length];
+        in.readFully(magic);
+        if (!Arrays.equals(magic, TraceFormat.MAGIC)) throw new IOException("Not an autofish binary trace");
+        int version = in.readUnsignedByte();
+        if (version != TraceFormat.VERSION) throw new IOException("Unsupported trace version " + version);
+        startMs = in.readLong();
+        source = readString();
+        lastTs = startMs;
+        strings.add("");
+    }
+
+    /** Opens a trace, or a gzipped rotated segment of one ({@code *.aftr.gz}). */
+    public static BinaryTraceReader open(Path path) throws IOException {
+        InputStream raw = Files.newInputStream(path);
+        try {
+            return new BinaryTraceReader(gunzipIfNeeded(path, raw));
+        } catch (IOException e) {
+            raw.close();
+            throw e;
+        }
+    }
+
+    /** True if the file (uncompressed, for a gzipped segment) starts with the binary trace magic. */
+    public static boolean isBinaryTrace(Path path) {
+        try (InputStream raw = gunzipIfNeeded(path, Files.newInputStream(path))) {
+            byte[] magic = raw.readNBytes(TraceFormat.MAGIC.length);
+            return Arrays.equals(magic, TraceFormat.MAGIC);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static InputStream gunzipIfNeeded(Path path, InputStream raw) throws IOException {
+        if (!path.getFileName().toString().endsWith(".gz")) return raw;
+        try {
+            return new GZIPInputStream(raw, 64 * 1024);
+        } catch (IOException e) {
+            raw.close();
+            throw e;
+        }
+    }
+
+    public long startMs() { return startMs; }
+    public String source() { return source; }
+
+    /** Fills {@code r} with the next SESSION or ROW record; false at end of stream. */
+    public boolean next(TraceRecord r) throws IOException {
+        try {
+            while (true) {
+                int tag = in.read();
+                if (tag < 0) return false;
+                switch (tag) {
+                    case TraceFormat.TAG_STRING -> {
+                        int id = readVarint();
+                        String s = readString();
+                        while (strings.size() < id) strings.add("");
+                        if (strings.size() == id) strings.add(s); else strings.set(id, s);
+                    }
+                    case TraceFormat.TAG_SESSION -> {
+                        r.clearRow();
+                        r.kind = TraceRecord.Kind.SESSION;
+                        r.sessionIndex = readVarint();
+                        readDeltas(r);
+                        r.invertError = (in.readUnsignedByte() & TraceFormat.SESSION_INVERT_ERROR) != 0;
+                        return true;
+                    }
+                    case TraceFormat.TAG_ROW -> {
+                        readRow(r);
+                        return true;
+                    }
+                    default -> throw new IOException("Corrupt trace: unknown record tag " + tag);
+                }
+            }
+        } catch (EOFException truncated) {
+            return false;
+        }
+    }
+
+    private void readRow(TraceRecord r) throws IOException {
+        r.clearRow();
+        int flags = readVarint();
+        readDeltas(r);
+        r.phase = string(readVarint());
+        r.event = string(readVarint());
+        if ((flags & TraceFormat.ROW_DETAILS) != 0) r.details = readString();
+        if ((flags & TraceFormat.ROW_RECOMMEND) != 0) r.recommend = string(readVarint());
+        r.session = (flags & TraceFormat.ROW_SESSION) != 0;
+        r.sneakDown = (flags & TraceFormat.ROW_SNEAK) != 0;
+        if ((flags & TraceFormat.ROW_BOX) != 0) r.boxId = (int) TraceFormat.unZigZag(readVarLong());
+        if ((flags & TraceFormat.ROW_FISH) != 0) r.fishId = (int) TraceFormat.unZigZag(readVarLong());
+        if ((flags & TraceFormat.ROW_SNAPSHOT) != 0) {
+            r.hasSnapshot = true;
+            r.boxWorldY = in.readFloat();
+            r.fishWorldY = in.readFloat();
+            if ((flags & TraceFormat.ROW_BOX_LOCAL) != 0) r.boxLocalY = in.readFloat();
+            if ((flags & TraceFormat.ROW_FISH_LOCAL) != 0) r.fishLocalY = in.readFloat();
+        }
+        r.overlay = string(readVarint());
+    }
+
+    private void readDeltas(TraceRecord r) throws IOException {
+        lastTs += TraceFormat.unZigZag(readVarLong());
+        lastTick += (int) TraceFormat.unZigZag(readVarLong());
+        r.ts = lastTs;
+        r.tick = lastTick;
+    }
+
+    private String string(int id) throws IOException {
+        if (id < 0 || id >= strings.size()) throw new IOException("Corrupt trace: undefined string " + id);
+        return strings.get(id);
+    }
+
+    private int readVarint() throws IOException { return (int) readVarLong(); }
+
+    private long readVarLong() throws IOException {
+        long v = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            v |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return v;
+        }
+        throw new IOException("Corrupt trace: varint too long");
+    }
+
+    private String readString() throws IOException {
+        int n = readVarint();
+        if (n < 0) throw new IOException("Corrupt trace: negative string length");
+        if (scratch.length < n) scratch = new byte[Math.max(n, scratch.length * 2)];
+        in.readFully(scratch, 0, n);
+        return new String(scratch, 0, n, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException { in.close(); }
+}
@@ -0,0 +1,278 @@
+package com.zoltam.autofish.minigame.trace;
+
+import com.zoltam.autofish.util.LogSegments;
+import com.zoltam.autofish.util.RollingFile;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodes {@link TraceRecord}s into the {@link TraceFormat} stream.
+ *
+ * Encoding happens on the caller's thread into an in-memory chunk (a few hundred ns per row);
+ * full chunks, or chunks older than {@link #FLUSH_INTERVAL_MS}, are handed to a background
+ * thread for the actual file write. Safe to call from the tick and network threads.
+ *
+ * With a {@link RollingFile.Rotation} the trace rolls over by size and age into numbered, gzipped
+ * segments kept within the same retention limits as the TSV logs ({@link LogSegments}); each segment
+ * starts with its own file header and string table, so it reads on its own.
+ */
+public final class BinaryTraceWriter implements AutoCloseable {
+    public static final int CHUNK_BYTES = 32 * 1024;
+    public static final long FLUSH_INTERVAL_MS = 1000;
+
+    private final Path path;
+    private final LogSegments segments;
+    private final String source;
+    private final ExecutorService io;
+    private final Map<String, Integer> strings = new HashMap<>();
+    private OutputStream out; // background thread only once constructed
+
+    private byte[] buf = new byte[CHUNK_BYTES + 1024];
+    private int len = 0;
+    private long lastTs, lastHandoffMs;
+    private int lastTick;
+    private long bytesWritten = 0;
+    private long segmentStartTs, segmentStartBytes, segmentHeaderBytes;
+    private volatile IOException failure;
+    private boolean closed = false;
+
+    private BinaryTraceWriter(Path path, LogSegments segments, OutputStream out, long startMs, String source) {
+        this.path = path;
+        this.segments = segments;
+        this.out = out;
+        this.source = source;
+        this.io = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "autofish-trace-" + path.getFileName());
+            t.setDaemon(true);
+            return t;
+        });
+        this.lastHandoffMs = startMs;
+        startSegment(startMs);
+    }
+
+    /** Creates (truncating) {@code path}; the file never rotates. */
+    public static BinaryTraceWriter open(Path path, String source) throws IOException {
+        return open(path, source, RollingFile.Rotation.NONE);
+    }
+
+    /**
+     * Opens {@code path} afresh. With a rotating {@code rotation} a previous run's trace is first rolled
+     * into a numbered segment instead of being truncated, and leftover segments are compressed and pruned.
+     */
+    public static BinaryTraceWriter open(Path path, String source, RollingFile.Rotation rotation) throws IOException {
+        LogSegments segments = new LogSegments(path, rotation);
+        if (rotation.rotates() && segments.activeHasData()) segments.roll();
+        segments.maintain(null);
+        return new BinaryTraceWriter(path, segments, newFile(segments.active()), System.currentTimeMillis(), source);
+    }
+
+    private static OutputStream newFile(Path file) throws IOException {
+        return Files.newOutputStream(file, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    }
+
+    public Path getPath() { return path; }
+
+    /** Bytes encoded so far, all segments and headers included. */
+    public synchronized long bytesWritten() { return bytesWritten + len; }
+
+    public synchronized void beginSession(long ts, int tick, int index, boolean invertError) {
+        if (closed) return;
+        putByte(TraceFormat.TAG_SESSION);
+        putVarint(index);
+        putDeltas(ts, tick);
+        putByte(invertError ? TraceFormat.SESSION_INVERT_ERROR : 0);
+        maybeHandOff(ts);
+    }
+
+    public synchronized void write(TraceRecord r) {
+        if (closed) return;
+        // Interned strings first, so their STRING records precede the row
+        int phase = intern(r.phase), event = intern(r.event), overlay = intern(r.overlay);
+        int rec = r.recommend != null ? intern(r.recommend) : 0;
+
+        int flags = 0;
+        if (r.session) flags |= TraceFormat.ROW_SESSION;
+        if (r.sneakDown) flags |= TraceFormat.ROW_SNEAK;
+        if (r.boxId != TraceRecord.NO_ID) flags |= TraceFormat.ROW_BOX;
+        if (r.fishId != TraceRecord.NO_ID) flags |= TraceFormat.ROW_FISH;
+        if (r.hasSnapshot) {
+            flags |= TraceFormat.ROW_SNAPSHOT;
+            if (r.hasBoxLocal()) flags |= TraceFormat.ROW_BOX_LOCAL;
+            if (r.hasFishLocal()) flags |= TraceFormat.ROW_FISH_LOCAL;
+        }
+        if (r.details != null && !r.details.isEmpty()) flags |= TraceFormat.ROW_DETAILS;
+        if (r.recommend != null) flags |= TraceFormat.ROW_RECOMMEND;
+
+        putByte(TraceFormat.TAG_ROW);
+        putVarint(flags);
+        putDeltas(r.ts, r.tick);
+        putVarint(phase);
+        putVarint(event);
+        if ((flags & TraceFormat.ROW_DETAILS) != 0) putString(r.details);
+        if ((flags & TraceFormat.ROW_RECOMMEND) != 0) putVarint(rec);
+        if ((flags & TraceFormat.ROW_BOX) != 0) putVarLong(TraceFormat.zigZag(r.boxId));
+        if ((flags & TraceFormat.ROW_FISH) != 0) putVarLong(TraceFormat.zigZag(r.fishId));
+        if ((flags & TraceFormat.ROW_SNAPSHOT) != 0) {
+            putFloat((float) r.boxWorldY);
+            putFloat((float) r.fishWorldY);
+            if ((flags & TraceFormat.ROW_BOX_LOCAL) != 0) putFloat((float) r.boxLocalY);
+            if ((flags & TraceFormat.ROW_FISH_LOCAL) != 0) putFloat((float) r.fishLocalY);
+        }
+        putVarint(overlay);
+        maybeHandOff(r.ts);
+    }
+
+    /** Hands everything encoded so far to the background writer and asks it to flush. */
+    public synchronized void flush() {
+        handOff(true);
+    }
+
+    /** Writes what is pending, closes the file and stops the background thread (waits up to 2 s). */
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+        handOff(true);
+        closed = true;
+        io.execute(() -> { try { out.close(); } catch (IOException e) { failure = e; } });
+        io.shutdown();
+        try { io.awaitTermination(2, TimeUnit.SECONDS); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+    }
+
+    /** First write error seen by the background thread, if any. */
+    public IOException failure() { return failure; }
+
+    // -------- Segments --------
+    /** File header plus a fresh string table and delta base, so the segment reads on its own. */
+    private void startSegment(long startMs) {
+        strings.clear();
+        lastTs = startMs;
+        lastTick = 0;
+        segmentStartTs = startMs;
+        segmentStartBytes = bytesWritten + len;
+        put(TraceFormat.MAGIC, 0, TraceFormat.MAGIC.length);
+        putByte(TraceFormat.VERSION);
+        putLong(startMs);
+        putString(source);
+        segmentHeaderBytes = bytesWritten + len - segmentStartBytes;
+    }
+
+    /** Rolls over between records once the segment is past the rotation size or age. */
+    private void maybeRotate(long ts) {
+        RollingFile.Rotation rotation = segments.rotation();
+        long segmentBytes = bytesWritten + len - segmentStartBytes;
+        if (segmentBytes <= segmentHeaderBytes) return;
+        boolean full = rotation.maxBytes() > 0 && segmentBytes >= rotation.maxBytes();
+        boolean old = rotation.maxAgeMs() > 0 && ts - segmentStartTs >= rotation.maxAgeMs();
+        if (!full && !old) return;
+
+        handOff(true);
+        io.execute(() -> {
+            try {
+                out.close();
+                Path rolled = segments.roll();
+                out = newFile(segments.active());
+                segments.maintain(rolled);
+            } catch (IOException e) { if (failure == null) failure = e; }
+        });
+        startSegment(ts);
+    }
+
+    // -------- Encoding --------
+    private int intern(String s) {
+        if (s == null || s.isEmpty()) return 0;
+        Integer id = strings.get(s);
+        if (id != null) return id;
+        int nid = strings.size() + 1;
+        strings.put(s, nid);
+        putByte(TraceFormat.TAG_STRING);
+        putVarint(nid);
+        putString(s);
+        return nid;
+    }
+
+    private void putDeltas(long ts, int tick) {
+        putVarLong(TraceFormat.zigZag(ts - lastTs));
+        putVarLong(TraceFormat.zigZag((long) tick - lastTick));
+        lastTs = ts;
+        lastTick = tick;
+    }
+
+    private void maybeHandOff(long ts) {
+        maybeRotate(ts);
+        if (len >= CHUNK_BYTES || ts - lastHandoffMs >= FLUSH_INTERVAL_MS) handOff(false);
+    }
+
+    private void handOff(boolean flush) {
+        if (closed) return;
+        if (len > 0) {
+            byte[] chunk = Arrays.copyOf(buf, len);
+            bytesWritten += len;
+            len = 0;
+            io.execute(() -> {
+                try {
+                    out.write(chunk);
+                    if (flush) out.flush();
+                } catch (IOException e) { if (failure == null) failure = e; }
+            });
+        }
+        lastHandoffMs = lastTs;
+    }
+
+    private void ensure(int extra) {
+        if (len + extra > buf.length) buf = Arrays.copyOf(buf, Math.max(buf.length * 2, len + extra));
+    }
+
+    private void putByte(int b) {
+        ensure(1);
+        buf[len++] = (byte) b;
+    }
+
+    private void put(byte[] b, int off, int n) {
+        ensure(n);
+        System.arraycopy(b, off, buf, len, n);
+        len += n;
+    }
+
+    private void putVarint(int v) { putVarLong(v & 0xFFFFFFFFL); }
+
+    private void putVarLong(long v) {
+        ensure(10);
+        while ((v & ~0x7FL) != 0) {
+            buf[len++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        buf[len++] = (byte) v;
+    }
+
+    private void putLong(long v) {
+        ensure(8);
+        for (int i = 7; i >= 0; i--) buf[len++] = (byte) (v >>> (i * 8));
+    }
+
+    private void putFloat(float f) {
+        int v = Float.floatToRawIntBits(f);
+        ensure(4);
+        buf[len++] = (byte) (v >>> 24);
+        buf[len++] = (byte) (v >>> 16);
+        buf[len++] = (byte) (v >>> 8);
+        buf[len++] = (byte) v;
+    }
+
+    private void putString(String s) {
+        byte[] b = (s == null ? "" : s).getBytes(StandardCharsets.UTF_8);
+        putVarint(b.length);
+        put(b, 0, b.length);
+    }
+}
@@ -0,0 +1,42 @@
+package com.zoltam.autofish.minigame.trace;
+
+/**
+ * Binary observer trace (*.aftr).
+ *
+ * File header: magic "AFTR", version byte, start epoch ms (int64), source (string).
+ * Then a stream of tagged records:
+ * - STRING  id(varint) utf8 — defines an interned string; ids start at 1, 0 is the empty string
+ * - SESSION index(varint) dTs dTick flags — per-session header (flag 1 = invert-error)
+ * - ROW     flags dTs dTick phase event [details] [rec] [box] [fish] [worldY x2] [boxLocal] [fishLocal] overlay
+ *
+ * dTs / dTick are zig-zag varint deltas from the previous SESSION or ROW record.
+ * Phase, event, recommendation and overlay are interned string ids; details are inline strings.
+ * Y values are float32 (~1e-5 resolution at world heights, the TSV prints 5 decimals).
+ *
+ * A rotated segment (name.000042.aftr.gz) is a complete trace of its own: header, strings and deltas restart.
+ */
+final class TraceFormat {
+    static final byte[] MAGIC = {'A', 'F', 'T', 'R'};
+    static final int VERSION = 1;
+
+    static final int TAG_STRING = 1;
+    static final int TAG_SESSION = 2;
+    static final int TAG_ROW = 3;
+
+    static final int SESSION_INVERT_ERROR = 1;
+
+    static final int ROW_SESSION    = 1;
+    static final int ROW_SNEAK      = 1 << 1;
+    static final int ROW_BOX        = 1 << 2;
+    static final int ROW_FISH       = 1 << 3;
+    static final int ROW_SNAPSHOT   = 1 << 4;
+    static final int ROW_BOX_LOCAL  = 1 << 5;
+    static final int ROW_FISH_LOCAL = 1 << 6;
+    static final int ROW_DETAILS    = 1 << 7;
+    static final int ROW_RECOMMEND  = 1 << 8;
+
+    private TraceFormat() {}
+
+    static long zigZag(long v) { return (v << 1) ^ (v >> 63); }
+    static long unZigZag(long v) { return (v >>> 1) ^ -(v & 1); }
+}
@@ -0,0 +1,49 @@
+package com.zoltam.autofish.minigame.trace;
+
+/**
+ * One observer record, mutable so writers and readers can reuse a single instance per stream.
+ * Mirrors the 16 columns of meteor_observer_log.tsv; absent values are NO_ID / NaN / null.
+ */
+public final class TraceRecord {
+    public enum Kind { SESSION, ROW }
+
+    public static final int NO_ID = Integer.MIN_VALUE;
+
+    public Kind kind = Kind.ROW;
+    public long ts;
+    public int tick;
+
+    // SESSION header
+    public int sessionIndex;
+    public boolean invertError;
+
+    // ROW
+    public String phase = "", event = "";
+    /** Free-form details; null when {@link #recommend} carries a track tick's recommendation instead. */
+    public String details;
+    /** PRESS / RELEASE / HOLD (and "(world)" variants) for track ticks, else null. */
+    public String recommend;
+    public boolean session;
+    public int boxId = NO_ID, fishId = NO_ID;
+    public boolean hasSnapshot;
+    public double boxWorldY = Double.NaN, fishWorldY = Double.NaN;
+    public double boxLocalY = Double.NaN, fishLocalY = Double.NaN;
+    public boolean sneakDown;
+    public String overlay = "";
+
+    /** Clears the row fields (not ts/tick, which the stream deltas are based on). */
+    public TraceRecord clearRow() {
+        kind = Kind.ROW;
+        phase = ""; event = ""; details = null; recommend = null;
+        session = false;
+        boxId = NO_ID; fishId = NO_ID;
+        hasSnapshot = false;
+        boxWorldY = fishWorldY = boxLocalY = fishLocalY = Double.NaN;
+        sneakDown = false;
+        overlay = "";
+        return this;
+    }
+
+    public boolean hasBoxLocal()  { return !Double.isNaN(boxLocalY); }
+    public boolean hasFishLocal() { return !Double.isNaN(fishLocalY); }
+}
@@ -0,0 +1,94 @@
+package com.zoltam.autofish.minigame.trace;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.Locale;
+
+/**
+ * Converts a binary trace back into the 16-column meteor_observer_log.tsv layout, so existing
+ * tooling (replay, spreadsheets) keeps working.
+ *
+ * Usage: TraceToTsv <trace.aftr> [out.tsv]   (default: same name with .tsv)
+ */
+public final class TraceToTsv {
+    public static final String HEADER =
+        "ts\ttick\tphase\tevent\tdetails\tsession\tboxId\tfishId\tboxWorldY\tfishWorldY\tboxLocalY\tfishLocalY\terrLocal\terrWorld\tsneakDown\tpacketOrOverlay";
+
+    private TraceToTsv() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: TraceToTsv <trace.aftr> [out.tsv]");
+            System.exit(2);
+        }
+        Path in = Paths.get(args[0]);
+        Path out = args.length > 1 ? Paths.get(args[1]) : defaultOut(in);
+        long rows = convert(in, out);
+        System.out.printf(Locale.ROOT, "%d rows -> %s (%d -> %d bytes)%n", rows, out, Files.size(in), Files.size(out));
+    }
+
+    /** Returns the number of rows written. */
+    public static long convert(Path in, Path out) throws IOException {
+        long rows = 0;
+        try (BinaryTraceReader reader = BinaryTraceReader.open(in);
+             BufferedWriter w = Files.newBufferedWriter(out, StandardCharsets.UTF_8)) {
+            w.write("# Minigame Observer — " + Instant.ofEpochMilli(reader.startMs()));
+            w.newLine();
+            w.write(HEADER);
+            w.newLine();
+
+            TraceRecord r = new TraceRecord();
+            boolean invertError = false;
+            while (reader.next(r)) {
+                if (r.kind == TraceRecord.Kind.SESSION) { invertError = r.invertError; continue; }
+                w.write(toTsv(r, invertError));
+                w.newLine();
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    /** Formats one row exactly as MinigameObserver writes it. */
+    public static String toTsv(TraceRecord r, boolean invertError) {
+        String errLocal = "", errWorld = "";
+        if (r.hasSnapshot) {
+            double ew = invertError ? (r.boxWorldY - r.fishWorldY) : (r.fishWorldY - r.boxWorldY);
+            errWorld = fmt(ew);
+            if (r.hasBoxLocal() && r.hasFishLocal()) {
+                errLocal = fmt(invertError ? (r.boxLocalY - r.fishLocalY) : (r.fishLocalY - r.boxLocalY));
+            }
+        }
+        return String.format(Locale.ROOT, "%d\t%d\t%s\t%s\t%s\t%s\t%s\t%s\t%s\t%s\t%s\t%s\t%s\t%s\t%s\t%s",
+            r.ts, r.tick, r.phase, r.event, details(r, errLocal, errWorld),
+            r.session,
+            id(r.boxId), id(r.fishId),
+            r.hasSnapshot ? fmt(r.boxWorldY) : "",
+            r.hasSnapshot ? fmt(r.fishWorldY) : "",
+            r.hasSnapshot && r.hasBoxLocal() ? fmt(r.boxLocalY) : "",
+            r.hasSnapshot && r.hasFishLocal() ? fmt(r.fishLocalY) : "",
+            errLocal, errWorld,
+            r.sneakDown,
+            r.overlay);
+    }
+
+    private static String details(TraceRecord r, String errLocal, String errWorld) {
+        if (r.details != null) return r.details;
+        if (r.recommend == null) return "";
+        return "rec=" + r.recommend + " errLocal=" + (errLocal.isEmpty() ? "NA" : errLocal) + " errWorld=" + errWorld;
+    }
+
+    private static Path defaultOut(Path in) {
+        String name = in.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return in.resolveSibling((dot > 0 ? name.substring(0, dot) : name) + ".tsv");
+    }
+
+    private static String fmt(double v) { return String.format(Locale.ROOT, "%.5f", v); }
+    private static String id(int i) { return i == TraceRecord.NO_ID ? "" : Integer.toString(i); }
+}
@@ -0,0 +1,76 @@
+package com.zoltam.autofish.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cached reflective no-arg getter over a list of candidate method names, for reading
+ * game objects whose method names differ between mappings.
+ *
+ * - The first public no-arg method found among the names is resolved once per receiver class
+ *   (ClassValue) into a MethodHandle; classes with none are remembered too, so misses cost a lookup.
+ * - Keep instances in static finals, one per name list: {@code static final Accessor Y = Accessor.of("y", "getY")}.
+ * - {@link #invokeAny} is the ad-hoc form for call sites without a constant.
+ *
+ * Unlike a plain getMethod/invoke loop, a resolved method that throws does not fall through to the
+ * next name; {@link #get} just returns null.
+ */
+public final class Accessor {
+    private static final MethodType GETTER = MethodType.methodType(Object.class, Object.class);
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final ConcurrentHashMap<List<String>, Accessor> AD_HOC = new ConcurrentHashMap<>();
+
+    /** Marks classes without any of the names. */
+    private static final MethodHandle MISSING = MethodHandles.constant(Object.class, null);
+
+    private final String[] names;
+    private final ClassValue<MethodHandle> handles = new ClassValue<>() {
+        @Override protected MethodHandle computeValue(Class<?> type) { return resolve(type); }
+    };
+
+    private Accessor(String[] names) { this.names = names; }
+
+    public static Accessor of(String... names) { return new Accessor(names.clone()); }
+
+    /** {@code of(names).get(target)} with the Accessor itself cached by name list. */
+    public static Object invokeAny(Object target, String... names) {
+        if (target == null) return null;
+        return AD_HOC.computeIfAbsent(List.of(names), k -> new Accessor(names.clone())).get(target);
+    }
+
+    /** The getter's result, or null when {@code target} is null, has none of the methods, or the call throws. */
+    public Object get(Object target) {
+        if (target == null) return null;
+        MethodHandle h = handles.get(target.getClass());
+        if (h == MISSING) return null;
+        try {
+            return h.invokeExact(target);
+        } catch (Throwable t) {
+            return null;
+        }
+    }
+
+    /** Whether instances of {@code type} have one of the methods. */
+    public boolean resolves(Class<?> type) { return handles.get(type) != MISSING; }
+
+    public List<String> names() { return List.of(names); }
+
+    private MethodHandle resolve(Class<?> type) {
+        for (String n : names) {
+            try {
+                Method m = type.getMethod(n);
+                if (m.getReturnType() == void.class) continue;
+                m.trySetAccessible(); // public method on a non-public class
+                return LOOKUP.unreflect(m).asType(GETTER);
+            } catch (NoSuchMethodException | IllegalAccessException | SecurityException ignored) {}
+        }
+        return MISSING;
+    }
+
+    @Override public String toString() { return "Accessor" + Arrays.toString(names); }
+}
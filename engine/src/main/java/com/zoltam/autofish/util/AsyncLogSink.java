@@ -0,0 +1,188 @@
+package com.zoltam.autofish.util;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Line-oriented log file written by a background thread.
+ *
+ * - Each calling thread (client tick, network) gets its own lock-free SPSC ring on first use,
+ *   so {@link #writeLine} never blocks and never touches the disk.
+ * - The writer thread drains the rings in batches and flushes after {@link Policy#flushLines} lines
+ *   or {@link Policy#flushIntervalMs}, whichever comes first. With nothing queued it parks until a
+ *   producer signals it; the wait is capped at the flush interval, so a signal lost to a race costs
+ *   at most what the flush policy allows anyway.
+ * - When a ring is full the line is dropped and counted; the writer notes new drops in the file
+ *   as a "# dropped" comment line and {@link #dropped()} reports the total.
+ * - Lines from different threads are only ordered within their own thread.
+ * - The file itself is a {@link RollingFile}, so it can roll over, compress and prune in the background;
+ *   {@link #markSession} records a session start in its index at the position of the next queued line.
+ *   A header given at open heads every segment, including those started by a rotation.
+ */
+public final class AsyncLogSink implements AutoCloseable {
+    /** Ring size per producer thread and flush policy. */
+    public record Policy(int capacity, int flushLines, long flushIntervalMs) {
+        public static final Policy DEFAULT = new Policy(8192, 256, 250);
+    }
+
+    private final Path path;
+    private final Policy policy;
+    private final RollingFile out;
+    private final List<SpscRing<Object>> rings = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<SpscRing<Object>> local = ThreadLocal.withInitial(this::register);
+    private final Thread writerThread;
+
+    private volatile boolean closed = false;
+    private volatile boolean writerParked = false; // writer asleep on empty rings: producers wake it
+    private volatile long written = 0;     // writer-owned
+    private long droppedReported = 0;      // writer-owned
+
+    /** Queued in place of a line; the writer turns it into a RollingFile index entry. */
+    private record SessionMark(String label) {}
+
+    private AsyncLogSink(Path path, Policy policy, RollingFile out) {
+        this.path = path;
+        this.policy = policy;
+        this.out = out;
+        this.writerThread = new Thread(this::runWriter, "autofish-log-" + path.getFileName());
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    public static AsyncLogSink open(Path path, boolean append) throws IOException {
+        return open(path, append, Policy.DEFAULT, RollingFile.Rotation.NONE, null);
+    }
+
+    public static AsyncLogSink open(Path path, boolean append, RollingFile.Rotation rotation) throws IOException {
+        return open(path, append, Policy.DEFAULT, rotation, null);
+    }
+
+    public static AsyncLogSink open(Path path, boolean append, RollingFile.Rotation rotation,
+                                    Supplier<List<String>> header) throws IOException {
+        return open(path, append, Policy.DEFAULT, rotation, header);
+    }
+
+    /**
+     * Opens (creating parent dirs) and either appends to {@code path} or starts it afresh:
+     * truncated without rotation, rotated into a segment with it (see {@link RollingFile#open}).
+     * {@code header} (may be null) supplies the lines that start each new segment; it is called on the
+     * writer thread when a rotation starts one.
+     */
+    public static AsyncLogSink open(Path path, boolean append, Policy policy, RollingFile.Rotation rotation,
+                                    Supplier<List<String>> header) throws IOException {
+        return new AsyncLogSink(path, policy, RollingFile.open(path, append, rotation, header));
+    }
+
+    public Path getPath() { return path; }
+
+    /** Queues one line. Never blocks; returns false when the line was dropped (queue full or sink closed). */
+    public boolean writeLine(String line) {
+        if (closed || line == null) return false;
+        boolean queued = local.get().offer(line);
+        if (writerParked) LockSupport.unpark(writerThread);
+        return queued;
+    }
+
+    /** Marks a session start at this point in the calling thread's lines. No-op without rotation. */
+    public boolean markSession(String label) {
+        if (closed) return false;
+        boolean queued = local.get().offer(new SessionMark(label));
+        if (writerParked) LockSupport.unpark(writerThread);
+        return queued;
+    }
+
+    /** Lines dropped so far because a producer's ring was full. */
+    public long dropped() {
+        long d = 0;
+        for (SpscRing<Object> r : rings) d += r.dropped();
+        return d;
+    }
+
+    /** Lines the writer thread has handed to the file so far. */
+    public long written() { return written; }
+
+    /**
+     * Stops accepting lines, drains what is queued, flushes and closes the file. Waits (up to 2 s) only
+     * for that drain; compression of a just-rotated segment carries on in the background.
+     */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        LockSupport.unpark(writerThread);
+        try { writerThread.join(2000); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+    }
+
+    private SpscRing<Object> register() {
+        SpscRing<Object> r = new SpscRing<>(policy.capacity());
+        rings.add(r);
+        return r;
+    }
+
+    // -------- Writer thread --------
+    private void runWriter() {
+        long lastFlushNs = System.nanoTime();
+        int pending = 0;
+        long intervalNs = TimeUnit.MILLISECONDS.toNanos(policy.flushIntervalMs());
+        try {
+            while (true) {
+                boolean stopping = closed; // read before draining so nothing queued before close is lost
+                int n = drainOnce();
+                pending += n;
+
+                long now = System.nanoTime();
+                if (pending > 0 && (pending >= policy.flushLines() || now - lastFlushNs >= intervalNs || stopping)) {
+                    reportDrops();
+                    out.flush();
+                    out.checkAge(System.currentTimeMillis());
+                    pending = 0;
+                    lastFlushNs = now;
+                }
+                if (stopping) break;
+                if (n > 0) continue;
+                // Nothing queued: sleep until a producer signals, or until the pending lines' flush is due
+                writerParked = true;
+                if (allEmpty() && !closed) LockSupport.parkNanos(pending > 0 ? Math.max(1, lastFlushNs + intervalNs - now) : intervalNs);
+                writerParked = false;
+            }
+            reportDrops();
+            out.flush();
+        } catch (IOException ignored) {
+            closed = true;
+        } finally {
+            try { out.close(); } catch (IOException ignored) {}
+        }
+    }
+
+    private boolean allEmpty() {
+        for (SpscRing<Object> r : rings) if (!r.isEmpty()) return false;
+        return true;
+    }
+
+    private int drainOnce() throws IOException {
+        int n = 0;
+        for (SpscRing<Object> r : rings) {
+            Object o;
+            // Bounded per ring so one chatty thread cannot starve the flush check
+            for (int i = 0, max = r.capacity(); i < max && (o = r.poll()) != null; i++) {
+                if (o instanceof SessionMark m) { out.markSession(m.label()); continue; }
+                out.write((String) o);
+                n++;
+            }
+        }
+        if (n > 0) written += n;
+        return n;
+    }
+
+    private void reportDrops() throws IOException {
+        long d = dropped();
+        if (d == droppedReported) return;
+        out.write("# dropped " + (d - droppedReported) + " lines (log queue full)");
+        droppedReported = d;
+    }
+}
@@ -0,0 +1,129 @@
+package com.zoltam.autofish.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+
+/**
+ * Reusable, locale-independent text line builder for the TSV logs.
+ *
+ * Appends ints, longs, booleans and fixed-precision doubles straight into a growable char buffer,
+ * so building a row costs no Formatter and no intermediate Strings; only {@link #toString()}
+ * allocates. Output matches {@code String.format(Locale.ROOT, "%.Nf", v)}, including NaN,
+ * Infinity and "-0.000" for small negatives.
+ *
+ * Not thread-safe: use {@link #local()} for a per-thread instance.
+ */
+public final class LineBuilder implements CharSequence {
+    private static final ThreadLocal<LineBuilder> LOCAL = ThreadLocal.withInitial(LineBuilder::new);
+    private static final long[] POW10 = {
+        1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L
+    };
+    private static final int MAX_DECIMALS = POW10.length - 1;
+    /** Above this scaled magnitude the double → long rounding is no longer exact enough. */
+    private static final double MAX_FAST = 1e15;
+
+    private char[] buf;
+    private int len;
+
+    public LineBuilder() { this(256); }
+
+    public LineBuilder(int capacity) { buf = new char[Math.max(16, capacity)]; }
+
+    /** This thread's builder, already reset. */
+    public static LineBuilder local() { return LOCAL.get().reset(); }
+
+    public LineBuilder reset() { len = 0; return this; }
+
+    public LineBuilder tab() { return append('\t'); }
+
+    public LineBuilder append(char c) {
+        ensure(1);
+        buf[len++] = c;
+        return this;
+    }
+
+    public LineBuilder append(String s) {
+        if (s == null) s = "null";
+        int n = s.length();
+        ensure(n);
+        s.getChars(0, n, buf, len);
+        len += n;
+        return this;
+    }
+
+    /** Appends {@code s} with tabs and newlines replaced by spaces; null appends nothing. */
+    public LineBuilder appendClean(String s) {
+        if (s == null) return this;
+        int n = s.length();
+        ensure(n);
+        for (int i = 0; i < n; i++) {
+            char c = s.charAt(i);
+            buf[len++] = (c == '\t' || c == '\n') ? ' ' : c;
+        }
+        return this;
+    }
+
+    public LineBuilder append(boolean b) { return append(b ? "true" : "false"); }
+
+    public LineBuilder append(int v) { return append((long) v); }
+
+    public LineBuilder append(long v) {
+        if (v == Long.MIN_VALUE) return append("-9223372036854775808");
+        if (v < 0) { append('-'); v = -v; }
+        appendDigits(v, 0);
+        return this;
+    }
+
+    /** Fixed-point with {@code decimals} digits after the point, rounded half-up like %.Nf. */
+    public LineBuilder append(double v, int decimals) {
+        if (Double.isNaN(v)) return append("NaN");
+        if (Double.isInfinite(v)) return append(v > 0 ? "Infinity" : "-Infinity");
+        if (decimals < 0 || decimals > MAX_DECIMALS || Math.abs(v) * POW10[Math.min(decimals, MAX_DECIMALS)] >= MAX_FAST) {
+            return append(BigDecimal.valueOf(v).setScale(Math.max(0, decimals), RoundingMode.HALF_UP).toPlainString());
+        }
+
+        boolean negative = Double.doubleToRawLongBits(v) < 0;
+        double a = Math.abs(v);
+        long scale = POW10[decimals];
+        double product = a * scale;
+        long scaled = (long) product;
+        double rest = product - scaled;
+        if (Math.abs(rest - 0.5) <= 4 * Math.ulp(product) + 1e-9) {
+            // Near a tie the product may be off by an ulp either way: round the shortest decimal form, as Formatter does
+            return append(BigDecimal.valueOf(v).setScale(decimals, RoundingMode.HALF_UP).toPlainString());
+        }
+        if (rest > 0.5) scaled++;
+
+        if (negative) append('-');
+        appendDigits(scaled / scale, 0);
+        if (decimals > 0) {
+            append('.');
+            appendDigits(scaled % scale, decimals);
+        }
+        return this;
+    }
+
+    /** Appends {@code v >= 0}, left-padded with zeros to {@code minDigits}. */
+    private void appendDigits(long v, int minDigits) {
+        int digits = 1;
+        for (long t = v; t >= 10; t /= 10) digits++;
+        int n = Math.max(digits, minDigits);
+        ensure(n);
+        int end = len + n;
+        for (int i = end - 1; i >= len; i--) {
+            buf[i] = (char) ('0' + (v % 10));
+            v /= 10;
+        }
+        len = end;
+    }
+
+    private void ensure(int extra) {
+        if (len + extra > buf.length) buf = Arrays.copyOf(buf, Math.max(buf.length * 2, len + extra));
+    }
+
+    @Override public int length() { return len; }
+    @Override public char charAt(int index) { return buf[index]; }
+    @Override public CharSequence subSequence(int start, int end) { return new String(buf, start, end - start); }
+    @Override public String toString() { return new String(buf, 0, len); }
+}
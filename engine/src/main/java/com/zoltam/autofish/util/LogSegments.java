@@ -0,0 +1,201 @@
+package com.zoltam.autofish.util;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The rotated segments of one log file, text or binary; {@link RollingFile} and the binary trace writer
+ * both roll over through it.
+ *
+ * For an active file {@code logs/name.ext}:
+ * - {@code name.000042.ext.gz} are rotated segments, numbered in order (plain {@code .ext} until compressed);
+ * - {@code name.index} lists session starts as {@code segment offset epochMs label}, offsets being
+ *   uncompressed bytes into that segment. The active file's segment number is the one it gets on rotation.
+ *
+ * Compression and pruning run on one shared daemon thread and nothing waits for them: a segment left
+ * plain by an exit mid-gzip is compressed on the next {@link #maintain}. Index entries are appended by
+ * the owner, so an entry always exists before its segment can be pruned.
+ */
+public final class LogSegments {
+    private static final String INDEX_HEADER = "segment\toffset\tts\tlabel";
+    private static final ExecutorService MAINTENANCE = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "autofish-log-maintenance");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final Path active;
+    private final Path dir;
+    private final String stem, ext;
+    private final Pattern segmentName;
+    private final Path index;
+    private final RollingFile.Rotation rotation;
+    private final Object indexLock = new Object(); // appends (owner) vs. pruning rewrites (maintenance)
+    private int seq;
+
+    /** Creates the directory and numbers the active file after the highest existing segment. */
+    public LogSegments(Path active, RollingFile.Rotation rotation) throws IOException {
+        this.active = active.toAbsolutePath();
+        this.dir = this.active.getParent();
+        String name = this.active.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        this.stem = dot > 0 ? name.substring(0, dot) : name;
+        this.ext = dot > 0 ? name.substring(dot) : "";
+        this.segmentName = Pattern.compile(Pattern.quote(stem) + "\\.(\\d{6,})" + Pattern.quote(ext) + "(\\.gz)?");
+        this.index = dir.resolve(stem + ".index");
+        this.rotation = rotation;
+        Files.createDirectories(dir);
+        TreeMap<Integer, Path> segs = segments();
+        this.seq = segs.isEmpty() ? 1 : segs.lastKey() + 1;
+    }
+
+    public Path active() { return active; }
+
+    public RollingFile.Rotation rotation() { return rotation; }
+
+    /** Number the active file will carry once rotated. */
+    public int segment() { return seq; }
+
+    /** True when the active file exists and holds anything. */
+    public boolean activeHasData() throws IOException {
+        return Files.isRegularFile(active) && Files.size(active) > 0;
+    }
+
+    /** Moves the (closed) active file into the next numbered segment and returns it. */
+    public Path roll() throws IOException {
+        Path rolled = dir.resolve(String.format(Locale.ROOT, "%s.%06d%s", stem, seq, ext));
+        Files.move(active, rolled, StandardCopyOption.REPLACE_EXISTING);
+        seq++;
+        return rolled;
+    }
+
+    /**
+     * Queues compression of {@code rolled} (or, when null, of every segment still plain, e.g. from a
+     * previous run) and pruning to the retention limits. Returns at once.
+     */
+    public void maintain(Path rolled) {
+        if (!rotation.rotates()) return;
+        MAINTENANCE.execute(() -> {
+            try {
+                if (rotation.compress()) {
+                    if (rolled != null) gzip(rolled);
+                    else for (Path p : segments().values()) if (!p.toString().endsWith(".gz")) gzip(p);
+                }
+                prune();
+            } catch (IOException ignored) {}
+        });
+    }
+
+    /** Records that a session starts {@code offset} bytes into the active file. No-op without rotation. */
+    public void markSession(long offset, String label) {
+        if (!rotation.rotates()) return;
+        appendIndex(seq + "\t" + offset + "\t" + System.currentTimeMillis() + "\t" + (label == null ? "" : label.replace('\t', ' ')));
+    }
+
+    /** Waits until everything queued so far on the maintenance thread has run; for tests. */
+    static boolean awaitMaintenance(long timeoutMs) {
+        try {
+            MAINTENANCE.submit(() -> {}).get(timeoutMs, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    // -------- Maintenance (background thread) --------
+    private void gzip(Path src) throws IOException {
+        if (!Files.exists(src)) return;
+        Path gz = src.resolveSibling(src.getFileName() + ".gz");
+        Path part = src.resolveSibling(src.getFileName() + ".gz.part");
+        try (InputStream in = Files.newInputStream(src);
+             OutputStream o = new GZIPOutputStream(Files.newOutputStream(part), 64 * 1024)) {
+            in.transferTo(o);
+        }
+        Files.move(part, gz, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.delete(src);
+    }
+
+    private void prune() throws IOException {
+        TreeMap<Integer, Path> segs = segments();
+        long total = 0;
+        for (Path p : segs.values()) total += Files.size(p);
+
+        int removedUpTo = -1;
+        while (!segs.isEmpty()
+            && ((rotation.keepSegments() > 0 && segs.size() > rotation.keepSegments())
+                || (rotation.keepBytes() > 0 && total > rotation.keepBytes()))) {
+            var oldest = segs.pollFirstEntry();
+            total -= Files.size(oldest.getValue());
+            Files.deleteIfExists(oldest.getValue());
+            removedUpTo = oldest.getKey();
+        }
+        if (removedUpTo >= 0) dropIndexEntries(removedUpTo);
+    }
+
+    /** Rotated segments by number; a segment present both plain and gzipped is listed once, as the plain file. */
+    TreeMap<Integer, Path> segments() throws IOException {
+        TreeMap<Integer, Path> out = new TreeMap<>();
+        try (var s = Files.list(dir)) {
+            s.forEach(p -> {
+                Matcher m = segmentName.matcher(p.getFileName().toString());
+                if (!m.matches()) return;
+                int n = Integer.parseInt(m.group(1));
+                if (m.group(2) == null || !out.containsKey(n)) out.put(n, p);
+            });
+        }
+        return out;
+    }
+
+    private void appendIndex(String entry) {
+        synchronized (indexLock) {
+            try {
+                boolean fresh = Files.notExists(index);
+                try (BufferedWriter w = Files.newBufferedWriter(index, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                    if (fresh) { w.write(INDEX_HEADER); w.write('\n'); }
+                    w.write(entry);
+                    w.write('\n');
+                }
+            } catch (IOException ignored) {}
+        }
+    }
+
+    /** Drops index entries of segments up to and including {@code upToSegment}. */
+    void dropIndexEntries(int upToSegment) throws IOException {
+        synchronized (indexLock) {
+            if (Files.notExists(index)) return;
+            List<String> kept = new ArrayList<>();
+            kept.add(INDEX_HEADER);
+            for (String line : Files.readAllLines(index, StandardCharsets.UTF_8)) {
+                int tab = line.indexOf('\t');
+                if (tab <= 0) continue;
+                try {
+                    if (Integer.parseInt(line.substring(0, tab)) > upToSegment) kept.add(line);
+                } catch (NumberFormatException ignored) {}
+            }
+            Path tmp = index.resolveSibling(index.getFileName() + ".part");
+            Files.write(tmp, kept, StandardCharsets.UTF_8);
+            Files.move(tmp, index, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.zoltam.autofish.util;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Line log file that rolls over by size and/or age, with background gzip and retention.
+ *
+ * For an active file {@code logs/name.tsv}, {@code name.tsv} is the segment being written; rotated
+ * segments, their index and retention are handled by {@link LogSegments}.
+ *
+ * With a header supplier, every segment started from empty begins with the header, so a rotated
+ * segment reads on its own like the first one.
+ *
+ * Not thread-safe: {@link AsyncLogSink} drives it from its writer thread only.
+ */
+public final class RollingFile implements Closeable {
+    /**
+     * When to roll over (0 disables a limit) and what to keep. Retention counts rotated segments only;
+     * the oldest go first once either {@code keepSegments} or {@code keepBytes} is exceeded.
+     */
+    public record Rotation(long maxBytes, long maxAgeMs, int keepSegments, long keepBytes, boolean compress) {
+        /** A single plain file, as before rotation existed. */
+        public static final Rotation NONE = new Rotation(0, 0, 0, 0, false);
+
+        /** Rotation from the module settings: MB per segment, hours per segment, segments and MB kept. */
+        public static Rotation of(int maxMb, int rotateHours, int keepSegments, int keepMb) {
+            return new Rotation(maxMb * 1024L * 1024L, TimeUnit.HOURS.toMillis(rotateHours),
+                keepSegments, keepMb * 1024L * 1024L, true);
+        }
+
+        public boolean rotates() { return maxBytes > 0 || maxAgeMs > 0; }
+    }
+
+    private final LogSegments segments;
+    private final Rotation rotation;
+    private final Supplier<List<String>> header;   // null: no header
+
+    private BufferedWriter out;
+    private long bytes, headerBytes;
+    private long segmentStartMs;
+
+    private RollingFile(LogSegments segments, Supplier<List<String>> header) {
+        this.segments = segments;
+        this.rotation = segments.rotation();
+        this.header = header;
+    }
+
+    /**
+     * Opens {@code path} for writing. With {@code append} the current segment is continued; otherwise a
+     * non-empty one is rotated away first (or truncated when {@code rotation} never rotates).
+     */
+    public static RollingFile open(Path path, boolean append, Rotation rotation) throws IOException {
+        return open(path, append, rotation, null);
+    }
+
+    /** As {@link #open(Path, boolean, Rotation)}, writing {@code header}'s lines at the top of each new segment. */
+    public static RollingFile open(Path path, boolean append, Rotation rotation, Supplier<List<String>> header) throws IOException {
+        RollingFile f = new RollingFile(new LogSegments(path, rotation), header);
+        boolean existing = f.segments.activeHasData();
+        if (existing && !append && rotation.rotates()) {
+            f.segments.roll();
+            existing = false;
+        }
+        f.openActive(append && existing);
+        if (!(append && existing)) f.writeHeader();
+        f.segments.maintain(null); // compresses and prunes anything not done yet, including a previous run's
+        return f;
+    }
+
+    public Path getPath() { return segments.active(); }
+
+    /** Bytes in the active segment. */
+    public long bytes() { return bytes; }
+
+    /** Number the active segment will carry once rotated. */
+    public int segment() { return segments.segment(); }
+
+    /** Writes one line, rolling over first when it would overflow the segment. */
+    public void write(String line) throws IOException {
+        long n = utf8Length(line) + 1;
+        if (rotation.maxBytes() > 0 && bytes > headerBytes && bytes + n > rotation.maxBytes()) rotate();
+        out.write(line);
+        out.write('\n');
+        bytes += n;
+    }
+
+    /** Records that a session starts at the current offset. */
+    public void markSession(String label) {
+        segments.markSession(bytes, label);
+    }
+
+    /** Rolls over when the active segment is older than the rotation age and holds more than its header. */
+    public void checkAge(long nowMs) throws IOException {
+        if (rotation.maxAgeMs() > 0 && bytes > headerBytes && nowMs - segmentStartMs >= rotation.maxAgeMs()) rotate();
+    }
+
+    public void flush() throws IOException { out.flush(); }
+
+    /**
+     * Closes the active segment. Queued compression and pruning are not waited for, so closing right
+     * after a rotation does not stall on gzipping the segment; they finish in the background.
+     */
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    // -------- Rotation --------
+    private void rotate() throws IOException {
+        out.close();
+        Path rolled = segments.roll();
+        openActive(false);
+        writeHeader();
+        segments.maintain(rolled);
+    }
+
+    private void openActive(boolean append) throws IOException {
+        Path active = segments.active();
+        out = Files.newBufferedWriter(active, StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            append ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING);
+        bytes = append ? Files.size(active) : 0;
+        headerBytes = 0;
+        segmentStartMs = System.currentTimeMillis();
+    }
+
+    private void writeHeader() throws IOException {
+        if (header == null) return;
+        for (String line : header.get()) {
+            out.write(line);
+            out.write('\n');
+            bytes += utf8Length(line) + 1;
+        }
+        headerBytes = bytes;
+    }
+
+    private static int utf8Length(String s) {
+        int n = 0;
+        for (int i = 0, len = s.length(); i < len; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) n++;
+            else if (c < 0x800) n += 2;
+            else if (Character.isHighSurrogate(c)) { n += 4; i++; }
+            else n += 3;
+        }
+        return n;
+    }
+}
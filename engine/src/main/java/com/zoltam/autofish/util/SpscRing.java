@@ -0,0 +1,55 @@
+package com.zoltam.autofish.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded single-producer / single-consumer ring. Lock-free: the producer only
+ * writes {@code tail}, the consumer only writes {@code head}, each publishing with release stores.
+ */
+final class SpscRing<T> {
+    private final Object[] slots;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong(); // next slot to read (consumer-owned)
+    private final AtomicLong tail = new AtomicLong(); // next slot to write (producer-owned)
+    private final AtomicLong dropped = new AtomicLong(); // producer-owned
+    private long cachedHead = 0; // producer's last view of head
+
+    SpscRing(int capacity) {
+        int cap = Integer.highestOneBit(Math.max(2, capacity - 1) << 1);
+        slots = new Object[cap];
+        mask = cap - 1;
+    }
+
+    /** Producer side. Returns false (and counts a drop) when the ring is full. */
+    boolean offer(T value) {
+        long t = tail.getPlain();
+        if (t - cachedHead >= slots.length) {
+            cachedHead = head.getAcquire();
+            if (t - cachedHead >= slots.length) {
+                dropped.setRelease(dropped.getPlain() + 1);
+                return false;
+            }
+        }
+        slots[(int) t & mask] = value;
+        tail.setRelease(t + 1);
+        return true;
+    }
+
+    /** Consumer side. Returns null when empty. */
+    @SuppressWarnings("unchecked")
+    T poll() {
+        long h = head.getPlain();
+        if (h >= tail.getAcquire()) return null;
+        int i = (int) h & mask;
+        T value = (T) slots[i];
+        slots[i] = null;
+        head.setRelease(h + 1);
+        return value;
+    }
+
+    boolean isEmpty() { return head.getAcquire() >= tail.getAcquire(); }
+
+    long dropped() { return dropped.getAcquire(); }
+
+    int capacity() { return slots.length; }
+}
@@ -0,0 +1,174 @@
+package com.zoltam.autofish.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Hashed timer wheel for one-shot callbacks, driven by {@link #advance} from a single thread.
+ *
+ * - Deadlines are absolute clock milliseconds, hashed into {@code slots} buckets of {@code slotMs} each;
+ *   timers further out than one turn just stay in their bucket until their slot comes round.
+ * - A timer runs on the first advance at or after its deadline, never earlier, so with the wheel
+ *   advanced every game tick it fires on the tick its deadline falls in.
+ * - Advancing with nothing scheduled only moves the cursor.
+ * - Not thread-safe: schedule, cancel and advance from the thread that drives it.
+ */
+public final class TimerWheel {
+    /** Handle to a scheduled callback. */
+    public static final class Timer {
+        private final TimerWheel wheel;
+        private final String name;
+        private final Runnable task;
+        private final long deadlineMs;
+        private Timer prev, next;
+        private int bucket;
+        private boolean pending = true;
+        private boolean due; // taken off the wheel by the current advance, not run yet
+
+        private Timer(TimerWheel wheel, String name, long deadlineMs, Runnable task) {
+            this.wheel = wheel;
+            this.name = name;
+            this.deadlineMs = deadlineMs;
+            this.task = task;
+        }
+
+        public String name() { return name; }
+        public long deadlineMs() { return deadlineMs; }
+        public boolean isPending() { return pending; }
+
+        /** Milliseconds until the deadline (negative once overdue). */
+        public long remainingMs() { return deadlineMs - wheel.clock.getAsLong(); }
+
+        /** Drops the timer if it has not run yet; harmless otherwise. */
+        public void cancel() {
+            if (!pending) return;
+            pending = false;
+            if (!due) wheel.unlink(this);
+        }
+
+        @Override public String toString() {
+            return name + (pending ? " in " + remainingMs() + " ms" : " (done)");
+        }
+    }
+
+    private final LongSupplier clock;
+    private final long slotMs;
+    private final Timer[] buckets;
+    private final int mask;
+    private long cursor; // absolute slot of the last advance; its bucket may still hold timers due later in it
+    private int size;
+
+    /** {@code slots} is rounded up to a power of two. */
+    public TimerWheel(LongSupplier clock, long slotMs, int slots) {
+        this.clock = clock;
+        this.slotMs = Math.max(1, slotMs);
+        int n = Integer.highestOneBit(Math.max(2, slots - 1) << 1);
+        this.buckets = new Timer[n];
+        this.mask = n - 1;
+        this.cursor = Math.floorDiv(clock.getAsLong(), this.slotMs);
+    }
+
+    public long slotMs() { return slotMs; }
+    public int size() { return size; }
+
+    /** Runs {@code task} {@code delayMs} from now. */
+    public Timer schedule(String name, long delayMs, Runnable task) {
+        return scheduleAt(name, clock.getAsLong() + Math.max(0, delayMs), task);
+    }
+
+    /** Runs {@code task} after {@code ticks} slots (game ticks when {@code slotMs} is 50). */
+    public Timer scheduleTicks(String name, int ticks, Runnable task) {
+        return schedule(name, Math.max(0, ticks) * slotMs, task);
+    }
+
+    public Timer scheduleAt(String name, long deadlineMs, Runnable task) {
+        Timer t = new Timer(this, name, deadlineMs, task);
+        long slot = Math.max(cursor, Math.floorDiv(deadlineMs, slotMs));
+        t.bucket = (int) slot & mask;
+        t.next = buckets[t.bucket];
+        if (t.next != null) t.next.prev = t;
+        buckets[t.bucket] = t;
+        size++;
+        return t;
+    }
+
+    /**
+     * Runs every timer due by the clock's current time, in slot order. Timers scheduled by a callback
+     * run on a later advance at the earliest. A callback that throws does not stop the others; the first
+     * exception is rethrown once they have all run. Returns how many ran.
+     */
+    public int advance() {
+        long now = clock.getAsLong();
+        long target = Math.floorDiv(now, slotMs);
+        if (size == 0) {
+            cursor = Math.max(cursor, target);
+            return 0;
+        }
+
+        // Unlink everything due first, so callbacks can schedule and cancel freely
+        Timer due = null, dueTail = null;
+        long last = Math.min(target, cursor + buckets.length - 1);
+        for (long slot = cursor; slot <= last; slot++) {
+            Timer t = buckets[(int) slot & mask];
+            while (t != null) {
+                Timer nx = t.next;
+                if (t.deadlineMs <= now) {
+                    unlink(t);
+                    t.due = true;
+                    if (dueTail == null) due = t; else dueTail.next = t;
+                    dueTail = t;
+                }
+                t = nx;
+            }
+        }
+        cursor = Math.max(cursor, target);
+
+        int ran = 0;
+        RuntimeException failure = null;
+        for (Timer t = due; t != null; ) {
+            Timer nx = t.next;
+            t.next = null;
+            if (t.pending) { // an earlier callback may have cancelled it
+                t.pending = false;
+                ran++;
+                try {
+                    t.task.run();
+                } catch (RuntimeException e) {
+                    if (failure == null) failure = e;
+                }
+            }
+            t = nx;
+        }
+        if (failure != null) throw failure;
+        return ran;
+    }
+
+    /** Snapshot of the pending timers, soonest first. */
+    public List<Timer> pending() {
+        List<Timer> out = new ArrayList<>(size);
+        for (Timer head : buckets) {
+            for (Timer t = head; t != null; t = t.next) out.add(t);
+        }
+        out.sort(Comparator.comparingLong(Timer::deadlineMs));
+        return out;
+    }
+
+    /** Cancels every pending timer whose name starts with {@code prefix}, e.g. a module's own. */
+    public int cancelAll(String prefix) {
+        int n = 0;
+        for (Timer t : pending()) {
+            if (t.name.startsWith(prefix)) { t.cancel(); n++; }
+        }
+        return n;
+    }
+
+    private void unlink(Timer t) {
+        if (t.prev != null) t.prev.next = t.next;
+        else buckets[t.bucket] = t.next;
+        if (t.next != null) t.next.prev = t.prev;
+        t.prev = t.next = null;
+        size--;
+    }
+}
@@ -0,0 +1,85 @@
+package com.zoltam.autofish.minigame;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BiteCalibrationTest {
+    private static BiteCalibration with(double[] bites, double[] misses) {
+        BiteCalibration c = new BiteCalibration();
+        for (double b : bites) c.addBite(b);
+        for (double m : misses) c.addMiss(m);
+        return c;
+    }
+
+    @Test
+    void needsMinSamplesOfBoth() {
+        BiteCalibration c = with(new double[]{0.5, 0.5, 0.5, 0.5, 0.5, 0.5}, new double[]{0.05, 0.05, 0.05, 0.05, 0.05});
+        assertFalse(c.calibrate());
+        assertEquals(BiteCalibration.Thresholds.DEFAULT, c.thresholds());
+    }
+
+    @Test
+    void separatedSamplesSplitTheGap() {
+        BiteCalibration c = with(
+            new double[]{0.40, 0.45, 0.50, 0.55, 0.60, 0.65},
+            new double[]{0.01, 0.02, 0.03, 0.04, 0.05, 0.10});
+        assertTrue(c.calibrate());
+        // bite q10 = 0.40, miss q90 = 0.05
+        assertEquals(0.225, c.thresholds().threshold(), 1e-9);
+        assertEquals(BiteCalibration.Thresholds.DEFAULT.drift(), c.thresholds().drift());
+        assertFalse(c.calibrate()); // unchanged
+    }
+
+    @Test
+    void overlapSitsJustAboveTheMisses() {
+        BiteCalibration c = with(
+            new double[]{0.10, 0.20, 0.30, 0.40, 0.50, 0.60},
+            new double[]{0.05, 0.10, 0.15, 0.20, 0.25, 0.30});
+        assertTrue(c.calibrate());
+        assertEquals(0.25 * 1.1, c.thresholds().threshold(), 1e-9);
+    }
+
+    @Test
+    void thresholdIsClamped() {
+        BiteCalibration low = with(new double[]{0.02, 0.02, 0.02, 0.02, 0.02, 0.02}, new double[]{0, 0, 0, 0, 0, 0});
+        low.calibrate();
+        assertEquals(BiteCalibration.MIN_THRESHOLD, low.thresholds().threshold());
+
+        BiteCalibration high = with(new double[]{9, 9, 9, 9, 9, 9}, new double[]{5, 5, 5, 5, 5, 5});
+        high.calibrate();
+        assertEquals(BiteCalibration.MAX_THRESHOLD, high.thresholds().threshold());
+    }
+
+    @Test
+    void ringDropsTheOldest() {
+        BiteCalibration c = new BiteCalibration();
+        for (int i = 0; i < BiteCalibration.CAPACITY + 10; i++) c.addBite(i);
+        assertEquals(BiteCalibration.CAPACITY, c.bites());
+        String json = c.toJson();
+        assertTrue(json.contains("\"bites\": [10.000000, "), json);
+    }
+
+    @Test
+    void jsonRoundTrip() {
+        BiteCalibration c = with(
+            new double[]{0.40, 0.45, 0.50, 0.55, 0.60, 0.65},
+            new double[]{0.01, 0.02, 0.03, 0.04, 0.05, 0.10});
+        c.calibrate();
+
+        BiteCalibration back = BiteCalibration.fromJson(c.toJson());
+        assertEquals(c.thresholds().threshold(), back.thresholds().threshold(), 1e-6);
+        assertEquals(c.thresholds().drift(), back.thresholds().drift(), 1e-6);
+        assertEquals(6, back.bites());
+        assertEquals(6, back.misses());
+        assertEquals(c.toJson(), back.toJson());
+    }
+
+    @Test
+    void garbageFallsBackToDefaults() {
+        BiteCalibration c = BiteCalibration.fromJson("not json");
+        assertEquals(BiteCalibration.Thresholds.DEFAULT, c.thresholds());
+        assertEquals(0, c.bites());
+        assertEquals(0, c.misses());
+    }
+}
@@ -0,0 +1,100 @@
+package com.zoltam.autofish.minigame;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BiteDetectorTest {
+    private static final double WATER = 62.9;
+
+    private BiteDetector bite;
+
+    @BeforeEach
+    void setUp() {
+        bite = new BiteDetector();
+    }
+
+    /** Bobber settled on the water: a few still samples, then the first ready call arms. */
+    private void settle() {
+        for (int i = 0; i < 4; i++) bite.push(WATER);
+        assertFalse(bite.detect(() -> true));
+        assertTrue(bite.armed());
+    }
+
+    @Test
+    void firstReadyCallOnlyArms() {
+        bite.push(70.0);
+        bite.push(WATER); // the fall after the cast
+        assertFalse(bite.detect(() -> true));
+        assertTrue(bite.armed());
+        assertEquals(0.0, bite.score());
+    }
+
+    @Test
+    void sharpDropIsABite() {
+        settle();
+        bite.push(WATER - 0.2);
+        assertTrue(bite.detect(() -> true));
+        assertEquals(0.2 - BiteCalibration.Thresholds.DEFAULT.drift(), bite.score(), 1e-9);
+    }
+
+    @Test
+    void slowSinkAccumulates() {
+        settle();
+        double y = WATER;
+        int steps = 0;
+        do {
+            y -= 0.07;
+            bite.push(y);
+            steps++;
+        } while (!bite.detect(() -> true) && steps < 10);
+        assertEquals(3, steps); // 0.04 net per step against a 0.11 threshold
+    }
+
+    @Test
+    void bobbingNeverFires() {
+        settle();
+        for (int i = 0; i < 200; i++) {
+            bite.push(WATER + (i % 2 == 0 ? 0.025 : -0.025));
+            assertFalse(bite.detect(() -> true), "fired on step " + i);
+        }
+        assertTrue(bite.peak() < BiteCalibration.Thresholds.DEFAULT.threshold());
+    }
+
+    @Test
+    void inFlightDisarms() {
+        settle();
+        bite.push(WATER + 1.0);
+        bite.push(WATER - 1.0);
+        assertFalse(bite.detect(() -> false));
+        assertFalse(bite.armed());
+        assertEquals(0.0, bite.score());
+    }
+
+    @Test
+    void inWaterIsOnlyAskedWithEnoughSamples() {
+        bite.push(WATER);
+        assertFalse(bite.detect(() -> { throw new AssertionError("asked too early"); }));
+    }
+
+    @Test
+    void thresholdsComeFromCalibration() {
+        bite.setThresholds(new BiteCalibration.Thresholds(0.0, 0.5));
+        settle();
+        bite.push(WATER - 0.3);
+        assertFalse(bite.detect(() -> true));
+        bite.push(WATER - 0.6);
+        assertTrue(bite.detect(() -> true));
+    }
+
+    @Test
+    void clearForgetsEverything() {
+        settle();
+        bite.push(WATER - 0.3);
+        bite.clear();
+        assertEquals(0, bite.size());
+        assertFalse(bite.armed());
+        assertEquals(0.0, bite.peak());
+    }
+}
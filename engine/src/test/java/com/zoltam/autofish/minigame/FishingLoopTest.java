@@ -0,0 +1,196 @@
+package com.zoltam.autofish.minigame;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FishingLoopTest {
+    /** Scripted game side: answers come from the fields, calls are counted. */
+    static final class FakeWorld implements FishingLoop.World {
+        boolean bobberOut, rod = true, busy, bite;
+        int castDelayMs = 200, reelDelayMs = 150;
+        int prepared, biteQueries;
+
+        @Override public void trackBobber() {}
+        @Override public boolean hasBobberOut() { return bobberOut; }
+        @Override public boolean ensureRodEquipped() { return rod; }
+        @Override public void prepareCast() { prepared++; }
+        @Override public boolean busy() { return busy; }
+        @Override public boolean detectBite() { biteQueries++; return bite; }
+        @Override public int castDelayMs() { return castDelayMs; }
+        @Override public int reelDelayMs() { return reelDelayMs; }
+    }
+
+    private static final int CAST_TICK = 100;
+
+    private FishingLoop loop;
+    private FakeWorld world;
+
+    @BeforeEach
+    void setUp() {
+        loop = new FishingLoop();
+        world = new FakeWorld();
+    }
+
+    /** Casts at {@code now} on {@link #CAST_TICK} and lands the bobber. */
+    private void cast(long now) {
+        assertEquals(FishingLoop.Action.CAST, loop.step(now, CAST_TICK, false, world));
+        world.bobberOut = true;
+    }
+
+    @Test
+    void idleCastsWithRodAndWaitsForBite() {
+        assertEquals(FishingLoop.Action.CAST, loop.step(1_000, CAST_TICK, false, world));
+        assertEquals(FishingLoop.Phase.WAIT_BITE, loop.phase());
+        assertEquals(1_000 + world.castDelayMs, loop.nextActionAtMs());
+        assertEquals(CAST_TICK, loop.lastCastTick());
+        assertEquals(CAST_TICK + FishingLoop.BITE_ARM_TICKS, loop.biteArmedAtTick());
+    }
+
+    @Test
+    void stepBeforeNextActionDoesNothing() {
+        cast(1_000);
+        assertEquals(FishingLoop.Action.NONE, loop.step(1_100, CAST_TICK + 2, false, world));
+        assertEquals(FishingLoop.Phase.WAIT_BITE, loop.phase());
+        assertEquals(1_000 + world.castDelayMs, loop.nextActionAtMs());
+    }
+
+    @Test
+    void noRodRetriesLater() {
+        world.rod = false;
+        assertEquals(FishingLoop.Action.NONE, loop.step(1_000, CAST_TICK, false, world));
+        assertEquals(FishingLoop.Phase.IDLE, loop.phase());
+        assertEquals(1_750, loop.nextActionAtMs());
+    }
+
+    @Test
+    void busyHoldsTheCast() {
+        world.busy = true;
+        assertEquals(FishingLoop.Action.NONE, loop.step(1_000, CAST_TICK, false, world));
+        assertEquals(1_000 + FishingLoop.BUSY_RECHECK_MS, loop.nextActionAtMs());
+        world.busy = false;
+        assertEquals(FishingLoop.Action.CAST, loop.step(loop.nextActionAtMs(), CAST_TICK + 5, false, world));
+    }
+
+    @Test
+    void biteIsIgnoredUntilArmed() {
+        cast(1_000);
+        world.bite = true;
+        assertEquals(FishingLoop.Action.NONE, loop.step(2_000, CAST_TICK + FishingLoop.BITE_ARM_TICKS - 1, false, world));
+        assertEquals(0, world.biteQueries);
+        assertEquals(FishingLoop.Phase.WAIT_BITE, loop.phase());
+    }
+
+    @Test
+    void armedBiteReelsAfterTheHumanisedDelay() {
+        cast(1_000);
+        world.bite = true;
+        long now = 5_000;
+        assertEquals(FishingLoop.Action.REEL, loop.step(now, CAST_TICK + FishingLoop.BITE_ARM_TICKS, false, world));
+        assertEquals(FishingLoop.Phase.REELING, loop.phase());
+        assertEquals(world.reelDelayMs, loop.lastReelDelayMs());
+        assertEquals(now + world.reelDelayMs + FishingLoop.REEL_GRACE_MS, loop.nextActionAtMs());
+
+        // Reeled in without a minigame: back to idle, next cast prepared
+        world.bobberOut = false;
+        loop.step(loop.nextActionAtMs(), CAST_TICK + 60, false, world);
+        assertEquals(FishingLoop.Phase.IDLE, loop.phase());
+        assertEquals(1, world.prepared);
+    }
+
+    @Test
+    void reelThatStartsTheMinigameEntersIt() {
+        cast(1_000);
+        world.bite = true;
+        loop.step(5_000, CAST_TICK + FishingLoop.BITE_ARM_TICKS, false, world);
+        loop.step(loop.nextActionAtMs(), CAST_TICK + 50, true, world);
+        assertEquals(FishingLoop.Phase.MINIGAME, loop.phase());
+    }
+
+    @Test
+    void bobberThatNeverLandsIsAFailedCast() {
+        assertEquals(FishingLoop.Action.CAST, loop.step(1_000, CAST_TICK, false, world));
+        int deadline = CAST_TICK + FishingLoop.CAST_SPAWN_GRACE_TICKS + FishingLoop.CAST_RESOLVE_DEADLINE_EXTRA_TICKS;
+
+        loop.step(2_000, deadline, false, world);
+        assertEquals(FishingLoop.Phase.WAIT_BITE, loop.phase());
+
+        loop.step(3_000, deadline + 1, false, world);
+        assertEquals(FishingLoop.Phase.IDLE, loop.phase());
+        assertEquals(3_000 + FishingLoop.FAIL_RETRY_DELAY_MS, loop.nextActionAtMs());
+        assertEquals(1, world.prepared);
+    }
+
+    @Test
+    void noBiteTimeoutRecasts() {
+        cast(1_000);
+        assertEquals(FishingLoop.Action.RECAST, loop.step(70_000, CAST_TICK + FishingLoop.NO_BITE_TIMEOUT_TICKS, false, world));
+        assertEquals(FishingLoop.Phase.REELING, loop.phase());
+    }
+
+    @Test
+    void setTimingShortensTheTimeout() {
+        loop.setTiming(100, 200);
+        cast(1_000);
+        assertEquals(FishingLoop.Action.RECAST, loop.step(20_000, CAST_TICK + 200, false, world));
+    }
+
+    @Test
+    void splashCountsOnlyWhileWaitingAndArmed() {
+        assertFalse(loop.onSplash(500, CAST_TICK, world)); // idle
+        cast(1_000);
+        assertFalse(loop.onSplash(1_500, CAST_TICK + 5, world));
+        assertTrue(loop.onSplash(4_000, CAST_TICK + FishingLoop.BITE_ARM_TICKS, world));
+        assertEquals(FishingLoop.Phase.REELING, loop.phase());
+        assertEquals(4_000 + world.reelDelayMs + FishingLoop.REEL_GRACE_MS, loop.nextActionAtMs());
+        assertFalse(loop.onSplash(4_100, CAST_TICK + FishingLoop.BITE_ARM_TICKS + 1, world)); // already reeling
+    }
+
+    @Test
+    void cooldownIsPreparedUpFrontAndCastsOnItsFirstStep() {
+        cast(1_000);
+        loop.enterMinigame(5_000);
+        world.bobberOut = false;
+        loop.endCycle(20_000, true, 600, world);
+        assertEquals(FishingLoop.Phase.COOLDOWN, loop.phase());
+        assertEquals(1, world.prepared);
+        assertEquals(20_600, loop.nextActionAtMs());
+
+        assertEquals(FishingLoop.Action.NONE, loop.step(20_599, 500, false, world));
+        assertEquals(FishingLoop.Action.CAST, loop.step(20_600, 500, false, world));
+        assertEquals(FishingLoop.Phase.WAIT_BITE, loop.phase());
+    }
+
+    @Test
+    void endCycleWithoutLoopGoesIdle() {
+        cast(1_000);
+        loop.enterMinigame(5_000);
+        loop.endCycle(20_000, false, 600, world);
+        assertEquals(FishingLoop.Phase.IDLE, loop.phase());
+        assertEquals(0, world.prepared);
+    }
+
+    @Test
+    void cycleTimeRunsCastToCastWithPhaseBreakdown() {
+        cast(1_000);
+        loop.enterMinigame(5_000);
+        world.bobberOut = false;
+        loop.endCycle(20_000, true, 600, world);
+        loop.step(20_600, 500, false, world);
+
+        assertEquals(19_600, loop.lastCycleMs());
+        assertEquals(4_000, loop.lastPhaseMs(FishingLoop.Phase.WAIT_BITE));
+        assertEquals(15_000, loop.lastPhaseMs(FishingLoop.Phase.MINIGAME));
+        assertEquals(600, loop.lastPhaseMs(FishingLoop.Phase.COOLDOWN));
+    }
+
+    @Test
+    void resetReturnsToIdle() {
+        cast(1_000);
+        loop.reset();
+        assertEquals(FishingLoop.Phase.IDLE, loop.phase());
+        assertEquals(0, loop.nextActionAtMs());
+        assertEquals(0, loop.lastCycleMs());
+    }
+}
@@ -0,0 +1,53 @@
+package com.zoltam.autofish.minigame;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static com.zoltam.autofish.minigame.InventoryDump.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class InventoryDumpTest {
+    /** A 36-slot inventory full of catch, with {@code slotKinds} pairs (slot, kind) filled in. */
+    private static byte[] inventory(int... slotKinds) {
+        byte[] kinds = new byte[36];
+        Arrays.fill(kinds, CATCH);
+        for (int i = 0; i < slotKinds.length; i += 2) kinds[slotKinds[i]] = (byte) slotKinds[i + 1];
+        return kinds;
+    }
+
+    @Test
+    void countsEmptySlotsIncludingTheHotbar() {
+        assertEquals(0, freeSlots(inventory()));
+        assertEquals(3, freeSlots(inventory(0, EMPTY, 8, EMPTY, 35, EMPTY, 10, ROD)));
+    }
+
+    @Test
+    void dueAtTheThresholdUnlessBackingOff() {
+        assertTrue(due(1, 1, 1_000, 0));
+        assertFalse(due(2, 1, 1_000, 0));
+        assertFalse(due(0, 1, 1_000, 1_001));
+        assertTrue(due(0, 1, 1_001, 1_001));
+    }
+
+    @Test
+    void dropsOnlyJunkAnywhere() {
+        byte[] kinds = inventory(2, JUNK, 5, ROD, 20, JUNK, 21, EMPTY, 35, JUNK);
+        assertArrayEquals(new int[]{2, 20, 35}, dropSlots(kinds));
+        assertEquals(0, dropSlots(inventory(0, ROD)).length);
+    }
+
+    @Test
+    void depositsTheMainInventoryButNotTheHotbarOrRods() {
+        byte[] kinds = inventory(3, JUNK, 9, ROD, 10, EMPTY, 11, JUNK);
+        assertFalse(deposit(kinds, 3));   // hotbar
+        assertFalse(deposit(kinds, 8));
+        assertFalse(deposit(kinds, 9));   // rod
+        assertFalse(deposit(kinds, 10));  // nothing there
+        assertTrue(deposit(kinds, 11));   // junk goes too
+        assertTrue(deposit(kinds, 12));
+        assertTrue(deposit(kinds, 35));
+        assertFalse(deposit(kinds, 36));  // armour and off hand are not main inventory
+        assertFalse(deposit(kinds, -1));
+    }
+}
@@ -0,0 +1,85 @@
+package com.zoltam.autofish.minigame;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MinigameClassifierTest {
+    /** Minigame seen from tick 0 to {@code ticks}: a still box, a fish swimming in local Y, two higher decor displays. */
+    private static List<Track> minigame(int ticks, boolean withLocal) {
+        Track box = new Track(1, 63.0, withLocal ? 0.5 : null, 0);
+        Track fish = new Track(2, 62.9, withLocal ? 0.1 : null, 0);
+        Track decorA = new Track(3, 64.0, withLocal ? 0.0 : null, 0);
+        Track decorB = new Track(4, 64.5, withLocal ? 0.0 : null, 0);
+        for (int t = 1; t <= ticks; t++) {
+            double swim = 0.3 * Math.sin(t * 0.7);
+            box.update(63.0, withLocal ? 0.5 : null, t);
+            fish.update(withLocal ? 62.9 : 62.9 + swim, withLocal ? 0.1 + swim : null, t);
+            decorA.update(64.0, withLocal ? 0.0 : null, t);
+            decorB.update(64.5, withLocal ? 0.0 : null, t);
+        }
+        return new ArrayList<>(List.of(decorB, fish, decorA, box));
+    }
+
+    @Test
+    void needsFourDisplays() {
+        List<Track> tracks = minigame(10, true);
+        tracks.remove(0);
+        assertNull(MinigameClassifier.classify(tracks, 10));
+    }
+
+    @Test
+    void needsEnoughTicks() {
+        List<Track> tracks = minigame(MinigameClassifier.CLASSIFY_MIN - 1, true);
+        assertNull(MinigameClassifier.classify(tracks, MinigameClassifier.CLASSIFY_MIN - 1));
+    }
+
+    @Test
+    void stillIsBoxMovingIsFish() {
+        MinigameClassifier.Result r = MinigameClassifier.classify(minigame(10, true), 10);
+        assertNotNull(r);
+        assertEquals(1, r.box().id);
+        assertEquals(2, r.fish().id);
+        assertEquals(10, r.observed());
+    }
+
+    @Test
+    void worldRangeDecidesWithoutLocalY() {
+        MinigameClassifier.Result r = MinigameClassifier.classify(minigame(10, false), 10);
+        assertNotNull(r);
+        assertEquals(1, r.box().id);
+        assertEquals(2, r.fish().id);
+    }
+
+    @Test
+    void bothMovingFallsBackToTheSmallerRangeAsBox() {
+        Track a = new Track(1, 63.0, 0.0, 0);
+        Track b = new Track(2, 62.9, 0.0, 0);
+        Track c = new Track(3, 64.0, 0.0, 0);
+        Track d = new Track(4, 64.5, 0.0, 0);
+        for (int t = 1; t <= 8; t++) {
+            a.update(63.0, 0.2 * (t % 2), t); // range 0.2
+            b.update(62.9, 0.6 * (t % 2), t); // range 0.6
+            c.update(64.0, 0.0, t);
+            d.update(64.5, 0.0, t);
+        }
+        MinigameClassifier.Result r = MinigameClassifier.classify(List.of(a, b, c, d), 8);
+        assertNotNull(r);
+        assertEquals(1, r.box().id);
+        assertEquals(2, r.fish().id);
+    }
+
+    @Test
+    void onlyTheTwoLowestDisplaysAreCandidates() {
+        List<Track> tracks = minigame(10, true);
+        Track decor = tracks.get(0); // highest display, now moving a lot
+        for (int t = 1; t <= 10; t++) decor.update(64.5, (double) t, t);
+        MinigameClassifier.Result r = MinigameClassifier.classify(tracks, 10);
+        assertNotNull(r);
+        assertNotEquals(decor.id, r.fish().id);
+        assertNotEquals(decor.id, r.box().id);
+    }
+}
@@ -0,0 +1,57 @@
+package com.zoltam.autofish.minigame;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ModelJsonTest {
+    @Test
+    void logisticRoundTrip() {
+        LogisticRegressionModel m = LogisticRegressionModel.DEFAULT;
+        TrainedModel back = ModelJson.fromJson(ModelJson.toJson(m, 1234));
+        LogisticRegressionModel lr = assertInstanceOf(LogisticRegressionModel.class, back);
+        assertArrayEquals(m.weights, lr.weights, 1e-6);
+        assertEquals(m.bias, lr.bias, 1e-6);
+        assertEquals(m.getAccuracy(), lr.getAccuracy());
+        assertEquals(1234, ModelJson.parseIntSafe(ModelJson.parseSimpleJsonSafe(ModelJson.toJson(m, 1234)).get("trainingSize"), 0));
+    }
+
+    @Test
+    void decisionTreeRoundTrip() {
+        DecisionTreeModel m = new DecisionTreeModel(0.125, -0.03, 0.875);
+        DecisionTreeModel dt = assertInstanceOf(DecisionTreeModel.class, ModelJson.fromJson(ModelJson.toJson(m, 10)));
+        assertEquals(0.125, dt.diffThreshold, 1e-6);
+        assertEquals(-0.03, dt.fishVelThreshold, 1e-6);
+        assertEquals(0.875, dt.getAccuracy());
+    }
+
+    @Test
+    void unknownOrMissingTypeIsNull() {
+        assertNull(ModelJson.fromJson("{\"type\": \"Forest\"}"));
+        assertNull(ModelJson.fromJson("{}"));
+        assertNull(ModelJson.fromJson(null));
+    }
+
+    @Test
+    void parserKeepsArraysQuotedSeparatorsAndNesting() {
+        Map<String, String> json = ModelJson.parseSimpleJsonSafe(
+            "{ \"a\": [1, 2, 3], \"b\": \"x, y: z\", \"c\": {\"d\": 1, \"e\": 2}, \"f\": 4.5 }");
+        assertEquals("[1, 2, 3]", json.get("a"));
+        assertEquals("x, y: z", ModelJson.stripQuotes(json.get("b")));
+        assertEquals("{\"d\": 1, \"e\": 2}", json.get("c"));
+        assertEquals(4.5, ModelJson.parseDoubleSafe(json.get("f"), 0));
+    }
+
+    @Test
+    void lenientNumbers() {
+        assertEquals(7.0, ModelJson.parseDoubleSafe("oops", 7.0));
+        assertEquals(7.0, ModelJson.parseDoubleSafe(null, 7.0));
+        assertEquals(3, ModelJson.parseIntSafe("\"3\"", 0));
+        assertEquals(-1, ModelJson.parseIntSafe("3.5", -1));
+        assertArrayEquals(new double[]{1.5, 0.0, 0.0}, ModelJson.parseDoubleArray("[1.5, bad]", 3));
+        assertArrayEquals(new double[]{1.0, 2.0}, ModelJson.parseDoubleArray("[1, 2, 3]", 2));
+        assertArrayEquals(new double[3], ModelJson.parseDoubleArray(null, 3));
+    }
+}
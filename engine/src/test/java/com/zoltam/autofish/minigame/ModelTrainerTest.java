@@ -0,0 +1,71 @@
+package com.zoltam.autofish.minigame;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ModelTrainerTest {
+    /** Manual play that presses whenever the fish is more than 0.1 above the box. */
+    private static List<TrainingSample> pressAboveThreshold(int n, long seed) {
+        Random rng = new Random(seed);
+        List<TrainingSample> data = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            double diff = rng.nextDouble() * 2 - 1;
+            double fishVel = rng.nextGaussian() * 0.05;
+            double boxVel = rng.nextGaussian() * 0.05;
+            data.add(new TrainingSample(diff, fishVel, boxVel, diff > 0.1 ? 1 : 0));
+        }
+        return data;
+    }
+
+    private static double accuracy(TrainedModel m, List<TrainingSample> data) {
+        int ok = 0;
+        for (TrainingSample s : data) if ((m.predict(s.diff(), s.fishVel(), s.boxVel()) ? 1 : 0) == s.shiftState()) ok++;
+        return (double) ok / data.size();
+    }
+
+    @Test
+    void separableDataTrainsALogisticModel() {
+        List<TrainingSample> train = pressAboveThreshold(400, 1);
+        TrainedModel m = ModelTrainer.train(train);
+        assertEquals("Logistic", m.getModelType());
+        assertTrue(m.getAccuracy() > 0.9, "training accuracy " + m.getAccuracy());
+        assertTrue(accuracy(m, pressAboveThreshold(400, 2)) > 0.9); // and it generalises
+    }
+
+    @Test
+    void logisticAccuracyIsMeasuredInRawUnits() {
+        List<TrainingSample> train = pressAboveThreshold(400, 3);
+        TrainedModel m = ModelTrainer.trainLogisticRegression(train);
+        // The weights are un-normalised, so predicting on raw inputs reproduces the reported accuracy
+        assertEquals(m.getAccuracy(), accuracy(m, train), 1e-9);
+    }
+
+    @Test
+    void decisionTreeFindsBothThresholds() {
+        Random rng = new Random(4);
+        List<TrainingSample> data = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            double diff = rng.nextDouble() * 2 - 1;
+            double fishVel = rng.nextDouble() * 0.4 - 0.2;
+            data.add(new TrainingSample(diff, fishVel, 0, diff > 0.2 && fishVel > 0.05 ? 1 : 0));
+        }
+        TrainedModel m = ModelTrainer.trainDecisionTree(data);
+        assertEquals("DecisionTree", m.getModelType());
+        assertEquals(1.0, m.getAccuracy());
+        assertTrue(m.predict(0.9, 0.19, 0));
+        assertFalse(m.predict(0.9, -0.19, 0));
+        assertFalse(m.predict(-0.9, 0.19, 0));
+    }
+
+    @Test
+    void decisionTreeSneaksLikeItPredicts() {
+        DecisionTreeModel m = new DecisionTreeModel(0.1, 0.0, 1.0);
+        assertTrue(m.shouldSneak(0.2, 0.1, 0, false, 0, 0));
+        assertFalse(m.shouldSneak(0.1, 0.1, 0, true, 100, 100)); // strict threshold, state ignored
+    }
+}
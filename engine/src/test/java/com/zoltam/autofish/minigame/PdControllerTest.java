@@ -0,0 +1,70 @@
+package com.zoltam.autofish.minigame;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PdControllerTest {
+    private static final ControllerParams P = ControllerParams.DEFAULT;
+
+    @Test
+    void pressesAboveErrHiAfterMinRelease() {
+        PdController pd = new PdController(P);
+        assertFalse(pd.shouldSneak(P.errHi() + 0.01, 0, 0, false, 10, P.minRelease() - 1));
+        assertTrue(pd.shouldSneak(P.errHi() + 0.01, 0, 0, false, 10, P.minRelease()));
+        assertFalse(pd.shouldSneak(P.errHi() - 0.01, 0, 0, false, 10, P.minRelease()));
+    }
+
+    @Test
+    void holdsBetweenThresholds() {
+        PdController pd = new PdController(P);
+        double mid = (P.errHi() + P.errLo()) / 2;
+        assertTrue(pd.shouldSneak(mid, 0, 0, true, 100, 0));
+        assertFalse(pd.shouldSneak(mid, 0, 0, false, 0, 100));
+    }
+
+    @Test
+    void releasesBelowErrLoAfterMinPress() {
+        PdController pd = new PdController(P);
+        assertTrue(pd.shouldSneak(0.0, 0, 0, true, P.minPress() - 1, 0));
+        assertFalse(pd.shouldSneak(0.0, 0, 0, true, P.minPress(), 0));
+    }
+
+    @Test
+    void errorSignDoesNotMatter() {
+        PdController pd = new PdController(P);
+        assertTrue(pd.shouldSneak(-(P.errHi() + 0.01), 0, 0, false, 10, 10));
+    }
+
+    @Test
+    void defaultHasNoLookaheadOrSmoothing() {
+        PdController pd = new PdController(P);
+        pd.shouldSneak(0.0, 0, 0, false, 10, 10);
+        // A big relative velocity changes nothing, and one sample over errHi is enough
+        assertFalse(pd.shouldSneak(0.0, 5.0, -5.0, false, 10, 10));
+        assertTrue(pd.shouldSneak(P.errHi() + 0.01, 0, 0, false, 10, 10));
+    }
+
+    @Test
+    void predictionLooksAhead() {
+        PdController pd = new PdController(new ControllerParams(0.15, 0.05, 4, 3, 30, 2.0, 1.0, 5));
+        assertTrue(pd.shouldSneak(0.0, 0.05, -0.05, false, 10, 10)); // 0 + 2 * 0.1
+    }
+
+    @Test
+    void smoothingIsPerTickWhateverTheStepRate() {
+        ControllerParams smooth = new ControllerParams(0.45, 0.05, 4, 3, 30, 0.0, 0.5, 5);
+
+        PdController perTick = new PdController(smooth);
+        perTick.shouldSneak(0.0, 0, 0, false, 10, 10);
+        assertTrue(perTick.shouldSneak(1.0, 0, 0, false, 10, 10)); // 0.5 after one tick
+
+        PdController perFrame = new PdController(smooth);
+        perFrame.shouldSneak(0.0, 0, 0, false, 10, 10);
+        perFrame.setStepTicks(0.25);
+        assertFalse(perFrame.shouldSneak(1.0, 0, 0, false, 10, 10));
+        assertFalse(perFrame.shouldSneak(1.0, 0, 0, false, 10, 10));
+        assertFalse(perFrame.shouldSneak(1.0, 0, 0, false, 10, 10)); // 0.405
+        assertTrue(perFrame.shouldSneak(1.0, 0, 0, false, 10, 10));  // 0.5: a whole tick has gone by
+    }
+}
@@ -0,0 +1,100 @@
+package com.zoltam.autofish.minigame;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static com.zoltam.autofish.minigame.RodPool.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RodPoolTest {
+    private static final int MIN_USES = 3;
+
+    /** A 36-slot inventory of empty slots with {@code slotUses} pairs (slot, uses) filled in. */
+    private static int[] inventory(int... slotUses) {
+        int[] inv = new int[36];
+        Arrays.fill(inv, EMPTY);
+        for (int i = 0; i < slotUses.length; i += 2) inv[slotUses[i]] = slotUses[i + 1];
+        return inv;
+    }
+
+    private static RodPool pool(int[] inv, int offHand, int selected) {
+        return new RodPool(inv, offHand, selected, MIN_USES);
+    }
+
+    @Test
+    void keepsAUsableHeldRod() {
+        assertEquals(Action.KEEP, pool(inventory(0, 10, 1, 50), EMPTY, 0).equip(true).action());
+    }
+
+    @Test
+    void keepsTheOffHandRodOnlyWithNothingRodInMainHand() {
+        assertEquals(Action.KEEP, pool(inventory(0, NOT_ROD), 20, 0).equip(true).action());
+        // A worn rod in the main hand is what gets used, so the off hand does not save it
+        Step step = pool(inventory(0, 2, 4, 30), 20, 0).equip(true);
+        assertEquals(new Step(Action.SELECT, 4, 4), step);
+    }
+
+    @Test
+    void minUsesIsACutoff() {
+        RodPool p = pool(inventory(), EMPTY, 0);
+        assertFalse(p.usable(MIN_USES));
+        assertTrue(p.usable(MIN_USES + 1));
+        assertTrue(p.usable(UNBREAKABLE));
+        assertFalse(p.usable(NOT_ROD));
+        assertFalse(p.usable(EMPTY));
+    }
+
+    @Test
+    void selectsTheFreshestHotbarRod() {
+        Step step = pool(inventory(0, 1, 2, 20, 5, 40, 7, 40, 12, 60), EMPTY, 0).equip(true);
+        assertEquals(new Step(Action.SELECT, 5, 5), step); // the first of equals, and the hotbar before storage
+    }
+
+    @Test
+    void movesTheFreshestStoredRodIn() {
+        int[] inv = inventory(0, 2, 12, 30, 20, 55, 30, UNBREAKABLE);
+        assertEquals(new Step(Action.MOVE_IN, 30, 0), pool(inv, EMPTY, 0).equip(true));
+        // With a screen open the stored rods are out of reach; the worn held rod still beats nothing
+        assertEquals(Action.KEEP, pool(inv, EMPTY, 0).equip(false).action());
+    }
+
+    @Test
+    void hotbarTargetReplacesAWornRodOrTakesAFreeSlot() {
+        assertEquals(2, pool(inventory(2, 1), EMPTY, 2).hotbarTarget());          // worn rod selected
+        assertEquals(2, pool(inventory(), EMPTY, 2).hotbarTarget());              // nothing selected
+        int[] full = inventory(0, NOT_ROD, 1, NOT_ROD, 2, NOT_ROD, 3, NOT_ROD);
+        assertEquals(4, pool(full, EMPTY, 1).hotbarTarget());                    // first free slot
+        int[] noFree = new int[36];
+        Arrays.fill(noFree, NOT_ROD);
+        assertEquals(6, pool(noFree, EMPTY, 6).hotbarTarget());                   // nothing better: selected
+    }
+
+    @Test
+    void fallsBackToAnyRodAtAll() {
+        assertEquals(new Step(Action.SELECT, 3, 3), pool(inventory(0, NOT_ROD, 3, 1), EMPTY, 0).equip(true));
+        assertEquals(Action.KEEP, pool(inventory(), 0, 0).equip(true).action()); // worn off-hand rod
+        assertEquals(Action.NONE, pool(inventory(0, NOT_ROD), EMPTY, 0).equip(true).action());
+    }
+
+    @Test
+    void poolTotalsIncludeTheOffHand() {
+        RodPool p = pool(inventory(0, 10, 15, 20, 16, 2), 7, 0);
+        assertEquals(3, p.usableRods());
+        assertEquals(37, p.totalUses());
+        assertTrue(p.low(3));
+        assertFalse(p.low(2));
+        assertFalse(p.low(0)); // warning off
+    }
+
+    @Test
+    void anUnbreakableRodSaturatesThePool() {
+        RodPool p = pool(inventory(0, 10, 20, UNBREAKABLE), EMPTY, 0);
+        assertEquals(UNBREAKABLE, p.totalUses());
+        assertFalse(p.low(9));
+        assertEquals(UNBREAKABLE, pool(inventory(0, 10), UNBREAKABLE, 0).totalUses());
+        int[] many = inventory();
+        Arrays.fill(many, Integer.MAX_VALUE - 1);
+        assertEquals(UNBREAKABLE, pool(many, EMPTY, 0).totalUses()); // no overflow
+    }
+}
@@ -0,0 +1,65 @@
+package com.zoltam.autofish.minigame;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimedVelocityEstimatorTest {
+    private static final long TICK = TimedVelocityEstimator.TICK_NANOS;
+
+    @Test
+    void unitsPerTickWhateverTheFrameRate() {
+        for (int fps : new int[]{20, 60, 144, 240}) {
+            TimedVelocityEstimator v = new TimedVelocityEstimator(5);
+            long frame = 1_000_000_000L / fps;
+            for (int i = 0; i < fps; i++) {
+                double ticks = (double) (i * frame) / TICK;
+                v.push(i * frame, 0.3 * ticks, 1.0 - 0.1 * ticks);
+            }
+            assertEquals(0.3, v.fishVelocity(), 1e-9, fps + " fps");
+            assertEquals(-0.1, v.boxVelocity(), 1e-9, fps + " fps");
+        }
+    }
+
+    @Test
+    void irregularFramesStillGiveTheSlope() {
+        TimedVelocityEstimator v = new TimedVelocityEstimator(5);
+        Random rng = new Random(7);
+        long t = 0;
+        for (int i = 0; i < 100; i++) {
+            t += 4_000_000L + rng.nextInt(30_000_000);
+            v.push(t, 0.25 * t / TICK, 0);
+        }
+        assertEquals(0.25, v.fishVelocity(), 1e-9);
+    }
+
+    @Test
+    void onlyTheTimeWindowCounts() {
+        TimedVelocityEstimator v = new TimedVelocityEstimator(2);
+        long frame = 10_000_000L;
+        long t = 0;
+        for (; t <= 500_000_000L; t += frame) v.push(t, 0.0, 0.0);  // still for 10 ticks
+        long start = t - frame;
+        for (; t <= 800_000_000L; t += frame) v.push(t, 0.5 * (t - start) / TICK, 0.0); // then rising
+        assertEquals(0.5, v.fishVelocity(), 1e-9);
+    }
+
+    @Test
+    void noVelocityBeforeTwoSamples() {
+        TimedVelocityEstimator v = new TimedVelocityEstimator();
+        v.push(0, 5.0, 5.0);
+        assertEquals(0.0, v.fishVelocity());
+        v.clear();
+        assertEquals(0, v.size());
+    }
+
+    @Test
+    void samplesInOneInstantHaveNoSlope() {
+        TimedVelocityEstimator v = new TimedVelocityEstimator();
+        v.push(100, 0.0, 0.0);
+        v.push(100, 1.0, 0.0);
+        assertEquals(0.0, v.fishVelocity());
+    }
+}
@@ -0,0 +1,54 @@
+package com.zoltam.autofish.minigame;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrainingDataCsvTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTrip() throws IOException {
+        Path file = dir.resolve("auto_fish_training_data.csv");
+        List<TrainingSample> samples = List.of(
+            new TrainingSample(0.125, -0.5, 0.03125, 1),
+            new TrainingSample(-1.0, 0.0, 2.5, 0));
+        TrainingDataCsv.save(file, samples);
+
+        assertEquals(TrainingDataCsv.HEADER, Files.readAllLines(file).get(0));
+        assertEquals(samples, TrainingDataCsv.load(file));
+    }
+
+    @Test
+    void skipsMalformedRowsAndZeroesBadNumbers() throws IOException {
+        Path file = dir.resolve("messy.csv");
+        Files.writeString(file, String.join("\n",
+            TrainingDataCsv.HEADER,
+            "0.5,0.1,0.2,1",
+            "",
+            "1,2,3",          // too few columns
+            "1,2,3,4,5",      // too many
+            "x,0.1,0.2,oops", // unparsable values fall back to 0
+            "  -0.5,0,0,0  "));
+
+        List<TrainingSample> rows = TrainingDataCsv.load(file);
+        assertEquals(List.of(
+            new TrainingSample(0.5, 0.1, 0.2, 1),
+            new TrainingSample(0.0, 0.1, 0.2, 0),
+            new TrainingSample(-0.5, 0, 0, 0)), rows);
+    }
+
+    @Test
+    void headerOnlyIsEmpty() throws IOException {
+        Path file = dir.resolve("empty.csv");
+        TrainingDataCsv.save(file, List.of());
+        assertTrue(TrainingDataCsv.load(file).isEmpty());
+    }
+}
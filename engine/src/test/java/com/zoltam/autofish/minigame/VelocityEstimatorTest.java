@@ -0,0 +1,54 @@
+package com.zoltam.autofish.minigame;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VelocityEstimatorTest {
+    @Test
+    void noVelocityBeforeTwoSamples() {
+        VelocityEstimator v = new VelocityEstimator(5);
+        assertEquals(0.0, v.fishVelocity());
+        v.push(1.0, 2.0);
+        assertEquals(0.0, v.fishVelocity());
+        assertEquals(0.0, v.boxVelocity());
+    }
+
+    @Test
+    void slopePerSample() {
+        VelocityEstimator v = new VelocityEstimator(5);
+        for (int i = 0; i < 5; i++) v.push(0.1 * i, 0.5 - 0.02 * i);
+        assertEquals(0.1, v.fishVelocity(), 1e-12);
+        assertEquals(-0.02, v.boxVelocity(), 1e-12);
+    }
+
+    @Test
+    void onlyTheHistoryWindowCounts() {
+        VelocityEstimator v = new VelocityEstimator(5);
+        double y = 0;
+        for (int i = 0; i < 20; i++) v.push(y += 1.0, 0);   // fast climb, pushed out of the window
+        for (int i = 0; i < 5; i++) v.push(y -= 0.25, 0);   // then a slow fall
+        assertEquals(5, v.size());
+        assertEquals(-0.25, v.fishVelocity(), 1e-12);
+    }
+
+    @Test
+    void leastSquaresAveragesNoise() {
+        VelocityEstimator v = new VelocityEstimator(4);
+        v.push(0.0, 0);
+        v.push(0.2, 0);
+        v.push(0.0, 0);
+        v.push(0.2, 0);
+        assertEquals(0.04, v.fishVelocity(), 1e-12);
+    }
+
+    @Test
+    void clearForgetsSamples() {
+        VelocityEstimator v = new VelocityEstimator(5);
+        v.push(0, 0);
+        v.push(1, 1);
+        v.clear();
+        assertEquals(0, v.size());
+        assertEquals(0.0, v.fishVelocity());
+    }
+}
@@ -0,0 +1,209 @@
+package com.zoltam.autofish.minigame.trace;
+
+import com.zoltam.autofish.util.RollingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryTraceRoundTripTest {
+    @TempDir
+    Path dir;
+
+    private static TraceRecord row(long ts, int tick, String event) {
+        TraceRecord r = new TraceRecord().clearRow();
+        r.ts = ts;
+        r.tick = tick;
+        r.phase = "MINIGAME";
+        r.event = event;
+        return r;
+    }
+
+    @Test
+    void everyFieldSurvives() throws IOException {
+        Path file = dir.resolve("trace.aft");
+        long t0 = 1_700_000_000_000L;
+
+        TraceRecord track = row(t0 + 50, 1001, "track");
+        track.recommend = "PRESS";
+        track.session = true;
+        track.boxId = 42;
+        track.fishId = -7;
+        track.hasSnapshot = true;
+        track.boxWorldY = 64.25;
+        track.fishWorldY = 63.5;
+        track.boxLocalY = 0.125;
+        track.sneakDown = true;
+        track.overlay = "Catch!";
+
+        TraceRecord note = row(t0 + 30, 1003, "note"); // timestamps may go backwards
+        note.details = "tab\tand ünïcode";
+
+        TraceRecord empty = row(t0 + 200, 1010, "");
+        empty.phase = "";
+        empty.details = "";
+
+        try (BinaryTraceWriter w = BinaryTraceWriter.open(file, "unit test")) {
+            w.beginSession(t0, 1000, 3, true);
+            w.write(track);
+            w.write(note);
+            w.write(track); // interned strings reused
+            w.write(empty);
+        }
+        assertTrue(BinaryTraceReader.isBinaryTrace(file));
+
+        try (BinaryTraceReader in = BinaryTraceReader.open(file)) {
+            assertEquals("unit test", in.source());
+            TraceRecord r = new TraceRecord();
+
+            assertTrue(in.next(r));
+            assertEquals(TraceRecord.Kind.SESSION, r.kind);
+            assertEquals(t0, r.ts);
+            assertEquals(1000, r.tick);
+            assertEquals(3, r.sessionIndex);
+            assertTrue(r.invertError);
+
+            assertTrue(in.next(r));
+            assertTrack(r, t0);
+
+            assertTrue(in.next(r));
+            assertEquals("note", r.event);
+            assertEquals(t0 + 30, r.ts);
+            assertEquals(1003, r.tick);
+            assertEquals("tab\tand ünïcode", r.details);
+            assertNull(r.recommend);
+            assertEquals(TraceRecord.NO_ID, r.boxId);
+            assertFalse(r.hasSnapshot);
+            assertTrue(Double.isNaN(r.boxWorldY));
+
+            assertTrue(in.next(r));
+            assertTrack(r, t0);
+
+            assertTrue(in.next(r));
+            assertEquals("", r.phase);
+            assertEquals("", r.event);
+            assertNull(r.details); // empty details are not stored
+            assertEquals(1010, r.tick);
+
+            assertFalse(in.next(r));
+        }
+    }
+
+    private static void assertTrack(TraceRecord r, long t0) {
+        assertEquals(TraceRecord.Kind.ROW, r.kind);
+        assertEquals(t0 + 50, r.ts);
+        assertEquals(1001, r.tick);
+        assertEquals("MINIGAME", r.phase);
+        assertEquals("track", r.event);
+        assertNull(r.details);
+        assertEquals("PRESS", r.recommend);
+        assertTrue(r.session);
+        assertEquals(42, r.boxId);
+        assertEquals(-7, r.fishId);
+        assertTrue(r.hasSnapshot);
+        assertEquals(64.25, r.boxWorldY);
+        assertEquals(63.5, r.fishWorldY);
+        assertEquals(0.125, r.boxLocalY);
+        assertFalse(r.hasFishLocal());
+        assertTrue(r.sneakDown);
+        assertEquals("Catch!", r.overlay);
+    }
+
+    @Test
+    void snapshotValuesAreStoredAsFloats() throws IOException {
+        Path file = dir.resolve("floats.aft");
+        TraceRecord r = row(1_000, 1, "track");
+        r.hasSnapshot = true;
+        r.boxWorldY = 64.1;
+        r.fishWorldY = Double.NaN;
+        try (BinaryTraceWriter w = BinaryTraceWriter.open(file, "")) {
+            w.write(r);
+        }
+        try (BinaryTraceReader in = BinaryTraceReader.open(file)) {
+            TraceRecord back = new TraceRecord();
+            assertTrue(in.next(back));
+            assertEquals((float) 64.1, back.boxWorldY);
+            assertTrue(Double.isNaN(back.fishWorldY));
+        }
+    }
+
+    @Test
+    void truncatedTailEndsTheStreamQuietly() throws IOException {
+        Path file = dir.resolve("cut.aft");
+        try (BinaryTraceWriter w = BinaryTraceWriter.open(file, "cut")) {
+            for (int i = 0; i < 10; i++) w.write(row(1_000 + i * 50L, i, "track"));
+        }
+        byte[] all = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(all, all.length - 1));
+
+        int rows = 0;
+        try (BinaryTraceReader in = BinaryTraceReader.open(file)) {
+            TraceRecord r = new TraceRecord();
+            while (in.next(r)) rows++;
+        }
+        assertEquals(9, rows);
+    }
+
+    @Test
+    void rotatedSegmentsEachReadOnTheirOwn() throws IOException {
+        Path file = dir.resolve("rot.aftr");
+        RollingFile.Rotation rotation = new RollingFile.Rotation(4096, 0, 0, 0, false);
+        try (BinaryTraceWriter w = BinaryTraceWriter.open(file, "first run", rotation)) {
+            w.write(row(1_000, 1, "track"));
+        }
+        int total = 0;
+        try (BinaryTraceWriter w = BinaryTraceWriter.open(file, "second run", rotation)) {
+            for (int i = 0; i < 2_000; i++) {
+                TraceRecord r = row(2_000 + i * 50L, i, i % 2 == 0 ? "track" : "note");
+                r.details = "row " + i;
+                w.write(r);
+                total++;
+            }
+        }
+
+        // The first run was rolled aside, not truncated
+        try (BinaryTraceReader in = BinaryTraceReader.open(dir.resolve("rot.000001.aftr"))) {
+            assertEquals("first run", in.source());
+        }
+
+        int rows = 0, segmentCount = 0;
+        for (int seg = 2; Files.exists(dir.resolve(String.format(Locale.ROOT, "rot.%06d.aftr", seg))); seg++) {
+            rows += readRows(dir.resolve(String.format(Locale.ROOT, "rot.%06d.aftr", seg)), "second run");
+            segmentCount++;
+        }
+        rows += readRows(file, "second run");
+        assertTrue(segmentCount > 2, "only " + segmentCount + " segments");
+        assertEquals(total, rows);
+    }
+
+    /** Reads a segment on its own and checks its rows carry their interned strings. */
+    private static int readRows(Path file, String source) throws IOException {
+        int rows = 0;
+        try (BinaryTraceReader in = BinaryTraceReader.open(file)) {
+            assertEquals(source, in.source());
+            TraceRecord r = new TraceRecord();
+            while (in.next(r)) {
+                assertEquals("MINIGAME", r.phase);
+                assertTrue(r.event.equals("track") || r.event.equals("note"), r.event);
+                assertEquals("row " + r.tick, r.details);
+                rows++;
+            }
+        }
+        assertTrue(Files.size(file) <= 4096 + 256, file + " is " + Files.size(file) + " bytes");
+        return rows;
+    }
+
+    @Test
+    void otherFilesAreNotTraces() throws IOException {
+        Path tsv = dir.resolve("log.tsv");
+        Files.writeString(tsv, "ts\ttick\n");
+        assertFalse(BinaryTraceReader.isBinaryTrace(tsv));
+        assertThrows(IOException.class, () -> BinaryTraceReader.open(tsv).close());
+    }
+}
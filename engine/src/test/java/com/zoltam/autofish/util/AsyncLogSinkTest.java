@@ -0,0 +1,96 @@
+package com.zoltam.autofish.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncLogSinkTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void closeDrainsEverythingQueued() throws IOException {
+        Path file = dir.resolve("drain.tsv");
+        AsyncLogSink sink = AsyncLogSink.open(file, false, RollingFile.Rotation.NONE, () -> List.of("header"));
+        for (int i = 0; i < 5_000; i++) assertTrue(sink.writeLine("line " + i));
+        sink.close();
+        assertFalse(sink.writeLine("after close"));
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(5_001, lines.size());
+        assertEquals("header", lines.get(0));
+        for (int i = 0; i < 5_000; i++) assertEquals("line " + i, lines.get(i + 1));
+        assertEquals(5_000, sink.written());
+        assertEquals(0, sink.dropped());
+    }
+
+    @Test
+    void fullQueueDropsAreNotedInTheFile() throws IOException {
+        Path file = dir.resolve("drops.tsv");
+        AsyncLogSink sink = AsyncLogSink.open(file, false, new AsyncLogSink.Policy(2, 1_000_000, 60_000),
+            RollingFile.Rotation.NONE, null);
+        int total = 200_000, queued = 0;
+        for (int i = 0; i < total; i++) if (sink.writeLine("line " + i)) queued++;
+        sink.close();
+
+        assertTrue(sink.dropped() > 0);
+        assertEquals(total, queued + sink.dropped());
+        long noted = 0, rows = 0;
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (line.startsWith("# dropped ")) {
+                assertTrue(line.endsWith(" lines (log queue full)"), line);
+                noted += Long.parseLong(line.substring("# dropped ".length(), line.indexOf(" lines")));
+            } else {
+                rows++;
+            }
+        }
+        assertEquals(sink.dropped(), noted);
+        assertEquals(queued, rows);
+    }
+
+    @Test
+    void producerOnAnotherThreadWakesTheParkedWriter() throws Exception {
+        Path file = dir.resolve("wake.tsv");
+        // A minute-long flush interval: without the wake-up the writer would sleep through the test
+        AsyncLogSink sink = AsyncLogSink.open(file, false, new AsyncLogSink.Policy(64, 1, 60_000),
+            RollingFile.Rotation.NONE, null);
+        try {
+            Thread.sleep(100); // let the writer find nothing and park
+            Thread producer = new Thread(() -> sink.writeLine("wake up"), "producer");
+            producer.start();
+            producer.join();
+
+            long deadline = System.nanoTime() + 2_000_000_000L;
+            while (sink.written() < 1 && System.nanoTime() < deadline) Thread.sleep(1);
+            assertEquals(1, sink.written());
+            while (Files.size(file) == 0 && System.nanoTime() < deadline) Thread.sleep(1);
+            assertEquals(List.of("wake up"), Files.readAllLines(file, StandardCharsets.UTF_8));
+        } finally {
+            sink.close();
+        }
+    }
+
+    @Test
+    void sessionMarksLandAtTheirLine() throws IOException {
+        Path file = dir.resolve("marks.tsv");
+        AsyncLogSink sink = AsyncLogSink.open(file, false, new RollingFile.Rotation(1 << 20, 0, 0, 0, false));
+        sink.writeLine("abc");
+        sink.markSession("first");
+        sink.writeLine("def");
+        sink.close();
+
+        List<String> index = Files.readAllLines(dir.resolve("marks.index"), StandardCharsets.UTF_8);
+        assertEquals(2, index.size());
+        String[] entry = index.get(1).split("\t");
+        assertEquals("1", entry[0]);
+        assertEquals("4", entry[1]); // after "abc\n"
+        assertEquals("first", entry[3]);
+    }
+}
@@ -0,0 +1,74 @@
+package com.zoltam.autofish.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LineBuilderTest {
+    private static void assertMatchesFormat(double v, int decimals) {
+        String expected = String.format(Locale.ROOT, "%." + decimals + "f", v);
+        assertEquals(expected, new LineBuilder().append(v, decimals).toString(), () -> v + " to " + decimals);
+    }
+
+    @Test
+    void specialValuesMatchFormat() {
+        double[] values = {
+            0.0, -0.0, -0.0001, 0.0004, 0.0005, -0.0005, 1.0, -1.0, 0.125, 2.5, 1.005, 0.045,
+            Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+            Double.MIN_VALUE, 1e15, -1e15, 1e20, 123456789.987654321
+        };
+        for (double v : values) {
+            for (int d = 0; d <= 6; d++) assertMatchesFormat(v, d);
+        }
+    }
+
+    @Test
+    void randomValuesMatchFormat() {
+        Random rng = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            double v = (rng.nextDouble() - 0.5) * Math.pow(10, rng.nextInt(8));
+            assertMatchesFormat(v, rng.nextInt(7));
+        }
+    }
+
+    @Test
+    void exactTiesMatchFormat() {
+        for (int i = -2000; i <= 2000; i++) {
+            assertMatchesFormat(i / 1000.0 + 0.0005, 3);
+            assertMatchesFormat(i / 100.0 + 0.005, 2);
+        }
+    }
+
+    @Test
+    void integersAndBooleans() {
+        assertEquals("0", new LineBuilder().append(0L).toString());
+        assertEquals("-42", new LineBuilder().append(-42).toString());
+        assertEquals(Long.toString(Long.MIN_VALUE), new LineBuilder().append(Long.MIN_VALUE).toString());
+        assertEquals(Long.toString(Long.MAX_VALUE), new LineBuilder().append(Long.MAX_VALUE).toString());
+        assertEquals("true\tfalse", new LineBuilder().append(true).tab().append(false).toString());
+    }
+
+    @Test
+    void appendCleanFlattensTabsAndNewlines() {
+        LineBuilder b = new LineBuilder().appendClean("a\tb\nc").appendClean(null);
+        assertEquals("a b c", b.toString());
+    }
+
+    @Test
+    void growsPastItsCapacity() {
+        LineBuilder b = new LineBuilder(16);
+        String expected = "x".repeat(1000);
+        assertEquals(expected, b.append(expected).toString());
+    }
+
+    @Test
+    void localIsResetOnEachCall() {
+        LineBuilder.local().append("stale");
+        LineBuilder b = LineBuilder.local();
+        assertEquals(0, b.length());
+        assertSame(b, LineBuilder.local());
+    }
+}
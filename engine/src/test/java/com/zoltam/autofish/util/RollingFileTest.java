@@ -0,0 +1,192 @@
+package com.zoltam.autofish.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RollingFileTest {
+    private static final List<String> HEADER = List.of("# test log", "ts\tvalue");
+
+    @TempDir
+    Path dir;
+
+    private Path log() { return dir.resolve("log.tsv"); }
+
+    private Path segment(int n, boolean gz) {
+        return dir.resolve(String.format(Locale.ROOT, "log.%06d.tsv%s", n, gz ? ".gz" : ""));
+    }
+
+    private static RollingFile.Rotation bySize(long maxBytes, int keepSegments, long keepBytes, boolean compress) {
+        return new RollingFile.Rotation(maxBytes, 0, keepSegments, keepBytes, compress);
+    }
+
+    private static List<String> read(Path file) throws IOException {
+        if (!file.toString().endsWith(".gz")) return Files.readAllLines(file, StandardCharsets.UTF_8);
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(
+            new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            return in.lines().toList();
+        }
+    }
+
+    private TreeMap<Integer, Path> segments() throws IOException {
+        assertTrue(LogSegments.awaitMaintenance(5_000));
+        return new LogSegments(log(), RollingFile.Rotation.NONE).segments();
+    }
+
+    @Test
+    void sizeRotationRepeatsTheHeaderInEverySegment() throws IOException {
+        try (RollingFile f = RollingFile.open(log(), false, bySize(200, 0, 0, false), () -> HEADER)) {
+            for (int i = 0; i < 60; i++) f.write(i + "\tvalue-" + i);
+        }
+
+        List<Path> files = new ArrayList<>(segments().values());
+        assertTrue(files.size() >= 3, "only " + files.size() + " segments");
+        files.add(log());
+
+        List<String> rows = new ArrayList<>();
+        for (Path p : files) {
+            List<String> lines = read(p);
+            assertEquals(HEADER, lines.subList(0, 2), p.toString());
+            assertTrue(Files.size(p) <= 200, p + " is " + Files.size(p) + " bytes");
+            rows.addAll(lines.subList(2, lines.size()));
+        }
+        assertEquals(60, rows.size());
+        for (int i = 0; i < 60; i++) assertEquals(i + "\tvalue-" + i, rows.get(i));
+    }
+
+    @Test
+    void openRotatesThePreviousRun() throws IOException {
+        RollingFile.Rotation rotation = bySize(1 << 20, 0, 0, true);
+        try (RollingFile f = RollingFile.open(log(), false, rotation, () -> HEADER)) {
+            f.write("first run");
+        }
+        try (RollingFile f = RollingFile.open(log(), false, rotation, () -> HEADER)) {
+            assertEquals(2, f.segment());
+            f.write("second run");
+        }
+
+        TreeMap<Integer, Path> segs = segments();
+        assertEquals(List.of(1), List.copyOf(segs.keySet()));
+        assertEquals(segment(1, true), segs.get(1));
+        assertEquals(List.of("# test log", "ts\tvalue", "first run"), read(segs.get(1)));
+        assertEquals(List.of("# test log", "ts\tvalue", "second run"), read(log()));
+    }
+
+    @Test
+    void appendContinuesWithoutAHeader() throws IOException {
+        RollingFile.Rotation rotation = bySize(1 << 20, 0, 0, false);
+        try (RollingFile f = RollingFile.open(log(), true, rotation, () -> HEADER)) { f.write("a"); }
+        try (RollingFile f = RollingFile.open(log(), true, rotation, () -> HEADER)) { f.write("b"); }
+        assertEquals(List.of("# test log", "ts\tvalue", "a", "b"), read(log()));
+        assertTrue(segments().isEmpty());
+    }
+
+    @Test
+    void withoutRotationTheFileIsTruncated() throws IOException {
+        try (RollingFile f = RollingFile.open(log(), false, RollingFile.Rotation.NONE)) { f.write("old"); }
+        try (RollingFile f = RollingFile.open(log(), false, RollingFile.Rotation.NONE)) { f.write("new"); }
+        assertEquals(List.of("new"), read(log()));
+        assertTrue(segments().isEmpty());
+    }
+
+    @Test
+    void ageRotationSkipsAHeaderOnlySegment() throws IOException {
+        RollingFile.Rotation rotation = new RollingFile.Rotation(0, 1_000, 0, 0, false);
+        try (RollingFile f = RollingFile.open(log(), false, rotation, () -> HEADER)) {
+            long later = System.currentTimeMillis() + 5_000;
+            f.checkAge(later);
+            assertEquals(1, f.segment()); // nothing but the header yet
+            f.write("row");
+            f.checkAge(later);
+            assertEquals(2, f.segment());
+        }
+        assertEquals(List.of("# test log", "ts\tvalue", "row"), read(segment(1, false)));
+        assertEquals(HEADER, read(log()));
+    }
+
+    @Test
+    void pruneKeepsTheNewestSegments() throws IOException {
+        try (RollingFile f = RollingFile.open(log(), false, bySize(50, 3, 0, false))) {
+            for (int i = 0; i < 40; i++) f.write("row " + i + " padding");
+        }
+        TreeMap<Integer, Path> segs = segments();
+        assertEquals(3, segs.size());
+        try (RollingFile f = RollingFile.open(log(), true, RollingFile.Rotation.NONE)) {
+            assertEquals(segs.lastKey() + 1, f.segment());
+        }
+        assertEquals(List.of(segs.lastKey() - 2, segs.lastKey() - 1, segs.lastKey()), List.copyOf(segs.keySet()));
+    }
+
+    @Test
+    void pruneKeepsTotalBytes() throws IOException {
+        try (RollingFile f = RollingFile.open(log(), false, bySize(50, 0, 120, false))) {
+            for (int i = 0; i < 40; i++) f.write("row " + i + " padding");
+        }
+        TreeMap<Integer, Path> segs = segments();
+        long total = 0;
+        for (Path p : segs.values()) total += Files.size(p);
+        assertTrue(total <= 120, total + " bytes kept");
+        assertTrue(segs.size() >= 2);
+    }
+
+    @Test
+    void pruningDropsOnlyThePrunedSegmentsIndexEntries() throws IOException {
+        int last;
+        try (RollingFile f = RollingFile.open(log(), false, bySize(50, 2, 0, false))) {
+            for (int i = 0; i < 20; i++) {
+                f.markSession("session " + i);
+                f.write("row " + i + " padding padding");
+            }
+            last = f.segment();
+        }
+        TreeMap<Integer, Path> segs = segments();
+        assertEquals(2, segs.size());
+
+        List<String> index = Files.readAllLines(dir.resolve("log.index"), StandardCharsets.UTF_8);
+        assertEquals("segment\toffset\tts\tlabel", index.get(0));
+        List<Integer> indexed = new ArrayList<>();
+        for (String line : index.subList(1, index.size())) indexed.add(Integer.parseInt(line.split("\t")[0]));
+        // The kept segments and the active one stay indexed, in order; nothing older survives
+        assertEquals(segs.firstKey(), indexed.get(0));
+        assertEquals(last, (int) indexed.get(indexed.size() - 1));
+        for (int n : indexed) assertTrue(n >= segs.firstKey(), "entry for pruned segment " + n);
+        assertTrue(index.get(index.size() - 1).endsWith("\tsession 19"));
+    }
+
+    @Test
+    void dropIndexEntriesKeepsLaterSegments() throws IOException {
+        LogSegments segs = new LogSegments(log(), bySize(100, 0, 0, false));
+        Files.write(dir.resolve("log.index"), List.of(
+            "segment\toffset\tts\tlabel", "1\t0\t1\ta", "2\t0\t2\tb", "2\t40\t3\tc", "3\t0\t4\td", "garbage"),
+            StandardCharsets.UTF_8);
+        segs.dropIndexEntries(2);
+        assertEquals(List.of("segment\toffset\tts\tlabel", "3\t0\t4\td"),
+            Files.readAllLines(dir.resolve("log.index"), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void leftoverPlainSegmentIsCompressedOnTheNextOpen() throws IOException {
+        // A previous run exited before its rotated segment was gzipped
+        Files.write(segment(3, false), List.of("# old", "left over"), StandardCharsets.UTF_8);
+        try (RollingFile f = RollingFile.open(log(), false, bySize(1 << 20, 0, 0, true))) {
+            assertEquals(4, f.segment());
+            f.write("new");
+        }
+        assertTrue(LogSegments.awaitMaintenance(5_000));
+        assertFalse(Files.exists(segment(3, false)));
+        assertEquals(List.of("# old", "left over"), read(segment(3, true)));
+    }
+}
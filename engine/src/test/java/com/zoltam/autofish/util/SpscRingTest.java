@@ -0,0 +1,58 @@
+package com.zoltam.autofish.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpscRingTest {
+    @Test
+    void capacityRoundsUpToAPowerOfTwo() {
+        assertEquals(4, new SpscRing<>(1).capacity()); // never below 4
+        assertEquals(8, new SpscRing<>(5).capacity());
+        assertEquals(8, new SpscRing<>(8).capacity());
+        assertEquals(1024, new SpscRing<>(1000).capacity());
+    }
+
+    @Test
+    void keepsOrderAcrossWraparound() {
+        SpscRing<Integer> ring = new SpscRing<>(4);
+        int next = 0, expected = 0;
+        for (int round = 0; round < 100; round++) {
+            for (int i = 0; i < 3; i++) assertTrue(ring.offer(next++));
+            for (int i = 0; i < 3; i++) assertEquals(expected++, (int) ring.poll());
+        }
+        assertNull(ring.poll());
+        assertTrue(ring.isEmpty());
+    }
+
+    @Test
+    void fullRingDropsAndCounts() {
+        SpscRing<String> ring = new SpscRing<>(4);
+        for (int i = 0; i < 4; i++) assertTrue(ring.offer("line " + i));
+        assertFalse(ring.offer("lost"));
+        assertFalse(ring.offer("lost too"));
+        assertEquals(2, ring.dropped());
+
+        assertEquals("line 0", ring.poll());
+        assertTrue(ring.offer("line 4")); // room again once the consumer moves on
+        for (int i = 1; i <= 4; i++) assertEquals("line " + i, ring.poll());
+        assertEquals(2, ring.dropped());
+    }
+
+    @Test
+    void producerAndConsumerOnTwoThreads() throws InterruptedException {
+        SpscRing<Integer> ring = new SpscRing<>(64);
+        int n = 100_000;
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < n; i++) while (!ring.offer(i)) Thread.yield();
+        });
+        producer.start();
+        for (int expected = 0; expected < n; ) {
+            Integer v = ring.poll();
+            if (v == null) { Thread.yield(); continue; }
+            assertEquals(expected++, (int) v);
+        }
+        producer.join();
+        assertTrue(ring.isEmpty());
+    }
+}
@@ -0,0 +1,123 @@
+package com.zoltam.autofish.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimerWheelTest {
+    private long now;
+    private TimerWheel wheel;
+    private final List<String> ran = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        now = 1_000;
+        wheel = new TimerWheel(() -> now, 50, 8);
+        ran.clear();
+    }
+
+    private Runnable log(String name) { return () -> ran.add(name); }
+
+    @Test
+    void neverRunsEarly() {
+        wheel.schedule("a", 120, log("a"));
+        now = 1_100;
+        assertEquals(0, wheel.advance());
+        now = 1_119;
+        assertEquals(0, wheel.advance());
+        now = 1_120;
+        assertEquals(1, wheel.advance());
+        assertEquals(List.of("a"), ran);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void runsInSlotOrder() {
+        wheel.schedule("late", 300, log("late"));
+        wheel.schedule("early", 60, log("early"));
+        wheel.schedule("mid", 170, log("mid"));
+        now = 2_000;
+        assertEquals(3, wheel.advance());
+        assertEquals(List.of("early", "mid", "late"), ran);
+    }
+
+    @Test
+    void timersBeyondOneTurnWaitForTheirSlot() {
+        long turn = 8 * 50;
+        wheel.schedule("far", turn + 100, log("far"));
+        now = 1_000 + 100;
+        assertEquals(0, wheel.advance());
+        now = 1_000 + turn;
+        assertEquals(0, wheel.advance());
+        now = 1_000 + turn + 100;
+        assertEquals(1, wheel.advance());
+    }
+
+    @Test
+    void scheduleTicksUsesSlotLength() {
+        TimerWheel.Timer t = wheel.scheduleTicks("t", 3, log("t"));
+        assertEquals(1_150, t.deadlineMs());
+        assertEquals(150, t.remainingMs());
+    }
+
+    @Test
+    void cancelledTimerNeverRuns() {
+        TimerWheel.Timer t = wheel.schedule("a", 50, log("a"));
+        t.cancel();
+        assertFalse(t.isPending());
+        assertEquals(0, wheel.size());
+        now = 2_000;
+        assertEquals(0, wheel.advance());
+        assertTrue(ran.isEmpty());
+        t.cancel(); // harmless
+    }
+
+    @Test
+    void callbackCanCancelADueTimer() {
+        TimerWheel.Timer[] victim = new TimerWheel.Timer[1];
+        wheel.schedule("first", 50, () -> { ran.add("first"); victim[0].cancel(); });
+        victim[0] = wheel.schedule("second", 100, log("second"));
+        now = 2_000;
+        assertEquals(1, wheel.advance());
+        assertEquals(List.of("first"), ran);
+    }
+
+    @Test
+    void callbackScheduledTimerRunsOnALaterAdvance() {
+        wheel.schedule("outer", 50, () -> { ran.add("outer"); wheel.schedule("inner", 0, log("inner")); });
+        now = 1_050;
+        assertEquals(1, wheel.advance());
+        assertEquals(List.of("outer"), ran);
+        assertEquals(1, wheel.advance());
+        assertEquals(List.of("outer", "inner"), ran);
+    }
+
+    @Test
+    void firstFailureIsRethrownAfterTheRestRun() {
+        RuntimeException boom = new IllegalStateException("boom");
+        wheel.schedule("bad", 50, () -> { throw boom; });
+        wheel.schedule("good", 100, log("good"));
+        now = 2_000;
+        assertSame(boom, assertThrows(IllegalStateException.class, wheel::advance));
+        assertEquals(List.of("good"), ran);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void pendingIsSoonestFirstAndCancelAllMatchesPrefix() {
+        wheel.schedule("fish:reel", 200, log("reel"));
+        wheel.schedule("other", 100, log("other"));
+        wheel.schedule("fish:cast", 50, log("cast"));
+        List<TimerWheel.Timer> pending = wheel.pending();
+        assertEquals(List.of("fish:cast", "other", "fish:reel"), pending.stream().map(TimerWheel.Timer::name).toList());
+
+        assertEquals(2, wheel.cancelAll("fish:"));
+        now = 2_000;
+        wheel.advance();
+        assertEquals(List.of("other"), ran);
+    }
+}
@@ -1,12 +1,14 @@
 package com.zoltam.autofish;
 
 import com.zoltam.autofish.commands.CommandExample;
+import com.zoltam.autofish.commands.TimersCommand;
 import com.zoltam.autofish.hud.HudExample;
 import com.zoltam.autofish.modules.*;
 import com.mojang.logging.LogUtils;
 import com.zoltam.autofish.modules.AdvancedAutoReconnect;
 import com.zoltam.autofish.modules.AntiAFK;
 import com.zoltam.autofish.modules.AutoFishMinigame;
+import com.zoltam.autofish.util.Timers;
 import meteordevelopment.meteorclient.addons.GithubRepo;
 import meteordevelopment.meteorclient.addons.MeteorAddon;
 import meteordevelopment.meteorclient.commands.Commands;
@@ -24,6 +26,7 @@ public class AddonTemplate extends MeteorAddon {
     @Override
     public void onInitialize() {
         LOG.info("Initializing Meteor Addon Template");
+        Timers.init();
 
         // Modules
         Modules.get().add(new AutoFishMinigame());
@@ -32,6 +35,7 @@ public class AddonTemplate extends MeteorAddon {
 
         // Commands
         Commands.add(new CommandExample());
+        Commands.add(new TimersCommand());
 
         // HUD
         Hud.get().register(HudExample.INFO);
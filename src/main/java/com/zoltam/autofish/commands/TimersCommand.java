@@ -0,0 +1,26 @@
+package com.zoltam.autofish.commands;
+
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.zoltam.autofish.util.TimerWheel;
+import com.zoltam.autofish.util.Timers;
+import meteordevelopment.meteorclient.commands.Command;
+import net.minecraft.command.CommandSource;
+
+import java.util.List;
+
+/** Lists the timers pending on the shared wheel, soonest first. */
+public class TimersCommand extends Command {
+    public TimersCommand() {
+        super("timers", "Lists pending addon timers.");
+    }
+
+    @Override
+    public void build(LiteralArgumentBuilder<CommandSource> builder) {
+        builder.executes(context -> {
+            List<TimerWheel.Timer> pending = Timers.WHEEL.pending();
+            if (pending.isEmpty()) info("No timers pending.");
+            else for (TimerWheel.Timer t : pending) info(t.toString());
+            return SINGLE_SUCCESS;
+        });
+    }
+}
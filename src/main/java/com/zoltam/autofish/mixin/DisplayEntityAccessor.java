@@ -0,0 +1,24 @@
+package com.zoltam.autofish.mixin;
+
+import net.minecraft.entity.data.TrackedData;
+import net.minecraft.entity.decoration.DisplayEntity;
+import org.joml.Vector3f;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+/**
+ * Typed access to a display entity's transformation translation (and its interpolation duration),
+ * so the minigame can read local Y straight from the data tracker instead of reflecting over every tracked entry.
+ */
+@Mixin(DisplayEntity.class)
+public interface DisplayEntityAccessor {
+    @Accessor("TRANSLATION")
+    static TrackedData<Vector3f> addon$translation() {
+        throw new AssertionError();
+    }
+
+    @Accessor("INTERPOLATION_DURATION")
+    static TrackedData<Integer> addon$interpolationDuration() {
+        throw new AssertionError();
+    }
+}
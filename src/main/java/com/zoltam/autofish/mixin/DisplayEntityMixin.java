@@ -0,0 +1,24 @@
+package com.zoltam.autofish.mixin;
+
+import com.zoltam.autofish.util.DisplayTransformTap;
+import net.minecraft.entity.data.DataTracker;
+import net.minecraft.entity.data.TrackedData;
+import net.minecraft.entity.decoration.DisplayEntity;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(DisplayEntity.class)
+public abstract class DisplayEntityMixin {
+    // Tracker entries are applied in id order, so the interpolation duration is already current here
+    @Inject(method = "onTrackedDataSet(Lnet/minecraft/entity/data/TrackedData;)V", at = @At("TAIL"))
+    private void addon$pushTranslation(TrackedData<?> data, CallbackInfo ci) {
+        if (!DisplayTransformTap.isListening() || !DisplayEntityAccessor.addon$translation().equals(data)) return;
+        DisplayEntity self = (DisplayEntity) (Object) this;
+        DataTracker tracker = self.getDataTracker();
+        DisplayTransformTap.publish(self,
+            tracker.get(DisplayEntityAccessor.addon$translation()).y,
+            tracker.get(DisplayEntityAccessor.addon$interpolationDuration()));
+    }
+}
@@ -1,6 +1,8 @@
 package com.zoltam.autofish.modules;
 
 import com.zoltam.autofish.AddonTemplate;
+import com.zoltam.autofish.util.TimerWheel;
+import com.zoltam.autofish.util.Timers;
 import meteordevelopment.meteorclient.events.game.GameJoinedEvent;
 import meteordevelopment.meteorclient.events.game.OpenScreenEvent;
 import meteordevelopment.meteorclient.events.world.TickEvent;
@@ -103,12 +105,9 @@ public class AdvancedAutoReconnect extends Module {
     private ServerInfo lastServerInfo;          // Server to reconnect to
     private Screen lastScreen;                  // Parent for ConnectScreen
 
-    private boolean reconnectLoopActive;
-    private long nextReconnectAtMs = -1L;
-
-    private boolean firstJoinCommandPending;
-    private long nextJoinCommandAtMs = -1L;
-    private long nextJoinRepeatAtMs = -1L;
+    // Pending timers on the shared wheel (null when not scheduled)
+    private TimerWheel.Timer reconnectTimer;   // reconnect loop: next attempt
+    private TimerWheel.Timer joinTimer;        // first join command, then its repeats
 
     // edge detector for the test key
     private boolean testKeyWasDown = false;
@@ -116,26 +115,13 @@ public class AdvancedAutoReconnect extends Module {
     @Override
     public void onActivate() {
         lastServerInfo = mc != null ? mc.getCurrentServerEntry() : null;
-
-        reconnectLoopActive = false;
-        nextReconnectAtMs = -1L;
-
-        firstJoinCommandPending = false;
-        nextJoinCommandAtMs = -1L;
-        nextJoinRepeatAtMs = -1L;
-
+        cancelTimers();
         testKeyWasDown = false;
     }
 
     @Override
     public void onDeactivate() {
-        reconnectLoopActive = false;
-        nextReconnectAtMs = -1L;
-
-        firstJoinCommandPending = false;
-        nextJoinCommandAtMs = -1L;
-        nextJoinRepeatAtMs = -1L;
-
+        cancelTimers();
         testKeyWasDown = false;
     }
 
@@ -165,60 +151,63 @@ public class AdvancedAutoReconnect extends Module {
 
         lastServerInfo = mc.getCurrentServerEntry();
 
-        reconnectLoopActive = false;
-        nextReconnectAtMs = -1L;
-
-        firstJoinCommandPending = true;
-        nextJoinCommandAtMs = now() + secs(joinDelayS.get());
-
-        nextJoinRepeatAtMs = keepRetryingJoin.get()
-            ? nextJoinCommandAtMs + secs(retryIntervalS.get())
-            : -1L;
+        cancelTimers();
+        joinTimer = Timers.WHEEL.schedule("advanced-auto-reconnect: join command", secs(joinDelayS.get()), this::onFirstJoinCommand);
     }
 
-    // Timers + test keybind
+    // Test keybind (timers run on the shared wheel)
     @EventHandler
     private void onTick(TickEvent.Post event) {
         if (!isActive()) return;
 
-        long t = now();
-
         // Test keybind edge detection
         boolean down = testKeybind.get().isPressed();
         if (down && !testKeyWasDown) {
             runTestDisconnect();
         }
         testKeyWasDown = down;
+    }
 
-        // Reconnect attempts
-        if (reconnectLoopActive && t >= nextReconnectAtMs) {
-            attemptReconnect();
-            nextReconnectAtMs = t + secs(retryIntervalS.get());
-        }
+    // --- Timers ---
 
-        // First join command after join
-        if (firstJoinCommandPending && t >= nextJoinCommandAtMs) {
-            sendCommand(joinCommand.get());
-            firstJoinCommandPending = false;
+    // Reconnect attempts
+    private void onReconnectDue() {
+        attemptReconnect();
+        if (reconnectTimer != null) reconnectTimer.cancel(); // the attempt may have restarted the loop itself
+        reconnectTimer = Timers.WHEEL.schedule("advanced-auto-reconnect: reconnect", secs(retryIntervalS.get()), this::onReconnectDue);
+    }
 
-            if (keepRetryingJoin.get() && nextJoinRepeatAtMs < 0) {
-                nextJoinRepeatAtMs = t + secs(retryIntervalS.get());
-            }
-        }
+    // First join command after join
+    private void onFirstJoinCommand() {
+        sendCommand(joinCommand.get());
+        scheduleJoinRepeat();
+    }
 
-        // Keep retrying the join command to escape hub
-        if (keepRetryingJoin.get() && mc.player != null && nextJoinRepeatAtMs > 0 && t >= nextJoinRepeatAtMs) {
-            sendCommand(joinCommand.get());
-            nextJoinRepeatAtMs = t + secs(retryIntervalS.get());
-        }
+    // Keep retrying the join command to escape hub
+    private void onJoinRepeatDue() {
+        if (!keepRetryingJoin.get()) { joinTimer = null; return; }
+        if (mc.player == null) { joinTimer = null; return; } // out of game: onGameJoined starts the commands over
+        sendCommand(joinCommand.get());
+        scheduleJoinRepeat();
+    }
+
+    private void scheduleJoinRepeat() {
+        joinTimer = keepRetryingJoin.get()
+            ? Timers.WHEEL.schedule("advanced-auto-reconnect: join repeat", secs(retryIntervalS.get()), this::onJoinRepeatDue)
+            : null;
+    }
+
+    private void cancelTimers() {
+        if (reconnectTimer != null) reconnectTimer.cancel();
+        if (joinTimer != null) joinTimer.cancel();
+        reconnectTimer = joinTimer = null;
     }
 
     // --- Helpers ---
 
     private void startReconnectLoopIfNeeded() {
-        if (!reconnectLoopActive) {
-            reconnectLoopActive = true;
-            nextReconnectAtMs = now() + secs(initialDelayS.get());
+        if (reconnectTimer == null || !reconnectTimer.isPending()) {
+            reconnectTimer = Timers.WHEEL.schedule("advanced-auto-reconnect: reconnect", secs(initialDelayS.get()), this::onReconnectDue);
         }
     }
 
@@ -273,6 +262,5 @@ public class AdvancedAutoReconnect extends Module {
         }
     }
 
-    private static long now() { return System.currentTimeMillis(); }
     private static long secs(double s) { return (long) (s * 1000.0); }
 }
@@ -1,6 +1,9 @@
 package com.zoltam.autofish.modules;
 
 import com.zoltam.autofish.AddonTemplate;
+import com.zoltam.autofish.util.TimerWheel;
+import com.zoltam.autofish.util.Timers;
+import meteordevelopment.meteorclient.events.game.GameJoinedEvent;
 import meteordevelopment.meteorclient.events.world.TickEvent;
 import meteordevelopment.meteorclient.settings.DoubleSetting;
 import meteordevelopment.meteorclient.settings.IntSetting;
@@ -66,7 +69,7 @@ public class AntiAFK extends Module {
     );
 
     // Runtime state
-    private long nextStartMs = -1L;
+    private TimerWheel.Timer nextStart;
     private long animStartMs = -1L;
 
     private float baseYaw;
@@ -88,6 +91,9 @@ public class AntiAFK extends Module {
 
     @Override
     public void onDeactivate() {
+        if (nextStart != null) nextStart.cancel();
+        nextStart = null;
+
         // Ensure we leave the player in a sane state.
         ClientPlayerEntity p = mc.player;
         if (p != null && animStartMs != -1L) {
@@ -103,14 +109,10 @@ public class AntiAFK extends Module {
         ClientPlayerEntity p = mc.player;
         if (p == null || !p.isAlive()) return;
 
+        // Between nudges the next one is a timer; only the animation itself runs per tick.
+        if (animStartMs == -1L) return;
         final long now = System.currentTimeMillis();
 
-        // If we aren't animating, see if it's time to start a new nudge.
-        if (animStartMs == -1L) {
-            if (now >= nextStartMs) startNewAnimation(p, now);
-            return;
-        }
-
         // We are animating: progress t in [0,1]
         double durationMs = Math.max(0.2, moveDurationS.get()) * 1000.0;
         double t = (now - animStartMs) / durationMs;
@@ -135,6 +137,20 @@ public class AntiAFK extends Module {
         p.setPitch(targetPitch);
     }
 
+    private void onNudgeDue() {
+        nextStart = null;
+        ClientPlayerEntity p = mc.player;
+        if (p == null) return; // not in game: parked until onGameJoined
+        if (!p.isAlive()) { scheduleNext(); return; } // dead: try again after another interval
+        startNewAnimation(p, System.currentTimeMillis());
+    }
+
+    // Re-arms a nudge parked while out of game
+    @EventHandler
+    private void onGameJoined(GameJoinedEvent event) {
+        if (nextStart == null && animStartMs == -1L) scheduleNext();
+    }
+
     private void startNewAnimation(ClientPlayerEntity p, long nowMs) {
         // Capture the current view as the base
         baseYaw = p.getYaw();
@@ -158,7 +174,8 @@ public class AntiAFK extends Module {
         double minS = Math.max(1.0, minIntervalS.get());
         double maxS = Math.max(minS, maxIntervalS.get()); // ensure max >= min
         double intervalChosenS = randomRangeDouble(minS, maxS);
-        nextStartMs = System.currentTimeMillis() + (long) (intervalChosenS * 1000.0);
+        if (nextStart != null) nextStart.cancel();
+        nextStart = Timers.WHEEL.schedule("anti-afk: nudge", (long) (intervalChosenS * 1000.0), this::onNudgeDue);
     }
 
     // Utilities
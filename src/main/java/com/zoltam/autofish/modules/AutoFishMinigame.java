@@ -1,33 +1,61 @@
 package com.zoltam.autofish.modules; // <-- match your package
 
 import com.zoltam.autofish.AddonTemplate;
+import com.zoltam.autofish.minigame.*;
+import com.zoltam.autofish.mixin.DisplayEntityAccessor;
+import com.zoltam.autofish.util.DisplayTransformTap;
+import com.zoltam.autofish.util.Accessor;
+import com.zoltam.autofish.util.TimerWheel;
+import com.zoltam.autofish.util.Timers;
+import meteordevelopment.meteorclient.events.game.GameJoinedEvent;
 import meteordevelopment.meteorclient.events.packets.PacketEvent;
 import meteordevelopment.meteorclient.events.render.Render3DEvent;
+import meteordevelopment.meteorclient.events.world.BlockUpdateEvent;
 import meteordevelopment.meteorclient.events.world.TickEvent;
 import meteordevelopment.meteorclient.renderer.ShapeMode;
 import meteordevelopment.meteorclient.settings.*;
 import meteordevelopment.meteorclient.systems.modules.Module;
 import meteordevelopment.meteorclient.utils.Utils;
+import meteordevelopment.meteorclient.utils.player.InvUtils;
 import meteordevelopment.meteorclient.utils.render.color.Color;
 import meteordevelopment.meteorclient.utils.render.color.SettingColor;
 import meteordevelopment.orbit.EventHandler;
 import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.block.entity.LootableContainerBlockEntity;
 import net.minecraft.client.gui.hud.InGameHud;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.decoration.DisplayEntity;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.entity.projectile.FishingBobberEntity;
+import net.minecraft.fluid.FluidState;
 import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
 import net.minecraft.item.Items;
+import net.minecraft.registry.tag.FluidTags;
+import net.minecraft.screen.ScreenHandler;
+import net.minecraft.screen.slot.Slot;
+import net.minecraft.screen.slot.SlotActionType;
 import net.minecraft.text.Text;
 import net.minecraft.util.Hand;
+import net.minecraft.util.hit.BlockHitResult;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Direction;
 import net.minecraft.util.math.Vec3d;
 
-import java.lang.reflect.Field;
+import java.io.IOException;
 import java.lang.reflect.Method;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * AutoFishMinigame
@@ -35,12 +63,17 @@ import java.util.*;
  * - Adds a tick-based "cast resolution" deadline so a fresh cast waits long enough for the bobber to spawn
  * - Keeps your original minigame classifier + training logic intact
  * - NEW: Settings to control the ranges for reeling delay (after bite) and cooldown before recast
+ * - Game-free logic (loop, bite detection, classifier, controllers, trainers) lives in the engine subproject;
+ *   this module reads the world, feeds it in and performs the resulting inputs
  */
 public class AutoFishMinigame extends Module {
     private final SettingGroup sgGeneral  = settings.createGroup("General");
     private final SettingGroup sgLog      = settings.createGroup("Chat Log");
     private final SettingGroup sgVisual   = settings.createGroup("Visual");
     private final SettingGroup sgTraining = settings.createGroup("Training");
+    private final SettingGroup sgCycle    = settings.createGroup("Cycle Tuning");
+    private final SettingGroup sgInv      = settings.createGroup("Inventory");
+    private final SettingGroup sgAim      = settings.createGroup("Cast Aim");
 
     private final Random rng = new Random();
 
@@ -51,7 +84,7 @@ public class AutoFishMinigame extends Module {
     // Auto loop & humanized delays (simple, small jitter)
     private final Setting<Boolean> autoLoop = sgGeneral.add(new BoolSetting.Builder()
         .name("auto-loop").description("Automatically cast, wait for bite, reel, play minigame, and repeat.")
-        .defaultValue(true).build());
+        .defaultValue(true).onChanged(v -> scheduleLoopStep()).build());
     private final Setting<Boolean> humanizeDelays = sgGeneral.add(new BoolSetting.Builder()
         .name("humanize-delays").description("Add small human-like random delays to cast and reel.")
         .defaultValue(true).build());
@@ -74,6 +107,40 @@ public class AutoFishMinigame extends Module {
         .description("Maximum cooldown before auto recasting (ms). Used when humanize-delays is on.")
         .defaultValue(700).min(0).sliderRange(0, 3000).build());
 
+    private final Setting<Integer> rodMinUses = sgGeneral.add(new IntSetting.Builder()
+        .name("rod-min-uses")
+        .description("Switch to another rod (hotbar first, then inventory) once the one in hand has this many uses left or fewer.")
+        .defaultValue(3).min(0).sliderRange(0, 64).build());
+    private final Setting<Integer> lowRodWarning = sgGeneral.add(new IntSetting.Builder()
+        .name("low-rod-warning")
+        .description("Warn when this many usable rods or fewer are left (0 = never).")
+        .defaultValue(1).min(0).sliderRange(0, 9).build());
+
+    private final Setting<Boolean> velocityBite = sgGeneral.add(new BoolSetting.Builder()
+        .name("velocity-bite")
+        .description("Also treat the server yanking the bobber down (velocity packet) as a bite, as it arrives.")
+        .defaultValue(true).build());
+
+    private final Setting<Double> splashTolerance = sgGeneral.add(new DoubleSetting.Builder()
+        .name("splash-tolerance")
+        .description("Max distance (blocks) between a splash sound and our bobber for it to count as our bite.")
+        .defaultValue(1.5).min(0.25).sliderRange(0.25, 6).build());
+
+    private final Setting<Boolean> learnBite = sgGeneral.add(new BoolSetting.Builder()
+        .name("learn-bite-thresholds")
+        .description("Tune the bobber bite threshold from which reels led to a minigame, saved per server (config/autofish/bite).")
+        .defaultValue(true).build());
+
+    private final Setting<Boolean> reactOnUpdate = sgGeneral.add(new BoolSetting.Builder()
+        .name("react-on-update")
+        .description("Run the controller as soon as fresh fish and box positions arrive instead of on the next tick.")
+        .defaultValue(true).build());
+
+    private final Setting<Boolean> frameRateControl = sgGeneral.add(new BoolSetting.Builder()
+        .name("frame-rate-control")
+        .description("Run the controller every render frame on interpolated fish/box positions instead of once per tick.")
+        .defaultValue(false).build());
+
     // ---- Chat Log ----
     private final Setting<Boolean> chatLog = sgLog.add(new BoolSetting.Builder()
         .name("chat-log").defaultValue(true).build());
@@ -106,104 +173,95 @@ public class AutoFishMinigame extends Module {
         .visible(() -> !useDefaultModel.get())
         .build());
 
+    private final Setting<Boolean> abTest = sgTraining.add(new BoolSetting.Builder()
+        .name("ab-test")
+        .description("Assign each minigame to a model from the registry (config/autofish/models) and converge on the best catch rate.")
+        .defaultValue(false)
+        .visible(() -> !trainingMode.get())
+        .build());
+
+    private final Setting<Boolean> optimiseCycle = sgCycle.add(new BoolSetting.Builder()
+        .name("optimise-cycle")
+        .description("Try tighter delays and recast timeouts per cycle and converge on the most catches per hour (stats per server in config/autofish/cycle).")
+        .defaultValue(false).build());
+    private final Setting<Integer> minSuccessPct = sgCycle.add(new IntSetting.Builder()
+        .name("min-success-pct")
+        .description("Timings whose cycles end in a catch less often than this are dropped.")
+        .defaultValue(60).min(0).max(100).sliderRange(0, 100)
+        .visible(optimiseCycle::get).build());
+    private final Setting<Integer> floorCastDelay = sgCycle.add(new IntSetting.Builder()
+        .name("floor-cast-delay-ms")
+        .description("Never cast faster than this after the previous step, however tight the timing.")
+        .defaultValue(80).min(0).sliderRange(0, 1000)
+        .visible(optimiseCycle::get).build());
+    private final Setting<Integer> floorReelDelay = sgCycle.add(new IntSetting.Builder()
+        .name("floor-reel-delay-ms")
+        .description("Never reel faster than this after a bite, however tight the timing.")
+        .defaultValue(100).min(0).sliderRange(0, 1000)
+        .visible(optimiseCycle::get).build());
+    private final Setting<Integer> floorCooldown = sgCycle.add(new IntSetting.Builder()
+        .name("floor-cooldown-ms")
+        .description("Never recast sooner than this after a minigame or a failed cast, however tight the timing.")
+        .defaultValue(200).min(0).sliderRange(0, 2000)
+        .visible(optimiseCycle::get).build());
+
+    public enum DumpMode { Off, Drop, Deposit }
+
+    private final Setting<DumpMode> dumpMode = sgInv.add(new EnumSetting.Builder<DumpMode>()
+        .name("dump-mode")
+        .description("When the inventory is full between cycles: drop junk items, or deposit the catch into a nearby container.")
+        .defaultValue(DumpMode.Off).build());
+    private final Setting<Integer> dumpFreeSlots = sgInv.add(new IntSetting.Builder()
+        .name("dump-at-free-slots")
+        .description("Empty the inventory once this many free slots or fewer are left.")
+        .defaultValue(1).min(0).sliderRange(0, 9)
+        .visible(() -> dumpMode.get() != DumpMode.Off).build());
+    private final Setting<List<Item>> dumpItems = sgInv.add(new ItemListSetting.Builder()
+        .name("junk-items")
+        .description("Items dropped in Drop mode. Rods are never dropped.")
+        .defaultValue(Items.LEATHER_BOOTS, Items.LEATHER, Items.BONE, Items.POTION, Items.STRING, Items.BOWL,
+            Items.STICK, Items.INK_SAC, Items.TRIPWIRE_HOOK, Items.ROTTEN_FLESH, Items.LILY_PAD, Items.BAMBOO)
+        .visible(() -> dumpMode.get() == DumpMode.Drop).build());
+
+    private final Setting<Boolean> aimCasts = sgAim.add(new BoolSetting.Builder()
+        .name("aim-casts")
+        .description("Before each cast, turn towards the spot in reach with open sky and open water, where bites come sooner.")
+        .defaultValue(false).build());
+    private final Setting<Double> aimRange = sgAim.add(new DoubleSetting.Builder()
+        .name("aim-range")
+        .description("How far (degrees) to either side of where you look the cast may be aimed.")
+        .defaultValue(45).min(0).sliderRange(0, 180)
+        .visible(aimCasts::get).build());
+
     // Hidden constants
     private static final int SPAWN_WINDOW = 16;
-    private static final int CLASSIFY_MIN = 6;
     private static final int CLASSIFY_FALLBACK_EXTRA = 8;
     private static final double BOX_STILL_LOCAL_RANGE = 0.02;
-    private static final double FISH_MOVE_LOCAL_RANGE = 0.12;
     private static final double BOX_STILL_WORLD_RANGE = 0.05;
-    private static final double FISH_MOVE_WORLD_RANGE = 0.18;
-    private static final double ERR_HI = 0.15;
-    private static final double ERR_LO = 0.05;
-    private static final int MIN_PRESS = 4;
-    private static final int MIN_RELEASE = 3;
-    private static final int JITTER_MS = 30;
     private static final boolean INVERT_ERROR = false;
     private static final boolean USE_KEYBIND = true;
-    private static final double PREDICTION_WEIGHT = 0.6;
-    private static final double SMOOTHING_FACTOR = 0.3;
     private static final double MOMENTUM_THRESHOLD = 0.03;
-    private static final int HISTORY_SIZE = 5;
 
     // Auto loop timing (defaults preserved for settings above)
     private static final int CAST_DELAY_MIN_MS = 120, CAST_DELAY_MAX_MS = 380; // still internal "cast jitter"
     private static final int REEL_DELAY_MIN_MS = 110, REEL_DELAY_MAX_MS = 360; // defaults -> settings
     private static final int POST_COOLDOWN_MIN_MS = 250, POST_COOLDOWN_MAX_MS = 700; // defaults -> settings
-    private static final int FAIL_RETRY_DELAY_MS = 500;
-
-    // Bite detection heuristics
-    private static final double BITE_VEL_DOWN_THR = -0.14;
-    private static final double BITE_DROP_THR = 0.20;
-    private static final int   BITE_WINDOW_TICKS = 3;
-    private static final int   BITE_MIN_TICKS_AFTER_CAST = 10;
-
-    // Give bobber time to spawn after cast to avoid instant re-cast loops
-    private static final int CAST_SPAWN_GRACE_TICKS = 12; // ~0.6s
-    private static final int CAST_RESOLVE_DEADLINE_EXTRA_TICKS = 28; // total ~2s before we declare cast failed
 
     // Default built-in Logistic model
-    private static LogisticRegressionModel DEFAULT_MODEL = new LogisticRegressionModel(
-        new double[]{2.941484, 10.936916, -20.971402},
-        -0.375856,
-        0.7041420118343196
-    );
-
-    // Arm bite detection only after this many ticks post-cast (~0.9s at 20tps)
-    private static final int BITE_ARM_TICKS = 40;
-    private static final int NO_BITE_TIMEOUT_TICKS = 60 * 20; // 60 seconds at 20 tps
-
-    // runtime
-    private int biteArmedAtTick = -1;
-
-    // ---- Runtime: tracking/ML state ----
-    private static class Track {
-        final int id; final int firstSeenTick;
-        int lastSeenTick;
-        double lastWorldY, minWorldY, maxWorldY;
-        Double lastLocalY = null;
-        double minLocalY = Double.POSITIVE_INFINITY, maxLocalY = Double.NEGATIVE_INFINITY;
-
-        Track(int id, double worldY, Double localY, int t) {
-            this.id = id; this.firstSeenTick = t; this.lastSeenTick = t;
-            this.lastWorldY = worldY;
-            this.minWorldY = worldY; this.maxWorldY = worldY;
-            updateLocal(localY);
-        }
-        void update(double worldY, Double localY, int t) {
-            lastSeenTick = t;
-            lastWorldY = worldY;
-            if (worldY < minWorldY) minWorldY = worldY;
-            if (worldY > maxWorldY) maxWorldY = worldY;
-            updateLocal(localY);
-        }
-        void updateLocal(Double y) {
-            if (y == null) return;
-            lastLocalY = y;
-            if (y < minLocalY) minLocalY = y;
-            if (y > maxLocalY) maxLocalY = y;
-        }
-        double localRange()  { return (lastLocalY == null) ? 0.0 : (maxLocalY - minLocalY); }
-        double worldRange()  { return maxWorldY - minWorldY; }
-        double effectiveRange() {
-            double lr = localRange();
-            if (lastLocalY != null && lr > 1e-5) return lr;
-            return worldRange();
-        }
-        boolean hasLocal() { return lastLocalY != null; }
-    }
-
-    private enum Phase { IDLE, CASTING, WAIT_BITE, REELING, MINIGAME, COOLDOWN }
-
-    private Phase phase = Phase.IDLE;
-    private long nextActionAtMs = 0L;
-    private int lastCastTick = -10000;
-    private int castResolveDeadlineTick = -10000;
-    private int lastReelTick = -10000;
+    private static final TrainedModel DEFAULT_MODEL = LogisticRegressionModel.DEFAULT;
 
+    // ---- Runtime: loop state (decisions live in FishingLoop, this module only does the I/O) ----
+    private final FishingLoop loop = new FishingLoop();
+    private final BiteDetector bite = new BiteDetector();
     private Integer bobberId = null;
-    private final Deque<Double> bobberYHist = new ArrayDeque<>();
-    private final Deque<Integer> bobberTickHist = new ArrayDeque<>();
+
+    // Bite labelling: a reel's score counts as a bite if a minigame starts within BITE_CONFIRM_TICKS
+    private static final int BITE_CONFIRM_TICKS = 100;
+    private BiteCalibration biteCal = new BiteCalibration();
+    private Path biteCalFile;
+    private boolean biteCalDirty;
+    private double pendingBiteScore = Double.NaN;
+    private int pendingBiteTick;
 
     private int tick;
     private boolean sessionActive;
@@ -216,68 +274,38 @@ public class AutoFishMinigame extends Module {
     private long delayUntilMs = 0L;
     private String lastOverlaySeen = "";
 
-    private final LinkedList<Double> fishPositionHistory = new LinkedList<>();
-    private final LinkedList<Double> boxPositionHistory = new LinkedList<>();
-    private final LinkedList<Integer> tickHistory = new LinkedList<>();
-    private double smoothedError = 0.0;
+    // Controller constants, optionally replaced by a sweep result in config/autofish/controller_params.json
+    private ControllerParams params = ControllerParams.DEFAULT;
+    private VelocityEstimator velocity = new VelocityEstimator();
+    private PdController pd = new PdController(params);
     private double lastFishVelocity = 0.0;
     private double lastBoxVelocity = 0.0;
 
-    private final List<TrainingDataPoint> trainingData = new ArrayList<>();
+    private final List<TrainingSample> trainingData = new ArrayList<>();
     private TrainedModel currentModel = null;
     private boolean wasTrainingMode = false;
     private boolean wasUsingDefaultModel = true;
     private int lastTrainingLogTick = 0;
 
-    private static class TrainingDataPoint {
-        final double diff;
-        final double fishVel;
-        final double boxVel;
-        final int shiftState;
-
-        TrainingDataPoint(double diff, double fishVel, double boxVel, int shiftState) {
-            this.diff = diff; this.fishVel = fishVel; this.boxVel = boxVel; this.shiftState = shiftState;
-        }
-        String toCsvRow() {
-            return String.format(Locale.ROOT, "%.6f,%.6f,%.6f,%d", diff, fishVel, boxVel, shiftState);
-        }
-    }
-
-    private static abstract class TrainedModel {
-        abstract boolean predict(double diff, double fishVel, double boxVel);
-        abstract String getModelType();
-        abstract double getAccuracy();
-    }
-
-    private static class LogisticRegressionModel extends TrainedModel {
-        private final double[] weights;
-        private final double bias;
-        private final double accuracy;
-
-        LogisticRegressionModel(double[] weights, double bias, double accuracy) {
-            this.weights = weights; this.bias = bias; this.accuracy = accuracy;
-        }
-        @Override boolean predict(double diff, double fishVel, double boxVel) {
-            double z = bias + weights[0]*diff + weights[1]*fishVel + weights[2]*boxVel;
-            return 1.0 / (1.0 + Math.exp(-z)) > 0.5;
-        }
-        @Override String getModelType() { return "Logistic"; }
-        @Override double getAccuracy() { return accuracy; }
-    }
-
-    private static class DecisionTreeModel extends TrainedModel {
-        private final double diffThreshold;
-        private final double fishVelThreshold;
-        private final double accuracy;
-        DecisionTreeModel(double diffThreshold, double fishVelThreshold, double accuracy) {
-            this.diffThreshold = diffThreshold; this.fishVelThreshold = fishVelThreshold; this.accuracy = accuracy;
-        }
-        @Override boolean predict(double diff, double fishVel, double boxVel) {
-            return diff > diffThreshold && fishVel > fishVelThreshold;
+    // A/B evaluation across registered models
+    private ModelRegistry registry;
+    private ModelRegistry.Entry abEntry = null;
+    private TrainedModel modelBeforeAb = null;
+    private double abErrorSum = 0.0;
+    private double abErrorTicks = 0.0; // game ticks covered, fractional under frame control
+
+    private final FishingLoop.World loopWorld = new FishingLoop.World() {
+        @Override public void trackBobber() { trackOwnBobber(); }
+        @Override public boolean hasBobberOut() { return AutoFishMinigame.this.hasBobberOut(); }
+        @Override public boolean ensureRodEquipped() { return AutoFishMinigame.this.ensureRodEquipped(); }
+        @Override public void prepareCast() { prepareNextCast(); }
+        @Override public boolean busy() { return depositTimer != null; }
+        @Override public boolean detectBite() { return bite.detect(AutoFishMinigame.this::isBobberInWater); }
+        @Override public int castDelayMs() {
+            return humanizeDelays.get() ? tuned(rnd(CAST_DELAY_MIN_MS, CAST_DELAY_MAX_MS), floorCastDelay) : 0;
         }
-        @Override String getModelType() { return "DecisionTree"; }
-        @Override double getAccuracy() { return accuracy; }
-    }
+        @Override public int reelDelayMs() { return humanizeDelays.get() ? tuned(rndSetting(reelDelayMin, reelDelayMax), floorReelDelay) : 0; }
+    };
 
     public AutoFishMinigame() {
         super(AddonTemplate.CATEGORY, "auto-fish-minigame",
@@ -286,20 +314,20 @@ public class AutoFishMinigame extends Module {
 
     @Override public void onActivate() {
         tick = 0; sessionActive = false; sessionStartTick = -1; boxId = fishId = null; tracks.clear(); releaseSneak(true);
+        pushedSinceControl = 0; controlledOnPush = false;
+        DisplayTransformTap.listen(translationListener);
 
-        biteArmedAtTick = -1;
-
-        fishPositionHistory.clear();
-        boxPositionHistory.clear();
-        tickHistory.clear();
-        smoothedError = 0.0;
+        velocity.clear();
+        frameVelocity.clear();
+        pd = new PdController(params);
         lastFishVelocity = 0.0;
         lastBoxVelocity = 0.0;
 
-        phase = Phase.IDLE; nextActionAtMs = 0L;
-        bobberId = null; bobberYHist.clear(); bobberTickHist.clear();
-        lastCastTick = -10000;
-        castResolveDeadlineTick = -10000;
+        loop.reset();
+        bobberId = null; bobberNetId = -1; bite.clear();
+        cachedBobber = null; cachedBobberValid = false;
+        reelGeneration.incrementAndGet();
+        splashesAccepted = splashesRejected = 0;
 
         wasUsingDefaultModel = useDefaultModel.get();
         if (useDefaultModel.get()) {
@@ -310,28 +338,40 @@ public class AutoFishMinigame extends Module {
             loadModelFromDisk();
             loadTrainingDataFromCsv();
         }
+        loadRegistry();
+        loadControllerParams();
+        loadBiteCalibration();
+        loadCycleStats();
+        scheduleLoopStep();
         if (chatLog.get()) info("Watching for minigame…");
     }
 
     @Override public void onDeactivate() {
+        DisplayTransformTap.stop(translationListener);
+        endAbSession();
         releaseSneak(true);
         tracks.clear();
         sessionActive = false;
         boxId = fishId = null;
 
-        biteArmedAtTick = -1;
-
-        fishPositionHistory.clear();
-        boxPositionHistory.clear();
-        tickHistory.clear();
-        smoothedError = 0.0;
+        velocity.clear();
+        frameVelocity.clear();
+        pd = new PdController(params);
         lastFishVelocity = 0.0;
         lastBoxVelocity = 0.0;
 
-        phase = Phase.IDLE; nextActionAtMs = 0L;
-        bobberId = null; bobberYHist.clear(); bobberTickHist.clear();
-        lastCastTick = -10000;
-        castResolveDeadlineTick = -10000;
+        loop.reset();
+        bobberId = null; bobberNetId = -1; bite.clear();
+        reelGeneration.incrementAndGet();
+        if (chatLog.get() && splashesAccepted + splashesRejected > 0) {
+            info("Splashes: %d ours, %d rejected (other bobbers).", splashesAccepted, splashesRejected);
+        }
+        saveBiteCalibration();
+        saveCycleStats();
+        if (loopTimer != null) loopTimer.cancel();
+        if (depositTimer != null) depositTimer.cancel();
+        loopTimer = depositTimer = null;
+        waterGrid = null; waterGridWorld = null; aimMissWarned = false;
 
         try { mc.options.useKey.setPressed(false); } catch (Throwable ignored) {}
     }
@@ -358,7 +398,11 @@ public class AutoFishMinigame extends Module {
 
         pollActionBarFromHud();
 
-        if (autoLoop.get()) runLoopFsm();
+        if (autoLoop.get()) {
+            // Keep sampling the bobber while a reel is due, so its score at the reel covers the whole bite
+            if (loop.phase() == FishingLoop.Phase.REELING && System.currentTimeMillis() < loop.nextActionAtMs()) trackOwnBobber();
+            if (!Double.isNaN(pendingBiteScore) && tick - pendingBiteTick > BITE_CONFIRM_TICKS) labelPendingBite(false);
+        }
 
         final double r2 = radius.get() * radius.get();
         Set<Integer> present = new HashSet<>();
@@ -369,13 +413,15 @@ public class AutoFishMinigame extends Module {
             double dz = ent.getZ() - mc.player.getZ();
             if (dx*dx + dy*dy + dz*dz > r2) continue;
 
-            Double localY = getLocalYFromDataTracker((DisplayEntity) ent);
             present.add(ent.getId());
-            tracks.compute(ent.getId(), (id, tr) -> {
-                if (tr == null) return new Track(id, ent.getY(), localY, tick);
-                tr.update(ent.getY(), localY, tick);
-                return tr;
-            });
+            Track tr = tracks.get(ent.getId());
+            if (tr == null) {
+                // First sight: read local Y once; afterwards it is pushed by onDisplayTranslation
+                double localY = ent.getDataTracker().get(DisplayEntityAccessor.addon$translation()).y;
+                tracks.put(ent.getId(), new Track(ent.getId(), ent.getY(), localY, tick));
+            } else {
+                tr.update(ent.getY(), null, tick);
+            }
         }
         tracks.keySet().retainAll(present);
 
@@ -384,7 +430,9 @@ public class AutoFishMinigame extends Module {
             if (recent.size() >= 2) {
                 sessionActive = true; boxId = fishId = null; sessionStartTick = tick;
                 if (chatLog.get()) info("Minigame detected. Classifying…");
-                phase = Phase.MINIGAME;
+                loop.enterMinigame(System.currentTimeMillis());
+                labelPendingBite(true);
+                beginAbSession();
             }
         }
 
@@ -401,143 +449,160 @@ public class AutoFishMinigame extends Module {
             wasTrainingMode = trainingMode.get();
         }
 
-        if (sessionActive && boxId != null && fishId != null) {
-            Track box = tracks.get(boxId), fish = tracks.get(fishId);
-            if (box == null || fish == null) { stopCycle(); return; }
+        boolean controlledEarly = controlledOnPush;
+        controlledOnPush = false;
+        if (sessionActive && boxId != null && fishId != null && !controlledEarly && !frameControlActive()) {
+            if (!controlStep()) return;
+        }
 
-            Double bL = box.lastLocalY, fL = fish.lastLocalY;
-            boolean usedLocal = (bL != null && fL != null);
+        if (sessionActive && tracks.isEmpty()) stopCycle();
 
-            double currentFishPos = usedLocal ? fL : fish.lastWorldY;
-            double currentBoxPos  = usedLocal ? bL : box.lastWorldY;
+        try { mc.options.useKey.setPressed(false); } catch (Throwable ignored) {}
+    }
 
-            updatePositionHistory(currentFishPos, currentBoxPos);
+    /** One controller step on the latest fish/box positions. Returns false when the session ended. */
+    private boolean controlStep() {
+        pushedSinceControl = 0;
+        Track box = tracks.get(boxId), fish = tracks.get(fishId);
+        if (box == null || fish == null) { stopCycle(); return false; }
 
-            double fishVelocity = calculateVelocity(fishPositionHistory);
-            double boxVelocity  = calculateVelocity(boxPositionHistory);
+        Double bL = box.lastLocalY, fL = fish.lastLocalY;
+        boolean usedLocal = (bL != null && fL != null);
 
-            double diff = INVERT_ERROR ? (currentBoxPos - currentFishPos) : (currentFishPos - currentBoxPos);
+        double currentFishPos = usedLocal ? fL : fish.lastWorldY;
+        double currentBoxPos  = usedLocal ? bL : box.lastWorldY;
 
-            if (!useDefaultModel.get() && trainingMode.get()) {
-                collectTrainingData(diff, fishVelocity, boxVelocity);
-            } else {
-                controlWithModelOrFallback(diff, fishVelocity, boxVelocity, currentFishPos, currentBoxPos);
-            }
+        velocity.push(currentFishPos, currentBoxPos);
 
-            if (chatLog.get() && tick % logEvery.get() == 0) {
-                String mode = (!useDefaultModel.get() && trainingMode.get()) ? "TRAINING"
-                    : (currentModel != null ? "MODEL" : "PD");
-                if (usedLocal) {
-                    info("%s", String.format(Locale.ROOT, "[%s] L: fish=%.3f(v=%.3f) box=%.3f(v=%.3f) diff=%.3f | sneak=%s",
-                        mode, fL, fishVelocity, bL, boxVelocity, diff, sneakDown));
-                } else {
-                    info("%s", String.format(Locale.ROOT, "[%s] W: fish=%.3f(v=%.3f) box=%.3f(v=%.3f) diff=%.3f | sneak=%s",
-                        mode, fish.lastWorldY, fishVelocity, box.lastWorldY, boxVelocity, diff, sneakDown));
-                }
-            }
+        double fishVelocity = velocity.fishVelocity();
+        double boxVelocity  = velocity.boxVelocity();
+
+        double diff = INVERT_ERROR ? (currentBoxPos - currentFishPos) : (currentFishPos - currentBoxPos);
+
+        if (!useDefaultModel.get() && trainingMode.get()) {
+            collectTrainingData(diff, fishVelocity, boxVelocity);
+        } else {
+            controlWithModelOrFallback(diff, fishVelocity, boxVelocity, currentFishPos, currentBoxPos, 1.0);
         }
 
-        if (sessionActive && tracks.isEmpty()) stopCycle();
+        if (chatLog.get() && tick % logEvery.get() == 0) {
+            String mode = (!useDefaultModel.get() && trainingMode.get()) ? "TRAINING"
+                : (currentModel != null ? "MODEL" : "PD");
+            if (usedLocal) {
+                info("%s", String.format(Locale.ROOT, "[%s] L: fish=%.3f(v=%.3f) box=%.3f(v=%.3f) diff=%.3f | sneak=%s",
+                    mode, fL, fishVelocity, bL, boxVelocity, diff, sneakDown));
+            } else {
+                info("%s", String.format(Locale.ROOT, "[%s] W: fish=%.3f(v=%.3f) box=%.3f(v=%.3f) diff=%.3f | sneak=%s",
+                    mode, fish.lastWorldY, fishVelocity, box.lastWorldY, boxVelocity, diff, sneakDown));
+            }
+        }
+        return true;
+    }
 
-        try { mc.options.useKey.setPressed(false); } catch (Throwable ignored) {}
+    // -------- Pushed local Y (DisplayEntityMixin) --------
+    private final DisplayTransformTap.Listener translationListener = this::onDisplayTranslation;
+
+    private static final int PUSHED_FISH = 1, PUSHED_BOX = 2;
+    private int pushedSinceControl = 0;
+    private boolean controlledOnPush = false; // this tick's step already ran from a push
+
+    /** Client thread, while the tracker update is applied: before the next tick sees it. */
+    private void onDisplayTranslation(DisplayEntity display, float localY, int interpolationTicks) {
+        Track tr = tracks.get(display.getId());
+        if (tr == null) return; // not in range yet; the tick loop picks it up
+        tr.pushLocal(localY, interpolationTicks, tick, System.nanoTime());
+
+        if (!reactOnUpdate.get() || !sessionActive || boxId == null || fishId == null || frameControlActive()) return;
+        if (tr.id == fishId) pushedSinceControl |= PUSHED_FISH;
+        else if (tr.id == boxId) pushedSinceControl |= PUSHED_BOX;
+        else return;
+        // Both moved: act now rather than on the next tick (which then skips its own step)
+        if (pushedSinceControl == (PUSHED_FISH | PUSHED_BOX) && !controlledOnPush
+            && (!trainingMode.get() || useDefaultModel.get())) {
+            controlledOnPush = true;
+            controlStep();
+        }
     }
 
-    // -------- WHOLE-LOOP FSM --------
-    private void runLoopFsm() {
-        long now = System.currentTimeMillis();
-        if (now < nextActionAtMs) return;
+    // -------- Frame-rate control --------
+    private TimedVelocityEstimator frameVelocity = new TimedVelocityEstimator();
 
-        if (phase != Phase.MINIGAME) trackOwnBobber();
+    /** Frame control takes over from the tick step while both tracks have a local Y to interpolate. */
+    private boolean frameControlActive() {
+        if (!frameRateControl.get() || !sessionActive || boxId == null || fishId == null) return false;
+        if (!useDefaultModel.get() && trainingMode.get()) return false; // training samples stay at tick rate
+        Track box = tracks.get(boxId), fish = tracks.get(fishId);
+        return box != null && fish != null && box.hasLocal() && fish.hasLocal();
+    }
 
-        switch (phase) {
-            case IDLE -> {
-                if (sessionActive) { phase = Phase.MINIGAME; break; }
+    private long lastFrameNanos = -1;
 
-                // If we already have a bobber out, just wait for bite
-                if (hasBobberOut()) {
-                    phase = Phase.WAIT_BITE;
-                    break;
-                }
+    /**
+     * Frames only refine the input (interpolated position, timed velocity). Each step counts for the
+     * game time since the previous frame, at most a tick, so the PD smoothing and the A/B error weigh
+     * the same at any frame rate.
+     */
+    @EventHandler
+    private void onRenderFrame(Render3DEvent event) {
+        if (!frameControlActive()) { lastFrameNanos = -1; return; }
+        Track box = tracks.get(boxId), fish = tracks.get(fishId);
+
+        long now = System.nanoTime();
+        double stepTicks = lastFrameNanos < 0 ? 1.0
+            : Math.min(1.0, (double) (now - lastFrameNanos) / TimedVelocityEstimator.TICK_NANOS);
+        lastFrameNanos = now;
+        double fishPos = fish.interpolatedLocalY(now);
+        double boxPos  = box.interpolatedLocalY(now);
+        frameVelocity.push(now, fishPos, boxPos);
+
+        double diff = INVERT_ERROR ? (boxPos - fishPos) : (fishPos - boxPos);
+        controlWithModelOrFallback(diff, frameVelocity.fishVelocity(), frameVelocity.boxVelocity(), fishPos, boxPos, stepTicks);
+    }
 
-                if (ensureRodEquipped()) {
-                    phase = Phase.CASTING;
-                    pressUseWithDelay(true); // cast
-                    lastCastTick = tick;
-                    biteArmedAtTick = tick + BITE_ARM_TICKS;   // << disarm bite detection until this tick
-                    castResolveDeadlineTick = lastCastTick + CAST_SPAWN_GRACE_TICKS + CAST_RESOLVE_DEADLINE_EXTRA_TICKS;
-                    scheduleNext(humanizeDelays.get() ? rnd(CAST_DELAY_MIN_MS, CAST_DELAY_MAX_MS) : 0);
-                    if (chatLog.get()) info("Casting fishing rod.");
-                    phase = Phase.WAIT_BITE;
-                } else {
-                    scheduleNext(750);
-                }
-            }
-            case CASTING -> {
-                // Immediately move to wait-for-bite
-                phase = Phase.WAIT_BITE;
-            }
-            case WAIT_BITE -> {
-                if (sessionActive) { phase = Phase.MINIGAME; break; }
-
-                // Always give bobber time to spawn after the cast before deciding it failed
-                if (!hasBobberOut()) {
-                    if (tick <= castResolveDeadlineTick) {
-                        // keep waiting a bit more
-                        scheduleNext(60);
-                        break;
-                    }
-                    // Past deadline: treat as failed cast and retry
-                    phase = Phase.IDLE;
-                    scheduleNext(FAIL_RETRY_DELAY_MS);
-                    break;
-                }
+    // -------- WHOLE-LOOP FSM --------
+    private TimerWheel.Timer loopTimer;
+
+    /**
+     * Puts the next FSM step on the shared wheel at the loop's next action time (the next tick when that
+     * has passed). Nothing is scheduled during the minigame: endCycle reschedules. Call after anything
+     * that moves the loop's next action.
+     */
+    private void scheduleLoopStep() {
+        if (loopTimer != null) loopTimer.cancel();
+        loopTimer = null;
+        if (!isActive() || !autoLoop.get() || loop.phase() == FishingLoop.Phase.MINIGAME) return;
+        loopTimer = Timers.WHEEL.scheduleAt("auto-fish-minigame: " + loop.phase(), loop.nextActionAtMs(), this::runLoopFsm);
+    }
 
-                if (lastCastTick > 0 && (tick - lastCastTick) >= NO_BITE_TIMEOUT_TICKS) {
-                    if (chatLog.get()) info("No bite for 60 seconds, recasting.");
-                    pressUseWithDelay(true);
-                    lastReelTick = tick;
-                    phase = Phase.REELING;
-                    scheduleNext(120);
-                    break;
-                }
+    // Re-arms a loop parked while out of game
+    @EventHandler
+    private void onGameJoined(GameJoinedEvent event) {
+        scheduleLoopStep();
+    }
 
-                boolean bite = detectBite();
-                if (bite && (tick - lastCastTick) >= BITE_MIN_TICKS_AFTER_CAST) {
-                    phase = Phase.REELING;
-                    int delay = humanizeDelays.get() ? rndSetting(reelDelayMin, reelDelayMax) : 0;
-                    scheduleNext(delay);
-                    if (chatLog.get()) info("Bite detected! Reeling in (%d ms).", delay);
-                    pressUseWithDelay(true); // reel
-                    lastReelTick = tick;
-                    scheduleNext(120); // small grace
-                } else {
-                    scheduleNext(60);
-                }
+    private void runLoopFsm() {
+        loopTimer = null;
+        if (mc.world == null || mc.player == null) return; // out of game: parked until onGameJoined
+
+        switch (loop.step(System.currentTimeMillis(), tick, sessionActive, loopWorld)) {
+            case CAST -> {
+                aimCast();
+                pressUseWithDelay(true); // cast
+                if (chatLog.get()) info("Casting fishing rod.");
+                onCycleStart();
             }
-            case REELING -> {
-                if (!sessionActive) {
-                    // If the bobber is gone we finished reeling, go back to idle and allow cooldown
-                    if (!hasBobberOut()) {
-                        phase = Phase.IDLE;
-                        scheduleNext(FAIL_RETRY_DELAY_MS);
-                    } else {
-                        // Still out -> keep waiting for bite
-                        phase = Phase.WAIT_BITE;
-                        scheduleNext(60);
-                    }
-                } else {
-                    phase = Phase.MINIGAME;
-                }
+            case REEL -> {
+                if (chatLog.get()) info("Bite detected! Reeling in (%d ms).", loop.lastReelDelayMs());
+                scheduleReel(System.nanoTime(), loop.lastReelDelayMs(), false);
+                pendingBite(bite.score());
             }
-            case MINIGAME -> { /* minigame tick handled elsewhere */ }
-            case COOLDOWN -> {
-                phase = Phase.IDLE;
+            case RECAST -> {
+                if (chatLog.get()) info("No bite for 60 seconds, recasting.");
+                pressUseWithDelay(true);
             }
+            case NONE -> {}
         }
-    }
-
-    private void scheduleNext(int ms) {
-        nextActionAtMs = System.currentTimeMillis() + Math.max(0, ms);
+        scheduleLoopStep();
     }
 
     private int rnd(int a, int b) { return (b <= a) ? a : a + rng.nextInt(b - a + 1); }
@@ -604,22 +669,176 @@ public class AutoFishMinigame extends Module {
     }
     // === end of casting fix ===
 
+    /**
+     * Runs while the loop waits out the cooldown or a retry: rod in hand and bobber tracking reset
+     * for the new bobber, so the cast itself is a single click on the first permitted step.
+     * Client thread only: packet handlers hand over with mc.execute before anything reaches the loop.
+     */
+    private void prepareNextCast() {
+        assert mc.isOnThread() : "prepareCast off the client thread";
+        if (mc.player == null) return;
+        ensureRodEquipped();
+        checkRodPool();
+        checkInventorySpace();
+        bobberId = null; bobberNetId = -1; bite.clear();
+        cachedBobber = null; cachedBobberValid = false;
+    }
+
+    // -------- Rods --------
+    private boolean rodPoolLowWarned;
+
+    /** Uses left before the rod in {@code stack} breaks, in {@link RodPool}'s encoding. */
+    private int rodUsesLeft(ItemStack stack) {
+        if (stack == null || stack.isEmpty()) return RodPool.EMPTY;
+        if (!isFishingRodItem(stack.getItem())) return RodPool.NOT_ROD;
+        if (!stack.isDamageable()) return RodPool.UNBREAKABLE;
+        return stack.getMaxDamage() - stack.getDamage();
+    }
+
+    /** The player's rods as the engine sees them: uses left per main-inventory slot, plus the off hand. */
+    private RodPool rodPool() {
+        var inv = mc.player.getInventory();
+        int[] uses = new int[inv.main.size()];
+        for (int slot = 0; slot < uses.length; slot++) uses[slot] = rodUsesLeft(inv.getStack(slot));
+        return new RodPool(uses, rodUsesLeft(mc.player.getOffHandStack()), inv.selectedSlot, rodMinUses.get());
+    }
+
+    /** A rod in hand that is not about to break; {@link RodPool#equip} picks it, this only clicks. */
     private boolean ensureRodEquipped() {
+        // Swaps and moves are slot clicks: client thread only. Not in hand yet, so the loop retries
+        if (!mc.isOnThread()) { mc.execute(this::ensureRodEquipped); return false; }
         try {
-            if (getRodHand() != null) return true; // already in hand
-
-            // search hotbar for rod and select
-            for (int slot = 0; slot < 9; slot++) {
-                Item it = mc.player.getInventory().getStack(slot).getItem();
-                if (isFishingRodItem(it)) {
-                    mc.player.getInventory().selectedSlot = slot;
+            RodPool.Step step = rodPool().equip(mc.currentScreen == null);
+            switch (step.action()) {
+                case KEEP -> { return true; }
+                case SELECT -> { InvUtils.swap(step.hotbarSlot(), false); return true; }
+                case MOVE_IN -> {
+                    InvUtils.move().from(step.from()).toHotbar(step.hotbarSlot());
+                    InvUtils.swap(step.hotbarSlot(), false);
+                    if (chatLog.get()) info("Rotated in a rod from the inventory (%s uses left).",
+                        usesText(rodUsesLeft(mc.player.getInventory().getStack(step.hotbarSlot()))));
                     return true;
                 }
+                case NONE -> { return false; }
             }
         } catch (Throwable ignored) {}
         return false;
     }
 
+    /** Warns once when the usable rods left (hand, hotbar and inventory) drop to the warning level. */
+    private void checkRodPool() {
+        if (!mc.isOnThread()) { mc.execute(this::checkRodPool); return; }
+        if (lowRodWarning.get() <= 0 || mc.player == null) return;
+        RodPool pool = rodPool();
+        boolean low = pool.low(lowRodWarning.get());
+        if (low && !rodPoolLowWarned) warning("Fishing rods running low: %d usable, %d uses left in total.", pool.usableRods(), pool.totalUses());
+        rodPoolLowWarned = low;
+    }
+
+    // -------- Inventory space --------
+    private static final int DEPOSIT_OPEN_TICKS = 10, DEPOSIT_GIVE_UP_TICKS = 30;
+    private static final long DUMP_BACKOFF_MS = 60_000;
+    private static final double DEPOSIT_REACH = 4.0;
+
+    private boolean inventoryFullWarned;
+    private long dumpBackoffUntilMs;
+    private TimerWheel.Timer depositTimer; // non-null while a deposit is running
+
+    /** The main inventory (hotbar included) as {@link InventoryDump} sees it, counted afresh on every call. */
+    private byte[] slotKinds() {
+        var inv = mc.player.getInventory();
+        List<Item> junk = dumpItems.get();
+        byte[] kinds = new byte[inv.main.size()];
+        for (int slot = 0; slot < kinds.length; slot++) {
+            ItemStack st = inv.getStack(slot);
+            if (st.isEmpty()) kinds[slot] = InventoryDump.EMPTY;
+            else if (isFishingRodItem(st.getItem())) kinds[slot] = InventoryDump.ROD;
+            else kinds[slot] = junk.contains(st.getItem()) ? InventoryDump.JUNK : InventoryDump.CATCH;
+        }
+        return kinds;
+    }
+
+    /** Between cycles: dump when the inventory is (nearly) full, and say so once if that did not help. */
+    private void checkInventorySpace() {
+        // Drops, the container click and the deposit timer need the client thread (the wheel is not thread-safe)
+        if (!mc.isOnThread()) { mc.execute(this::checkInventorySpace); return; }
+        if (depositTimer != null) return;
+        byte[] kinds = slotKinds();
+        int free = InventoryDump.freeSlots(kinds);
+        if (dumpMode.get() != DumpMode.Off && InventoryDump.due(free, dumpFreeSlots.get(), System.currentTimeMillis(), dumpBackoffUntilMs)) {
+            if (dumpMode.get() == DumpMode.Drop) dropJunk(kinds);
+            else startDeposit();
+            return;
+        }
+        boolean full = free == 0;
+        if (full && !inventoryFullWarned) warning("Inventory full: new catches are being lost.");
+        inventoryFullWarned = full;
+    }
+
+    private void dropJunk(byte[] kinds) {
+        int[] slots = InventoryDump.dropSlots(kinds);
+        for (int slot : slots) InvUtils.drop().slot(slot);
+        int dropped = slots.length;
+        if (dropped == 0) dumpBackoffUntilMs = System.currentTimeMillis() + DUMP_BACKOFF_MS; // nothing to drop
+        if (chatLog.get()) info("Inventory full: dropped %d junk stacks.", dropped);
+    }
+
+    /** Opens the nearest container in reach; the rest runs from timers while the loop holds the cast. */
+    private void startDeposit() {
+        BlockPos pos = nearestContainer();
+        if (pos == null) {
+            dumpBackoffUntilMs = System.currentTimeMillis() + DUMP_BACKOFF_MS;
+            warning("Inventory full and no container within reach to deposit into.");
+            return;
+        }
+        mc.interactionManager.interactBlock(mc.player, Hand.MAIN_HAND,
+            new BlockHitResult(Vec3d.ofCenter(pos), Direction.UP, pos, false));
+        depositTimer = Timers.WHEEL.scheduleTicks("auto-fish-minigame: deposit", DEPOSIT_OPEN_TICKS, () -> depositInto(DEPOSIT_OPEN_TICKS));
+    }
+
+    private void depositInto(int waitedTicks) {
+        depositTimer = null;
+        if (!isActive() || mc.player == null) return;
+        ScreenHandler handler = mc.player.currentScreenHandler;
+        if (handler == null || handler == mc.player.playerScreenHandler) {
+            if (waitedTicks < DEPOSIT_GIVE_UP_TICKS) {
+                depositTimer = Timers.WHEEL.scheduleTicks("auto-fish-minigame: deposit", 1, () -> depositInto(waitedTicks + 1));
+            } else {
+                dumpBackoffUntilMs = System.currentTimeMillis() + DUMP_BACKOFF_MS;
+                warning("Container did not open; not depositing for a minute.");
+            }
+            return;
+        }
+
+        // Shift-click the catch from the main inventory (not the hotbar, not rods) into the container
+        var inv = mc.player.getInventory();
+        byte[] kinds = slotKinds();
+        int moved = 0;
+        for (Slot slot : handler.slots) {
+            if (slot.inventory != inv || !InventoryDump.deposit(kinds, slot.getIndex())) continue;
+            mc.interactionManager.clickSlot(handler.syncId, slot.id, 0, SlotActionType.QUICK_MOVE, mc.player);
+            moved++;
+        }
+        mc.player.closeHandledScreen();
+        if (InventoryDump.freeSlots(slotKinds()) <= dumpFreeSlots.get()) dumpBackoffUntilMs = System.currentTimeMillis() + DUMP_BACKOFF_MS; // container full
+        if (chatLog.get()) info("Inventory full: deposited %d stacks.", moved);
+    }
+
+    private BlockPos nearestContainer() {
+        BlockPos center = mc.player.getBlockPos();
+        int r = (int) Math.ceil(DEPOSIT_REACH);
+        BlockPos best = null;
+        double bestD = DEPOSIT_REACH * DEPOSIT_REACH;
+        for (BlockPos pos : BlockPos.iterate(center.add(-r, -r, -r), center.add(r, r, r))) {
+            if (!(mc.world.getBlockEntity(pos) instanceof LootableContainerBlockEntity)) continue;
+            double d = mc.player.getEyePos().squaredDistanceTo(Vec3d.ofCenter(pos));
+            if (d <= bestD) { bestD = d; best = pos.toImmutable(); }
+        }
+        return best;
+    }
+
+    private static String usesText(int uses) { return uses == RodPool.UNBREAKABLE ? "unbreakable" : Integer.toString(uses); }
+
     private boolean isFishingRodItem(Item it) {
         if (it == null) return false;
         try { if (it == Items.FISHING_ROD) return true; } catch (Throwable ignored) {}
@@ -631,16 +850,31 @@ public class AutoFishMinigame extends Module {
     private void trackOwnBobber() {
         Entity bob = getOwnBobber();
         if (bob == null) {
-            bobberId = null; bobberYHist.clear(); bobberTickHist.clear(); return;
+            bobberId = null; bobberNetId = -1; bite.clear(); return;
         }
-        double y = bob.getY();
         bobberId = bob.getId();
-        bobberYHist.addLast(y);
-        bobberTickHist.addLast(tick);
-        while (bobberYHist.size() > 6) { bobberYHist.removeFirst(); bobberTickHist.removeFirst(); }
+        bobberNetId = bobberId;
+        bite.push(bob.getY());
+    }
+
+    // Bobber resolved at most once per client tick; the FSM asks several times. Dropped on TickEvent.Pre
+    // rather than keyed on our tick counter, which wheel timers may run before this module's onTick bumps
+    private Entity cachedBobber;
+    private boolean cachedBobberValid;
+
+    @EventHandler
+    private void onTickStart(TickEvent.Pre e) {
+        cachedBobber = null; cachedBobberValid = false;
     }
 
     private Entity getOwnBobber() {
+        if (cachedBobberValid && (cachedBobber == null || !cachedBobber.isRemoved())) return cachedBobber;
+        cachedBobber = resolveOwnBobber();
+        cachedBobberValid = true;
+        return cachedBobber;
+    }
+
+    private Entity resolveOwnBobber() {
         if (mc == null || mc.world == null || mc.player == null) return null;
 
         // Prefer the player's direct handle if available/mapped
@@ -662,7 +896,7 @@ public class AutoFishMinigame extends Module {
                 // Defensive: fall back to reflective getOwner()
                 owner = null;
                 try {
-                    Object o = invokeAny(f, "getOwner");
+                    Object o = OWNER.get(f);
                     if (o instanceof PlayerEntity p) owner = p;
                 } catch (Throwable ignored2) {}
             }
@@ -675,9 +909,8 @@ public class AutoFishMinigame extends Module {
 
         // If we already had an id, prefer it if it still exists
         if (bobberId != null && mine == null) {
-            for (Entity e : mc.world.getEntities()) {
-                if (e.getId() == bobberId && e instanceof FishingBobberEntity) return e;
-            }
+            Entity e = mc.world.getEntityById(bobberId);
+            if (e instanceof FishingBobberEntity) return e;
         }
         return mine;
     }
@@ -687,41 +920,6 @@ public class AutoFishMinigame extends Module {
         return getOwnBobber() != null;
     }
 
-    private boolean detectBite() {
-        if (tick < biteArmedAtTick) return false;        // still disarmed right after cast
-        if (bobberYHist.size() < 2) return false;
-
-        // Only ignore when clearly still in-flight. If either condition says "on/near water or calm", allow detection.
-        boolean ready = isBobberInWater() || bobberLooksSettled();
-        if (!ready) return false;
-
-        Double[] ys = bobberYHist.toArray(new Double[0]);
-        int n = ys.length;
-
-        // Downward tug
-        double vy = ys[n - 1] - ys[n - 2];
-        if (vy < BITE_VEL_DOWN_THR) return true;
-
-        // Sudden drop over a short window
-        double maxY = ys[n - 1], minY = ys[n - 1];
-        int start = Math.max(0, n - BITE_WINDOW_TICKS);
-        for (int i = start; i < n; i++) {
-            if (ys[i] > maxY) maxY = ys[i];
-            if (ys[i] < minY) minY = ys[i];
-        }
-        return (maxY - minY) > BITE_DROP_THR && ys[n - 1] < ys[n - 2];
-    }
-
-
-    /** True if the bobber reports BOBBING state, or (fallback) looks “settled” on water by velocity. */
-    /** Treat as "bobbing" when the bobber is in water and has settled (low recent vertical motion). */
-    /** Treat as "ready to bite-detect" when either in water OR looks settled (not in-flight). */
-    private boolean isBobberBobbingNow() {
-        // Loosened from (inWater && settled) -> (inWater || settled)
-        return isBobberInWater() || bobberLooksSettled();
-    }
-
-
     /** True if the bobber is in water by fluid tag or the vanilla touch check. */
     private boolean isBobberInWater() {
         Entity e = getOwnBobber();
@@ -743,23 +941,75 @@ public class AutoFishMinigame extends Module {
     }
 
 
-    /** Heuristic: last few ticks show small vertical change => in water, not in-flight. */
-    private boolean bobberLooksSettled() {
-        if (bobberYHist.size() < 4) return false;
-        double[] y = bobberYHist.stream().mapToDouble(d -> d).toArray();
-        int n = y.length;
+    // -------- Cast aim --------
+    private static final int WATER_RADIUS = 20, WATER_DOWN = 12, WATER_UP = 6;
+    private static final int WATER_RESCAN_DIST = 4;
+
+    private WaterGrid waterGrid;                      // null until the first aimed cast
+    private net.minecraft.world.World waterGridWorld;
+    private BlockPos waterGridOrigin;
+    private boolean aimMissWarned;
+
+    /**
+     * Turns towards the best water in reach just before a cast: open sky above the landing spot first
+     * (bites come slower under cover), then vanilla open water. Keeps the current aim when nothing better
+     * lands in water.
+     */
+    private void aimCast() {
+        if (!aimCasts.get()) return;
+        try {
+            var p = mc.player;
+            WaterGrid grid = waterGrid();
+            CastPlanner.Plan plan = CastPlanner.plan(grid, p.getX(), p.getEyeY(), p.getZ(), p.getYaw(), p.getPitch(),
+                aimRange.get().floatValue(), (x, y, z) -> mc.world.isSkyVisible(new BlockPos(x, y + 1, z)));
+            if (plan == null) {
+                if (!aimMissWarned) warning("No water in reach to aim at; casting where you look.");
+                aimMissWarned = true;
+                return;
+            }
+            aimMissWarned = false;
+            if (plan.yaw() == p.getYaw() && plan.pitch() == p.getPitch()) return;
+            p.setYaw(plan.yaw());
+            p.setPitch(plan.pitch());
+            if (chatLog.get()) info("%s", String.format(Locale.ROOT, "Aiming at %s water at %d, %d, %d (yaw %.1f, pitch %.1f).",
+                plan.openWater() ? "open" : "enclosed", plan.x(), plan.y(), plan.z(), plan.yaw(), plan.pitch()));
+        } catch (Throwable ignored) {}
+    }
 
-        // small absolute velocities over last 3 steps
-        double v1 = Math.abs(y[n-1] - y[n-2]);
-        double v2 = Math.abs(y[n-2] - y[n-3]);
-        double v3 = Math.abs(y[n-3] - y[n-4]);
+    /** The water around the player, scanned once and rescanned only after a move or a world change. */
+    private WaterGrid waterGrid() {
+        BlockPos at = mc.player.getBlockPos();
+        if (waterGrid != null && waterGridWorld == mc.world
+            && at.getManhattanDistance(waterGridOrigin) <= WATER_RESCAN_DIST) return waterGrid;
+
+        WaterGrid grid = new WaterGrid(at.getX(), at.getY(), at.getZ(), WATER_RADIUS, WATER_DOWN, WATER_UP);
+        BlockPos.Mutable pos = new BlockPos.Mutable();
+        for (int y = grid.minY(); y <= grid.maxY(); y++) {
+            for (int z = grid.minZ(); z <= grid.maxZ(); z++) {
+                for (int x = grid.minX(); x <= grid.maxX(); x++) {
+                    pos.set(x, y, z);
+                    setWaterCell(grid, pos, mc.world.getBlockState(pos));
+                }
+            }
+        }
+        waterGrid = grid;
+        waterGridWorld = mc.world;
+        waterGridOrigin = at;
+        return grid;
+    }
 
-        // and low short-window range (not plummeting)
-        double min = Math.min(Math.min(y[n-1], y[n-2]), Math.min(y[n-3], y[n-4]));
-        double max = Math.max(Math.max(y[n-1], y[n-2]), Math.max(y[n-3], y[n-4]));
-        double range = max - min;
+    private void setWaterCell(WaterGrid grid, BlockPos pos, BlockState state) {
+        FluidState fluid = state.getFluidState();
+        boolean water = fluid.isIn(FluidTags.WATER) && fluid.isStill() && state.getCollisionShape(mc.world, pos).isEmpty();
+        boolean air = state.isAir() || state.isOf(Blocks.LILY_PAD);
+        grid.set(pos.getX(), pos.getY(), pos.getZ(), water, air);
+    }
 
-        return v1 < 0.06 && v2 < 0.06 && v3 < 0.06 && range < 0.12;
+    /** Keeps the scanned grid current cell by cell instead of rescanning. */
+    @EventHandler
+    private void onBlockUpdate(BlockUpdateEvent e) {
+        if (waterGrid == null || waterGridWorld != mc.world) return;
+        try { setWaterCell(waterGrid, e.pos, e.newState); } catch (Throwable ignored) {}
     }
 
     // -------- 3D RENDERING --------
@@ -798,38 +1048,165 @@ public class AutoFishMinigame extends Module {
     }
 
     // -------- PACKETS (fallback action-bar & sound hook) --------
+    /** Per packet class: the handler for the packets we care about, or {@link #IGNORE_PACKET}. */
+    private final ClassValue<PacketHandler> packetHandlers = new ClassValue<>() {
+        @Override protected PacketHandler computeValue(Class<?> type) { return resolvePacketHandler(type); }
+    };
+
+    @FunctionalInterface
+    private interface PacketHandler { void handle(Object packet) throws Throwable; }
+
+    private static final PacketHandler IGNORE_PACKET = p -> {};
+
+    private static final Accessor SOUND        = Accessor.of("getSound", "getEvent", "getSoundEvent");
+    private static final Accessor SOUND_VALUE  = Accessor.of("value", "getValue");
+    private static final Accessor ID           = Accessor.of("getId");
+    private static final Accessor MESSAGE      = Accessor.of("content", "getContent", "text", "getText", "message", "getMessage");
+    private static final Accessor IS_OVERLAY   = Accessor.of("isOverlay", "overlay");
+    private static final Accessor TITLE        = Accessor.of("text", "getText", "content", "getContent", "title");
+    private static final Accessor HUD_OVERLAY  = Accessor.of("getOverlayMessage", "overlayMessage");
+    private static final Accessor OWNER        = Accessor.of("getOwner");
+    private static final Accessor ENTITY_ID    = Accessor.of("getEntityId", "getId", "entityId");
+    private static final Accessor VELOCITY_Y   = Accessor.of("getVelocityY", "velocityY");
+    private static final Accessor SOUND_X      = Accessor.of("getX", "x");
+    private static final Accessor SOUND_Y      = Accessor.of("getY", "y");
+    private static final Accessor SOUND_Z      = Accessor.of("getZ", "z");
+
     @EventHandler
     private void onPacket(PacketEvent.Receive e) {
-        try {
-            String cls = e.packet.getClass().getSimpleName();
-            if (cls.contains("PlaySound")) {
-                Object sound = invokeAny(e.packet, "getSound", "getEvent", "getSoundEvent");
-                String sid = null;
-                if (sound != null) {
-                    Object value = invokeAny(sound, "value", "getValue");
-                    Object id = value != null ? invokeAny(value, "getId") : invokeAny(sound, "getId");
-                    if (id != null) sid = id.toString().toLowerCase(Locale.ROOT);
-                    else sid = sound.toString().toLowerCase(Locale.ROOT);
-                }
-                if (sid != null && sid.contains("fishing") && sid.contains("splash")) {
-                    if (phase == Phase.WAIT_BITE
-                        && tick >= biteArmedAtTick
-                        && (tick - lastCastTick) >= BITE_MIN_TICKS_AFTER_CAST)  // keep this
-                    {
-                        int delay = humanizeDelays.get() ? rndSetting(reelDelayMin, reelDelayMax) : 0;
-                        scheduleNext(delay);
-                        pressUseWithDelay(true);    // reel now (we log the humanized "intent")
-                        lastReelTick = tick;
-                        if (chatLog.get()) info("Splash sound -> reeling (%d ms).", delay);
-                        phase = Phase.REELING;
-                    }
-                }
+        PacketHandler h = packetHandlers.get(e.packet.getClass());
+        if (h == IGNORE_PACKET) return;
+        try { h.handle(e.packet); } catch (Throwable ignored) {}
+    }
+
+    /** Runs once per packet class; name matching and getter lookup happen here, not per packet. */
+    private PacketHandler resolvePacketHandler(Class<?> type) {
+        String name = type.getSimpleName();
+        if (name.contains("PlaySound")) {
+            return SOUND.resolves(type) ? this::onSoundPacket : IGNORE_PACKET;
+        }
+        if (name.equals("EntityVelocityUpdateS2CPacket")) {
+            return ENTITY_ID.resolves(type) && VELOCITY_Y.resolves(type) ? this::onVelocityPacket : IGNORE_PACKET;
+        }
+        if (name.equals("OverlayMessageS2CPacket")) {
+            return MESSAGE.resolves(type) ? p -> onOverlayPacket(MESSAGE.get(p)) : IGNORE_PACKET;
+        }
+        if (name.equals("GameMessageS2CPacket")) {
+            if (!IS_OVERLAY.resolves(type) || !MESSAGE.resolves(type)) return IGNORE_PACKET;
+            return p -> { if (Boolean.TRUE.equals(IS_OVERLAY.get(p))) onOverlayPacket(MESSAGE.get(p)); };
+        }
+        if (name.equals("TitleS2CPacket")) {
+            return TITLE.resolves(type) ? p -> onOverlayPacket(TITLE.get(p)) : IGNORE_PACKET;
+        }
+        return IGNORE_PACKET;
+    }
 
+    private void onSoundPacket(Object packet) {
+        Object sound = SOUND.get(packet);
+        if (sound == null || bobberNetId < 0) return; // no bobber out: not ours whatever it is
+        Object value = SOUND_VALUE.get(sound);
+        Object id = ID.get(value != null ? value : sound);
+        String sid = (id != null ? id.toString() : sound.toString()).toLowerCase(Locale.ROOT);
+        if (!sid.contains("fishing") || !sid.contains("splash")) return;
+
+        if (SOUND_X.get(packet) instanceof Number x && SOUND_Y.get(packet) instanceof Number y
+            && SOUND_Z.get(packet) instanceof Number z) {
+            onNetworkBite("Splash sound", x.doubleValue(), y.doubleValue(), z.doubleValue());
+        } else {
+            onNetworkBite("Splash sound"); // no position to check
+        }
+    }
 
+    private void onVelocityPacket(Object packet) {
+        int bob = bobberNetId;
+        if (bob < 0 || !velocityBite.get()) return;
+        if (!(ENTITY_ID.get(packet) instanceof Integer id) || id != bob) return;
+        if (VELOCITY_Y.get(packet) instanceof Number vy && vy.doubleValue() < BiteDetector.BITE_PACKET_VY_THR) {
+            onNetworkBite("Bobber yanked");
+        }
+    }
+
+    // -------- Bite → reel scheduling --------
+    private static final ScheduledExecutorService REEL_TIMER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "autofish-reel-timer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Per-cycle stats writes, so neither the client nor the network thread waits on the disk
+    private static final ExecutorService DISK_IO = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "autofish-stats-io");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private volatile int bobberNetId = -1;                      // bobberId for the network thread
+    private final AtomicLong reelGeneration = new AtomicLong(); // bumping it cancels a pending reel
+
+    // Splash sounds checked against our bobber's position (client thread only)
+    private long splashesAccepted, splashesRejected;
+
+    private void onNetworkBite(String cause) { onNetworkBite(cause, Double.NaN, 0, 0); }
+
+    /**
+     * Network thread. The loop accepts the bite on the client thread; the delay still counts from now.
+     * With a position ({@code x} not NaN), the bite only counts within splash-tolerance of our bobber,
+     * so other players' splashes nearby do not reel us in.
+     */
+    private void onNetworkBite(String cause, double x, double y, double z) {
+        long detectedAt = System.nanoTime();
+        mc.execute(() -> {
+            if (!isActive()) return;
+            if (!Double.isNaN(x) && !splashNearBobber(x, y, z)) {
+                splashesRejected++;
+                return;
             }
-        } catch (Throwable ignored) {}
+            if (!loop.onSplash(System.currentTimeMillis(), tick, loopWorld)) return;
+            scheduleLoopStep();
+            if (!Double.isNaN(x)) splashesAccepted++;
+            // The detector had not fired yet: what it saw so far was bobbing
+            if (bite.armed()) addBiteSample(bite.peak(), false);
+            scheduleReel(detectedAt, loop.lastReelDelayMs(), true);
+            if (chatLog.get()) info("%s -> reeling (%d ms).", cause, loop.lastReelDelayMs());
+        });
+    }
+
+    private boolean splashNearBobber(double x, double y, double z) {
+        Entity bob = getOwnBobber();
+        if (bob == null) return false;
+        double tol = splashTolerance.get();
+        return bob.squaredDistanceTo(x, y, z) <= tol * tol;
+    }
+
+    /**
+     * Reels on the client thread {@code delayMs} after {@code fromNanos}, unless cancelled meanwhile.
+     * With {@code labelAtReel} the bite detector's score at that moment is kept for calibration.
+     */
+    private void scheduleReel(long fromNanos, int delayMs, boolean labelAtReel) {
+        long gen = reelGeneration.incrementAndGet();
+        Runnable reel = () -> mc.execute(() -> {
+            if (gen != reelGeneration.get() || !isActive()) return;
+            if (labelAtReel && bite.armed()) pendingBite(bite.score());
+            pressUseWithDelay(true);
+        });
+        long waitNanos = fromNanos + TimeUnit.MILLISECONDS.toNanos(delayMs) - System.nanoTime();
+        if (waitNanos <= 0) reel.run();
+        else REEL_TIMER.schedule(reel, waitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Network thread. Ending the cycle reschedules the loop on the shared wheel and starts the next
+     * cast's preparation (rods, inventory), so the whole overlay is handled on the client thread.
+     */
+    private void onOverlayPacket(Object content) {
+        mc.execute(() -> {
+            if (isActive()) onOverlayText(content);
+        });
+    }
 
-        String overlay = tryExtractActionBar(e.packet);
+    private void onOverlayText(Object content) {
+        if (!(content instanceof Text text)) return;
+        String overlay = text.getString();
         if (overlay == null || overlay.isEmpty()) return;
 
         if (!overlay.equals(lastOverlaySeen)) {
@@ -837,40 +1214,18 @@ public class AutoFishMinigame extends Module {
             String low = overlay.toLowerCase(Locale.ROOT);
             if (low.contains("caught") || low.contains("failed")) {
                 if (chatLog.get()) info("Overlay: " + overlay);
+                recordAbOutcome(low.contains("caught"));
+                cycleCaught |= low.contains("caught");
                 stopCycle();
             }
         }
     }
 
-    private String tryExtractActionBar(Object packet) {
-        if (packet == null) return null;
-        String name = packet.getClass().getSimpleName();
-        try {
-            if (name.equals("OverlayMessageS2CPacket")) {
-                Text content = (Text) invokeAny(packet, "content","getContent","text","getText","message","getMessage");
-                return content != null ? content.getString() : null;
-            }
-            if (name.equals("GameMessageS2CPacket")) {
-                Boolean overlay = (Boolean) invokeAny(packet, "isOverlay","overlay");
-                if (overlay != null && overlay) {
-                    Text content = (Text) invokeAny(packet, "content","getContent","text","getText","message","getMessage");
-                    return content != null ? content.getString() : null;
-                }
-                return null;
-            }
-            if (name.equals("TitleS2CPacket")) {
-                Text content = (Text) invokeAny(packet, "text","getText","content","getContent","title");
-                return content != null ? content.getString() : null;
-            }
-        } catch (Throwable ignored) {}
-        return null;
-    }
-
     private void pollActionBarFromHud() {
         try {
             InGameHud hud = mc.inGameHud;
             if (hud == null) return;
-            Text t = (Text) invokeAny(hud, "getOverlayMessage", "overlayMessage");
+            Text t = (Text) HUD_OVERLAY.get(hud);
             if (t == null) return;
             String s = t.getString();
             if (s == null || s.isEmpty()) return;
@@ -880,6 +1235,8 @@ public class AutoFishMinigame extends Module {
                 String low = s.toLowerCase(Locale.ROOT);
                 if (low.contains("caught") || low.contains("failed")) {
                     if (chatLog.get()) info("Overlay(HUD): " + s);
+                    recordAbOutcome(low.contains("caught"));
+                    cycleCaught |= low.contains("caught");
                     stopCycle();
                 }
             }
@@ -888,51 +1245,15 @@ public class AutoFishMinigame extends Module {
 
     // -------- classify helpers --------
     private void fastClassify() {
-        List<Track> live = new ArrayList<>(tracks.values());
-        if (live.size() < 4) return;
-
-        int earliest = live.stream().mapToInt(t -> t.firstSeenTick).min().orElse(tick);
-        int observed = tick - earliest;
-        if (observed < CLASSIFY_MIN) return;
-
-        live.sort(Comparator.comparingDouble(t -> t.minWorldY));
-
-        List<Track> fishAndBoxCandidates = new ArrayList<>();
-        if (live.size() >= 4) {
-            fishAndBoxCandidates.add(live.get(0));
-            fishAndBoxCandidates.add(live.get(1));
-        } else if (live.size() >= 2) {
-            fishAndBoxCandidates.addAll(live);
-        }
-
-        if (fishAndBoxCandidates.size() < 2) return;
-
-        Track candFish = null;
-        Track candBox = null;
-
-        for (Track candidate : fishAndBoxCandidates) {
-            boolean hasMovement = candidate.hasLocal()
-                ? candidate.localRange() >= FISH_MOVE_LOCAL_RANGE
-                : candidate.worldRange() >= FISH_MOVE_WORLD_RANGE;
-
-            if (hasMovement && candFish == null) candFish = candidate;
-            else if (!hasMovement && candBox == null) candBox = candidate;
-        }
-
-        if (candFish == null || candBox == null) {
-            fishAndBoxCandidates.sort(Comparator.comparingDouble(Track::effectiveRange));
-            candBox = fishAndBoxCandidates.get(0);
-            candFish = fishAndBoxCandidates.get(1);
-        }
-
-        if (candBox != null && candFish != null && candBox.id != candFish.id) {
-            boxId = candBox.id;
-            fishId = candFish.id;
-            if (chatLog.get()) info("%s", String.format(Locale.ROOT,
-                "Classified: BOX id=%d Y=%.3f range=%.3f | FISH id=%d Y=%.3f range=%.3f | (obs=%d)",
-                boxId, candBox.minWorldY, candBox.effectiveRange(),
-                fishId, candFish.minWorldY, candFish.effectiveRange(), observed));
-        }
+        MinigameClassifier.Result r = MinigameClassifier.classify(tracks.values(), tick);
+        if (r == null) return;
+
+        boxId = r.box().id;
+        fishId = r.fish().id;
+        if (chatLog.get()) info("%s", String.format(Locale.ROOT,
+            "Classified: BOX id=%d Y=%.3f range=%.3f | FISH id=%d Y=%.3f range=%.3f | (obs=%d)",
+            boxId, r.box().minWorldY, r.box().effectiveRange(),
+            fishId, r.fish().minWorldY, r.fish().effectiveRange(), r.observed()));
     }
 
     private List<Track> recent(int window) {
@@ -943,51 +1264,22 @@ public class AutoFishMinigame extends Module {
 
     private void stopCycle() {
         if (chatLog.get()) info("Cycle end.");
+        endAbSession();
         releaseSneak(true);
         sessionActive = false;
         boxId = fishId = null;
         tracks.clear();
 
-        fishPositionHistory.clear();
-        boxPositionHistory.clear();
-        tickHistory.clear();
-        smoothedError = 0.0;
+        velocity.clear();
+        frameVelocity.clear();
+        pd = new PdController(params);
         lastFishVelocity = 0.0;
         lastBoxVelocity = 0.0;
 
-        phase = autoLoop.get() ? Phase.COOLDOWN : Phase.IDLE;
-        if (autoLoop.get()) {
-            int cd = humanizeDelays.get() ? rndSetting(recastCooldownMin, recastCooldownMax) : 0;
-            scheduleNext(cd);
-            if (chatLog.get()) info("Cooldown %d ms before next cast.", cd);
-        }
-    }
-
-    private void updatePositionHistory(double fishPos, double boxPos) {
-        fishPositionHistory.addLast(fishPos);
-        boxPositionHistory.addLast(boxPos);
-        tickHistory.addLast(tick);
-
-        int maxSize = HISTORY_SIZE;
-        while (fishPositionHistory.size() > maxSize) {
-            fishPositionHistory.removeFirst();
-            boxPositionHistory.removeFirst();
-            tickHistory.removeFirst();
-        }
-    }
-
-    private double calculateVelocity(LinkedList<Double> positionHistory) {
-        if (positionHistory.size() < 2) return 0.0;
-        int n = positionHistory.size();
-        double sumX = 0, sumY = 0, sumXY = 0, sumX2 = 0;
-        for (int i = 0; i < n; i++) {
-            double x = i;
-            double y = positionHistory.get(i);
-            sumX += x; sumY += y; sumXY += x * y; sumX2 += x * x;
-        }
-        double denominator = n * sumX2 - sumX * sumX;
-        if (Math.abs(denominator) < 1e-10) return 0.0;
-        return (n * sumXY - sumX * sumY) / denominator;
+        int cd = autoLoop.get() && humanizeDelays.get() ? tuned(rndSetting(recastCooldownMin, recastCooldownMax), floorCooldown) : 0;
+        loop.endCycle(System.currentTimeMillis(), autoLoop.get(), cd, loopWorld);
+        scheduleLoopStep();
+        if (autoLoop.get() && chatLog.get()) info("Cooldown %d ms before next cast.", cd);
     }
 
     // -------- Sneak I/O --------
@@ -1041,67 +1333,6 @@ public class AutoFishMinigame extends Module {
         } catch (Throwable ignored) {}
     }
 
-    // -------- Local Y from DataTracker --------
-    private Double getLocalYFromDataTracker(DisplayEntity display) {
-        try {
-            Object dt = display.getDataTracker();
-            if (dt == null) return null;
-
-            Object entries = invokeAny(dt, "getAllEntries", "getEntries", "entries");
-            if (entries instanceof Iterable<?>) {
-                for (Object entry : (Iterable<?>) entries) {
-                    Object value = invokeAny(entry, "getValue", "value");
-                    Double y = extractLocalYFromTransform(value);
-                    if (y != null) return y;
-                }
-            }
-        } catch (Throwable ignored) {}
-        try {
-            Object transform = invokeAny(display, "getTransformation", "transformation");
-            Double y = extractLocalYFromTransform(transform);
-            if (y != null) return y;
-        } catch (Throwable ignored) {}
-        return null;
-    }
-
-    private Double extractLocalYFromTransform(Object transform) {
-        if (transform == null) return null;
-        Double yDirect = readYComponent(transform);
-        if (yDirect != null) return yDirect;
-        Object vec = invokeAny(transform, "getTranslation", "translation", "getPosition", "position");
-        return readYComponent(vec);
-    }
-
-    private Double readYComponent(Object o) {
-        if (o == null) return null;
-        try {
-            Object r = invokeAny(o, "y", "getY", "component1");
-            if (r instanceof Number) return ((Number) r).doubleValue();
-        } catch (Throwable ignored) {}
-        try {
-            Field f = o.getClass().getField("y");
-            Object v = f.get(o);
-            if (v instanceof Number) return ((Number) v).doubleValue();
-        } catch (Throwable ignored) {}
-        try {
-            Method m = o.getClass().getMethod("get", int.class);
-            Object v = m.invoke(o, 1);
-            if (v instanceof Number) return ((Number) v).doubleValue();
-        } catch (Throwable ignored) {}
-        return null;
-    }
-
-    private Object invokeAny(Object target, String... names) {
-        for (String n : names) {
-            try {
-                Method m = target.getClass().getMethod(n);
-                m.setAccessible(true);
-                return m.invoke(target);
-            } catch (Throwable ignored) {}
-        }
-        return null;
-    }
-
     // -------- Training Mode Methods --------
     private void collectTrainingData(double diff, double fishVel, double boxVel) {
         int shiftState = 0;
@@ -1110,7 +1341,7 @@ public class AutoFishMinigame extends Module {
         } catch (Throwable ignored) {
             if (mc.player != null && mc.player.isSneaking()) shiftState = 1;
         }
-        trainingData.add(new TrainingDataPoint(diff, fishVel, boxVel, shiftState));
+        trainingData.add(new TrainingSample(diff, fishVel, boxVel, shiftState));
 
         if (trainingData.size() % 50 == 0 && tick > lastTrainingLogTick + 10) {
             lastTrainingLogTick = tick;
@@ -1129,21 +1360,17 @@ public class AutoFishMinigame extends Module {
             return;
         }
 
-        if (trainingData.size() < 10) {
-            if (chatLog.get()) info("Insufficient training data (need at least 10 samples, have " + trainingData.size() + ").");
+        if (trainingData.size() < ModelTrainer.MIN_SAMPLES) {
+            if (chatLog.get()) info("Insufficient training data (need at least " + ModelTrainer.MIN_SAMPLES + " samples, have " + trainingData.size() + ").");
             return;
         }
 
         try {
-            TrainedModel logisticModel = trainLogisticRegression();
-            if (logisticModel != null && logisticModel.getAccuracy() > 0.6) {
-                currentModel = logisticModel;
-            } else {
-                currentModel = trainDecisionTree();
-            }
+            currentModel = ModelTrainer.train(trainingData);
 
             saveModelToDisk();
             saveTrainingDataToCsv();
+            registerTrainedModel();
 
             if (chatLog.get()) {
                 info("%s", String.format(Locale.ROOT, "Training complete: %d rows, model type=%s, accuracy=%.1f pct",
@@ -1156,125 +1383,267 @@ public class AutoFishMinigame extends Module {
         }
     }
 
-    private TrainedModel trainLogisticRegression() {
-        double[] weights = {0.0, 0.0, 0.0}; // diff, fishVel, boxVel
-        double bias = 0.0;
-        double learningRate = 0.01;
-        int epochs = 100;
+    /** {@code stepTicks}: game time this step stands for, 1 from the tick loop and less per frame. */
+    private void controlWithModelOrFallback(double diff, double fishVel, double boxVel, double fishPos, double boxPos, double stepTicks) {
+        if (abEntry != null) { abErrorSum += Math.abs(diff) * stepTicks; abErrorTicks += stepTicks; }
+        long now = System.currentTimeMillis();
+        if (now < delayUntilMs) return;
 
-        double[] diffValues = trainingData.stream().mapToDouble(d -> d.diff).toArray();
-        double[] fishVelValues = trainingData.stream().mapToDouble(d -> d.fishVel).toArray();
-        double[] boxVelValues  = trainingData.stream().mapToDouble(d -> d.boxVel).toArray();
+        pd.setStepTicks(stepTicks);
+        SneakController controller;
+        if (currentModel != null) {
+            controller = currentModel;
+            if (sessionStartTick == tick - 1 && chatLog.get()) info("Using trained model to control box.");
+        } else {
+            controller = pd;
+            if (sessionStartTick == tick - 1 && chatLog.get()) info("No trained model available, falling back to PD controller.");
+        }
+        boolean shouldSneak = controller.shouldSneak(diff, fishVel, boxVel, sneakDown, tick - lastPressTick, tick - lastReleaseTick);
 
-        double diffMean = Arrays.stream(diffValues).average().orElse(0.0);
-        double fishVelMean = Arrays.stream(fishVelValues).average().orElse(0.0);
-        double boxVelMean  = Arrays.stream(boxVelValues).average().orElse(0.0);
+        if (shouldSneak && !sneakDown) {
+            pressSneak();
+            delayUntilMs = now + rng.nextInt(Math.max(1, params.jitterMs()));
+        } else if (!shouldSneak && sneakDown) {
+            releaseSneak(false);
+            delayUntilMs = now + rng.nextInt(Math.max(1, params.jitterMs()));
+        }
+    }
 
-        double diffStd = Math.sqrt(Arrays.stream(diffValues).map(x -> (x - diffMean) * (x - diffMean)).average().orElse(1.0));
-        double fishVelStd = Math.sqrt(Arrays.stream(fishVelValues).map(x -> (x - fishVelMean) * (x - fishVelMean)).average().orElse(1.0));
-        double boxVelStd  = Math.sqrt(Arrays.stream(boxVelValues).map(x -> (x - boxVelMean) * (x - boxVelMean)).average().orElse(1.0));
+    // -------- A/B evaluation --------
+    private void loadRegistry() {
+        registry = new ModelRegistry(getConfigDir().resolve("models"), DEFAULT_MODEL);
+        try {
+            // A model trained before the registry existed joins it once, as a file of its own. Not re-read
+            // later: retraining overwrites the legacy file and registers the new weights under a new name
+            Path legacy = getModelFile();
+            Path dir = registry.getDir();
+            if (Files.exists(legacy) && !hasRegisteredModels(dir)) {
+                Files.createDirectories(dir);
+                Files.copy(legacy, dir.resolve("trained.json"));
+            }
+            registry.load();
+        } catch (Exception e) {
+            if (chatLog.get()) info("Failed to load model registry: " + e.getMessage());
+        }
+        if (abTest.get() && chatLog.get()) info("A/B mode: %d models registered.", registry.size());
+    }
 
-        if (diffStd < 1e-6) diffStd = 1.0;
-        if (fishVelStd < 1e-6) fishVelStd = 1.0;
-        if (boxVelStd  < 1e-6) boxVelStd  = 1.0;
+    private static boolean hasRegisteredModels(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) return false;
+        try (var files = Files.newDirectoryStream(dir, "*.json")) {
+            return files.iterator().hasNext();
+        }
+    }
 
-        for (int epoch = 0; epoch < epochs; epoch++) {
-            for (TrainingDataPoint point : trainingData) {
-                double normDiff    = (point.diff    - diffMean)    / diffStd;
-                double normFishVel = (point.fishVel - fishVelMean) / fishVelStd;
-                double normBoxVel  = (point.boxVel  - boxVelMean)  / boxVelStd;
+    private void registerTrainedModel() {
+        if (registry == null || currentModel == null) return;
+        String name = "trained-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss", Locale.ROOT));
+        try {
+            registry.register(name, currentModel, trainingData.size());
+            if (chatLog.get()) info("Registered model '%s' for A/B evaluation.", name);
+        } catch (Exception e) {
+            if (chatLog.get()) info("Failed to register model: " + e.getMessage());
+        }
+    }
 
-                double z = bias + weights[0]*normDiff + weights[1]*normFishVel + weights[2]*normBoxVel;
-                double prediction = 1.0 / (1.0 + Math.exp(-z));
-                double error = prediction - point.shiftState;
+    private void beginAbSession() {
+        if (!abTest.get() || registry == null || trainingMode.get()) return;
+        abEntry = registry.select(rng);
+        if (abEntry == null) return;
+        modelBeforeAb = currentModel;
+        currentModel = abEntry.model;
+        abErrorSum = 0.0;
+        abErrorTicks = 0.0;
+        if (chatLog.get()) info("%s", String.format(Locale.ROOT, "A/B: session -> '%s' (%d/%d caught so far)",
+            abEntry.name, abEntry.caught(), abEntry.sessions()));
+    }
 
-                bias       -= learningRate * error;
-                weights[0] -= learningRate * error * normDiff;
-                weights[1] -= learningRate * error * normFishVel;
-                weights[2] -= learningRate * error * normBoxVel;
-            }
+    private void recordAbOutcome(boolean caught) {
+        if (abEntry == null) return;
+        double avgErr = abErrorTicks == 0 ? 0.0 : abErrorSum / abErrorTicks;
+        registry.record(abEntry.name, caught, avgErr);
+        saveAbStats();
+        if (chatLog.get()) {
+            ModelRegistry.Entry best = registry.best();
+            info("%s", String.format(Locale.ROOT, "A/B: '%s' %s (rate=%.1f pct, avgErr=%.3f) | leader '%s' %.1f pct over %d",
+                abEntry.name, caught ? "caught" : "failed", abEntry.catchRate() * 100, avgErr,
+                best.name, best.catchRate() * 100, best.sessions()));
         }
+        endAbSession();
+    }
 
-        int correct = 0;
-        for (TrainingDataPoint point : trainingData) {
-            double normDiff    = (point.diff    - diffMean)    / diffStd;
-            double normFishVel = (point.fishVel - fishVelMean) / fishVelStd;
-            double normBoxVel  = (point.boxVel  - boxVelMean)  / boxVelStd;
+    /** Client thread: snapshots the stats here and leaves the file write to the disk thread. */
+    private void saveAbStats() {
+        ModelRegistry reg = registry;
+        String csv = reg.statsCsv();
+        DISK_IO.execute(() -> {
+            try { reg.writeStats(csv); } catch (Exception e) {
+                mc.execute(() -> { if (chatLog.get()) info("Failed to save A/B stats: " + e.getMessage()); });
+            }
+        });
+    }
 
-            double z = bias + weights[0]*normDiff + weights[1]*normFishVel + weights[2]*normBoxVel;
-            boolean prediction = (1.0 / (1.0 + Math.exp(-z))) > 0.5;
-            if ((prediction ? 1 : 0) == point.shiftState) correct++;
-        }
+    /** Ends the current A/B assignment without recording (e.g. the session vanished without an overlay). */
+    private void endAbSession() {
+        if (abEntry == null) return;
+        abEntry = null;
+        currentModel = modelBeforeAb;
+        modelBeforeAb = null;
+    }
+
+    // ====== Storage helpers ======
+    private Path getConfigDir() {
+        return FabricLoader.getInstance().getGameDir().resolve("config").resolve("autofish");
+    }
+    private Path getModelFile() { return getConfigDir().resolve("auto_fish_model.json"); }
+    private Path getCsvFile()   { return getConfigDir().resolve("auto_fish_training_data.csv"); }
+    private Path getParamsFile() { return getConfigDir().resolve("controller_params.json"); }
 
-        double accuracy = (double) correct / trainingData.size();
+    // -------- Bite calibration (per server) --------
+    private void pendingBite(double score) {
+        pendingBiteScore = score;
+        pendingBiteTick = tick;
+    }
+
+    /** Files the pending reel's score as a bite or a miss and re-tunes the detector. */
+    private void labelPendingBite(boolean confirmed) {
+        if (Double.isNaN(pendingBiteScore)) return;
+        double score = pendingBiteScore;
+        pendingBiteScore = Double.NaN;
+        addBiteSample(score, confirmed);
+    }
 
-        double[] finalWeights = {
-            weights[0] / diffStd,
-            weights[1] / fishVelStd,
-            weights[2] / boxVelStd
-        };
-        double finalBias = bias - weights[0] * diffMean / diffStd - weights[1] * fishVelMean / fishVelStd - weights[2] * boxVelMean / boxVelStd;
+    /** Every bite or miss goes through here, so it is saved with the calibration and re-tunes the detector. */
+    private void addBiteSample(double score, boolean bit) {
+        if (bit) biteCal.addBite(score);
+        else biteCal.addMiss(score);
+        biteCalDirty = true;
 
-        return new LogisticRegressionModel(finalWeights, finalBias, accuracy);
+        if (learnBite.get() && biteCal.calibrate()) {
+            bite.setThresholds(biteCal.thresholds());
+            if (chatLog.get()) info("Bite threshold tuned to %.3f (%d bites, %d misses).",
+                biteCal.thresholds().threshold(), biteCal.bites(), biteCal.misses());
+        }
     }
 
-    private TrainedModel trainDecisionTree() {
-        double bestDiffThreshold = 0.0;
-        double bestFishVelThreshold = 0.0;
-        double bestAccuracy = 0.0;
+    /** File-name-safe key for the server we are on, for per-server state. */
+    private String serverKey() {
+        var server = mc.getCurrentServerEntry();
+        String key = server != null ? server.address : "singleplayer";
+        return key.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9._-]", "_");
+    }
 
-        double[] diffCandidates = trainingData.stream().mapToDouble(d -> d.diff).distinct().sorted().toArray();
-        double[] fishVelCandidates = trainingData.stream().mapToDouble(d -> d.fishVel).distinct().sorted().toArray();
+    private Path getBiteCalFile() { return getConfigDir().resolve("bite").resolve(serverKey() + ".json"); }
 
-        for (double diffThresh : diffCandidates) {
-            for (double fishVelThresh : fishVelCandidates) {
-                int correct = 0;
-                for (TrainingDataPoint point : trainingData) {
-                    boolean prediction = point.diff > diffThresh && point.fishVel > fishVelThresh;
-                    if ((prediction ? 1 : 0) == point.shiftState) correct++;
-                }
-                double accuracy = (double) correct / trainingData.size();
-                if (accuracy > bestAccuracy) {
-                    bestAccuracy = accuracy;
-                    bestDiffThreshold = diffThresh;
-                    bestFishVelThreshold = fishVelThresh;
-                }
+    // -------- Cycle timing (per server) --------
+    private CycleOptimizer cycleOpt = new CycleOptimizer();
+    private CycleOptimizer.Arm cycleArm = CycleOptimizer.BASELINE;
+    private Path cycleStatsFile;
+    private boolean cycleCaught, cycleStatsDirty;
+
+    /** Scales a humanised delay by the current timing, never below {@code floor}. */
+    private int tuned(int ms, Setting<Integer> floor) {
+        if (!optimiseCycle.get()) return ms;
+        return Math.max(Math.min(ms, floor.get()), (int) Math.round(ms * cycleArm.delayScale()));
+    }
+
+    /** A cast closed the previous cycle: score it against its timing and pick the next one. */
+    private void onCycleStart() {
+        long cycleMs = loop.lastCycleMs();
+        if (cycleMs > 0) {
+            if (optimiseCycle.get()) {
+                cycleOpt.record(cycleArm, cycleMs, cycleCaught);
+                cycleStatsDirty = true;
             }
+            if (chatLog.get()) info("%s", String.format(Locale.ROOT,
+                "Cycle %.1f s (%s): wait %.1f s, reel %.1f s, minigame %.1f s, cooldown %.1f s [x%s].",
+                cycleMs / 1000.0, cycleCaught ? "caught" : "no catch",
+                loop.lastPhaseMs(FishingLoop.Phase.WAIT_BITE) / 1000.0, loop.lastPhaseMs(FishingLoop.Phase.REELING) / 1000.0,
+                loop.lastPhaseMs(FishingLoop.Phase.MINIGAME) / 1000.0,
+                (loop.lastPhaseMs(FishingLoop.Phase.COOLDOWN) + loop.lastPhaseMs(FishingLoop.Phase.IDLE)) / 1000.0,
+                cycleArm.key()));
         }
-        return new DecisionTreeModel(bestDiffThreshold, bestFishVelThreshold, bestAccuracy);
+        cycleCaught = false;
+        cycleArm = optimiseCycle.get() ? cycleOpt.select(rng, minSuccessPct.get() / 100.0) : CycleOptimizer.BASELINE;
+        applyCycleTiming();
     }
 
-    private void controlWithModelOrFallback(double diff, double fishVel, double boxVel, double fishPos, double boxPos) {
-        long now = System.currentTimeMillis();
-        if (now < delayUntilMs) return;
+    private void applyCycleTiming() {
+        int failRetry = FishingLoop.FAIL_RETRY_DELAY_MS, timeout = FishingLoop.NO_BITE_TIMEOUT_TICKS;
+        if (optimiseCycle.get()) {
+            failRetry = tuned(failRetry, floorCooldown);
+            timeout = (int) Math.round(timeout * cycleArm.timeoutScale());
+        }
+        loop.setTiming(failRetry, timeout);
+    }
 
-        boolean shouldSneak = false;
+    private void loadCycleStats() {
+        cycleOpt = new CycleOptimizer();
+        cycleArm = CycleOptimizer.BASELINE;
+        cycleCaught = cycleStatsDirty = false;
+        cycleStatsFile = getConfigDir().resolve("cycle").resolve(serverKey() + ".csv");
+        try {
+            cycleOpt.load(cycleStatsFile);
+        } catch (Exception e) {
+            if (chatLog.get()) info("Failed to load cycle stats: " + e.getMessage());
+        }
+        applyCycleTiming();
+    }
 
-        if (currentModel != null) {
-            shouldSneak = currentModel.predict(diff, fishVel, boxVel);
-            if (sessionStartTick == tick - 1 && chatLog.get()) info("Using trained model to control box.");
-        } else {
-            if (sessionStartTick == tick - 1 && chatLog.get()) info("No trained model available, falling back to PD controller.");
-            double error = Math.abs(diff);
-            if (!sneakDown) shouldSneak = error > ERR_HI && (tick - lastReleaseTick) >= MIN_RELEASE;
-            else shouldSneak = !(error < ERR_LO && (tick - lastPressTick) >= MIN_PRESS);
+    private void saveCycleStats() {
+        if (!cycleStatsDirty || cycleStatsFile == null) return;
+        try {
+            cycleOpt.save(cycleStatsFile);
+            cycleStatsDirty = false;
+            if (optimiseCycle.get() && chatLog.get()) {
+                CycleOptimizer.Arm best = cycleOpt.best(minSuccessPct.get() / 100.0);
+                info("Best cycle timing so far: x%s.", best.key());
+            }
+        } catch (Exception e) {
+            if (chatLog.get()) info("Failed to save cycle stats: " + e.getMessage());
         }
+    }
 
-        if (shouldSneak && !sneakDown) {
-            pressSneak();
-            delayUntilMs = now + rng.nextInt(Math.max(1, JITTER_MS));
-        } else if (!shouldSneak && sneakDown) {
-            releaseSneak(false);
-            delayUntilMs = now + rng.nextInt(Math.max(1, JITTER_MS));
+    private void loadBiteCalibration() {
+        biteCal = new BiteCalibration();
+        biteCalDirty = false;
+        pendingBiteScore = Double.NaN;
+        biteCalFile = getBiteCalFile();
+        if (Files.exists(biteCalFile)) {
+            try {
+                biteCal = BiteCalibration.load(biteCalFile);
+            } catch (Exception e) {
+                if (chatLog.get()) info("Failed to load bite calibration: " + e.getMessage());
+            }
         }
+        bite.setThresholds(learnBite.get() ? biteCal.thresholds() : BiteCalibration.Thresholds.DEFAULT);
     }
 
-    // ====== Storage helpers ======
-    private Path getConfigDir() {
-        return FabricLoader.getInstance().getGameDir().resolve("config").resolve("autofish");
+    private void saveBiteCalibration() {
+        if (!biteCalDirty || biteCalFile == null) return;
+        try {
+            biteCal.save(biteCalFile);
+            biteCalDirty = false;
+        } catch (Exception e) {
+            if (chatLog.get()) info("Failed to save bite calibration: " + e.getMessage());
+        }
+    }
+
+    private void loadControllerParams() {
+        params = ControllerParams.DEFAULT;
+        Path f = getParamsFile();
+        if (Files.exists(f)) {
+            try {
+                params = ControllerParams.load(f);
+                if (chatLog.get()) info("Loaded controller parameters from: " + f);
+            } catch (Exception e) {
+                if (chatLog.get()) info("Failed to load controller parameters: " + e.getMessage());
+            }
+        }
+        velocity = new VelocityEstimator(params.historySize());
+        frameVelocity = new TimedVelocityEstimator(params.historySize());
+        pd = new PdController(params);
     }
-    private Path getModelFile() { return getConfigDir().resolve("auto_fish_model.json"); }
-    private Path getCsvFile()   { return getConfigDir().resolve("auto_fish_training_data.csv"); }
 
     private void saveModelToDisk() {
         if (useDefaultModel.get()) return;
@@ -1283,25 +1652,7 @@ public class AutoFishMinigame extends Module {
             Files.createDirectories(configDir);
             Path modelFile = getModelFile();
 
-            StringBuilder json = new StringBuilder();
-            json.append("{\n");
-            json.append("  \"type\": \"").append(currentModel.getModelType()).append("\",\n");
-            json.append("  \"accuracy\": ").append(currentModel.getAccuracy()).append(",\n");
-            json.append("  \"trainingSize\": ").append(trainingData.size()).append(",\n");
-
-            if (currentModel instanceof LogisticRegressionModel lr) {
-                json.append("  \"weights\": [")
-                    .append(String.format(Locale.ROOT, "%.6f, %.6f, %.6f", lr.weights[0], lr.weights[1], lr.weights[2]))
-                    .append("],\n");
-                json.append("  \"bias\": ").append(String.format(Locale.ROOT, "%.6f", lr.bias)).append("\n");
-            } else if (currentModel instanceof DecisionTreeModel dt) {
-                json.append("  \"diffThreshold\": ").append(String.format(Locale.ROOT, "%.6f", dt.diffThreshold)).append(",\n");
-                json.append("  \"fishVelThreshold\": ").append(String.format(Locale.ROOT, "%.6f", dt.fishVelThreshold)).append("\n");
-            }
-
-            json.append("}\n");
-
-            Files.writeString(modelFile, json.toString());
+            Files.writeString(modelFile, ModelJson.toJson(currentModel, trainingData.size()));
             if (chatLog.get()) info("Model saved to: " + modelFile);
         } catch (Exception e) {
             if (chatLog.get()) info("Failed to save model to disk: " + e.getMessage());
@@ -1315,11 +1666,7 @@ public class AutoFishMinigame extends Module {
             Files.createDirectories(configDir);
             Path csvFile = getCsvFile();
 
-            StringBuilder csv = new StringBuilder();
-            csv.append("diff,fish_vel,box_vel,shift_state\n");
-            for (TrainingDataPoint point : trainingData) csv.append(point.toCsvRow()).append("\n");
-
-            Files.writeString(csvFile, csv.toString());
+            TrainingDataCsv.save(csvFile, trainingData);
             if (chatLog.get()) info("Training data saved to: " + csvFile);
         } catch (Exception e) {
             if (chatLog.get()) info("Failed to save training data CSV: " + e.getMessage());
@@ -1335,23 +1682,7 @@ public class AutoFishMinigame extends Module {
                 currentModel = null; return;
             }
 
-            String content = Files.readString(modelFile);
-            Map<String, String> json = parseSimpleJsonSafe(content);
-
-            String type = json.get("type");
-            double accuracy = parseDoubleSafe(json.get("accuracy"), 0.0);
-
-            if ("Logistic".equals(type)) {
-                String weightsStr = json.get("weights");
-                String biasStr    = json.get("bias");
-                double[] weights  = parseDoubleArray(weightsStr, 3);
-                double bias       = parseDoubleSafe(biasStr, 0.0);
-                currentModel      = new LogisticRegressionModel(weights, bias, accuracy);
-            } else if ("DecisionTree".equals(type)) {
-                double diffThreshold     = parseDoubleSafe(json.get("diffThreshold"), 0.0);
-                double fishVelThreshold  = parseDoubleSafe(json.get("fishVelThreshold"), 0.0);
-                currentModel             = new DecisionTreeModel(diffThreshold, fishVelThreshold, accuracy);
-            } else currentModel = null;
+            currentModel = ModelJson.fromJson(Files.readString(modelFile));
 
             if (currentModel != null && chatLog.get()) info("Loaded model from: " + modelFile);
         } catch (Exception e) {
@@ -1369,26 +1700,14 @@ public class AutoFishMinigame extends Module {
                 return;
             }
 
-            List<String> lines = Files.readAllLines(csvFile);
-            if (lines.size() <= 1) {
+            List<TrainingSample> loaded = TrainingDataCsv.load(csvFile);
+            if (loaded.isEmpty()) {
                 if (chatLog.get()) info("Training data file is empty.");
                 return;
             }
 
             trainingData.clear();
-            for (int i = 1; i < lines.size(); i++) {
-                String line = lines.get(i).trim();
-                if (line.isEmpty()) continue;
-
-                String[] parts = line.split(",");
-                if (parts.length == 4) {
-                    double diff     = parseDoubleSafe(parts[0], 0.0);
-                    double fishVel  = parseDoubleSafe(parts[1], 0.0);
-                    double boxVel   = parseDoubleSafe(parts[2], 0.0);
-                    int shiftState  = parseIntSafe(parts[3], 0);
-                    trainingData.add(new TrainingDataPoint(diff, fishVel, boxVel, shiftState));
-                }
-            }
+            trainingData.addAll(loaded);
 
             if (chatLog.get()) info("Loaded " + trainingData.size() + " training data points from: " + csvFile);
         } catch (Exception e) {
@@ -1396,78 +1715,4 @@ public class AutoFishMinigame extends Module {
             trainingData.clear();
         }
     }
-
-    // -------- Robust mini JSON helpers --------
-    private Map<String, String> parseSimpleJsonSafe(String json) {
-        Map<String, String> out = new HashMap<>();
-        if (json == null) return out;
-
-        String s = json.trim();
-        if (s.startsWith("{")) s = s.substring(1);
-        if (s.endsWith("}")) s = s.substring(0, s.length() - 1);
-
-        List<String> pairs = splitTopLevel(s, ',');
-        for (String pair : pairs) {
-            List<String> kv = splitTopLevel(pair, ':');
-            if (kv.size() < 2) continue;
-            String key = stripQuotes(kv.get(0).trim());
-            String value = kv.get(1).trim();
-            for (int i = 2; i < kv.size(); i++) value += ":" + kv.get(i);
-            out.put(key, value.trim());
-        }
-        return out;
-    }
-
-    private List<String> splitTopLevel(String s, char sep) {
-        List<String> parts = new ArrayList<>();
-        StringBuilder cur = new StringBuilder();
-        int depthBrace = 0, depthBracket = 0;
-        boolean inQuotes = false;
-        for (int i = 0; i < s.length(); i++) {
-            char c = s.charAt(i);
-            if (c == '"' && (i == 0 || s.charAt(i - 1) != '\\')) inQuotes = !inQuotes;
-            if (!inQuotes) {
-                if (c == '{') depthBrace++;
-                else if (c == '}') depthBrace--;
-                else if (c == '[') depthBracket++;
-                else if (c == ']') depthBracket--;
-                else if (c == sep && depthBrace == 0 && depthBracket == 0) {
-                    parts.add(cur.toString());
-                    cur.setLength(0);
-                    continue;
-                }
-            }
-            cur.append(c);
-        }
-        parts.add(cur.toString());
-        return parts;
-    }
-
-    private String stripQuotes(String s) {
-        s = s.trim();
-        if (s.startsWith("\"") && s.endsWith("\"") && s.length() >= 2) return s.substring(1, s.length() - 1);
-        return s;
-    }
-
-    private double parseDoubleSafe(String s, double def) {
-        if (s == null) return def;
-        try { return Double.parseDouble(stripQuotes(s)); } catch (Exception ignored) { return def; }
-    }
-
-    private int parseIntSafe(String s, int def) {
-        if (s == null) return def;
-        try { return Integer.parseInt(stripQuotes(s)); } catch (Exception ignored) { return def; }
-    }
-
-    private double[] parseDoubleArray(String s, int expected) {
-        if (s == null) return new double[expected];
-        String t = s.trim();
-        if (t.startsWith("[")) t = t.substring(1);
-        if (t.endsWith("]")) t = t.substring(0, t.length() - 1);
-        String[] parts = t.split("\\s*,\\s*");
-        double[] arr = new double[expected];
-        for (int i = 0; i < Math.min(expected, parts.length); i++) arr[i] = parseDoubleSafe(parts[i], 0.0);
-        return arr;
-    }
 }
-
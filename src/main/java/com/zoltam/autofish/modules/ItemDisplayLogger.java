@@ -1,6 +1,9 @@
 package com.zoltam.autofish.modules; // <- keep your package
 
 import com.zoltam.autofish.AddonTemplate;
+import com.zoltam.autofish.util.AsyncLogSink;
+import com.zoltam.autofish.util.LineBuilder;
+import com.zoltam.autofish.util.RollingFile;
 import meteordevelopment.meteorclient.events.world.TickEvent;
 import meteordevelopment.meteorclient.settings.*;
 import meteordevelopment.meteorclient.systems.modules.Module;
@@ -13,9 +16,7 @@ import net.minecraft.item.ItemStack;
 import net.minecraft.registry.Registries;
 import net.minecraft.util.Identifier;
 
-import java.io.BufferedWriter;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
@@ -43,9 +44,27 @@ public class ItemDisplayLogger extends Module {
         .name("to-file").description("Write logs to a TSV file in .minecraft/logs.")
         .defaultValue(true).build());
 
+    private final Setting<Integer> rotateMb = sgGeneral.add(new IntSetting.Builder()
+        .name("rotate-mb").description("Start a new TSV segment past this size (0 = no size limit).")
+        .defaultValue(64).min(0).sliderRange(0, 512).build());
+
+    private final Setting<Integer> rotateHours = sgGeneral.add(new IntSetting.Builder()
+        .name("rotate-hours").description("Start a new TSV segment after this many hours (0 = no time limit).")
+        .defaultValue(24).min(0).sliderRange(0, 72).build());
+
+    private final Setting<Integer> keepFiles = sgGeneral.add(new IntSetting.Builder()
+        .name("keep-files").description("Rotated (gzipped) segments to keep (0 = no count limit).")
+        .defaultValue(20).min(0).sliderRange(0, 200).build());
+
+    private final Setting<Integer> keepMb = sgGeneral.add(new IntSetting.Builder()
+        .name("keep-mb").description("Total size of rotated segments to keep (0 = no size limit).")
+        .defaultValue(512).min(0).sliderRange(0, 4096).build());
+
+    private static final String COLUMNS = "ts\ttick\tplayerSneaking\tid\titemId\tcustomName\ttags\tx\ty\tz\tdY";
+
     private int tickCounter = 0;
     private Path logPath;
-    private BufferedWriter writer;
+    private AsyncLogSink writer;
     private final Map<Integer, Double> lastY = new HashMap<>();
 
     public ItemDisplayLogger() {
@@ -60,20 +79,15 @@ public class ItemDisplayLogger extends Module {
         if (logToFile.get()) {
             try {
                 Path logsDir = FabricLoader.getInstance().getGameDir().resolve("logs");
-                Files.createDirectories(logsDir);
                 logPath = logsDir.resolve("meteor_itemdisplay_log.tsv");
                 boolean newFile = Files.notExists(logPath);
-                writer = Files.newBufferedWriter(
-                    logPath,
-                    StandardCharsets.UTF_8,
-                    newFile ? new java.nio.file.OpenOption[]{} : new java.nio.file.OpenOption[]{java.nio.file.StandardOpenOption.APPEND}
-                );
-                if (newFile) {
-                    writeLine("ts\ttick\tplayerSneaking\tid\titemId\tcustomName\ttags\tx\ty\tz\tdY");
-                } else {
+                // The column header heads every new segment; an appended session repeats it after its marker
+                writer = AsyncLogSink.open(logPath, !newFile, rotation(), () -> List.of(COLUMNS));
+                writer.markSession("enable " + Instant.now());
+                if (!newFile) {
                     writeLine("");
                     writeLine("# --- New Session: " + Instant.now() + " ---");
-                    writeLine("ts\ttick\tplayerSneaking\tid\titemId\tcustomName\ttags\tx\ty\tz\tdY");
+                    writeLine(COLUMNS);
                 }
                 info("Logging to " + logPath.getFileName());
             } catch (IOException e) {
@@ -92,15 +106,20 @@ public class ItemDisplayLogger extends Module {
     }
 
     private void tryClose() {
-        if (writer != null) {
-            try { writer.flush(); writer.close(); } catch (IOException ignored) {}
-            writer = null;
-        }
+        AsyncLogSink w = writer;
+        writer = null;
+        if (w == null) return;
+        w.close();
+        if (w.dropped() > 0) info("Log queue overflowed: %d lines dropped.", w.dropped());
+    }
+
+    private RollingFile.Rotation rotation() {
+        return RollingFile.Rotation.of(rotateMb.get(), rotateHours.get(), keepFiles.get(), keepMb.get());
     }
 
     private void writeLine(String s) {
-        if (writer == null) return;
-        try { writer.write(s); writer.newLine(); writer.flush(); } catch (IOException ignored) {}
+        AsyncLogSink w = writer;
+        if (w != null) w.writeLine(s);
     }
 
     @EventHandler
@@ -151,12 +170,12 @@ public class ItemDisplayLogger extends Module {
                 info(String.format("id=%d item=%s y=%.2f dY=%.3f sneak=%s", e.getId(), itemIdStr, y, dY, sneaking));
             }
             if (logToFile.get()) {
-                String line = String.format(
-                    "%d\t%d\t%s\t%d\t%s\t%s\t%s\t%.3f\t%.3f\t%.3f\t%.5f",
-                    System.currentTimeMillis(), tickCounter, sneaking, e.getId(), itemIdStr,
-                    sanitize(customName), sanitize(tags.toString()), x, y, z, dY
-                );
-                writeLine(line);
+                LineBuilder line = LineBuilder.local()
+                    .append(System.currentTimeMillis()).tab().append(tickCounter).tab().append(sneaking).tab()
+                    .append(e.getId()).tab().append(itemIdStr).tab()
+                    .append(sanitize(customName)).tab().append(sanitize(tags.toString())).tab()
+                    .append(x, 3).tab().append(y, 3).tab().append(z, 3).tab().append(dY, 5);
+                writeLine(line.toString());
             }
         }
     }
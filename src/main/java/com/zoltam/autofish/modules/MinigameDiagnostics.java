@@ -1,6 +1,10 @@
 package com.zoltam.autofish.modules; // <-- match your package
 
 import com.zoltam.autofish.AddonTemplate;
+import com.zoltam.autofish.util.Accessor;
+import com.zoltam.autofish.util.AsyncLogSink;
+import com.zoltam.autofish.util.LineBuilder;
+import com.zoltam.autofish.util.RollingFile;
 import meteordevelopment.meteorclient.events.packets.PacketEvent;
 import meteordevelopment.meteorclient.events.world.TickEvent;
 import meteordevelopment.meteorclient.settings.*;
@@ -12,14 +16,13 @@ import net.minecraft.entity.Entity;
 import net.minecraft.entity.decoration.DisplayEntity;
 import net.minecraft.text.Text;
 
-import java.io.BufferedWriter;
 import java.io.IOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.time.Instant;
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * Watch-only diagnostics for the fishing minigame.
@@ -30,7 +33,8 @@ import java.util.*;
  * - Identifies likely FISH vs BOX by variance (moving vs still) without committing to local/world axis.
  * - Logs HUD overlay and incoming packet class names + any Text content found.
  *
- * Produces: .minecraft/logs/meteor_minigame_diag.tsv (wiped each enable).
+ * Produces: .minecraft/logs/meteor_minigame_diag.tsv (fresh each enable; earlier runs roll into
+ * gzipped meteor_minigame_diag.NNNNNN.tsv.gz segments, sessions listed in meteor_minigame_diag.index).
  */
 public class MinigameDiagnostics extends Module {
     // Settings
@@ -57,6 +61,22 @@ public class MinigameDiagnostics extends Module {
         .name("packet-sniffer").description("Log packet class names and any Text content (debug).")
         .defaultValue(true).build());
 
+    private final Setting<Integer> rotateMb = sgLog.add(new IntSetting.Builder()
+        .name("rotate-mb").description("Start a new TSV segment past this size (0 = no size limit).")
+        .defaultValue(64).min(0).sliderRange(0, 512).build());
+
+    private final Setting<Integer> rotateHours = sgLog.add(new IntSetting.Builder()
+        .name("rotate-hours").description("Start a new TSV segment after this many hours (0 = no time limit).")
+        .defaultValue(24).min(0).sliderRange(0, 72).build());
+
+    private final Setting<Integer> keepFiles = sgLog.add(new IntSetting.Builder()
+        .name("keep-files").description("Rotated (gzipped) segments to keep (0 = no count limit).")
+        .defaultValue(20).min(0).sliderRange(0, 200).build());
+
+    private final Setting<Integer> keepMb = sgLog.add(new IntSetting.Builder()
+        .name("keep-mb").description("Total size of rotated segments to keep (0 = no size limit).")
+        .defaultValue(512).min(0).sliderRange(0, 4096).build());
+
     private final Setting<Boolean> chatNotes = sgLog.add(new BoolSetting.Builder()
         .name("chat-notes").description("Small chat notes for session/classify events.")
         .defaultValue(true).build());
@@ -71,7 +91,7 @@ public class MinigameDiagnostics extends Module {
 
     // File logging
     private Path logPath;
-    private BufferedWriter writer;
+    private AsyncLogSink writer; // written from the tick and network threads, flushed in the background
 
     public MinigameDiagnostics() {
         super(AddonTemplate.CATEGORY, "minigame-diagnostics",
@@ -85,7 +105,7 @@ public class MinigameDiagnostics extends Module {
         sessionActive = false;
         sessionStartTick = -1;
         tracks.clear();
-        setupWriter(); // wipes file
+        setupWriter(); // fresh segment
         if (chatNotes.get()) info("Diagnostics active — play a few minigames; I'll log everything.");
     }
 
@@ -137,6 +157,8 @@ public class MinigameDiagnostics extends Module {
                 sessionActive = true;
                 sessionStartTick = tick;
                 if (chatNotes.get()) info("Minigame? diagnostics started. Candidates: " + ids(recent));
+                AsyncLogSink w = writer;
+                if (w != null) w.markSession("session t=" + tick);
                 fileLog("detect", "session_start", "candidates=" + ids(recent), null);
             }
         }
@@ -154,15 +176,18 @@ public class MinigameDiagnostics extends Module {
                 if ((tick - sessionStartTick) % sampleEvery.get() == 0) {
                     for (Track t : list) {
                         YSource ys = t.bestY();
-                        String details = String.format(Locale.ROOT,
-                            "ent=%d world=(%.3f,%.3f,%.3f) d=(%.3f,%.3f,%.3f) spd=%.3f chosenY=%s y=%.5f dy=%.5f var=%.5f fishLikely=%s boxLikely=%s",
-                            t.id, t.x, t.y, t.z, t.dx, t.dy, t.dz, t.speed,
-                            ys == null ? "NA" : ys.key(),
-                            ys == null || ys.last == null ? Double.NaN : ys.last,
-                            ys == null || ys.lastDelta == null ? Double.NaN : ys.lastDelta,
-                            ys == null ? Double.NaN : ys.var(),
-                            (t.id == likelyFish.id), (t.id == likelyBox.id)
-                        );
+                        LineBuilder d = LineBuilder.local()
+                            .append("ent=").append(t.id)
+                            .append(" world=(").append(t.x, 3).append(',').append(t.y, 3).append(',').append(t.z, 3)
+                            .append(") d=(").append(t.dx, 3).append(',').append(t.dy, 3).append(',').append(t.dz, 3)
+                            .append(") spd=").append(t.speed, 3)
+                            .append(" chosenY=").append(ys == null ? "NA" : ys.key())
+                            .append(" y=").append(ys == null || ys.last == null ? Double.NaN : ys.last, 5)
+                            .append(" dy=").append(ys == null || ys.lastDelta == null ? Double.NaN : ys.lastDelta, 5)
+                            .append(" var=").append(ys == null ? Double.NaN : ys.var(), 5)
+                            .append(" fishLikely=").append(t.id == likelyFish.id)
+                            .append(" boxLikely=").append(t.id == likelyBox.id);
+                        String details = d.toString();
                         fileLog("sample", "entity", details, null);
                     }
                 }
@@ -189,7 +214,7 @@ public class MinigameDiagnostics extends Module {
         if (!sniffPackets.get()) return;
         String cls = e.packet.getClass().getName();
         String txt = extractAnyText(e.packet);
-        fileLog("packet", cls, txt == null ? "" : ("text=" + clean(txt)), null);
+        fileLog("packet", cls, txt == null ? "" : ("text=" + txt), null);
     }
 
     // ---- Helpers: Track & YSource ----
@@ -269,12 +294,12 @@ public class MinigameDiagnostics extends Module {
         try {
             Object dt = ent.getDataTracker();
             if (dt == null) return;
-            Object entries = invokeAny(dt, "getAllEntries", "getEntries", "entries");
+            Object entries = ENTRIES.get(dt);
             if (!(entries instanceof Iterable<?>)) return;
 
             for (Object entry : (Iterable<?>) entries) {
-                Object dataKey = invokeAny(entry, "getData", "getTrackedData", "data");
-                Object value   = invokeAny(entry, "getValue", "value");
+                Object dataKey = DATA_KEY.get(entry);
+                Object value   = VALUE.get(entry);
                 String keyId = makeKeyId(dataKey, value);
 
                 // Try to extract a y-like number from value or its translation vector
@@ -288,7 +313,7 @@ public class MinigameDiagnostics extends Module {
         String idPart = "";
         if (dataKey != null) {
             // Try getId(); else identity hash
-            Object idObj = invokeAny(dataKey, "getId", "id");
+            Object idObj = KEY_ID.get(dataKey);
             if (idObj instanceof Number) idPart = "id=" + ((Number) idObj).intValue();
             else idPart = "key@" + System.identityHashCode(dataKey);
         }
@@ -304,7 +329,7 @@ public class MinigameDiagnostics extends Module {
         if (direct != null) return direct;
 
         // Otherwise look for translation/position child
-        Object vec = invokeAny(value, "getTranslation", "translation", "getPosition", "position");
+        Object vec = TRANSLATION.get(value);
         Double child = readYComponent(vec);
         if (child != null) return child;
 
@@ -321,7 +346,7 @@ public class MinigameDiagnostics extends Module {
     private Double readYComponent(Object o) {
         if (o == null) return null;
         try {
-            Object r = invokeAny(o, "y", "getY", "component1");
+            Object r = Y.get(o);
             if (r instanceof Number) return ((Number) r).doubleValue();
         } catch (Throwable ignored) {}
         try {
@@ -337,37 +362,34 @@ public class MinigameDiagnostics extends Module {
         try {
             InGameHud hud = mc.inGameHud;
             if (hud == null) return;
-            Text t = (Text) invokeAny(hud, "getOverlayMessage", "overlayMessage");
+            Text t = (Text) HUD_OVERLAY.get(hud);
             if (t == null) return;
             String s = t.getString();
             if (s == null || s.isEmpty()) return;
 
             if (!s.equals(lastOverlaySeen)) {
                 lastOverlaySeen = s;
-                fileLog("overlay(hud)", "text", clean(s), null);
+                fileLog("overlay(hud)", "text", s, null);
             }
         } catch (Throwable ignored) {}
     }
 
     // ---- Reflection helpers & packet text ----
-    private Object invokeAny(Object target, String... names) {
-        for (String n : names) {
-            try {
-                Method m = target.getClass().getMethod(n);
-                m.setAccessible(true);
-                return m.invoke(target);
-            } catch (Throwable ignored) {}
-        }
-        return null;
-    }
+    private static final Accessor ENTRIES     = Accessor.of("getAllEntries", "getEntries", "entries");
+    private static final Accessor DATA_KEY    = Accessor.of("getData", "getTrackedData", "data");
+    private static final Accessor VALUE       = Accessor.of("getValue", "value");
+    private static final Accessor KEY_ID      = Accessor.of("getId", "id");
+    private static final Accessor TRANSLATION = Accessor.of("getTranslation", "translation", "getPosition", "position");
+    private static final Accessor Y           = Accessor.of("y", "getY", "component1");
+    private static final Accessor HUD_OVERLAY = Accessor.of("getOverlayMessage", "overlayMessage");
+    /** One per name: the first getter that returns a Text wins, not merely the first that exists. */
+    private static final Accessor[] TEXT_GETTERS = Stream.of(
+        "content", "getContent", "text", "getText", "message", "getMessage", "title", "getTitle", "subtitle", "getSubtitle"
+    ).map(Accessor::of).toArray(Accessor[]::new);
 
     private String extractAnyText(Object packet) {
-        String[] methods = new String[]{"content","getContent","text","getText","message","getMessage","title","getTitle","subtitle","getSubtitle"};
-        for (String m : methods) {
-            try {
-                Object o = packet.getClass().getMethod(m).invoke(packet);
-                if (o instanceof Text) return ((Text) o).getString();
-            } catch (Throwable ignored) {}
+        for (Accessor a : TEXT_GETTERS) {
+            if (a.get(packet) instanceof Text t) return t.getString();
         }
         return null;
     }
@@ -377,14 +399,8 @@ public class MinigameDiagnostics extends Module {
         closeWriter();
         try {
             Path logsDir = FabricLoader.getInstance().getGameDir().resolve("logs");
-            Files.createDirectories(logsDir);
             logPath = logsDir.resolve("meteor_minigame_diag.tsv");
-            writer = Files.newBufferedWriter(logPath,
-                StandardCharsets.UTF_8,
-                StandardOpenOption.CREATE,
-                StandardOpenOption.TRUNCATE_EXISTING, // wipe each enable
-                StandardOpenOption.WRITE);
-            header();
+            writer = AsyncLogSink.open(logPath, false, rotation(), this::header); // previous run rolls into a segment
             if (chatNotes.get()) info("Writing: " + logPath.getFileName());
         } catch (IOException e) {
             error("Failed to open log file: " + e.getMessage());
@@ -393,36 +409,34 @@ public class MinigameDiagnostics extends Module {
     }
 
     private void closeWriter() {
-        if (writer != null) {
-            try {
-                writer.close();
-            } catch (IOException ignored) {}
-            writer = null;
-        }
+        AsyncLogSink w = writer;
+        writer = null;
+        if (w == null) return;
+        w.close();
+        if (w.dropped() > 0 && chatNotes.get()) info("Log queue overflowed: %d lines dropped.", w.dropped());
+    }
+
+    private RollingFile.Rotation rotation() {
+        return RollingFile.Rotation.of(rotateMb.get(), rotateHours.get(), keepFiles.get(), keepMb.get());
     }
 
-    private void header() {
-        writeLine("# Minigame Diagnostics — " + Instant.now());
-        writeLine("ts\tick\tphase\tevent\tdetails");
+    /** Heads each log segment, the rotated ones too. */
+    private List<String> header() {
+        return List.of("# Minigame Diagnostics — " + Instant.now(), "ts\tick\tphase\tevent\tdetails");
     }
 
     private void writeLine(String s) {
-        if (writer == null) return;
-        try {
-            writer.write(s);
-            writer.newLine();
-            writer.flush();
-        } catch (IOException ignored) {}
+        AsyncLogSink w = writer;
+        if (w != null) w.writeLine(s);
     }
 
     private void fileLog(String phase, String event, String details, Object unused) {
-        String line = String.format(Locale.ROOT, "%d\t%d\t%s\t%s\t%s",
-            System.currentTimeMillis(), tick, phase, event, clean(details));
-        writeLine(line);
+        LineBuilder line = LineBuilder.local()
+            .append(System.currentTimeMillis()).tab().append(tick).tab()
+            .append(phase).tab().append(event).tab().appendClean(details);
+        writeLine(line.toString());
     }
 
-    private String clean(String s) { return s == null ? "" : s.replace('\t',' ').replace('\n',' '); }
-
     private static String ids(List<Track> list) {
         StringBuilder sb = new StringBuilder();
         for (int i = 0; i < list.size(); i++) { sb.append(list.get(i).id); if (i < list.size()-1) sb.append(", "); }
@@ -1,6 +1,12 @@
 package com.zoltam.autofish.modules; // <-- match your package
 
 import com.zoltam.autofish.AddonTemplate;
+import com.zoltam.autofish.minigame.trace.BinaryTraceWriter;
+import com.zoltam.autofish.minigame.trace.TraceRecord;
+import com.zoltam.autofish.util.Accessor;
+import com.zoltam.autofish.util.AsyncLogSink;
+import com.zoltam.autofish.util.LineBuilder;
+import com.zoltam.autofish.util.RollingFile;
 import meteordevelopment.meteorclient.events.packets.PacketEvent;
 import meteordevelopment.meteorclient.events.world.TickEvent;
 import meteordevelopment.meteorclient.settings.*;
@@ -12,13 +18,11 @@ import net.minecraft.entity.Entity;
 import net.minecraft.entity.decoration.DisplayEntity;
 import net.minecraft.text.Text;
 
-import java.io.BufferedWriter;
 import java.io.IOException;
-import java.lang.reflect.Method;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.time.Instant;
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * Passive observer:
@@ -26,7 +30,9 @@ import java.util.*;
  * - NO CONTROL — only logs.
  * - Logs worldY and *local transform Y* (if discoverable) each tick.
  * - Logs recommended action (press/release/hold) based on local Y error (without acting).
- * - Sniffs packets and HUD overlay text and writes everything to a TSV (wiped on enable).
+ * - Sniffs packets and HUD overlay text and writes everything to a TSV and/or a compact
+ *   binary trace (TraceToTsv converts the trace back to the TSV layout). Each enable starts fresh files;
+ *   earlier ones roll into gzipped segments, and both files rotate and prune by the same limits.
  */
 public class MinigameObserver extends Module {
     // -------- Settings --------
@@ -74,6 +80,30 @@ public class MinigameObserver extends Module {
         .name("packet-sniffer").description("Log incoming packet class names & any Text content found.")
         .defaultValue(true).build());
 
+    private final Setting<Boolean> tsvLog = sgLog.add(new BoolSetting.Builder()
+        .name("tsv-log").description("Write meteor_observer_log.tsv.")
+        .defaultValue(true).build());
+
+    private final Setting<Boolean> binaryTrace = sgLog.add(new BoolSetting.Builder()
+        .name("binary-trace").description("Write meteor_observer_trace.aftr, a compact binary trace cheap enough to leave on.")
+        .defaultValue(true).build());
+
+    private final Setting<Integer> rotateMb = sgLog.add(new IntSetting.Builder()
+        .name("rotate-mb").description("Start a new TSV / trace segment past this size (0 = no size limit).")
+        .defaultValue(64).min(0).sliderRange(0, 512).build());
+
+    private final Setting<Integer> rotateHours = sgLog.add(new IntSetting.Builder()
+        .name("rotate-hours").description("Start a new TSV / trace segment after this many hours (0 = no time limit).")
+        .defaultValue(24).min(0).sliderRange(0, 72).build());
+
+    private final Setting<Integer> keepFiles = sgLog.add(new IntSetting.Builder()
+        .name("keep-files").description("Rotated (gzipped) segments to keep, per file (0 = no count limit).")
+        .defaultValue(20).min(0).sliderRange(0, 200).build());
+
+    private final Setting<Integer> keepMb = sgLog.add(new IntSetting.Builder()
+        .name("keep-mb").description("Total size of rotated segments to keep, per file (0 = no size limit).")
+        .defaultValue(512).min(0).sliderRange(0, 4096).build());
+
     private final Setting<Boolean> chatNotes = sgLog.add(new BoolSetting.Builder()
         .name("chat-notes").description("Small chat notes for session/classify events.")
         .defaultValue(true).build());
@@ -123,7 +153,10 @@ public class MinigameObserver extends Module {
 
     // File logging
     private Path logPath;
-    private BufferedWriter writer;
+    private AsyncLogSink writer; // written from the tick and network threads, flushed in the background
+    private BinaryTraceWriter trace;
+    private final TraceRecord traceRow = new TraceRecord(); // reused, guarded by itself
+    private int sessionIndex = 0;
 
     public MinigameObserver() {
         super(AddonTemplate.CATEGORY, "minigame-observer",
@@ -135,7 +168,7 @@ public class MinigameObserver extends Module {
     public void onActivate() {
         tick = 0;
         resetSession();
-        setupWriter(); // wipe file
+        setupWriter(); // fresh TSV segment, fresh trace
         if (chatNotes.get()) info("Observer active — play normally; I’ll log everything.");
     }
 
@@ -185,6 +218,11 @@ public class MinigameObserver extends Module {
                 sessionActive = true;
                 boxId = null; fishId = null;
                 if (chatNotes.get()) info("Minigame? Classifying… candidates=" + idsToString(recent));
+                int session = ++sessionIndex;
+                BinaryTraceWriter tw = trace;
+                if (tw != null) tw.beginSession(System.currentTimeMillis(), tick, session, invertError.get());
+                AsyncLogSink w = writer;
+                if (w != null) w.markSession("session " + session);
                 fileLog("detect", "session_start", "candidates=" + idsToString(recent), null);
             }
         }
@@ -225,14 +263,15 @@ public class MinigameObserver extends Module {
                     else recommend = "HOLD(world)";
                 }
 
-                String details = String.format(Locale.ROOT,
-                    "rec=%s errLocal=%s errWorld=%.5f",
-                    recommend,
-                    errLocal == null ? "NA" : String.format(Locale.ROOT, "%.5f", errLocal),
-                    errWorld
-                );
+                // The binary trace stores only the recommendation; details are rebuilt on conversion
+                String details = null;
+                if (writer != null) {
+                    LineBuilder d = LineBuilder.local().append("rec=").append(recommend).append(" errLocal=");
+                    if (errLocal == null) d.append("NA"); else d.append(errLocal, 5);
+                    details = d.append(" errWorld=").append(errWorld, 5).toString();
+                }
 
-                fileLog("track", "tick", details, new Snapshot(box, fish));
+                fileLog("track", "tick", details, recommend, new Snapshot(box, fish));
             }
         }
 
@@ -307,7 +346,7 @@ public class MinigameObserver extends Module {
         try {
             InGameHud hud = mc.inGameHud;
             if (hud == null) return;
-            Text t = (Text) invokeAny(hud, "getOverlayMessage", "overlayMessage");
+            Text t = (Text) HUD_OVERLAY.get(hud);
             if (t == null) return;
             String s = t.getString();
             if (s == null || s.isEmpty()) return;
@@ -326,10 +365,10 @@ public class MinigameObserver extends Module {
      */
     private Double getDisplayLocalY(Object displayEntity) {
         // 1) Try getTransformation() / transformation()
-        Object transform = invokeAny(displayEntity, "getTransformation", "transformation");
+        Object transform = TRANSFORM.get(displayEntity);
         if (transform != null) {
             // Try getTranslation()/getPosition()/translation()
-            Object vec = invokeAny(transform, "getTranslation", "getPosition", "translation", "position");
+            Object vec = TRANSLATION.get(transform);
             Double y = extractY(vec);
             if (y != null) return y;
             // Some MC versions return components via methods x(), y(), z()
@@ -349,37 +388,29 @@ public class MinigameObserver extends Module {
         if (obj == null) return null;
         try {
             // Common patterns: getY(), y(), getSecond(), j()… try a bunch
-            Object v = invokeAny(obj, "getY", "y", "Y", "getSecond");
+            Object v = Y_ANY.get(obj);
             if (v instanceof Number) return ((Number) v).doubleValue();
             // Maybe it returns a Vec3-like with fields x/y/z accessible through methods
-            try {
-                Method mx = obj.getClass().getMethod("y");
-                Object r = mx.invoke(obj);
-                if (r instanceof Number) return ((Number) r).doubleValue();
-            } catch (Throwable ignored) {}
+            Object r = Y_COMPONENT.get(obj);
+            if (r instanceof Number) return ((Number) r).doubleValue();
         } catch (Throwable ignored) {}
         return null;
     }
 
     // -------- Reflection helpers --------
-    private Object invokeAny(Object target, String... names) {
-        for (String n : names) {
-            try {
-                Method m = target.getClass().getMethod(n);
-                m.setAccessible(true);
-                return m.invoke(target);
-            } catch (Throwable ignored) {}
-        }
-        return null;
-    }
+    private static final Accessor HUD_OVERLAY = Accessor.of("getOverlayMessage", "overlayMessage");
+    private static final Accessor TRANSFORM   = Accessor.of("getTransformation", "transformation");
+    private static final Accessor TRANSLATION = Accessor.of("getTranslation", "getPosition", "translation", "position");
+    private static final Accessor Y_ANY       = Accessor.of("getY", "y", "Y", "getSecond");
+    private static final Accessor Y_COMPONENT = Accessor.of("y");
+    /** One per name: the first getter that returns a Text wins, not merely the first that exists. */
+    private static final Accessor[] TEXT_GETTERS = Stream.of(
+        "content", "getContent", "text", "getText", "message", "getMessage", "title", "getTitle", "subtitle", "getSubtitle"
+    ).map(Accessor::of).toArray(Accessor[]::new);
 
     private String extractAnyText(Object packet) {
-        String[] methods = new String[]{"content","getContent","text","getText","message","getMessage","title","getTitle","subtitle","getSubtitle"};
-        for (String m : methods) {
-            try {
-                Object o = packet.getClass().getMethod(m).invoke(packet);
-                if (o instanceof Text) return ((Text) o).getString();
-            } catch (Throwable ignored) {}
+        for (Accessor a : TEXT_GETTERS) {
+            if (a.get(packet) instanceof Text t) return t.getString();
         }
         return null;
     }
@@ -398,59 +429,109 @@ public class MinigameObserver extends Module {
 
     private void setupWriter() {
         closeWriter();
-        try {
-            Path logsDir = FabricLoader.getInstance().getGameDir().resolve("logs");
-            Files.createDirectories(logsDir);
-            logPath = logsDir.resolve("meteor_observer_log.tsv");
-            writer = Files.newBufferedWriter(logPath,
-                StandardCharsets.UTF_8,
-                StandardOpenOption.CREATE,
-                StandardOpenOption.TRUNCATE_EXISTING, // wipe on start
-                StandardOpenOption.WRITE);
-            header();
-            if (chatNotes.get()) info("Writing: " + logPath.getFileName());
-        } catch (IOException e) {
-            error("Failed to open log file: " + e.getMessage());
-            writer = null;
+        sessionIndex = 0;
+        Path logsDir = FabricLoader.getInstance().getGameDir().resolve("logs");
+        if (tsvLog.get()) {
+            try {
+                logPath = logsDir.resolve("meteor_observer_log.tsv");
+                writer = AsyncLogSink.open(logPath, false, rotation(), this::header); // previous run rolls into a segment
+                if (chatNotes.get()) info("Writing: " + logPath.getFileName());
+            } catch (IOException e) {
+                error("Failed to open log file: " + e.getMessage());
+                writer = null;
+            }
         }
+        if (binaryTrace.get()) {
+            try {
+                trace = BinaryTraceWriter.open(logsDir.resolve("meteor_observer_trace.aftr"), "minigame-observer", rotation()); // likewise
+                if (chatNotes.get()) info("Writing: " + trace.getPath().getFileName());
+            } catch (IOException e) {
+                error("Failed to open trace file: " + e.getMessage());
+                trace = null;
+            }
+        }
+    }
+
+    private RollingFile.Rotation rotation() {
+        return RollingFile.Rotation.of(rotateMb.get(), rotateHours.get(), keepFiles.get(), keepMb.get());
     }
 
-    private void header() {
-        writeLine("# Minigame Observer — " + Instant.now());
-        writeLine("ts\tick\tphase\tevent\tdetails\tsession\tboxId\tfishId\tboxWorldY\tfishWorldY\tboxLocalY\tfishLocalY\terrLocal\terrWorld\tsneakDown\tpacketOrOverlay");
+    /** Heads each log segment, the rotated ones too. */
+    private List<String> header() {
+        return List.of("# Minigame Observer — " + Instant.now(),
+            "ts\tick\tphase\tevent\tdetails\tsession\tboxId\tfishId\tboxWorldY\tfishWorldY\tboxLocalY\tfishLocalY\terrLocal\terrWorld\tsneakDown\tpacketOrOverlay");
     }
 
     private void writeLine(String s) {
-        if (writer == null) return;
-        try {
-            writer.write(s);
-            writer.newLine();
-            writer.flush();
-        } catch (IOException ignored) {}
+        AsyncLogSink w = writer;
+        if (w != null) w.writeLine(s);
     }
 
     private void fileLog(String phase, String event, String details, Snapshot snap) {
+        fileLog(phase, event, details, null, snap);
+    }
+
+    private void fileLog(String phase, String event, String details, String recommend, Snapshot snap) {
+        long ts = System.currentTimeMillis();
         String overlay = lastOverlaySeen == null ? "" : clean(lastOverlaySeen);
-        String line = String.format(Locale.ROOT, "%d\t%d\t%s\t%s\t%s\t%s\t%s\t%s\t%s\t%s\t%s\t%s\t%s\t%s\t%s\t%s",
-            System.currentTimeMillis(), tick, phase, event, clean(details),
-            sessionActive,
-            idStr(boxId), idStr(fishId),
-            snap == null ? "" : fmt(snap.boxWorldY),
-            snap == null ? "" : fmt(snap.fishWorldY),
-            snap == null ? "" : fmtD(snap.boxLocalY),
-            snap == null ? "" : fmtD(snap.fishLocalY),
-            snap == null ? "" : errLocalStr(snap),
-            snap == null ? "" : fmt(errWorld(snap)),
-            mc.player != null && mc.player.isSneaking(),
-            overlay
-        );
-        writeLine(line);
+        boolean sneaking = mc.player != null && mc.player.isSneaking();
+        if (writer != null) writeTsvRow(ts, phase, event, details, snap, overlay, sneaking);
+        BinaryTraceWriter tw = trace;
+        if (tw != null) writeTraceRow(tw, ts, phase, event, recommend != null ? null : clean(details), recommend, snap, overlay, sneaking);
+    }
+
+    private void writeTraceRow(BinaryTraceWriter tw, long ts, String phase, String event, String details, String recommend,
+                               Snapshot snap, String overlay, boolean sneaking) {
+        synchronized (traceRow) {
+            TraceRecord r = traceRow.clearRow();
+            r.ts = ts;
+            r.tick = tick;
+            r.phase = phase;
+            r.event = event;
+            r.details = details;
+            r.recommend = recommend;
+            r.session = sessionActive;
+            Integer b = boxId, f = fishId;
+            if (b != null) r.boxId = b;
+            if (f != null) r.fishId = f;
+            if (snap != null) {
+                r.hasSnapshot = true;
+                r.boxWorldY = snap.boxWorldY;
+                r.fishWorldY = snap.fishWorldY;
+                if (snap.boxLocalY != null) r.boxLocalY = snap.boxLocalY;
+                if (snap.fishLocalY != null) r.fishLocalY = snap.fishLocalY;
+            }
+            r.sneakDown = sneaking;
+            r.overlay = overlay;
+            tw.write(r);
+        }
     }
 
-    private String errLocalStr(Snapshot s) {
-        if (s.boxLocalY == null || s.fishLocalY == null) return "";
-        double e = invertError.get() ? (s.boxLocalY - s.fishLocalY) : (s.fishLocalY - s.boxLocalY);
-        return fmt(e);
+    private void writeTsvRow(long ts, String phase, String event, String details, Snapshot snap, String overlay, boolean sneaking) {
+        LineBuilder line = LineBuilder.local()
+            .append(ts).tab().append(tick).tab().append(phase).tab().append(event).tab().appendClean(details).tab()
+            .append(sessionActive).tab();
+        if (boxId != null) line.append(boxId.intValue());
+        line.tab();
+        if (fishId != null) line.append(fishId.intValue());
+        line.tab();
+        if (snap != null) {
+            line.append(snap.boxWorldY, 5).tab().append(snap.fishWorldY, 5).tab();
+            appendOpt(line, snap.boxLocalY).tab();
+            appendOpt(line, snap.fishLocalY).tab();
+            if (snap.boxLocalY != null && snap.fishLocalY != null) {
+                line.append(invertError.get() ? (snap.boxLocalY - snap.fishLocalY) : (snap.fishLocalY - snap.boxLocalY), 5);
+            }
+            line.tab().append(errWorld(snap), 5).tab();
+        } else {
+            line.tab().tab().tab().tab().tab().tab();
+        }
+        line.append(sneaking).tab().append(overlay);
+        writeLine(line.toString());
+    }
+
+    private static LineBuilder appendOpt(LineBuilder line, Double v) {
+        return v == null ? line : line.append(v, 5);
     }
 
     private double errWorld(Snapshot s) {
@@ -458,14 +539,21 @@ public class MinigameObserver extends Module {
         return e;
     }
 
-    private String fmt(double v) { return String.format(Locale.ROOT, "%.5f", v); }
-    private String fmtD(Double v) { return v == null ? "" : fmt(v); }
-    private String idStr(Integer i) { return i == null ? "" : Integer.toString(i); }
     private String clean(String s) { return s == null ? "" : s.replace('\t',' ').replace('\n',' '); }
 
     private void closeWriter() {
-        if (writer != null) try { writer.flush(); writer.close(); } catch (IOException ignored) {}
+        BinaryTraceWriter tw = trace;
+        trace = null;
+        if (tw != null) {
+            tw.close();
+            if (chatNotes.get()) info("Trace: %d bytes.", tw.bytesWritten());
+        }
+
+        AsyncLogSink w = writer;
         writer = null;
+        if (w == null) return;
+        w.close();
+        if (w.dropped() > 0 && chatNotes.get()) info("Log queue overflowed: %d lines dropped.", w.dropped());
     }
 
     private static String idsToString(List<Track> list) {
@@ -1,6 +1,7 @@
 package com.zoltam.autofish.modules; // <- match your package
 
 import com.zoltam.autofish.AddonTemplate;
+import com.zoltam.autofish.util.Accessor;
 import meteordevelopment.meteorclient.events.world.TickEvent;
 import meteordevelopment.meteorclient.events.packets.PacketEvent;
 import meteordevelopment.meteorclient.settings.BoolSetting;
@@ -14,7 +15,6 @@ import net.minecraft.entity.Entity;
 import net.minecraft.entity.decoration.DisplayEntity;
 import net.minecraft.text.Text;
 
-import java.lang.reflect.Method;
 import java.util.*;
 
 public class MinigameWatcher extends Module {
@@ -229,15 +229,15 @@ public class MinigameWatcher extends Module {
             // 1) OverlayMessageS2CPacket (1.20.2+)
             if (name.equals("OverlayMessageS2CPacket")) {
                 // method names vary: content() / getContent()
-                Text content = (Text) invokeAny(packet, new String[]{"content","getContent"});
+                Text content = (Text) OVERLAY_CONTENT.get(packet);
                 return content != null ? content.getString() : null;
             }
 
             // 2) GameMessageS2CPacket with overlay=true (older)
             if (name.equals("GameMessageS2CPacket")) {
-                Boolean overlay = (Boolean) invokeAny(packet, new String[]{"isOverlay","overlay"});
+                Boolean overlay = (Boolean) IS_OVERLAY.get(packet);
                 if (overlay != null && overlay) {
-                    Text content = (Text) invokeAny(packet, new String[]{"content","getContent","getMessage","message"});
+                    Text content = (Text) CHAT_CONTENT.get(packet);
                     return content != null ? content.getString() : null;
                 }
                 return null; // it was a normal chat message
@@ -245,7 +245,7 @@ public class MinigameWatcher extends Module {
 
             // 3) TitleS2CPacket (sometimes used by plugins) – treat as overlay-ish
             if (name.equals("TitleS2CPacket")) {
-                Text content = (Text) invokeAny(packet, new String[]{"text","getText","content","getContent","title"});
+                Text content = (Text) TITLE.get(packet);
                 return content != null ? content.getString() : null;
             }
         } catch (Throwable ignored) {}
@@ -253,16 +253,10 @@ public class MinigameWatcher extends Module {
         return null;
     }
 
-    private Object invokeAny(Object target, String[] methodNames) {
-        for (String mName : methodNames) {
-            try {
-                Method m = target.getClass().getMethod(mName);
-                m.setAccessible(true);
-                return m.invoke(target);
-            } catch (Throwable ignored) {}
-        }
-        return null;
-    }
+    private static final Accessor OVERLAY_CONTENT = Accessor.of("content", "getContent");
+    private static final Accessor IS_OVERLAY      = Accessor.of("isOverlay", "overlay");
+    private static final Accessor CHAT_CONTENT    = Accessor.of("content", "getContent", "getMessage", "message");
+    private static final Accessor TITLE           = Accessor.of("text", "getText", "content", "getContent", "title");
 
     // --- helpers ---
     private void classifyIfClear() {
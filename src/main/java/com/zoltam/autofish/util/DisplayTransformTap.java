@@ -0,0 +1,31 @@
+package com.zoltam.autofish.util;
+
+import net.minecraft.entity.decoration.DisplayEntity;
+
+/**
+ * Hands display translation updates from DisplayEntityMixin to the one module listening,
+ * on the client thread, as each tracker update is applied.
+ */
+public final class DisplayTransformTap {
+    @FunctionalInterface
+    public interface Listener {
+        void onTranslation(DisplayEntity display, float localY, int interpolationTicks);
+    }
+
+    private static volatile Listener listener;
+    private DisplayTransformTap() {}
+
+    public static void listen(Listener l) { listener = l; }
+
+    /** Stops {@code l}, unless another listener has replaced it since. */
+    public static void stop(Listener l) {
+        if (listener == l) listener = null;
+    }
+
+    public static boolean isListening() { return listener != null; }
+
+    public static void publish(DisplayEntity display, float localY, int interpolationTicks) {
+        Listener l = listener;
+        if (l != null) l.onTranslation(display, localY, interpolationTicks);
+    }
+}
@@ -0,0 +1,21 @@
+package com.zoltam.autofish.util;
+
+import meteordevelopment.meteorclient.MeteorClient;
+import meteordevelopment.meteorclient.events.world.TickEvent;
+import meteordevelopment.orbit.EventHandler;
+
+/**
+ * The addon's shared {@link TimerWheel}, one slot per game tick, advanced at the end of every client
+ * tick (menus included, so reconnect timers keep running). Callbacks run on the client thread.
+ * Name timers {@code "<module>: <what>"}; the {@code .timers} command lists the pending ones.
+ */
+public final class Timers {
+    public static final TimerWheel WHEEL = new TimerWheel(System::currentTimeMillis, 50, 512);
+
+    private Timers() {}
+
+    public static void init() { MeteorClient.EVENT_BUS.subscribe(Timers.class); }
+
+    @EventHandler
+    private static void onTick(TickEvent.Post event) { WHEEL.advance(); }
+}